@@ -155,6 +155,14 @@ public interface SiddhiAppRuntime {
 
     byte[] snapshot();
 
+    /**
+     * Time the processing of the Siddhi App was paused to take the last snapshot, when persisting or taking a
+     * snapshot. With @app:CopiedSnapshot this covers copying the states, and not their serialization.
+     *
+     * @return pause time in milliseconds
+     */
+    long getLastSnapshotPauseTime();
+
     void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException;
 
     void restoreRevision(String revision) throws CannotRestoreSiddhiAppStateException;
@@ -58,9 +58,13 @@ import io.siddhi.core.util.StringUtil;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.parser.OnDemandQueryParser;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
 import io.siddhi.core.util.snapshot.PersistenceReference;
+import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
+import io.siddhi.core.util.statistics.EventBufferHolder;
+import io.siddhi.core.util.statistics.GaugeTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.metrics.Level;
@@ -91,6 +95,8 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -129,7 +135,10 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
     private Map<String, SiddhiAppRuntime> siddhiAppRuntimeMap;
     private MemoryUsageTracker memoryUsageTracker;
     private BufferedEventsTracker bufferedEventsTracker;
+    private GaugeTracker gaugeTracker;
     private LatencyTracker onDemandQueryLatencyTracker;
+    private LatencyTracker snapshotPauseLatencyTracker;
+    private volatile long lastSnapshotPauseTime;
     private SiddhiDebugger siddhiDebugger;
     private boolean running = false;
     private boolean runningWithoutSources = false;
@@ -172,8 +181,11 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         if (siddhiAppContext.getStatisticsManager() != null) {
             monitorQueryMemoryUsage();
             monitorBufferedEvents();
+            monitorPartitions();
             onDemandQueryLatencyTracker = QueryParserHelper.createLatencyTracker(siddhiAppContext, "query",
                     SiddhiConstants.METRIC_INFIX_ON_DEMAND_QUERIES, null);
+            snapshotPauseLatencyTracker = QueryParserHelper.createLatencyTracker(siddhiAppContext, "pause",
+                    SiddhiConstants.METRIC_INFIX_SNAPSHOTS, null);
         }
 
         for (Map.Entry<String, List<Sink>> sinkEntries : sinkMap.entrySet()) {
@@ -632,6 +644,9 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
                     Thread.sleep(1000);
                 } catch (InterruptedException e) {
 
+                }
+                if (siddhiAppContext.getTimingWheel() != null) {
+                    siddhiAppContext.getTimingWheel().shutdown();
                 }
                 siddhiAppContext.getScheduledExecutorService().shutdownNow();
                 siddhiAppContext.getExecutorService().shutdownNow();
@@ -675,32 +690,75 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
     }
 
     public PersistenceReference persist() {
+        long pauseStartTime = System.currentTimeMillis();
+        if (snapshotPauseLatencyTracker != null) {
+            snapshotPauseLatencyTracker.markIn();
+        }
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().fullSnapshot(),
-                        siddhiAppContext);
+            SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+            if (siddhiAppContext.isCopiedSnapshot()) {
+                // only capture the snapshots here, they are serialized after the event sources are resumed
+                if (siddhiAppContext.getSiddhiContext().getPersistenceStore() instanceof StreamingPersistenceStore) {
+                    return PersistenceHelper.persist(snapshotService.captureFullSnapshotWriter(), siddhiAppContext);
+                } else if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
+                    return PersistenceHelper.persist(snapshotService.captureFullSnapshot(), siddhiAppContext);
+                } else {
+                    return PersistenceHelper.persistIncremental(snapshotService.captureIncrementalSnapshot(),
+                            siddhiAppContext);
+                }
+            } else if (siddhiAppContext.getSiddhiContext().getPersistenceStore() instanceof StreamingPersistenceStore) {
+                // serialize straight to the store while paused, the revision is committed after resuming
+                return PersistenceHelper.persistPrepared(snapshotService::fullSnapshot, siddhiAppContext);
+            } else if (siddhiAppContext.getSiddhiContext().getPersistenceStore() != null) {
+                return PersistenceHelper.persist(snapshotService.fullSnapshot(), siddhiAppContext);
             } else {
-                return PersistenceHelper.persist(siddhiAppContext.getSnapshotService().incrementalSnapshot(),
-                        siddhiAppContext);
+                return PersistenceHelper.persist(snapshotService.incrementalSnapshot(), siddhiAppContext);
             }
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            recordSnapshotPause(pauseStartTime);
         }
     }
 
     public byte[] snapshot() {
+        Supplier<byte[]> snapshotSupplier = null;
+        long pauseStartTime = System.currentTimeMillis();
+        if (snapshotPauseLatencyTracker != null) {
+            snapshotPauseLatencyTracker.markIn();
+        }
         try {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            return siddhiAppContext.getSnapshotService().fullSnapshot();
+            if (siddhiAppContext.isCopiedSnapshot()) {
+                snapshotSupplier = siddhiAppContext.getSnapshotService().captureFullSnapshot();
+            } else {
+                return siddhiAppContext.getSnapshotService().fullSnapshot();
+            }
         } finally {
             // at the end, resume the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::resume));
+            recordSnapshotPause(pauseStartTime);
+        }
+        return snapshotSupplier.get();
+    }
+
+    public long getLastSnapshotPauseTime() {
+        return lastSnapshotPauseTime;
+    }
+
+    private void recordSnapshotPause(long pauseStartTime) {
+        if (snapshotPauseLatencyTracker != null) {
+            snapshotPauseLatencyTracker.markOut();
+        }
+        lastSnapshotPauseTime = System.currentTimeMillis() - pauseStartTime;
+        if (log.isDebugEnabled()) {
+            log.debug("Siddhi App '" + siddhiAppContext.getName() + "' paused for " + lastSnapshotPauseTime +
+                    " msec to take snapshot");
         }
     }
 
@@ -799,6 +857,34 @@ public class SiddhiAppRuntimeImpl implements SiddhiAppRuntime {
         }
     }
 
+    private void monitorPartitions() {
+        gaugeTracker = siddhiAppContext
+                .getSiddhiContext()
+                .getStatisticsConfiguration()
+                .getFactory()
+                .createGaugeTracker(siddhiAppContext.getStatisticsManager());
+        for (PartitionRuntime partitionRuntime : partitionMap.values()) {
+            registerForPartitionMetrics((PartitionRuntimeImpl) partitionRuntime);
+        }
+    }
+
+    private void registerForPartitionMetrics(PartitionRuntimeImpl partitionRuntime) {
+        for (Map.Entry<String, LongSupplier> entry : partitionRuntime.getPartitionMetrics().entrySet()) {
+            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI_APPS +
+                    SiddhiConstants.METRIC_DELIMITER + getName() + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                    SiddhiConstants.METRIC_INFIX_PARTITIONS + SiddhiConstants.METRIC_DELIMITER +
+                    partitionRuntime.getPartitionName() + SiddhiConstants.METRIC_DELIMITER + entry.getKey();
+            for (String regex : siddhiAppContext.getIncludedMetrics()) {
+                if (metricName.matches(regex)) {
+                    gaugeTracker.registerGauge(metricName, entry.getValue());
+                    break;
+                }
+            }
+        }
+    }
+
     private void registerForBufferedEvents(Map.Entry<String, StreamJunction> entry) {
         if (entry.getValue().containsBufferedEvents()) {
             String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMetricPrefix() +
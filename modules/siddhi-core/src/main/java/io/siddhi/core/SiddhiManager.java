@@ -17,9 +17,11 @@
  */
 package io.siddhi.core;
 
+import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.config.SiddhiContext;
 import io.siddhi.core.config.StatisticsConfiguration;
 import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.stream.input.source.SourceHandlerManager;
 import io.siddhi.core.stream.output.sink.SinkHandlerManager;
 import io.siddhi.core.table.record.RecordTableHandlerManager;
@@ -30,6 +32,8 @@ import io.siddhi.core.util.parser.SiddhiAppParser;
 import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.StateSerializer;
 import io.siddhi.query.api.SiddhiApp;
 import io.siddhi.query.api.definition.StreamDefinition;
 import io.siddhi.query.api.definition.TableDefinition;
@@ -168,6 +172,16 @@ public class SiddhiManager {
         this.siddhiContext.setPersistenceStore(persistenceStore);
     }
 
+    /**
+     * Method to set the serializer used to convert the snapshots of the Siddhi Apps to bytes and vice versa.
+     * {@link BinaryStateSerializer} is the default state serializer implementation.
+     *
+     * @param stateSerializer State Serializer implementation to be used.
+     */
+    public void setStateSerializer(StateSerializer stateSerializer) {
+        this.siddhiContext.setStateSerializer(stateSerializer);
+    }
+
     /**
      * Method to set sink handler manager that would create sink handlers for each sink
      *
@@ -204,6 +218,27 @@ public class SiddhiManager {
         this.siddhiContext.setConfigManager(configManager);
     }
 
+    /**
+     * Method to set the default wait strategy used by the consumers of async streams, when the wait strategy is not
+     * defined in the @Async annotation of the stream.
+     *
+     * @param waitStrategyType Wait strategy to be used by default.
+     */
+    public void setAsyncWaitStrategy(StreamJunction.WaitStrategyType waitStrategyType) {
+        this.siddhiContext.setDefaultAsyncWaitStrategy(waitStrategyType);
+    }
+
+    /**
+     * Method to set the default producer type of async streams, when the producer type is not defined in the @Async
+     * annotation of the stream. {@link ProducerType#SINGLE} should only be used when each async stream is published
+     * by a single thread.
+     *
+     * @param producerType Producer type to be used by default.
+     */
+    public void setAsyncProducerType(ProducerType producerType) {
+        this.siddhiContext.setDefaultAsyncProducerType(producerType);
+    }
+
     /**
      * Method used to register extensions to the Siddhi Manager. But extension classes should be present in classpath.
      *
@@ -25,6 +25,7 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.Scheduler;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.TimingWheel;
 import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.snapshot.state.EmptyStateHolder;
@@ -58,10 +59,19 @@ public class SiddhiAppContext {
     private String name;
     private boolean playback;
     private boolean enforceOrder;
+    private int eventPoolSize = 0;
+    private boolean compileExpressions = false;
+    private boolean copiedSnapshot = false;
+    private int snapshotWorkers = 1;
+    private int snapshotCompactionIncrements = 0;
+    private long snapshotCompactionSize = Long.MAX_VALUE;
     private Level rootMetricsLevel;
     private StatisticsManager statisticsManager = null;
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
+    private TimingWheel timingWheel;
+    private long timerCoalescingTick = 0;
+    private int keyCacheSize = SiddhiConstants.DEFAULT_KEY_CACHE_SIZE;
     private List<ExternalReferencedHolder> externalReferencedHolders;
     private List<Trigger> triggerHolders;
     private SnapshotService snapshotService;
@@ -155,6 +165,60 @@ public class SiddhiAppContext {
         this.enforceOrder = enforceOrder;
     }
 
+    /**
+     * @return maximum number of recycled stream events pooled per thread for each query, 0 if pooling is disabled
+     */
+    public int getEventPoolSize() {
+        return eventPoolSize;
+    }
+
+    public void setEventPoolSize(int eventPoolSize) {
+        this.eventPoolSize = eventPoolSize;
+    }
+
+    /**
+     * @return whether the filter and select expressions of the queries are compiled into generated classes
+     */
+    public boolean isCompileExpressions() {
+        return compileExpressions;
+    }
+
+    public void setCompileExpressions(boolean compileExpressions) {
+        this.compileExpressions = compileExpressions;
+    }
+
+    public boolean isCopiedSnapshot() {
+        return copiedSnapshot;
+    }
+
+    public void setCopiedSnapshot(boolean copiedSnapshot) {
+        this.copiedSnapshot = copiedSnapshot;
+    }
+
+    public int getSnapshotWorkers() {
+        return snapshotWorkers;
+    }
+
+    public void setSnapshotWorkers(int snapshotWorkers) {
+        this.snapshotWorkers = snapshotWorkers;
+    }
+
+    public int getSnapshotCompactionIncrements() {
+        return snapshotCompactionIncrements;
+    }
+
+    public void setSnapshotCompactionIncrements(int snapshotCompactionIncrements) {
+        this.snapshotCompactionIncrements = snapshotCompactionIncrements;
+    }
+
+    public long getSnapshotCompactionSize() {
+        return snapshotCompactionSize;
+    }
+
+    public void setSnapshotCompactionSize(long snapshotCompactionSize) {
+        this.snapshotCompactionSize = snapshotCompactionSize;
+    }
+
     public Level getRootMetricsLevel() {
         return rootMetricsLevel;
     }
@@ -179,6 +243,30 @@ public class SiddhiAppContext {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    public TimingWheel getTimingWheel() {
+        return timingWheel;
+    }
+
+    public void setTimingWheel(TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+    }
+
+    public long getTimerCoalescingTick() {
+        return timerCoalescingTick;
+    }
+
+    public void setTimerCoalescingTick(long timerCoalescingTick) {
+        this.timerCoalescingTick = timerCoalescingTick;
+    }
+
+    public int getKeyCacheSize() {
+        return keyCacheSize;
+    }
+
+    public void setKeyCacheSize(int keyCacheSize) {
+        this.keyCacheSize = keyCacheSize;
+    }
+
     public void addEternalReferencedHolder(ExternalReferencedHolder externalReferencedHolder) {
         externalReferencedHolders.add(externalReferencedHolder);
     }
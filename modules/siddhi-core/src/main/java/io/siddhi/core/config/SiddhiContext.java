@@ -19,8 +19,10 @@
 package io.siddhi.core.config;
 
 import com.lmax.disruptor.ExceptionHandler;
+import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.exception.PersistenceStoreException;
+import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.stream.input.source.SourceHandlerManager;
 import io.siddhi.core.stream.output.sink.SinkHandlerManager;
 import io.siddhi.core.table.record.RecordTableHandlerManager;
@@ -30,6 +32,8 @@ import io.siddhi.core.util.config.InMemoryConfigManager;
 import io.siddhi.core.util.extension.holder.AbstractExtensionHolder;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.StateSerializer;
 import io.siddhi.core.util.statistics.metrics.SiddhiMetricsFactory;
 import org.apache.log4j.Logger;
 
@@ -49,6 +53,7 @@ public class SiddhiContext {
     private Map<String, Class> siddhiExtensions = new HashMap<>();
     private PersistenceStore persistenceStore = null;
     private IncrementalPersistenceStore incrementalPersistenceStore = null;
+    private StateSerializer stateSerializer = new BinaryStateSerializer();
     private ConcurrentHashMap<String, DataSource> siddhiDataSources;
     private StatisticsConfiguration statisticsConfiguration;
     private ConcurrentHashMap<Class, AbstractExtensionHolder> extensionHolderMap
@@ -58,6 +63,8 @@ public class SiddhiContext {
     private SourceHandlerManager sourceHandlerManager = null;
     private RecordTableHandlerManager recordTableHandlerManager = null;
     private Map<String, Object> attributes;
+    private StreamJunction.WaitStrategyType defaultAsyncWaitStrategy = StreamJunction.WaitStrategyType.BLOCKING;
+    private ProducerType defaultAsyncProducerType = ProducerType.MULTI;
 
     public SiddhiContext() {
         SiddhiExtensionLoader.loadSiddhiExtensions(siddhiExtensions, extensionHolderMap);
@@ -113,6 +120,14 @@ public class SiddhiContext {
         this.incrementalPersistenceStore = incrementalPersistenceStore;
     }
 
+    public synchronized StateSerializer getStateSerializer() {
+        return stateSerializer;
+    }
+
+    public synchronized void setStateSerializer(StateSerializer stateSerializer) {
+        this.stateSerializer = stateSerializer;
+    }
+
     public ConfigManager getConfigManager() {
         return configManager;
     }
@@ -187,4 +202,20 @@ public class SiddhiContext {
     public void setAttribute(String key, Object value) {
         this.attributes.put(key, value);
     }
+
+    public StreamJunction.WaitStrategyType getDefaultAsyncWaitStrategy() {
+        return defaultAsyncWaitStrategy;
+    }
+
+    public void setDefaultAsyncWaitStrategy(StreamJunction.WaitStrategyType defaultAsyncWaitStrategy) {
+        this.defaultAsyncWaitStrategy = defaultAsyncWaitStrategy;
+    }
+
+    public ProducerType getDefaultAsyncProducerType() {
+        return defaultAsyncProducerType;
+    }
+
+    public void setDefaultAsyncProducerType(ProducerType defaultAsyncProducerType) {
+        this.defaultAsyncProducerType = defaultAsyncProducerType;
+    }
 }
@@ -18,6 +18,7 @@
 
 package io.siddhi.core.config;
 
+import io.siddhi.core.executor.compiled.CompiledExpressionExecutor;
 import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.snapshot.SnapshotService;
@@ -32,6 +33,8 @@ import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.query.api.SiddhiApp;
 import io.siddhi.query.api.execution.query.output.stream.OutputStream;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -47,6 +50,7 @@ public class SiddhiQueryContext {
     private LatencyTracker latencyTracker;
     private IdGenerator idGenerator;
     private boolean stateful = false;
+    private List<CompiledExpressionExecutor> compiledExpressionExecutors = new ArrayList<>();
 
     public SiddhiQueryContext(SiddhiAppContext siddhiAppContext, String queryName) {
         this(siddhiAppContext, queryName, SiddhiConstants.PARTITION_ID_DEFAULT);
@@ -148,4 +152,12 @@ public class SiddhiQueryContext {
     public boolean isStateful() {
         return stateful;
     }
+
+    public void addCompiledExpressionExecutor(CompiledExpressionExecutor compiledExpressionExecutor) {
+        compiledExpressionExecutors.add(compiledExpressionExecutor);
+    }
+
+    public List<CompiledExpressionExecutor> getCompiledExpressionExecutors() {
+        return compiledExpressionExecutors;
+    }
 }
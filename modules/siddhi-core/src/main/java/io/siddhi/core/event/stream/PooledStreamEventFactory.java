@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.event.stream;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Event Factory that reuses the StreamEvents recycled to it, instead of creating new ones. Recycled events are held in
+ * a free list per thread, hence an event is reused by the thread that recycled it without any synchronization.
+ */
+public class PooledStreamEventFactory extends StreamEventFactory {
+
+    private static final long serialVersionUID = 4610346785420118652L;
+    private final int maxPoolSize;
+    private final LongAdder createdEventCount = new LongAdder();
+    private final LongAdder reusedEventCount = new LongAdder();
+    private transient ThreadLocal<EventPool> eventPool;
+
+    /**
+     * Initialization of the factory using MetaStreamEvent
+     *
+     * @param metaStreamEvent meta stream event
+     * @param maxPoolSize     maximum number of recycled events held per thread
+     */
+    public PooledStreamEventFactory(MetaStreamEvent metaStreamEvent, int maxPoolSize) {
+        super(metaStreamEvent);
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Returns a recycled event of the current thread if available, or else constructs a new event.
+     *
+     * @return StreamEvent
+     */
+    @Override
+    public StreamEvent newInstance() {
+        EventPool pool = getEventPool();
+        StreamEvent streamEvent = pool.head;
+        if (streamEvent == null) {
+            createdEventCount.increment();
+            return super.newInstance();
+        }
+        pool.head = streamEvent.getNext();
+        pool.size--;
+        streamEvent.setNext(null);
+        reusedEventCount.increment();
+        return streamEvent;
+    }
+
+    /**
+     * Recycle an event that is no longer referenced, such that it can be reused by the current thread.
+     *
+     * @param streamEvent event to be recycled, its next event is not recycled
+     */
+    public void recycle(StreamEvent streamEvent) {
+        EventPool pool = getEventPool();
+        if (pool.size >= maxPoolSize) {
+            return;
+        }
+        streamEvent.setBeforeWindowData(clear(streamEvent.getBeforeWindowData(), beforeWindowDataSize));
+        streamEvent.setOnAfterWindowData(clear(streamEvent.getOnAfterWindowData(), onAfterWindowDataSize));
+        streamEvent.setOutputData(clear(streamEvent.getOutputData(), outputDataSize));
+        streamEvent.setTimestamp(-1);
+        streamEvent.setType(StreamEvent.Type.CURRENT);
+        streamEvent.setNext(pool.head);
+        pool.head = streamEvent;
+        pool.size++;
+    }
+
+    /**
+     * @return number of events constructed as there were no recycled events to reuse
+     */
+    public long getCreatedEventCount() {
+        return createdEventCount.sum();
+    }
+
+    /**
+     * @return number of recycled events reused
+     */
+    public long getReusedEventCount() {
+        return reusedEventCount.sum();
+    }
+
+    private static Object[] clear(Object[] data, int size) {
+        if (size == 0) {
+            return null;
+        }
+        if (data == null || data.length != size) {
+            return new Object[size];
+        }
+        Arrays.fill(data, null);
+        return data;
+    }
+
+    private EventPool getEventPool() {
+        if (eventPool == null) {
+            eventPool = ThreadLocal.withInitial(EventPool::new);
+        }
+        return eventPool.get();
+    }
+
+    /**
+     * Free list of recycled events, linked through the next reference of the events.
+     */
+    private static class EventPool {
+        private StreamEvent head;
+        private int size;
+    }
+}
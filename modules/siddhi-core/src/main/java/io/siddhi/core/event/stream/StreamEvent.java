@@ -43,6 +43,7 @@ public class StreamEvent implements ComplexEvent {
     private Object[] beforeWindowData;          //Attributes before window execution
     private Object[] onAfterWindowData;         //Attributes on and after window execution
     private StreamEvent next;
+    private transient boolean sharedData;       //Whether the data arrays are shared with a snapshot capture
 
     public StreamEvent(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize) {
         if (beforeWindowDataSize > 0) {
@@ -65,6 +66,9 @@ public class StreamEvent implements ComplexEvent {
     }
 
     public void setBeforeWindowData(Object[] beforeWindowData) {
+        if (sharedData) {
+            unshareData();
+        }
         this.beforeWindowData = beforeWindowData;
     }
 
@@ -73,6 +77,9 @@ public class StreamEvent implements ComplexEvent {
     }
 
     public void setOnAfterWindowData(Object[] onAfterWindowData) {
+        if (sharedData) {
+            unshareData();
+        }
         this.onAfterWindowData = onAfterWindowData;
     }
 
@@ -89,6 +96,9 @@ public class StreamEvent implements ComplexEvent {
     }
 
     public void setOutputData(Object[] outputData) {
+        if (sharedData) {
+            unshareData();
+        }
         this.outputData = outputData;
     }
 
@@ -144,6 +154,9 @@ public class StreamEvent implements ComplexEvent {
 
     @Override
     public void setAttribute(Object object, int[] position) {
+        if (sharedData) {
+            unshareData();
+        }
         switch (position[STREAM_ATTRIBUTE_TYPE_INDEX]) {
             case BEFORE_WINDOW_DATA_INDEX:
                 beforeWindowData[position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]] = object;
@@ -161,17 +174,47 @@ public class StreamEvent implements ComplexEvent {
     }
 
     public void setOutputData(Object object, int index) {
+        if (sharedData) {
+            unshareData();
+        }
         this.outputData[index] = object;
     }
 
     public void setOnAfterWindowData(Object object, int index) {
+        if (sharedData) {
+            unshareData();
+        }
         this.onAfterWindowData[index] = object;
     }
 
     public void setBeforeWindowData(Object object, int index) {
+        if (sharedData) {
+            unshareData();
+        }
         this.beforeWindowData[index] = object;
     }
 
+    /**
+     * Marks the data arrays of the event as shared with a snapshot capture, such that they are copied before the
+     * event is modified through its setters.
+     */
+    public void shareData() {
+        sharedData = true;
+    }
+
+    private void unshareData() {
+        if (beforeWindowData != null) {
+            beforeWindowData = beforeWindowData.clone();
+        }
+        if (onAfterWindowData != null) {
+            onAfterWindowData = onAfterWindowData.clone();
+        }
+        if (outputData != null) {
+            outputData = outputData.clone();
+        }
+        sharedData = false;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
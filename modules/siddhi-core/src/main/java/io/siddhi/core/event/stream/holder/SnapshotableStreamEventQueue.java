@@ -21,6 +21,7 @@ import io.siddhi.core.event.stream.Operation;
 import io.siddhi.core.event.stream.Operation.Operator;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 
@@ -274,6 +275,9 @@ public class SnapshotableStreamEventQueue implements Iterator<StreamEvent>, Seri
     public Snapshot getSnapshot() {
         if (isFullSnapshot()) {
             forceFullSnapshot = false;
+            if (SnapshotRequest.isRequestForCapture()) {
+                return new Snapshot(CapturedStreamEvents.captureChain(this.getFirst()), false);
+            }
             return new Snapshot(this.getFirst(), false);
         } else {
             Snapshot snapshot = new Snapshot(operationChangeLog, true);
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.executor;
+
+import io.siddhi.core.event.ComplexEvent;
+
+/**
+ * Executor of a double typed expression that can also produce its result as a primitive double, such that the
+ * intermediate results of nested arithmetic are not boxed.
+ */
+public interface DoubleValueExpressionExecutor extends ExpressionExecutor {
+
+    /**
+     * Execute the expression as a primitive double.
+     *
+     * @param event the event the expression is executed on
+     * @return the result of the expression, or {@link Double#NaN} when any of its operands is null
+     */
+    double executeDouble(ComplexEvent event);
+
+    /**
+     * Execute the given numeric expression as a primitive double, without boxing the results of
+     * {@link DoubleValueExpressionExecutor}s.
+     *
+     * @param expressionExecutor numeric expression executor
+     * @param event              the event the expression is executed on
+     * @return the result of the expression, or {@link Double#NaN} when the result is null
+     */
+    static double executeDouble(ExpressionExecutor expressionExecutor, ComplexEvent event) {
+        if (expressionExecutor instanceof DoubleValueExpressionExecutor) {
+            return ((DoubleValueExpressionExecutor) expressionExecutor).executeDouble(event);
+        }
+        Object value = expressionExecutor.execute(event);
+        if (value == null) {
+            return Double.NaN;
+        }
+        return ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.query.api.definition.Attribute;
+
+/**
+ * Executor of an expression that is evaluated by its interpreted executors until it gets compiled by the
+ * {@link ExpressionCompiler}, once the positions of its attributes are known.
+ */
+public class CompiledExpressionExecutor implements ExpressionExecutor {
+
+    private final ExpressionExecutor interpretedExecutor;
+    private ExpressionExecutor expressionExecutor;
+
+    public CompiledExpressionExecutor(ExpressionExecutor interpretedExecutor) {
+        this.interpretedExecutor = interpretedExecutor;
+        this.expressionExecutor = interpretedExecutor;
+    }
+
+    @Override
+    public Object execute(ComplexEvent event) {
+        return expressionExecutor.execute(event);
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return interpretedExecutor.getReturnType();
+    }
+
+    public ExpressionExecutor getInterpretedExecutor() {
+        return interpretedExecutor;
+    }
+
+    public boolean isCompiled() {
+        return expressionExecutor != interpretedExecutor;
+    }
+
+    void setGeneratedExecutor(GeneratedExpressionExecutor generatedExecutor) {
+        this.expressionExecutor = generatedExecutor;
+    }
+}
@@ -0,0 +1,714 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.executor.ConstantExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.condition.AndConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.BoolConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.IsNullConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.NotConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.OrConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.equal.EqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthan.GreaterThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.greaterthanequal.GreaterThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthan.LessThanCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.lessthanequal.LessThanEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.notequal.NotEqualCompareConditionExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorDouble;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorFloat;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorInt;
+import io.siddhi.core.executor.math.add.AddExpressionExecutorLong;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorDouble;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorFloat;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorInt;
+import io.siddhi.core.executor.math.divide.DivideExpressionExecutorLong;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorDouble;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorFloat;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorInt;
+import io.siddhi.core.executor.math.mod.ModExpressionExecutorLong;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorDouble;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorFloat;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorInt;
+import io.siddhi.core.executor.math.multiply.MultiplyExpressionExecutorLong;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorDouble;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorFloat;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorInt;
+import io.siddhi.core.executor.math.subtract.SubtractExpressionExecutorLong;
+import io.siddhi.query.api.definition.Attribute;
+import org.apache.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static io.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static io.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * Compiles the conditions and arithmetic of interpreted expression executor trees into generated classes, using the
+ * Java compiler of the running JDK. Sub expressions that cannot be compiled, such as function calls, are evaluated
+ * by their interpreted executors from the generated code, and the whole expression stays interpreted when the Java
+ * compiler is not available or the compilation fails.
+ */
+public class ExpressionCompiler {
+
+    private static final Logger log = Logger.getLogger(ExpressionCompiler.class);
+    private static final String GENERATED_PACKAGE = "io.siddhi.core.executor.compiled.generated";
+    private static final AtomicLong generatedClassCount = new AtomicLong();
+    private static final Map<Class<? extends ArithmeticExpressionExecutor>, String> ARITHMETIC_OPERATORS =
+            new HashMap<>();
+
+    static {
+        ARITHMETIC_OPERATORS.put(AddExpressionExecutorInt.class, "+");
+        ARITHMETIC_OPERATORS.put(AddExpressionExecutorLong.class, "+");
+        ARITHMETIC_OPERATORS.put(AddExpressionExecutorFloat.class, "+");
+        ARITHMETIC_OPERATORS.put(AddExpressionExecutorDouble.class, "+");
+        ARITHMETIC_OPERATORS.put(SubtractExpressionExecutorInt.class, "-");
+        ARITHMETIC_OPERATORS.put(SubtractExpressionExecutorLong.class, "-");
+        ARITHMETIC_OPERATORS.put(SubtractExpressionExecutorFloat.class, "-");
+        ARITHMETIC_OPERATORS.put(SubtractExpressionExecutorDouble.class, "-");
+        ARITHMETIC_OPERATORS.put(MultiplyExpressionExecutorInt.class, "*");
+        ARITHMETIC_OPERATORS.put(MultiplyExpressionExecutorLong.class, "*");
+        ARITHMETIC_OPERATORS.put(MultiplyExpressionExecutorFloat.class, "*");
+        ARITHMETIC_OPERATORS.put(MultiplyExpressionExecutorDouble.class, "*");
+        ARITHMETIC_OPERATORS.put(DivideExpressionExecutorInt.class, "/");
+        ARITHMETIC_OPERATORS.put(DivideExpressionExecutorLong.class, "/");
+        ARITHMETIC_OPERATORS.put(DivideExpressionExecutorFloat.class, "/");
+        ARITHMETIC_OPERATORS.put(DivideExpressionExecutorDouble.class, "/");
+        ARITHMETIC_OPERATORS.put(ModExpressionExecutorInt.class, "%");
+        ARITHMETIC_OPERATORS.put(ModExpressionExecutorLong.class, "%");
+        ARITHMETIC_OPERATORS.put(ModExpressionExecutorFloat.class, "%");
+        ARITHMETIC_OPERATORS.put(ModExpressionExecutorDouble.class, "%");
+    }
+
+    private ExpressionCompiler() {
+
+    }
+
+    /**
+     * Wraps the expression executor such that it gets compiled with the other expressions of the query, when
+     * expression compilation is enabled for the Siddhi app and the root of the expression can be compiled.
+     *
+     * @param expressionExecutor interpreted expression executor
+     * @param siddhiQueryContext context of the query the expression belongs to
+     * @return the wrapped expression executor, or the given expression executor when it is not compiled
+     */
+    public static ExpressionExecutor compilable(ExpressionExecutor expressionExecutor,
+                                                SiddhiQueryContext siddhiQueryContext) {
+        if (!siddhiQueryContext.getSiddhiAppContext().isCompileExpressions() ||
+                !isCompilableOperator(expressionExecutor)) {
+            return expressionExecutor;
+        }
+        CompiledExpressionExecutor compiledExpressionExecutor = new CompiledExpressionExecutor(expressionExecutor);
+        siddhiQueryContext.addCompiledExpressionExecutor(compiledExpressionExecutor);
+        return compiledExpressionExecutor;
+    }
+
+    /**
+     * Compile the expressions of the query that were made compilable, this should only be called once the positions
+     * of all the variables of the query are set.
+     *
+     * @param siddhiQueryContext context of the query
+     */
+    public static void compile(SiddhiQueryContext siddhiQueryContext) {
+        compile(siddhiQueryContext.getCompiledExpressionExecutors(), siddhiQueryContext.getName());
+    }
+
+    /**
+     * Compile the given expressions with a single invocation of the Java compiler.
+     *
+     * @param compiledExpressionExecutors expressions to be compiled
+     * @param queryName                   name of the query the expressions belong to, used for logging
+     */
+    public static void compile(List<CompiledExpressionExecutor> compiledExpressionExecutors, String queryName) {
+        if (compiledExpressionExecutors.isEmpty()) {
+            return;
+        }
+        JavaCompiler javaCompiler = ToolProvider.getSystemJavaCompiler();
+        if (javaCompiler == null) {
+            log.warn("Java compiler is not available in the runtime, hence interpreting the expressions of query '" +
+                    queryName + "'.");
+            return;
+        }
+        List<ExpressionSource> expressionSources = new ArrayList<>();
+        List<JavaFileObject> compilationUnits = new ArrayList<>();
+        try {
+            for (CompiledExpressionExecutor compiledExpressionExecutor : compiledExpressionExecutors) {
+                ExpressionSource expressionSource = new ExpressionSource("GeneratedExpression" +
+                        generatedClassCount.incrementAndGet(), compiledExpressionExecutor.getInterpretedExecutor());
+                expressionSources.add(expressionSource);
+                compilationUnits.add(new SourceFileObject(expressionSource.getClassName(),
+                        expressionSource.getSource()));
+            }
+            Map<String, byte[]> byteCodes = new HashMap<>();
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            boolean compiled;
+            try (JavaFileManager fileManager = new ByteCodeFileManager(
+                    javaCompiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8), byteCodes)) {
+                compiled = javaCompiler.getTask(null, fileManager, diagnostics, getCompilerOptions(), null,
+                        compilationUnits).call();
+            }
+            if (!compiled) {
+                log.warn("Failed to compile the expressions of query '" + queryName + "', hence interpreting " +
+                        "them. " + diagnostics.getDiagnostics());
+                return;
+            }
+            ClassLoader classLoader = new GeneratedClassLoader(ExpressionCompiler.class.getClassLoader(), byteCodes);
+            GeneratedExpressionExecutor[] generatedExecutors =
+                    new GeneratedExpressionExecutor[expressionSources.size()];
+            for (int i = 0; i < generatedExecutors.length; i++) {
+                generatedExecutors[i] = expressionSources.get(i).newInstance(classLoader);
+            }
+            for (int i = 0; i < generatedExecutors.length; i++) {
+                compiledExpressionExecutors.get(i).setGeneratedExecutor(generatedExecutors[i]);
+            }
+        } catch (Throwable t) {
+            log.warn("Failed to compile the expressions of query '" + queryName + "', hence interpreting them. " +
+                    t.getMessage(), t);
+        }
+    }
+
+    private static boolean isCompilableOperator(ExpressionExecutor expressionExecutor) {
+        Class<? extends ExpressionExecutor> executorClass = expressionExecutor.getClass();
+        if (executorClass == AndConditionExpressionExecutor.class ||
+                executorClass == OrConditionExpressionExecutor.class ||
+                executorClass == NotConditionExpressionExecutor.class ||
+                executorClass == BoolConditionExpressionExecutor.class ||
+                executorClass == IsNullConditionExpressionExecutor.class) {
+            return true;
+        } else if (expressionExecutor instanceof CompareConditionExpressionExecutor) {
+            CompareConditionExpressionExecutor compareExecutor =
+                    (CompareConditionExpressionExecutor) expressionExecutor;
+            return isComparable(compareExecutor.getLeftExpressionExecutor().getReturnType(),
+                    compareExecutor.getRightExpressionExecutor().getReturnType(), getCompareOperator(compareExecutor));
+        } else if (ARITHMETIC_OPERATORS.containsKey(executorClass)) {
+            ArithmeticExpressionExecutor arithmeticExecutor = (ArithmeticExpressionExecutor) expressionExecutor;
+            return isNumeric(arithmeticExecutor.getLeftExpressionExecutor().getReturnType()) &&
+                    isNumeric(arithmeticExecutor.getRightExpressionExecutor().getReturnType());
+        }
+        return false;
+    }
+
+    private static String getCompareOperator(CompareConditionExpressionExecutor compareExecutor) {
+        if (compareExecutor instanceof EqualCompareConditionExpressionExecutor) {
+            return "==";
+        } else if (compareExecutor instanceof NotEqualCompareConditionExpressionExecutor) {
+            return "!=";
+        } else if (compareExecutor instanceof GreaterThanCompareConditionExpressionExecutor) {
+            return ">";
+        } else if (compareExecutor instanceof GreaterThanEqualCompareConditionExpressionExecutor) {
+            return ">=";
+        } else if (compareExecutor instanceof LessThanCompareConditionExpressionExecutor) {
+            return "<";
+        } else if (compareExecutor instanceof LessThanEqualCompareConditionExpressionExecutor) {
+            return "<=";
+        }
+        return null;
+    }
+
+    private static boolean isComparable(Attribute.Type leftType, Attribute.Type rightType, String operator) {
+        if (operator == null) {
+            return false;
+        } else if (isNumeric(leftType) && isNumeric(rightType)) {
+            return true;
+        } else if ((leftType == Attribute.Type.BOOL && rightType == Attribute.Type.BOOL) ||
+                (leftType == Attribute.Type.STRING && rightType == Attribute.Type.STRING)) {
+            return operator.equals("==") || operator.equals("!=");
+        }
+        return false;
+    }
+
+    private static boolean isNumeric(Attribute.Type type) {
+        return type == Attribute.Type.INT || type == Attribute.Type.LONG || type == Attribute.Type.FLOAT ||
+                type == Attribute.Type.DOUBLE;
+    }
+
+    private static List<String> getCompilerOptions() {
+        Set<String> classPath = new LinkedHashSet<>();
+        addCodeSource(classPath, ExpressionExecutor.class);
+        addCodeSource(classPath, Attribute.class);
+        String javaClassPath = System.getProperty("java.class.path");
+        if (javaClassPath != null && !javaClassPath.isEmpty()) {
+            classPath.add(javaClassPath);
+        }
+        return Arrays.asList("-classpath", String.join(File.pathSeparator, classPath), "-proc:none", "-g:none",
+                "-nowarn");
+    }
+
+    private static void addCodeSource(Set<String> classPath, Class<?> clazz) {
+        CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null &&
+                "file".equals(codeSource.getLocation().getProtocol())) {
+            try {
+                classPath.add(Paths.get(codeSource.getLocation().toURI()).toString());
+            } catch (Exception e) {
+                log.debug("Cannot resolve the location of " + clazz.getName() + ", " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Source of the class generated for an expression, along with the values it is instantiated with.
+     */
+    private static class ExpressionSource {
+
+        private final String className;
+        private final Attribute.Type returnType;
+        private final List<ExpressionExecutor> executors = new ArrayList<>();
+        private final List<int[]> positions = new ArrayList<>();
+        private final List<Object> constants = new ArrayList<>();
+        private final StringBuilder fields = new StringBuilder();
+        private final StringBuilder constructorBody = new StringBuilder();
+        private final StringBuilder body = new StringBuilder();
+        private final boolean[] streamEventDataUsed = new boolean[3];
+        private final String source;
+        private int valueCount = 0;
+        private int indent = 2;
+
+        ExpressionSource(String className, ExpressionExecutor expressionExecutor) {
+            this.className = className;
+            this.returnType = expressionExecutor.getReturnType();
+            Value result = generate(expressionExecutor);
+            StringBuilder source = new StringBuilder();
+            source.append("package ").append(GENERATED_PACKAGE).append(";\n\n")
+                    .append("public final class ").append(className)
+                    .append(" extends ").append(GeneratedExpressionExecutor.class.getName()).append(" {\n\n")
+                    .append(fields)
+                    .append("\n    public ").append(className).append("(")
+                    .append(ExpressionExecutor.class.getName()).append("[] executors, int[][] positions, ")
+                    .append("Object[] constants, ").append(Attribute.Type.class.getCanonicalName())
+                    .append(" returnType) {\n")
+                    .append("        super(executors, positions, returnType);\n")
+                    .append(constructorBody)
+                    .append("    }\n\n")
+                    .append("    public Object execute(io.siddhi.core.event.ComplexEvent event) {\n");
+            if (streamEventDataUsed[BEFORE_WINDOW_DATA_INDEX] || streamEventDataUsed[ON_AFTER_WINDOW_DATA_INDEX] ||
+                    streamEventDataUsed[OUTPUT_DATA_INDEX]) {
+                source.append("        io.siddhi.core.event.stream.StreamEvent streamEvent = ")
+                        .append("event instanceof io.siddhi.core.event.stream.StreamEvent ? ")
+                        .append("(io.siddhi.core.event.stream.StreamEvent) event : null;\n");
+                appendStreamEventData(source, BEFORE_WINDOW_DATA_INDEX, "getBeforeWindowData");
+                appendStreamEventData(source, ON_AFTER_WINDOW_DATA_INDEX, "getOnAfterWindowData");
+                appendStreamEventData(source, OUTPUT_DATA_INDEX, "getOutputData");
+            }
+            source.append(body)
+                    .append("        return ").append(box(result)).append(";\n")
+                    .append("    }\n")
+                    .append("}\n");
+            this.source = source.toString();
+        }
+
+        String getClassName() {
+            return GENERATED_PACKAGE + "." + className;
+        }
+
+        String getSource() {
+            return source;
+        }
+
+        GeneratedExpressionExecutor newInstance(ClassLoader classLoader) throws ReflectiveOperationException {
+            Class<?> generatedClass = classLoader.loadClass(getClassName());
+            return (GeneratedExpressionExecutor) generatedClass.getConstructor(ExpressionExecutor[].class,
+                    int[][].class, Object[].class, Attribute.Type.class).newInstance(
+                    executors.toArray(new ExpressionExecutor[0]), positions.toArray(new int[0][]),
+                    constants.toArray(), returnType);
+        }
+
+        private void appendStreamEventData(StringBuilder source, int dataIndex, String getter) {
+            if (streamEventDataUsed[dataIndex]) {
+                source.append("        Object[] data").append(dataIndex).append(" = streamEvent != null ? ")
+                        .append("streamEvent.").append(getter).append("() : null;\n");
+            }
+        }
+
+        private Value generate(ExpressionExecutor expressionExecutor) {
+            if (expressionExecutor instanceof VariableExpressionExecutor) {
+                return generateVariable((VariableExpressionExecutor) expressionExecutor);
+            } else if (expressionExecutor instanceof ConstantExpressionExecutor) {
+                return generateConstant((ConstantExpressionExecutor) expressionExecutor);
+            } else if (!isCompilableOperator(expressionExecutor)) {
+                return generateInterpreted(expressionExecutor);
+            }
+            Class<? extends ExpressionExecutor> executorClass = expressionExecutor.getClass();
+            if (executorClass == AndConditionExpressionExecutor.class) {
+                AndConditionExpressionExecutor andExecutor = (AndConditionExpressionExecutor) expressionExecutor;
+                return generateLogical(andExecutor.getLeftConditionExecutor(),
+                        andExecutor.getRightConditionExecutor(), true);
+            } else if (executorClass == OrConditionExpressionExecutor.class) {
+                OrConditionExpressionExecutor orExecutor = (OrConditionExpressionExecutor) expressionExecutor;
+                return generateLogical(orExecutor.getLeftConditionExecutor(),
+                        orExecutor.getRightConditionExecutor(), false);
+            } else if (executorClass == NotConditionExpressionExecutor.class) {
+                Value value = generate(((NotConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+                return declare(Attribute.Type.BOOL, "!" + isTrue(value), "false");
+            } else if (executorClass == BoolConditionExpressionExecutor.class) {
+                Value value = generate(((BoolConditionExpressionExecutor) expressionExecutor).getConditionExecutor());
+                return declare(Attribute.Type.BOOL, isTrue(value), "false");
+            } else if (executorClass == IsNullConditionExpressionExecutor.class) {
+                Value value = generate(((IsNullConditionExpressionExecutor) expressionExecutor)
+                        .getExpressionExecutor());
+                return declare(Attribute.Type.BOOL, value.isNull, "false");
+            } else if (expressionExecutor instanceof CompareConditionExpressionExecutor) {
+                return generateCompare((CompareConditionExpressionExecutor) expressionExecutor);
+            } else {
+                return generateArithmetic((ArithmeticExpressionExecutor) expressionExecutor);
+            }
+        }
+
+        private Value generateVariable(VariableExpressionExecutor variableExecutor) {
+            int[] position = variableExecutor.getPosition();
+            int positionIndex = positions.size();
+            positions.add(position.clone());
+            int dataIndex = position[STREAM_ATTRIBUTE_TYPE_INDEX];
+            String attribute = "event.getAttribute(positions[" + positionIndex + "])";
+            if ((dataIndex == BEFORE_WINDOW_DATA_INDEX || dataIndex == ON_AFTER_WINDOW_DATA_INDEX ||
+                    dataIndex == OUTPUT_DATA_INDEX) && position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] >= 0) {
+                streamEventDataUsed[dataIndex] = true;
+                attribute = "(streamEvent != null ? data" + dataIndex + "[" +
+                        position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] + "] : " + attribute + ")";
+            }
+            return declareObject(variableExecutor.getReturnType(), attribute);
+        }
+
+        private Value generateConstant(ConstantExpressionExecutor constantExecutor) {
+            Attribute.Type type = constantExecutor.getReturnType();
+            if (constantExecutor.getValue() == null) {
+                return new Value(defaultValue(type), "true", type);
+            }
+            String name = "c" + constants.size();
+            fields.append("    private final ").append(javaType(type)).append(" ").append(name).append(";\n");
+            constructorBody.append("        this.").append(name).append(" = ")
+                    .append(unbox("constants[" + constants.size() + "]", type)).append(";\n");
+            constants.add(constantExecutor.getValue());
+            return new Value(name, "false", type);
+        }
+
+        private Value generateInterpreted(ExpressionExecutor expressionExecutor) {
+            int executorIndex = executors.size();
+            executors.add(expressionExecutor);
+            return declareObject(expressionExecutor.getReturnType(), "executors[" + executorIndex +
+                    "].execute(event)");
+        }
+
+        private Value generateLogical(ExpressionExecutor leftExecutor, ExpressionExecutor rightExecutor,
+                                      boolean and) {
+            String name = "v" + valueCount++;
+            Value left = generate(leftExecutor);
+            appendLine("boolean " + name + " = " + !and + ";");
+            appendLine("if (" + (and ? "" : "!") + isTrue(left) + ") {");
+            indent++;
+            Value right = generate(rightExecutor);
+            appendLine(name + " = " + isTrue(right) + ";");
+            indent--;
+            appendLine("}");
+            return new Value(name, "false", Attribute.Type.BOOL);
+        }
+
+        private Value generateCompare(CompareConditionExpressionExecutor compareExecutor) {
+            String operator = getCompareOperator(compareExecutor);
+            Value left = generate(compareExecutor.getLeftExpressionExecutor());
+            Value right = generate(compareExecutor.getRightExpressionExecutor());
+            String comparison;
+            if (left.type == Attribute.Type.STRING) {
+                comparison = (operator.equals("==") ? "" : "!") + left.value + ".equals(" + right.value + ")";
+            } else {
+                comparison = left.value + " " + operator + " " + right.value;
+            }
+            String anyNull = or(left.isNull, right.isNull);
+            if (operator.equals("!=")) {
+                // not equal conditions are true when an operand is null, as done by the interpreted executors
+                return declare(Attribute.Type.BOOL, or(anyNull, comparison), "false");
+            }
+            return declare(Attribute.Type.BOOL, and(not(anyNull), comparison), "false");
+        }
+
+        private Value generateArithmetic(ArithmeticExpressionExecutor arithmeticExecutor) {
+            String operator = ARITHMETIC_OPERATORS.get(arithmeticExecutor.getClass());
+            ExpressionExecutor leftExecutor = arithmeticExecutor.getLeftExpressionExecutor();
+            ExpressionExecutor rightExecutor = arithmeticExecutor.getRightExpressionExecutor();
+            Attribute.Type type = arithmeticExecutor.getReturnType();
+            String javaType = javaType(type);
+            Value left = generate(leftExecutor);
+            Value right = generate(rightExecutor);
+            String leftValue = "((" + javaType + ") " + left.value + ")";
+            String rightValue = "((" + javaType + ") " + right.value + ")";
+            String isNull = or(left.isNull, right.isNull);
+            if (operator.equals("/") || operator.equals("%")) {
+                // division by zero results in null, as done by the interpreted executors
+                isNull = or(isNull, rightValue + " == 0");
+            }
+            return declare(type, leftValue + " " + operator + " " + rightValue, isNull);
+        }
+
+        private Value declareObject(Attribute.Type type, String expression) {
+            int id = valueCount++;
+            String object = "o" + id;
+            String isNull = "n" + id;
+            String name = "v" + id;
+            appendLine("Object " + object + " = " + expression + ";");
+            appendLine("boolean " + isNull + " = " + object + " == null;");
+            if (javaType(type).equals("Object")) {
+                return new Value(object, isNull, type);
+            }
+            appendLine(javaType(type) + " " + name + " = " + isNull + " ? " + defaultValue(type) + " : " +
+                    unbox(object, type) + ";");
+            return new Value(name, isNull, type);
+        }
+
+        private Value declare(Attribute.Type type, String expression, String isNull) {
+            int id = valueCount++;
+            String name = "v" + id;
+            if (isNull.equals("false")) {
+                appendLine(javaType(type) + " " + name + " = " + expression + ";");
+                return new Value(name, "false", type);
+            }
+            String isNullName = "n" + id;
+            appendLine("boolean " + isNullName + " = " + isNull + ";");
+            appendLine(javaType(type) + " " + name + " = " + isNullName + " ? " + defaultValue(type) + " : " +
+                    expression + ";");
+            return new Value(name, isNullName, type);
+        }
+
+        private void appendLine(String line) {
+            for (int i = 0; i < indent; i++) {
+                body.append("    ");
+            }
+            body.append(line).append("\n");
+        }
+
+        private String box(Value value) {
+            String boxed;
+            switch (value.type) {
+                case INT:
+                    boxed = "Integer.valueOf(" + value.value + ")";
+                    break;
+                case LONG:
+                    boxed = "Long.valueOf(" + value.value + ")";
+                    break;
+                case FLOAT:
+                    boxed = "Float.valueOf(" + value.value + ")";
+                    break;
+                case DOUBLE:
+                    boxed = "Double.valueOf(" + value.value + ")";
+                    break;
+                case BOOL:
+                    boxed = "Boolean.valueOf(" + value.value + ")";
+                    break;
+                default:
+                    boxed = value.value;
+            }
+            if (value.isNull.equals("false")) {
+                return boxed;
+            }
+            return value.isNull + " ? null : " + boxed;
+        }
+
+        private static String isTrue(Value value) {
+            return and(not(value.isNull), value.value);
+        }
+
+        private static String and(String left, String right) {
+            if (left.equals("true")) {
+                return right;
+            } else if (left.equals("false")) {
+                return "false";
+            }
+            return "(" + left + " && " + right + ")";
+        }
+
+        private static String or(String left, String right) {
+            if (left.equals("false")) {
+                return right;
+            } else if (right.equals("false")) {
+                return left;
+            }
+            return "(" + left + " || " + right + ")";
+        }
+
+        private static String not(String value) {
+            if (value.equals("false")) {
+                return "true";
+            } else if (value.equals("true")) {
+                return "false";
+            }
+            return "!" + value;
+        }
+
+        private static String javaType(Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return "int";
+                case LONG:
+                    return "long";
+                case FLOAT:
+                    return "float";
+                case DOUBLE:
+                    return "double";
+                case BOOL:
+                    return "boolean";
+                default:
+                    return "Object";
+            }
+        }
+
+        private static String defaultValue(Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return "0";
+                case LONG:
+                    return "0L";
+                case FLOAT:
+                    return "0F";
+                case DOUBLE:
+                    return "0D";
+                case BOOL:
+                    return "false";
+                default:
+                    return "null";
+            }
+        }
+
+        private static String unbox(String object, Attribute.Type type) {
+            switch (type) {
+                case INT:
+                    return "((Number) " + object + ").intValue()";
+                case LONG:
+                    return "((Number) " + object + ").longValue()";
+                case FLOAT:
+                    return "((Number) " + object + ").floatValue()";
+                case DOUBLE:
+                    return "((Number) " + object + ").doubleValue()";
+                case BOOL:
+                    return "((Boolean) " + object + ").booleanValue()";
+                default:
+                    return object;
+            }
+        }
+    }
+
+    /**
+     * Value of a compiled sub expression, held by a local variable of the generated code.
+     */
+    private static class Value {
+        private final String value;
+        private final String isNull;
+        private final Attribute.Type type;
+
+        Value(String value, String isNull, Attribute.Type type) {
+            this.value = value;
+            this.isNull = isNull;
+            this.type = type;
+        }
+    }
+
+    /**
+     * In memory source of a generated class.
+     */
+    private static class SourceFileObject extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFileObject(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    /**
+     * File manager collecting the byte code of the generated classes in memory.
+     */
+    private static class ByteCodeFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> byteCodes;
+
+        ByteCodeFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> byteCodes) {
+            super(fileManager);
+            this.byteCodes = byteCodes;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("bytes:///" + className.replace('.', '/') + kind.extension),
+                    kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            byteCodes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Class loader defining the generated classes of a query.
+     */
+    private static class GeneratedClassLoader extends ClassLoader {
+        private final Map<String, byte[]> byteCodes;
+
+        GeneratedClassLoader(ClassLoader parent, Map<String, byte[]> byteCodes) {
+            super(parent);
+            this.byteCodes = byteCodes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] byteCode = byteCodes.get(name);
+            if (byteCode == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, byteCode, 0, byteCode.length);
+        }
+    }
+}
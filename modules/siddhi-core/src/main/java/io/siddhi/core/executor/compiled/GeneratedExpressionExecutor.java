@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.executor.compiled;
+
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.query.api.definition.Attribute;
+
+/**
+ * Parent class of the expression executors generated by {@link ExpressionCompiler}. The generated executors evaluate
+ * the whole expression in a single method, reading the event attributes directly from their positions, and delegate
+ * only the parts of the expression that cannot be compiled to their interpreted executors.
+ */
+public abstract class GeneratedExpressionExecutor implements ExpressionExecutor {
+
+    protected final ExpressionExecutor[] executors;
+    protected final int[][] positions;
+    private final Attribute.Type returnType;
+
+    protected GeneratedExpressionExecutor(ExpressionExecutor[] executors, int[][] positions,
+                                          Attribute.Type returnType) {
+        this.executors = executors;
+        this.positions = positions;
+        this.returnType = returnType;
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return returnType;
+    }
+}
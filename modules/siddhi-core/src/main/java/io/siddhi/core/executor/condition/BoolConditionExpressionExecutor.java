@@ -49,4 +49,8 @@ public class BoolConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
 }
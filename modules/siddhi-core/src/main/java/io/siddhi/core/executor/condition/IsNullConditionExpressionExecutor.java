@@ -41,4 +41,8 @@ public class IsNullConditionExpressionExecutor extends ConditionExpressionExecut
         }
     }
 
+    public ExpressionExecutor getExpressionExecutor() {
+        return expressionExecutor;
+    }
+
 }
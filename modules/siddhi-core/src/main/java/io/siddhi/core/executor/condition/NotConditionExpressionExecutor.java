@@ -49,4 +49,8 @@ public class NotConditionExpressionExecutor extends ConditionExpressionExecutor
         }
     }
 
+    public ExpressionExecutor getConditionExecutor() {
+        return conditionExecutor;
+    }
+
 }
@@ -75,4 +75,12 @@ public class OrConditionExpressionExecutor extends ConditionExpressionExecutor {
         return Boolean.FALSE;
     }
 
+    public ExpressionExecutor getLeftConditionExecutor() {
+        return leftConditionExecutor;
+    }
+
+    public ExpressionExecutor getRightConditionExecutor() {
+        return rightConditionExecutor;
+    }
+
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.executor.condition.compare;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.DoubleValueExpressionExecutor;
+import io.siddhi.core.executor.ExpressionExecutor;
+
+/**
+ * Parent Executor class for Compare conditions that are false when an operand is null. When an operand is a double
+ * arithmetic expression, the operands are compared as primitive doubles to not box its result, evaluating null
+ * operands as NaN.
+ */
+public abstract class DoubleValueCompareConditionExpressionExecutor extends CompareConditionExpressionExecutor {
+
+    private final boolean doubleValueComparison;
+
+    public DoubleValueCompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
+                                                         ExpressionExecutor rightExpressionExecutor) {
+        super(leftExpressionExecutor, rightExpressionExecutor);
+        this.doubleValueComparison = leftExpressionExecutor instanceof DoubleValueExpressionExecutor ||
+                rightExpressionExecutor instanceof DoubleValueExpressionExecutor;
+    }
+
+    @Override
+    public Boolean execute(ComplexEvent event) {
+        if (doubleValueComparison) {
+            return execute(DoubleValueExpressionExecutor.executeDouble(leftExpressionExecutor, event),
+                    DoubleValueExpressionExecutor.executeDouble(rightExpressionExecutor, event));
+        }
+        return super.execute(event);
+    }
+
+    /**
+     * @return the result of the condition, which must be false when an operand is NaN
+     */
+    protected abstract boolean execute(double left, double right);
+}
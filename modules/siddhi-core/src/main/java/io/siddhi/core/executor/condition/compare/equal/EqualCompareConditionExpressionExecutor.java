@@ -18,15 +18,20 @@
 package io.siddhi.core.executor.condition.compare.equal;
 
 import io.siddhi.core.executor.ExpressionExecutor;
-import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.DoubleValueCompareConditionExpressionExecutor;
 
 /**
  * Parent Executor class for Equal condition. Data type specific sub classes will extend this.
  */
-public abstract class EqualCompareConditionExpressionExecutor extends CompareConditionExpressionExecutor {
+public abstract class EqualCompareConditionExpressionExecutor extends DoubleValueCompareConditionExpressionExecutor {
 
     public EqualCompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                                    ExpressionExecutor rightExpressionExecutor) {
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
+
+    @Override
+    protected boolean execute(double left, double right) {
+        return left == right;
+    }
 }
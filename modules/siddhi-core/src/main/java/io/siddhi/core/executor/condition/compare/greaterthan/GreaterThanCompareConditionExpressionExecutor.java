@@ -18,15 +18,21 @@
 package io.siddhi.core.executor.condition.compare.greaterthan;
 
 import io.siddhi.core.executor.ExpressionExecutor;
-import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.DoubleValueCompareConditionExpressionExecutor;
 
 /**
  * Parent Executor class for GreaterThan condition. Data type specific sub classes will extend this.
  */
-public abstract class GreaterThanCompareConditionExpressionExecutor extends CompareConditionExpressionExecutor {
+public abstract class GreaterThanCompareConditionExpressionExecutor
+        extends DoubleValueCompareConditionExpressionExecutor {
 
     public GreaterThanCompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                                          ExpressionExecutor rightExpressionExecutor) {
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
+
+    @Override
+    protected boolean execute(double left, double right) {
+        return left > right;
+    }
 }
@@ -18,15 +18,21 @@
 package io.siddhi.core.executor.condition.compare.greaterthanequal;
 
 import io.siddhi.core.executor.ExpressionExecutor;
-import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.DoubleValueCompareConditionExpressionExecutor;
 
 /**
  * Parent Executor class for Greater Than or Equal condition. Data type specific sub classes will extend this.
  */
-public abstract class GreaterThanEqualCompareConditionExpressionExecutor extends CompareConditionExpressionExecutor {
+public abstract class GreaterThanEqualCompareConditionExpressionExecutor
+        extends DoubleValueCompareConditionExpressionExecutor {
 
     public GreaterThanEqualCompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                                               ExpressionExecutor rightExpressionExecutor) {
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
+
+    @Override
+    protected boolean execute(double left, double right) {
+        return left >= right;
+    }
 }
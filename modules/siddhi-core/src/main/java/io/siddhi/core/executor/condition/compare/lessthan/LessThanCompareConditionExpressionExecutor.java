@@ -18,15 +18,20 @@
 package io.siddhi.core.executor.condition.compare.lessthan;
 
 import io.siddhi.core.executor.ExpressionExecutor;
-import io.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
+import io.siddhi.core.executor.condition.compare.DoubleValueCompareConditionExpressionExecutor;
 
 /**
  * Parent Executor class for Less Than condition. Data type specific sub classes will extend this.
  */
-public abstract class LessThanCompareConditionExpressionExecutor extends CompareConditionExpressionExecutor {
+public abstract class LessThanCompareConditionExpressionExecutor extends DoubleValueCompareConditionExpressionExecutor {
 
     public LessThanCompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                                       ExpressionExecutor rightExpressionExecutor) {
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
+
+    @Override
+    protected boolean execute(double left, double right) {
+        return left < right;
+    }
 }
@@ -18,13 +18,16 @@
 package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.DoubleValueExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorDouble implements ExpressionExecutor {
+public class AddExpressionExecutorDouble implements DoubleValueExpressionExecutor,
+        ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -45,6 +48,22 @@ public class AddExpressionExecutorDouble implements ExpressionExecutor {
         return ((Number) leftObject).doubleValue() + ((Number) rightObject).doubleValue();
     }
 
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return DoubleValueExpressionExecutor.executeDouble(leftExpressionExecutor, event) +
+                DoubleValueExpressionExecutor.executeDouble(rightExpressionExecutor, event);
+    }
+
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
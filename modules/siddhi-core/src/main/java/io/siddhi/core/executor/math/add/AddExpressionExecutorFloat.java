@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorFloat implements ExpressionExecutor {
+public class AddExpressionExecutorFloat implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -44,6 +45,16 @@ public class AddExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() + ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
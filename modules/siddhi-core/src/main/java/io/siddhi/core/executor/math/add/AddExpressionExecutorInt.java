@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorInt implements ExpressionExecutor {
+public class AddExpressionExecutorInt implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -45,6 +46,16 @@ public class AddExpressionExecutorInt implements ExpressionExecutor {
 
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
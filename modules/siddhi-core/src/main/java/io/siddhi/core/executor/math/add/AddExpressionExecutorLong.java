@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.add;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long Add function. Function execution logic is implemented in execute here.
  */
-public class AddExpressionExecutorLong implements ExpressionExecutor {
+public class AddExpressionExecutorLong implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -46,6 +47,16 @@ public class AddExpressionExecutorLong implements ExpressionExecutor {
 
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
@@ -18,13 +18,16 @@
 package io.siddhi.core.executor.math.divide;
 
 import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.executor.DoubleValueExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Double Divide function. Function execution logic is implemented in execute here.
  */
-public class DivideExpressionExecutorDouble implements ExpressionExecutor {
+public class DivideExpressionExecutorDouble implements DoubleValueExpressionExecutor,
+        ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -50,6 +53,26 @@ public class DivideExpressionExecutorDouble implements ExpressionExecutor {
 
     }
 
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        double left = DoubleValueExpressionExecutor.executeDouble(leftExpressionExecutor, event);
+        double right = DoubleValueExpressionExecutor.executeDouble(rightExpressionExecutor, event);
+        if (right == 0.0) {
+            return Double.NaN;
+        }
+        return left / right;
+    }
+
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.DOUBLE;
     }
@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.mod;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Modulus function. Function execution logic is implemented in execute here.
  */
-public class ModExpressionExecutorFloat implements ExpressionExecutor {
+public class ModExpressionExecutorFloat implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -49,6 +50,16 @@ public class ModExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() % right;
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
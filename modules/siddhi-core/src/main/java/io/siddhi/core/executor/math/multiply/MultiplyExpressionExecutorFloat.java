@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Float Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorFloat implements ExpressionExecutor {
+public class MultiplyExpressionExecutorFloat implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -45,6 +46,16 @@ public class MultiplyExpressionExecutorFloat implements ExpressionExecutor {
         return ((Number) leftObject).floatValue() * ((Number) rightObject).floatValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.FLOAT;
     }
@@ -20,12 +20,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorInt implements ExpressionExecutor {
+public class MultiplyExpressionExecutorInt implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -46,6 +47,16 @@ public class MultiplyExpressionExecutorInt implements ExpressionExecutor {
         return ((Number) leftObject).intValue() * ((Number) rightObject).intValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
@@ -20,12 +20,13 @@ package io.siddhi.core.executor.math.multiply;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long Multiply function. Function execution logic is implemented in execute here.
  */
-public class MultiplyExpressionExecutorLong implements ExpressionExecutor {
+public class MultiplyExpressionExecutorLong implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -46,6 +47,16 @@ public class MultiplyExpressionExecutorLong implements ExpressionExecutor {
         return ((Number) leftObject).longValue() * ((Number) rightObject).longValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.subtract;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Integer subtract function. Function execution logic is implemented in execute here.
  */
-public class SubtractExpressionExecutorInt implements ExpressionExecutor {
+public class SubtractExpressionExecutorInt implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -45,6 +46,16 @@ public class SubtractExpressionExecutorInt implements ExpressionExecutor {
         return ((Number) leftObject).intValue() - ((Number) rightObject).intValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.INT;
     }
@@ -19,12 +19,13 @@ package io.siddhi.core.executor.math.subtract;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.math.ArithmeticExpressionExecutor;
 import io.siddhi.query.api.definition.Attribute;
 
 /**
  * Executor class for Long subtract function. Function execution logic is implemented in execute here.
  */
-public class SubtractExpressionExecutorLong implements ExpressionExecutor {
+public class SubtractExpressionExecutorLong implements ArithmeticExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
 
@@ -45,6 +46,16 @@ public class SubtractExpressionExecutorLong implements ExpressionExecutor {
         return ((Number) leftObject).longValue() - ((Number) rightObject).longValue();
     }
 
+    @Override
+    public ExpressionExecutor getLeftExpressionExecutor() {
+        return leftExpressionExecutor;
+    }
+
+    @Override
+    public ExpressionExecutor getRightExpressionExecutor() {
+        return rightExpressionExecutor;
+    }
+
     public Attribute.Type getReturnType() {
         return Attribute.Type.LONG;
     }
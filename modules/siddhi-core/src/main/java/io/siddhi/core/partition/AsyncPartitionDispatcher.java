@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.partition;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
+import org.apache.log4j.Logger;
+
+/**
+ * Dispatches the events of a partition to a fixed set of ring buffers based on the hash of their partition key.
+ * Each ring buffer is consumed by its own thread, hence events of the same partition key are processed in order while
+ * events of different partition keys are processed in parallel.
+ */
+public class AsyncPartitionDispatcher implements ExternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(AsyncPartitionDispatcher.class);
+    private final PartitionRuntimeImpl partitionRuntime;
+    private final SiddhiAppContext siddhiAppContext;
+    private final int workers;
+    private final int bufferSize;
+    private Disruptor<PartitionEventHolder>[] disruptors;
+    private RingBuffer<PartitionEventHolder>[] ringBuffers;
+
+    public AsyncPartitionDispatcher(PartitionRuntimeImpl partitionRuntime, int workers, int bufferSize,
+                                    SiddhiAppContext siddhiAppContext) {
+        this.partitionRuntime = partitionRuntime;
+        this.workers = workers;
+        this.bufferSize = bufferSize;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    /**
+     * Send the event to the worker owning the given partition key.
+     *
+     * @param key            partition key of the event
+     * @param complexEvent   complete event chunk handed over to the worker, which must not be linked to, shared with
+     *                       nor modified after being dispatched by the caller, including through the chunks
+     *                       dispatched to other partition keys
+     * @param streamJunction partition inner stream junction the event should be sent to
+     * @param errorHandler   stream junction of the partitioned stream, which handles the processing errors as per
+     *                       its {@literal @}OnError action as done when the partition is processed synchronously
+     * @param initPartition  whether the partition of the key should be initialized, or only the existing partition
+     *                       should receive the event
+     */
+    public void dispatch(String key, ComplexEvent complexEvent, StreamJunction streamJunction,
+                         StreamJunction errorHandler, boolean initPartition) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        RingBuffer<PartitionEventHolder> ringBuffer = ringBuffers[(hash & Integer.MAX_VALUE) % workers];
+        long sequenceNo = ringBuffer.next();
+        try {
+            PartitionEventHolder partitionEventHolder = ringBuffer.get(sequenceNo);
+            partitionEventHolder.key = key;
+            partitionEventHolder.complexEvent = complexEvent;
+            partitionEventHolder.streamJunction = streamJunction;
+            partitionEventHolder.errorHandler = errorHandler;
+            partitionEventHolder.initPartition = initPartition;
+        } finally {
+            ringBuffer.publish(sequenceNo);
+        }
+    }
+
+    @Override
+    public void start() {
+        disruptors = new Disruptor[workers];
+        ringBuffers = new RingBuffer[workers];
+        for (int i = 0; i < workers; i++) {
+            disruptors[i] = new Disruptor<PartitionEventHolder>(new PartitionEventHolderFactory(), bufferSize,
+                    siddhiAppContext.getExecutorService(), ProducerType.MULTI, new BlockingWaitStrategy());
+            disruptors[i].handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
+            disruptors[i].handleEventsWith(new PartitionEventHandler());
+            ringBuffers[i] = disruptors[i].start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (disruptors != null) {
+            for (Disruptor<PartitionEventHolder> disruptor : disruptors) {
+                disruptor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Ring buffer slot holding an event and the partition key it belongs to.
+     */
+    static class PartitionEventHolder {
+        private String key;
+        private ComplexEvent complexEvent;
+        private StreamJunction streamJunction;
+        private StreamJunction errorHandler;
+        private boolean initPartition;
+    }
+
+    /**
+     * Factory to pre allocate {@link PartitionEventHolder}s in the ring buffers.
+     */
+    static class PartitionEventHolderFactory implements EventFactory<PartitionEventHolder> {
+        @Override
+        public PartitionEventHolder newInstance() {
+            return new PartitionEventHolder();
+        }
+    }
+
+    /**
+     * Consumer of a ring buffer, that processes the events within the flow of their partition key.
+     */
+    class PartitionEventHandler implements EventHandler<PartitionEventHolder> {
+
+        @Override
+        public void onEvent(PartitionEventHolder partitionEventHolder, long sequence, boolean endOfBatch) {
+            String key = partitionEventHolder.key;
+            ComplexEvent complexEvent = partitionEventHolder.complexEvent;
+            StreamJunction streamJunction = partitionEventHolder.streamJunction;
+            StreamJunction errorHandler = partitionEventHolder.errorHandler;
+            partitionEventHolder.key = null;
+            partitionEventHolder.complexEvent = null;
+            partitionEventHolder.streamJunction = null;
+            partitionEventHolder.errorHandler = null;
+            SiddhiAppContext.startPartitionFlow(key);
+            try {
+                if (partitionEventHolder.initPartition) {
+                    partitionRuntime.initPartition();
+                }
+                streamJunction.sendEvent(complexEvent);
+            } catch (Exception e) {
+                errorHandler.handleError(complexEvent, e);
+            } catch (Throwable t) {
+                log.error("Error in SiddhiApp '" + siddhiAppContext.getName() + "' when processing events of " +
+                        "partition '" + partitionRuntime.getPartitionName() + "' for the key '" + key + "', " +
+                        t.getMessage() + ". Hence, dropping event '" + complexEvent + "'", t);
+            } finally {
+                SiddhiAppContext.stopPartitionFlow();
+            }
+        }
+    }
+}
@@ -32,6 +32,7 @@ import io.siddhi.core.query.output.callback.InsertIntoStreamCallback;
 import io.siddhi.core.query.output.callback.InsertIntoWindowCallback;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.extension.holder.ExternalReferencedHolder;
 import io.siddhi.core.util.parser.helper.DefinitionParserHelper;
 import io.siddhi.core.util.parser.helper.QueryParserHelper;
 import io.siddhi.core.util.snapshot.state.State;
@@ -56,17 +57,25 @@ import io.siddhi.query.api.execution.query.input.stream.StateInputStream;
 import io.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import io.siddhi.query.api.expression.Expression;
 import io.siddhi.query.api.util.AnnotationHelper;
+import org.apache.log4j.Logger;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Runtime class to handle partitioning. It will hold all information regarding current partitions and wil create
@@ -74,11 +83,18 @@ import java.util.concurrent.TimeUnit;
  */
 public class PartitionRuntimeImpl implements PartitionRuntime {
 
+    private static final Logger log = Logger.getLogger(PartitionRuntimeImpl.class);
     private final StateHolder<PartitionState> stateHolder;
     //default every 5 min
     private long purgeExecutionInterval = 300000;
     private boolean purgingEnabled = false;
+    private boolean idlePurgingEnabled = false;
     private long purgeIdlePeriod = 0;
+    private int maxPartitions = -1;
+    private long idleBucketWidth = 1;
+    private final AtomicLong purgedPartitionCount = new AtomicLong();
+    private final AtomicLong evictedPartitionCount = new AtomicLong();
+    private volatile long lastPurgeDuration = 0;
     private String partitionName;
     private Partition partition;
     private ConcurrentMap<String, StreamJunction> localStreamJunctionMap = new ConcurrentHashMap<>();
@@ -92,6 +108,7 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
     private List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
     private ConcurrentMap<String, PartitionStreamReceiver> partitionStreamReceivers = new ConcurrentHashMap<>();
     private SiddhiAppContext siddhiAppContext;
+    private AsyncPartitionDispatcher asyncPartitionDispatcher;
 
     public PartitionRuntimeImpl(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap,
                                 ConcurrentMap<String, AbstractDefinition> windowDefinitionMap,
@@ -131,11 +148,21 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
                 throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.NAMESPACE_PURGE +
                         " is missing element '" + SiddhiConstants.ANNOTATION_ELEMENT_ENABLE + "'");
             }
+            if (purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_PARTITIONS) != null) {
+                String maxPartitionsString = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_PARTITIONS);
+                maxPartitions = Integer.parseInt(maxPartitionsString);
+                if (maxPartitions <= 0) {
+                    throw new SiddhiAppCreationException("Annotation element '" +
+                            SiddhiConstants.ANNOTATION_ELEMENT_MAX_PARTITIONS + "' of @" +
+                            SiddhiConstants.NAMESPACE_PURGE + " cannot be negative or zero, but found, '" +
+                            maxPartitions + "'.", purge, siddhiAppContext);
+                }
+            }
             if (purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD) != null) {
                 String purgeIdle = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD);
                 purgeIdlePeriod = Expression.Time.timeToLong(purgeIdle);
-
-            } else {
+                idlePurgingEnabled = purgingEnabled;
+            } else if (maxPartitions == -1) {
                 throw new SiddhiAppCreationException("Annotation @" + SiddhiConstants.NAMESPACE_PURGE +
                         " is missing element '" + SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD + "'");
             }
@@ -144,6 +171,35 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
                 String interval = purge.getElement(SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL);
                 purgeExecutionInterval = Expression.Time.timeToLong(interval);
             }
+            // partitions are indexed by their last seen time in buckets of this width, hence purging only visits
+            // the buckets that can hold idle partitions, and evictions pick from the least recently used bucket
+            idleBucketWidth = Math.max(1, idlePurgingEnabled ?
+                    Math.min(purgeExecutionInterval, purgeIdlePeriod) : purgeExecutionInterval);
+            if (idlePurgingEnabled) {
+                siddhiAppContext.addEternalReferencedHolder(new PartitionPurger());
+            }
+        }
+        Annotation async = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
+                partition.getAnnotations());
+        if (async != null) {
+            int workers = Runtime.getRuntime().availableProcessors();
+            int bufferSize = siddhiAppContext.getBufferSize();
+            String workersString = async.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+            if (workersString != null) {
+                workers = Integer.parseInt(workersString);
+                if (workers <= 0) {
+                    throw new SiddhiAppCreationException("Annotation element '" +
+                            SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "' of @" + SiddhiConstants.ANNOTATION_ASYNC +
+                            " cannot be negative or zero, but found, '" + workers + "'.", async,
+                            siddhiAppContext);
+                }
+            }
+            String bufferSizeString = async.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+            if (bufferSizeString != null) {
+                bufferSize = Integer.parseInt(bufferSizeString);
+            }
+            asyncPartitionDispatcher = new AsyncPartitionDispatcher(this, workers, bufferSize, siddhiAppContext);
+            siddhiAppContext.addEternalReferencedHolder(asyncPartitionDispatcher);
         }
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
@@ -295,10 +351,11 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
             if (streamDefinition == null) {
                 streamDefinition = (StreamDefinition) windowDefinitionMap.get(streamId);
             }
+            StreamJunction streamJunction = streamJunctionMap.get(streamId);
             PartitionStreamReceiver partitionStreamReceiver = new PartitionStreamReceiver(
-                    siddhiAppContext, metaStreamEvent, streamDefinition, partitionExecutors, this);
+                    siddhiAppContext, metaStreamEvent, streamDefinition, partitionExecutors, this, streamJunction);
             partitionStreamReceivers.put(partitionStreamReceiver.getStreamId(), partitionStreamReceiver);
-            streamJunctionMap.get(partitionStreamReceiver.getStreamId()).subscribe(partitionStreamReceiver);
+            streamJunction.subscribe(partitionStreamReceiver);
         }
 
     }
@@ -327,6 +384,15 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         return partitionName;
     }
 
+    /**
+     * Returns the dispatcher that processes partition keys in parallel, when the partition is annotated with @Async.
+     *
+     * @return the async partition dispatcher or null if partition keys are processed on the caller thread
+     */
+    public AsyncPartitionDispatcher getAsyncPartitionDispatcher() {
+        return asyncPartitionDispatcher;
+    }
+
     public ConcurrentMap<String, AbstractDefinition> getLocalStreamDefinitionMap() {
         return localStreamDefinitionMap;
     }
@@ -344,63 +410,170 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
     }
 
     public void initPartition() {
+        String partitionKey = SiddhiAppContext.getPartitionFlowId();
         PartitionState state = stateHolder.getState();
         try {
-            Long time = state.partitionKeys.get(SiddhiAppContext.getPartitionFlowId());
+            long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+            Long time = state.partitionKeys.get(partitionKey);
+            if (time != null && idlePurgingEnabled && time + purgeIdlePeriod < currentTime) {
+                synchronized (state) {
+                    if (purgePartition(state, partitionKey, time)) {
+                        purgedPartitionCount.incrementAndGet();
+                    }
+                }
+                time = null;
+            }
             if (time == null) {
                 synchronized (state) {
-                    time = state.partitionKeys.get(SiddhiAppContext.getPartitionFlowId());
+                    time = state.partitionKeys.get(partitionKey);
                     if (time == null) {
                         for (QueryRuntime queryRuntime : queryRuntimeList) {
                             ((QueryRuntimeImpl) queryRuntime).initPartition();
                         }
                     }
-                    state.partitionKeys.put(SiddhiAppContext.getPartitionFlowId(),
-                            siddhiAppContext.getTimestampGenerator().currentTime());
+                    updateLastSeenTime(state, partitionKey, currentTime);
+                    if (time == null && maxPartitions > 0 && state.partitionKeys.size() > maxPartitions) {
+                        evictLeastRecentlyUsedPartitions(state, partitionKey);
+                    }
                 }
             } else {
-                state.partitionKeys.put(SiddhiAppContext.getPartitionFlowId(),
-                        siddhiAppContext.getTimestampGenerator().currentTime());
+                updateLastSeenTime(state, partitionKey, currentTime);
             }
         } finally {
             stateHolder.returnState(state);
         }
-        if (purgingEnabled) {
-            siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(new Runnable() {
-                @Override
-                public void run() {
-                    long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
-                    PartitionState state = stateHolder.getState();
-                    try {
+    }
+
+    private void updateLastSeenTime(PartitionState state, String partitionKey, long currentTime) {
+        Long previousTime = state.partitionKeys.put(partitionKey, currentTime);
+        if (purgingEnabled && (previousTime == null ||
+                previousTime / idleBucketWidth != currentTime / idleBucketWidth)) {
+            state.reindex(partitionKey, previousTime);
+        }
+    }
+
+    private void evictLeastRecentlyUsedPartitions(PartitionState state, String currentPartitionKey) {
+        while (state.partitionKeys.size() > maxPartitions) {
+            Map.Entry<String, Long> partition = state.pollLeastRecentlyUsed(currentPartitionKey);
+            if (partition == null) {
+                return;
+            }
+            if (purgePartition(state, partition.getKey(), partition.getValue())) {
+                evictedPartitionCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void purgeIdlePartitions() {
+        long startTime = System.currentTimeMillis();
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        long purgedCount = 0;
+        PartitionState state = stateHolder.getState();
+        try {
+            for (Map.Entry<Long, Set<String>> bucket : state.pollIdleBuckets(currentTime - purgeIdlePeriod)) {
+                for (String partitionKey : bucket.getValue()) {
+                    Long time = state.partitionKeys.get(partitionKey);
+                    if (time == null || time / idleBucketWidth != bucket.getKey()) {
+                        // partition already purged or seen afterwards, hence indexed in a later bucket
+                        continue;
+                    }
+                    if (time + purgeIdlePeriod < currentTime) {
                         synchronized (state) {
-                            HashMap<String, Long> partitions = new HashMap<>(state.partitionKeys);
-                            for (Map.Entry<String, Long> partition : partitions.entrySet()) {
-                                if (partition.getValue() + purgeIdlePeriod < currentTime) {
-                                    state.partitionKeys.remove(partition.getKey());
-                                    SiddhiAppContext.startPartitionFlow(partition.getKey());
-                                    try {
-                                        for (QueryRuntime queryRuntime : queryRuntimeList) {
-                                            Map<String, StateHolder> elementHolderMap =
-                                                    siddhiAppContext.getSnapshotService().getStateHolderMap(
-                                                            partitionName, queryRuntime.getQueryId());
-                                            for (StateHolder stateHolder : elementHolderMap.values()) {
-                                                stateHolder.cleanGroupByStates();
-                                            }
-                                        }
-                                    } finally {
-                                        SiddhiAppContext.stopPartitionFlow();
-                                    }
-                                }
+                            if (purgePartition(state, partitionKey, time)) {
+                                purgedCount++;
                             }
                         }
-                    } finally {
-                        stateHolder.returnState(state);
+                    } else {
+                        state.index(partitionKey, time);
                     }
                 }
-            }, purgeExecutionInterval, purgeExecutionInterval, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            stateHolder.returnState(state);
+        }
+        purgedPartitionCount.addAndGet(purgedCount);
+        lastPurgeDuration = System.currentTimeMillis() - startTime;
+        if (log.isDebugEnabled()) {
+            log.debug("Purged " + purgedCount + " idle partitions of partition '" + partitionName +
+                    "' in SiddhiApp '" + siddhiAppContext.getName() + "' within " + lastPurgeDuration +
+                    " ms, live partitions: " + getLivePartitionCount());
         }
     }
 
+    /**
+     * Removes the partition key and cleans the states of the partition, unless it has been seen after the given time.
+     */
+    private boolean purgePartition(PartitionState state, String partitionKey, long time) {
+        if (!state.partitionKeys.remove(partitionKey, time)) {
+            if (purgingEnabled) {
+                // the key was taken out of the idle index before this call, and a concurrent event within the same
+                // bucket does not index it again, hence index the partition that is still live by its current time
+                state.reindex(partitionKey, null);
+            }
+            return false;
+        }
+        if (purgingEnabled) {
+            state.unindex(partitionKey, time);
+        }
+        String currentPartitionKey = SiddhiAppContext.getPartitionFlowId();
+        SiddhiAppContext.startPartitionFlow(partitionKey);
+        try {
+            for (QueryRuntime queryRuntime : queryRuntimeList) {
+                Map<String, StateHolder> elementHolderMap =
+                        siddhiAppContext.getSnapshotService().getStateHolderMap(
+                                partitionName, queryRuntime.getQueryId());
+                for (StateHolder stateHolder : elementHolderMap.values()) {
+                    stateHolder.cleanGroupByStates();
+                }
+            }
+        } finally {
+            if (currentPartitionKey != null) {
+                SiddhiAppContext.startPartitionFlow(currentPartitionKey);
+            } else {
+                SiddhiAppContext.stopPartitionFlow();
+            }
+        }
+        return true;
+    }
+
+    public long getLivePartitionCount() {
+        PartitionState state = stateHolder.getState();
+        try {
+            return state.partitionKeys.size();
+        } finally {
+            stateHolder.returnState(state);
+        }
+    }
+
+    public long getPurgedPartitionCount() {
+        return purgedPartitionCount.get();
+    }
+
+    public long getEvictedPartitionCount() {
+        return evictedPartitionCount.get();
+    }
+
+    /**
+     * @return time taken in milliseconds by the last periodic purge of idle partitions
+     */
+    public long getLastPurgeDuration() {
+        return lastPurgeDuration;
+    }
+
+    /**
+     * @return partition metrics by their name, reported as gauges through the gauge tracker
+     */
+    public Map<String, LongSupplier> getPartitionMetrics() {
+        Map<String, LongSupplier> metrics = new LinkedHashMap<>();
+        metrics.put("live", this::getLivePartitionCount);
+        if (purgingEnabled) {
+            metrics.put("purged", this::getPurgedPartitionCount);
+            metrics.put("evicted", this::getEvictedPartitionCount);
+            metrics.put("lastPurgeDuration", this::getLastPurgeDuration);
+        }
+        return metrics;
+    }
+
     public Set<String> getPartitionKeys() {
         PartitionState state = stateHolder.getState();
         try {
@@ -415,12 +588,113 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         return queryRuntimeList;
     }
 
+    /**
+     * Periodically purges the partitions that have been idle longer than the purge idle period.
+     */
+    private class PartitionPurger implements ExternalReferencedHolder {
+
+        private ScheduledFuture scheduledFuture;
+
+        @Override
+        public void start() {
+            scheduledFuture = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(() -> {
+                try {
+                    purgeIdlePartitions();
+                } catch (Throwable t) {
+                    log.error("Error when purging idle partitions of partition '" + partitionName +
+                            "' in SiddhiApp '" + siddhiAppContext.getName() + "', " + t.getMessage(), t);
+                }
+            }, purgeExecutionInterval, purgeExecutionInterval, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void stop() {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
+    }
+
     /**
      * State of partition
      */
     public class PartitionState extends State {
 
         private Map<String, Long> partitionKeys = new ConcurrentHashMap<>();
+        // partition keys by the bucket of their last seen time, guarded by itself
+        private final TreeMap<Long, Set<String>> idleIndex = new TreeMap<>();
+
+        private void index(String partitionKey, long time) {
+            synchronized (idleIndex) {
+                idleIndex.computeIfAbsent(time / idleBucketWidth, k -> new HashSet<>()).add(partitionKey);
+            }
+        }
+
+        private void unindex(String partitionKey, long time) {
+            synchronized (idleIndex) {
+                Set<String> bucket = idleIndex.get(time / idleBucketWidth);
+                if (bucket != null && bucket.remove(partitionKey) && bucket.isEmpty()) {
+                    idleIndex.remove(time / idleBucketWidth);
+                }
+            }
+        }
+
+        /**
+         * Moves the partition key out of the bucket of its previous last seen time, into the bucket of its current
+         * last seen time, such that each live partition is indexed only once.
+         */
+        private void reindex(String partitionKey, Long previousTime) {
+            synchronized (idleIndex) {
+                if (previousTime != null) {
+                    unindex(partitionKey, previousTime);
+                }
+                Long time = partitionKeys.get(partitionKey);
+                if (time != null) {
+                    index(partitionKey, time);
+                }
+            }
+        }
+
+        /**
+         * Removes and returns the buckets that can contain partitions last seen before the given time. A key in a
+         * bucket is only valid if the partition is still last seen within that bucket.
+         */
+        private List<Map.Entry<Long, Set<String>>> pollIdleBuckets(long lastSeenBefore) {
+            List<Map.Entry<Long, Set<String>>> buckets = new ArrayList<>();
+            synchronized (idleIndex) {
+                while (!idleIndex.isEmpty() && idleIndex.firstKey() * idleBucketWidth < lastSeenBefore) {
+                    buckets.add(idleIndex.pollFirstEntry());
+                }
+            }
+            return buckets;
+        }
+
+        private Map.Entry<String, Long> pollLeastRecentlyUsed(String excludedPartitionKey) {
+            synchronized (idleIndex) {
+                while (!idleIndex.isEmpty()) {
+                    Map.Entry<Long, Set<String>> bucket = idleIndex.firstEntry();
+                    for (Iterator<String> iterator = bucket.getValue().iterator(); iterator.hasNext(); ) {
+                        String partitionKey = iterator.next();
+                        if (partitionKey.equals(excludedPartitionKey)) {
+                            continue;
+                        }
+                        iterator.remove();
+                        Long time = partitionKeys.get(partitionKey);
+                        if (time != null && time / idleBucketWidth == bucket.getKey()) {
+                            if (bucket.getValue().isEmpty()) {
+                                idleIndex.pollFirstEntry();
+                            }
+                            return new AbstractMap.SimpleEntry<>(partitionKey, time);
+                        }
+                    }
+                    if (!bucket.getValue().isEmpty()) {
+                        return null;
+                    }
+                    idleIndex.pollFirstEntry();
+                }
+                return null;
+            }
+        }
 
         @Override
         public boolean canDestroy() {
@@ -437,6 +711,14 @@ public class PartitionRuntimeImpl implements PartitionRuntime {
         @Override
         public void restore(Map<String, Object> state) {
             partitionKeys = (Map<String, Long>) state.get("PartitionKeys");
+            synchronized (idleIndex) {
+                idleIndex.clear();
+                if (purgingEnabled) {
+                    for (Map.Entry<String, Long> partition : partitionKeys.entrySet()) {
+                        index(partition.getKey(), partition.getValue());
+                    }
+                }
+            }
         }
     }
 
@@ -23,6 +23,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
 import io.siddhi.core.event.stream.converter.StreamEventConverterFactory;
@@ -33,9 +34,12 @@ import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.query.api.definition.StreamDefinition;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Specific {@link StreamJunction.Receiver} implementation to pump events into partitions. This will send the event
@@ -44,6 +48,7 @@ import java.util.Map;
 public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private final StreamEventFactory streamEventFactory;
+    private final StreamEventCloner streamEventCloner;
     private StreamEventConverter streamEventConverter;
     private String streamId;
     private MetaStreamEvent metaStreamEvent;
@@ -52,24 +57,29 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
     private PartitionRuntimeImpl partitionRuntime;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> streamJunctionMap = new HashMap<>();
+    private StreamJunction partitionedStreamJunction;
+    private AsyncPartitionDispatcher asyncPartitionDispatcher;
 
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
                                    StreamDefinition streamDefinition,
                                    List<PartitionExecutor> partitionExecutors,
-                                   PartitionRuntime partitionRuntime) {
+                                   PartitionRuntime partitionRuntime, StreamJunction partitionedStreamJunction) {
         this.metaStreamEvent = metaStreamEvent;
         this.streamDefinition = streamDefinition;
         this.partitionRuntime = (PartitionRuntimeImpl) partitionRuntime;
         this.partitionExecutors = partitionExecutors;
         this.siddhiAppContext = siddhiAppContext;
         this.streamId = streamDefinition.getId();
+        this.partitionedStreamJunction = partitionedStreamJunction;
         this.streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        this.streamEventCloner = new StreamEventCloner(metaStreamEvent, streamEventFactory);
 
     }
 
     public void init() {
         streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+        asyncPartitionDispatcher = partitionRuntime.getAsyncPartitionDispatcher();
     }
 
     @Override
@@ -91,6 +101,15 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 aComplexEvent = aComplexEvent.getNext();
             }
             send(outputEventChunk.getFirst());
+        } else if (asyncPartitionDispatcher != null) {
+            Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks = new LinkedHashMap<>();
+            for (ComplexEvent aComplexEvent = complexEvent; aComplexEvent != null;
+                 aComplexEvent = aComplexEvent.getNext()) {
+                ComplexEvent currentComplexEvent = aComplexEvent;
+                addToKeyedEventChunks(keyedEventChunks,
+                        newEvent -> streamEventConverter.convertComplexEvent(currentComplexEvent, newEvent));
+            }
+            dispatch(keyedEventChunks);
         } else {
             if (complexEvent.getNext() == null) {
                 for (PartitionExecutor partitionExecutor : partitionExecutors) {
@@ -147,6 +166,12 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     @Override
     public void receive(Event event) {
+        if (asyncPartitionDispatcher != null && partitionExecutors.size() > 0) {
+            Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks = new LinkedHashMap<>();
+            addToKeyedEventChunks(keyedEventChunks, newEvent -> streamEventConverter.convertEvent(event, newEvent));
+            dispatch(keyedEventChunks);
+            return;
+        }
         StreamEvent newEvent = streamEventFactory.newInstance();
         streamEventConverter.convertEvent(event, newEvent);
         for (PartitionExecutor partitionExecutor : partitionExecutors) {
@@ -160,6 +185,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     @Override
     public void receive(long timestamp, Object[] data) {
+        if (asyncPartitionDispatcher != null && partitionExecutors.size() > 0) {
+            Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks = new LinkedHashMap<>();
+            addToKeyedEventChunks(keyedEventChunks,
+                    newEvent -> streamEventConverter.convertData(timestamp, data, newEvent));
+            dispatch(keyedEventChunks);
+            return;
+        }
         StreamEvent newEvent = streamEventFactory.newInstance();
         streamEventConverter.convertData(timestamp, data, newEvent);
         if (partitionExecutors.size() == 0) {
@@ -186,6 +218,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 currentEvent = nextEvent;
             }
             send(firstEvent);
+        } else if (asyncPartitionDispatcher != null) {
+            Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks = new LinkedHashMap<>();
+            for (Event event : events) {
+                addToKeyedEventChunks(keyedEventChunks,
+                        newEvent -> streamEventConverter.convertEvent(event, newEvent));
+            }
+            dispatch(keyedEventChunks);
         } else {
             String key = null;
             StreamEvent firstEvent = null;
@@ -231,6 +270,13 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
                 currentEvent = nextEvent;
             }
             send(firstEvent);
+        } else if (asyncPartitionDispatcher != null) {
+            Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks = new LinkedHashMap<>();
+            for (Event event : events) {
+                addToKeyedEventChunks(keyedEventChunks,
+                        newEvent -> streamEventConverter.convertEvent(event, newEvent));
+            }
+            dispatch(keyedEventChunks);
         } else {
             String key = null;
             StreamEvent firstEvent = null;
@@ -261,6 +307,11 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
+            if (asyncPartitionDispatcher != null) {
+                asyncPartitionDispatcher.dispatch(key, event, streamJunctionMap.get(streamId),
+                        partitionedStreamJunction, true);
+                return;
+            }
             SiddhiAppContext.startPartitionFlow(key);
             try {
                 partitionRuntime.initPartition();
@@ -271,7 +322,66 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * Adds a newly converted event to the chunk of each partition key it belongs to, such that each partition key
+     * gets its own event.
+     *
+     * @param keyedEventChunks event chunks by partition key
+     * @param eventConverter   converts the received event into the given new event
+     */
+    private void addToKeyedEventChunks(Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks,
+                                       Consumer<StreamEvent> eventConverter) {
+        StreamEvent newEvent = streamEventFactory.newInstance();
+        eventConverter.accept(newEvent);
+        List<String> keys = null;
+        for (PartitionExecutor partitionExecutor : partitionExecutors) {
+            String key = partitionExecutor.execute(newEvent);
+            if (key == null) {
+                continue;
+            }
+            if (keys == null) {
+                keys = new ArrayList<>(partitionExecutors.size());
+                keyedEventChunks.computeIfAbsent(key, k -> new ComplexEventChunk<>()).add(newEvent);
+            } else if (!keys.contains(key)) {
+                StreamEvent keyEvent = streamEventFactory.newInstance();
+                eventConverter.accept(keyEvent);
+                keyedEventChunks.computeIfAbsent(key, k -> new ComplexEventChunk<>()).add(keyEvent);
+            }
+            keys.add(key);
+        }
+    }
+
+    /**
+     * Dispatches the event chunks to the partition workers once they are complete, as the workers process them
+     * concurrently with the receiver.
+     *
+     * @param keyedEventChunks event chunks by partition key
+     */
+    private void dispatch(Map<String, ComplexEventChunk<StreamEvent>> keyedEventChunks) {
+        for (Map.Entry<String, ComplexEventChunk<StreamEvent>> entry : keyedEventChunks.entrySet()) {
+            asyncPartitionDispatcher.dispatch(entry.getKey(), entry.getValue().getFirst(),
+                    streamJunctionMap.get(streamId), partitionedStreamJunction, true);
+        }
+    }
+
     private void send(ComplexEvent event) {
+        if (asyncPartitionDispatcher != null) {
+            // each partition worker gets its own copy of the events, as they are processed concurrently, and the
+            // received events are only dispatched after all the copies are made
+            String previousKey = null;
+            for (String key : partitionRuntime.getPartitionKeys()) {
+                if (previousKey != null) {
+                    asyncPartitionDispatcher.dispatch(previousKey, copyEvents((StreamEvent) event),
+                            streamJunctionMap.get(streamId), partitionedStreamJunction, false);
+                }
+                previousKey = key;
+            }
+            if (previousKey != null) {
+                asyncPartitionDispatcher.dispatch(previousKey, event, streamJunctionMap.get(streamId),
+                        partitionedStreamJunction, false);
+            }
+            return;
+        }
         for (String key : partitionRuntime.getPartitionKeys()) {
             SiddhiAppContext.startPartitionFlow(key);
             try {
@@ -282,6 +392,15 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    private StreamEvent copyEvents(StreamEvent streamEvent) {
+        ComplexEventChunk<StreamEvent> eventChunk = new ComplexEventChunk<>();
+        for (StreamEvent aStreamEvent = streamEvent; aStreamEvent != null;
+             aStreamEvent = (StreamEvent) aStreamEvent.getNext()) {
+            eventChunk.add(streamEventCloner.copyStreamEvent(aStreamEvent));
+        }
+        return eventChunk.getFirst();
+    }
+
     /**
      * create local streamJunctions through which events received by partitionStreamReceiver, are sent to
      * queryStreamReceivers
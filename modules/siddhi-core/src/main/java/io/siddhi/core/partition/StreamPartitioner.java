@@ -148,7 +148,8 @@ public class StreamPartitioner {
                                         (ValuePartitionType) partitionType).getExpression(),
                                 metaEvent, SiddhiConstants.UNKNOWN_STATE, tableMap, executors,
                                 false, 0,
-                                ProcessingMode.BATCH, false, siddhiQueryContext)));
+                                ProcessingMode.BATCH, false, siddhiQueryContext),
+                                siddhiQueryContext.getSiddhiAppContext().getKeyCacheSize()));
                     }
                 } else {
                     for (RangePartitionType.RangePartitionProperty rangePartitionProperty : ((RangePartitionType)
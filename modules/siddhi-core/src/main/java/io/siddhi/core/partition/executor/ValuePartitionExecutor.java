@@ -19,6 +19,7 @@ package io.siddhi.core.partition.executor;
 
 import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.util.collection.PrimitiveKeyCache;
 
 /**
  * Value partition executor computes the partition key based on value of given {@link ComplexEvent} attribute/s.
@@ -26,13 +27,20 @@ import io.siddhi.core.executor.ExpressionExecutor;
 public class ValuePartitionExecutor implements PartitionExecutor {
 
     private ExpressionExecutor expressionExecutor;
+    private PrimitiveKeyCache primitiveKeyCache = null;
 
-    public ValuePartitionExecutor(ExpressionExecutor expressionExecutor) {
+    public ValuePartitionExecutor(ExpressionExecutor expressionExecutor, int keyCacheSize) {
         this.expressionExecutor = expressionExecutor;
+        if (PrimitiveKeyCache.isSupported(expressionExecutor.getReturnType(), keyCacheSize)) {
+            primitiveKeyCache = new PrimitiveKeyCache(keyCacheSize, null);
+        }
     }
 
     public String execute(ComplexEvent event) {
         try {
+            if (primitiveKeyCache != null) {
+                return primitiveKeyCache.getKey(expressionExecutor.execute(event));
+            }
             return expressionExecutor.execute(event).toString();
         } catch (NullPointerException ex) {
             return null;
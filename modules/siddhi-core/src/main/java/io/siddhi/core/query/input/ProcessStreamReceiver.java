@@ -23,6 +23,7 @@ import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.PooledStreamEventFactory;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.StreamEventConverter;
@@ -54,6 +55,7 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     private StreamEventConverter streamEventConverter;
     private MetaStreamEvent metaStreamEvent;
     private StreamEventFactory streamEventFactory;
+    private PooledStreamEventFactory pooledStreamEventFactory;
     private SiddhiDebugger siddhiDebugger;
 
     public ProcessStreamReceiver(String streamId,
@@ -67,6 +69,10 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         return streamId;
     }
 
+    public SiddhiQueryContext getSiddhiQueryContext() {
+        return siddhiQueryContext;
+    }
+
     public void setSiddhiDebugger(SiddhiDebugger siddhiDebugger) {
         this.siddhiDebugger = siddhiDebugger;
     }
@@ -180,6 +186,14 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
 
     protected void processAndClear(ComplexEventChunk<StreamEvent> streamEventChunk) {
         next.process(streamEventChunk);
+        if (pooledStreamEventFactory != null && siddhiDebugger == null) {
+            StreamEvent streamEvent = streamEventChunk.getFirst();
+            while (streamEvent != null) {
+                StreamEvent nextEvent = streamEvent.getNext();
+                pooledStreamEventFactory.recycle(streamEvent);
+                streamEvent = nextEvent;
+            }
+        }
         streamEventChunk.clear();
     }
 
@@ -198,6 +212,15 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
 
     public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
         this.streamEventFactory = streamEventFactory;
+        if (streamEventFactory instanceof PooledStreamEventFactory) {
+            this.pooledStreamEventFactory = (PooledStreamEventFactory) streamEventFactory;
+        } else {
+            this.pooledStreamEventFactory = null;
+        }
+    }
+
+    public StreamEventFactory getStreamEventFactory() {
+        return streamEventFactory;
     }
 
     public void setLockWrapper(LockWrapper lockWrapper) {
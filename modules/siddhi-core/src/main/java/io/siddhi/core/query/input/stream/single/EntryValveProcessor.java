@@ -21,6 +21,7 @@ package io.siddhi.core.query.input.stream.single;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.RecycleSafeProcessor;
 import io.siddhi.core.util.Schedulable;
 import io.siddhi.core.util.ThreadBarrier;
 
@@ -29,7 +30,7 @@ import java.util.List;
 /**
  * Entry Valve Siddhi processor chain.
  */
-public class EntryValveProcessor implements Processor, Schedulable {
+public class EntryValveProcessor implements RecycleSafeProcessor, Schedulable {
 
     private Processor next;
     private ThreadBarrier threadBarrier;
@@ -22,6 +22,7 @@ import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.RecycleSafeProcessor;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.List;
@@ -29,7 +30,7 @@ import java.util.List;
 /**
  * Implementation of {@link Processor} which handles Filter expressions in Siddhi.
  */
-public class FilterProcessor implements Processor {
+public class FilterProcessor implements RecycleSafeProcessor {
 
     protected Processor next;
     private ExpressionExecutor conditionExecutor;
@@ -33,6 +33,7 @@ import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.RecycleSafeProcessor;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.collection.operator.CompiledCondition;
 import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
@@ -78,7 +79,8 @@ import java.util.Map;
                 description = "This will process last 10 events in a sliding manner."
         )
 )
-public class LengthWindowProcessor extends SlidingFindableWindowProcessor<LengthWindowProcessor.WindowState> {
+public class LengthWindowProcessor extends SlidingFindableWindowProcessor<LengthWindowProcessor.WindowState>
+        implements RecycleSafeProcessor {
 
     private int length;
 
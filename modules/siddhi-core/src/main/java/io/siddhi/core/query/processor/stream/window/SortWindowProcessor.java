@@ -33,6 +33,7 @@ import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
 import io.siddhi.core.table.Table;
+import io.siddhi.core.util.collection.SortedEventCollection;
 import io.siddhi.core.util.collection.operator.CompiledCondition;
 import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import io.siddhi.core.util.collection.operator.Operator;
@@ -44,7 +45,6 @@ import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -146,7 +146,7 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
                 parameterInfo.add(new Object[]{variableExpressionExecutor, order});
             }
         }
-        return () -> new WindowState();
+        return () -> new WindowState(eventComparator);
     }
 
     @Override
@@ -169,8 +169,7 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
 
                 state.sortedWindow.add(clonedEvent);
                 if (state.sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(state.sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = state.sortedWindow.remove(state.sortedWindow.size() - 1);
+                    StreamEvent expiredEvent = state.sortedWindow.removeLast();
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -225,7 +224,11 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
     }
 
     class WindowState extends State {
-        private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
+        private final SortedEventCollection sortedWindow;
+
+        WindowState(EventComparator eventComparator) {
+            this.sortedWindow = new SortedEventCollection(eventComparator);
+        }
 
         @Override
         public boolean canDestroy() {
@@ -235,13 +238,14 @@ public class SortWindowProcessor extends SlidingFindableWindowProcessor<SortWind
         @Override
         public Map<String, Object> snapshot() {
             Map<String, Object> state = new HashMap<>();
-            state.put("SortedWindow", sortedWindow);
+            state.put("SortedWindow", new ArrayList<>(sortedWindow));
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
-            sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+            sortedWindow.clear();
+            sortedWindow.addAll((List<StreamEvent>) state.get("SortedWindow"));
         }
     }
 }
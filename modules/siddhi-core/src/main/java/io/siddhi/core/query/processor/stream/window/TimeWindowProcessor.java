@@ -33,6 +33,7 @@ import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.RecycleSafeProcessor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.Scheduler;
@@ -84,7 +85,7 @@ import java.util.Map;
         }
 )
 public class TimeWindowProcessor extends SlidingFindableWindowProcessor<TimeWindowProcessor.WindowState>
-        implements SchedulingProcessor {
+        implements SchedulingProcessor, RecycleSafeProcessor {
 
     private long timeInMilliSeconds;
     private Scheduler scheduler;
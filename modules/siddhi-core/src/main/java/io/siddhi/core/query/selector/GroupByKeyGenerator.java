@@ -25,6 +25,7 @@ import io.siddhi.core.executor.VariableExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.collection.PrimitiveKeyCache;
 import io.siddhi.core.util.parser.ExpressionParser;
 import io.siddhi.query.api.expression.Expression;
 
@@ -37,6 +38,7 @@ import java.util.Map;
 public class GroupByKeyGenerator {
 
     private ExpressionExecutor[] groupByExecutors = null;
+    private PrimitiveKeyCache primitiveKeyCache = null;
 
     public GroupByKeyGenerator(List<Expression> groupByList,
                                MetaComplexEvent metaComplexEvent,
@@ -51,6 +53,11 @@ public class GroupByKeyGenerator {
                         false, 0, ProcessingMode.BATCH, false,
                         siddhiQueryContext);
             }
+            int keyCacheSize = siddhiQueryContext.getSiddhiAppContext().getKeyCacheSize();
+            if (groupByExecutors.length == 1 &&
+                    PrimitiveKeyCache.isSupported(groupByExecutors[0].getReturnType(), keyCacheSize)) {
+                primitiveKeyCache = new PrimitiveKeyCache(keyCacheSize, SiddhiConstants.KEY_DELIMITER);
+            }
         }
     }
 
@@ -62,6 +69,12 @@ public class GroupByKeyGenerator {
      */
     public String constructEventKey(ComplexEvent event) {
         if (groupByExecutors != null) {
+            if (primitiveKeyCache != null) {
+                Object value = groupByExecutors[0].execute(event);
+                if (value != null) {
+                    return primitiveKeyCache.getKey(value);
+                }
+            }
             StringBuilder sb = new StringBuilder();
             for (ExpressionExecutor executor : groupByExecutors) {
                 sb.append(executor.execute(event)).append(SiddhiConstants.KEY_DELIMITER);
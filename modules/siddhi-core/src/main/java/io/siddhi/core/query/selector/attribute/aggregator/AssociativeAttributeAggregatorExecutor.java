@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.selector.attribute.aggregator;
+
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.collection.SlidingWindowAggregator;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Abstract parent class for attribute aggregators that can merge two partial aggregates with an associative
+ * {@link #combine(Object, Object)} function, but cannot remove a value from an aggregate, such as concatenations.
+ * Extensions only implement the combine function, and for sliding windows the values are kept in a
+ * {@link SlidingWindowAggregator} that updates the aggregate in amortized O(1) when the window expires the values
+ * in their arrival order. Otherwise only the running aggregate is kept.
+ * <p>
+ * Each value is its own partial aggregate, hence the aggregate has the same type as the single parameter.
+ */
+public abstract class AssociativeAttributeAggregatorExecutor
+        extends AttributeAggregatorExecutor<AssociativeAttributeAggregatorExecutor.AggregatorState> {
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param processingMode               query processing mode
+     * @param outputExpectsExpiredEvents   is expired events sent as output
+     * @param configReader                 this hold the {@link AssociativeAttributeAggregatorExecutor} configuration
+     *                                     reader.
+     * @param siddhiQueryContext           Siddhi query runtime context
+     */
+    @Override
+    protected StateFactory<AggregatorState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                                 ProcessingMode processingMode,
+                                                 boolean outputExpectsExpiredEvents, ConfigReader configReader,
+                                                 SiddhiQueryContext siddhiQueryContext) {
+        if (attributeExpressionExecutors.length != 1) {
+            throw new OperationNotSupportedException(this.getClass().getSimpleName() + " has to have exactly 1 " +
+                    "parameter, currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        init(attributeExpressionExecutors[0], configReader, siddhiQueryContext);
+        boolean trackFutureStates = processingMode == ProcessingMode.SLIDE || outputExpectsExpiredEvents;
+        return () -> new AggregatorState(trackFutureStates);
+    }
+
+    /**
+     * The initialization method of the extension
+     *
+     * @param attributeExpressionExecutor executor of the aggregated attribute
+     * @param configReader                this hold the extension configuration reader.
+     * @param siddhiQueryContext          Siddhi query runtime context
+     */
+    protected abstract void init(ExpressionExecutor attributeExpressionExecutor, ConfigReader configReader,
+                                 SiddhiQueryContext siddhiQueryContext);
+
+    /**
+     * Merges two partial aggregates, where the left aggregate covers the older values. The function has to be
+     * associative, and it should not modify the given aggregates as they are kept by the sliding window.
+     *
+     * @param left  aggregate of the older values
+     * @param right aggregate of the newer values
+     * @return aggregate of both
+     */
+    protected abstract Object combine(Object left, Object right);
+
+    @Override
+    public Object processAdd(Object data, AggregatorState state) {
+        if (data == null) {
+            return state.aggregate;
+        }
+        return state.processAdd(data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data, AggregatorState state) {
+        // will not occur
+        throw new IllegalStateException(this.getClass().getSimpleName() + " cannot process data array, but found " +
+                Arrays.deepToString(data));
+    }
+
+    @Override
+    public Object processRemove(Object data, AggregatorState state) {
+        if (data == null) {
+            return state.aggregate;
+        }
+        return state.processRemove(data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data, AggregatorState state) {
+        // will not occur
+        throw new IllegalStateException(this.getClass().getSimpleName() + " cannot process data array, but found " +
+                Arrays.deepToString(data));
+    }
+
+    @Override
+    public Object reset(AggregatorState state) {
+        if (state.window != null) {
+            state.window.clear();
+        }
+        state.aggregate = null;
+        return null;
+    }
+
+    class AggregatorState extends State {
+
+        private SlidingWindowAggregator<Object> window = null;
+        private Object aggregate = null;
+
+        public AggregatorState(boolean trackFutureStates) {
+            if (trackFutureStates) {
+                window = new SlidingWindowAggregator<>(AssociativeAttributeAggregatorExecutor.this::combine);
+            }
+        }
+
+        private Object processAdd(Object value) {
+            if (window != null) {
+                window.add(value);
+                aggregate = window.aggregate();
+            } else {
+                aggregate = aggregate == null ? value : combine(aggregate, value);
+            }
+            return aggregate;
+        }
+
+        private Object processRemove(Object value) {
+            if (window != null) {
+                window.remove(value);
+                aggregate = window.aggregate();
+            }
+            return aggregate;
+        }
+
+        @Override
+        public boolean canDestroy() {
+            return (window == null || window.isEmpty()) && aggregate == null;
+        }
+
+        @Override
+        public Map<String, Object> snapshot() {
+            Map<String, Object> state = new HashMap<>();
+            state.put("Aggregate", aggregate);
+            state.put("Values", window != null ? window.values() : null);
+            return state;
+        }
+
+        @Override
+        public void restore(Map<String, Object> state) {
+            aggregate = state.get("Aggregate");
+            List<Object> values = (List<Object>) state.get("Values");
+            if (window != null && values != null) {
+                window.clear();
+                for (Object value : values) {
+                    window.add(value);
+                }
+            }
+        }
+    }
+}
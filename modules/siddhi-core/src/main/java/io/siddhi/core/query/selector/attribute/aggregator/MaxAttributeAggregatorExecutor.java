@@ -27,16 +27,16 @@ import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.collection.DoubleArrayDeque;
+import io.siddhi.core.util.collection.LongArrayDeque;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -151,12 +151,14 @@ public class MaxAttributeAggregatorExecutor
 
     class MaxAttributeAggregatorStateDouble extends MaxAggregatorState {
 
-        private Deque<Double> maxDeque = null;
+        private DoubleArrayDeque maxDeque = null;
+        private DoubleArrayDeque windowDeque = null;
         private volatile Double maxValue = null;
 
         public MaxAttributeAggregatorStateDouble(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxDeque = new DoubleArrayDeque();
+                windowDeque = new DoubleArrayDeque();
             }
         }
 
@@ -164,14 +166,8 @@ public class MaxAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Double value = (Double) data;
             if (maxDeque != null) {
-                for (Iterator<Double> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMaxDeque(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -182,8 +178,22 @@ public class MaxAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+                double value = (Double) data;
+                if (!windowDeque.isEmpty() && Double.compare(windowDeque.peekFirst(), value) == 0) {
+                    // the oldest value is expired, which is only kept in the max deque if it is the max
+                    windowDeque.pollFirst();
+                    if (Double.compare(maxDeque.peekFirst(), value) == 0) {
+                        maxDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the max deque
+                    rebuildMaxDeque();
+                }
+                if (maxDeque.isEmpty()) {
+                    maxValue = null;
+                } else if (maxValue == null || Double.compare(maxValue, maxDeque.peekFirst()) != 0) {
+                    maxValue = maxDeque.peekFirst();
+                }
             } else {
                 if (maxValue != null && maxValue.equals(data)) {
                     maxValue = null;
@@ -196,6 +206,7 @@ public class MaxAttributeAggregatorExecutor
         public Object reset() {
             if (maxDeque != null) {
                 maxDeque.clear();
+                windowDeque.clear();
             }
             maxValue = null;
             return null;
@@ -211,13 +222,40 @@ public class MaxAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
             state.put("MaxDeque", maxDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Double) state.get("MaxValue");
-            maxDeque = (Deque<Double>) state.get("MaxDeque");
+            Object deque = state.get("MaxDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            maxDeque = deque instanceof Collection ?
+                    DoubleArrayDeque.from((Collection<Double>) deque) : (DoubleArrayDeque) deque;
+            windowDeque = (DoubleArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && maxDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the max are tracked
+                windowDeque = new DoubleArrayDeque();
+                for (int i = 0; i < maxDeque.size(); i++) {
+                    windowDeque.addLast(maxDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMaxDeque(double value) {
+            while (!maxDeque.isEmpty() && maxDeque.peekLast() < value) {
+                maxDeque.pollLast();
+            }
+            maxDeque.addLast(value);
+        }
+
+        private void rebuildMaxDeque() {
+            maxDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMaxDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -227,12 +265,14 @@ public class MaxAttributeAggregatorExecutor
 
     class MaxAttributeAggregatorStateFloat extends MaxAggregatorState {
 
-        private Deque<Float> maxDeque = null;
+        private DoubleArrayDeque maxDeque = null;
+        private DoubleArrayDeque windowDeque = null;
         private volatile Float maxValue = null;
 
         public MaxAttributeAggregatorStateFloat(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxDeque = new DoubleArrayDeque();
+                windowDeque = new DoubleArrayDeque();
             }
         }
 
@@ -240,14 +280,8 @@ public class MaxAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Float value = (Float) data;
             if (maxDeque != null) {
-                for (Iterator<Float> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMaxDeque(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -258,8 +292,22 @@ public class MaxAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+                double value = (Float) data;
+                if (!windowDeque.isEmpty() && Double.compare(windowDeque.peekFirst(), value) == 0) {
+                    // the oldest value is expired, which is only kept in the max deque if it is the max
+                    windowDeque.pollFirst();
+                    if (Double.compare(maxDeque.peekFirst(), value) == 0) {
+                        maxDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the max deque
+                    rebuildMaxDeque();
+                }
+                if (maxDeque.isEmpty()) {
+                    maxValue = null;
+                } else if (maxValue == null || Double.compare(maxValue, maxDeque.peekFirst()) != 0) {
+                    maxValue = (float) maxDeque.peekFirst();
+                }
             } else {
                 if (maxValue != null && maxValue.equals(data)) {
                     maxValue = null;
@@ -272,6 +320,7 @@ public class MaxAttributeAggregatorExecutor
         public Object reset() {
             if (maxDeque != null) {
                 maxDeque.clear();
+                windowDeque.clear();
             }
             maxValue = null;
             return null;
@@ -287,13 +336,40 @@ public class MaxAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
             state.put("MaxDeque", maxDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Float) state.get("MaxValue");
-            maxDeque = (Deque<Float>) state.get("MaxDeque");
+            Object deque = state.get("MaxDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            maxDeque = deque instanceof Collection ?
+                    DoubleArrayDeque.from((Collection<Float>) deque) : (DoubleArrayDeque) deque;
+            windowDeque = (DoubleArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && maxDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the max are tracked
+                windowDeque = new DoubleArrayDeque();
+                for (int i = 0; i < maxDeque.size(); i++) {
+                    windowDeque.addLast(maxDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMaxDeque(double value) {
+            while (!maxDeque.isEmpty() && maxDeque.peekLast() < value) {
+                maxDeque.pollLast();
+            }
+            maxDeque.addLast(value);
+        }
+
+        private void rebuildMaxDeque() {
+            maxDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMaxDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -304,12 +380,14 @@ public class MaxAttributeAggregatorExecutor
 
     class MaxAttributeAggregatorStateInt extends MaxAggregatorState {
 
-        private Deque<Integer> maxDeque = null;
+        private LongArrayDeque maxDeque = null;
+        private LongArrayDeque windowDeque = null;
         private volatile Integer maxValue = null;
 
         public MaxAttributeAggregatorStateInt(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxDeque = new LongArrayDeque();
+                windowDeque = new LongArrayDeque();
             }
         }
 
@@ -317,14 +395,8 @@ public class MaxAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Integer value = (Integer) data;
             if (maxDeque != null) {
-                for (Iterator<Integer> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMaxDeque(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -335,8 +407,22 @@ public class MaxAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+                long value = (Integer) data;
+                if (!windowDeque.isEmpty() && windowDeque.peekFirst() == value) {
+                    // the oldest value is expired, which is only kept in the max deque if it is the max
+                    windowDeque.pollFirst();
+                    if (maxDeque.peekFirst() == value) {
+                        maxDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the max deque
+                    rebuildMaxDeque();
+                }
+                if (maxDeque.isEmpty()) {
+                    maxValue = null;
+                } else if (maxValue == null || maxValue != maxDeque.peekFirst()) {
+                    maxValue = (int) maxDeque.peekFirst();
+                }
             } else {
                 if (maxValue != null && maxValue.equals(data)) {
                     maxValue = null;
@@ -349,6 +435,7 @@ public class MaxAttributeAggregatorExecutor
         public Object reset() {
             if (maxDeque != null) {
                 maxDeque.clear();
+                windowDeque.clear();
             }
             maxValue = null;
             return null;
@@ -364,13 +451,40 @@ public class MaxAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
             state.put("MaxDeque", maxDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Integer) state.get("MaxValue");
-            maxDeque = (Deque<Integer>) state.get("MaxDeque");
+            Object deque = state.get("MaxDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            maxDeque = deque instanceof Collection ?
+                    LongArrayDeque.from((Collection<Integer>) deque) : (LongArrayDeque) deque;
+            windowDeque = (LongArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && maxDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the max are tracked
+                windowDeque = new LongArrayDeque();
+                for (int i = 0; i < maxDeque.size(); i++) {
+                    windowDeque.addLast(maxDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMaxDeque(long value) {
+            while (!maxDeque.isEmpty() && maxDeque.peekLast() < value) {
+                maxDeque.pollLast();
+            }
+            maxDeque.addLast(value);
+        }
+
+        private void rebuildMaxDeque() {
+            maxDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMaxDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -381,12 +495,14 @@ public class MaxAttributeAggregatorExecutor
 
     class MaxAttributeAggregatorStateLong extends MaxAggregatorState {
 
-        private Deque<Long> maxDeque = null;
+        private LongArrayDeque maxDeque = null;
+        private LongArrayDeque windowDeque = null;
         private volatile Long maxValue = null;
 
         public MaxAttributeAggregatorStateLong(boolean trackFutureStates) {
             if (trackFutureStates) {
-                maxDeque = new LinkedList<>();
+                maxDeque = new LongArrayDeque();
+                windowDeque = new LongArrayDeque();
             }
         }
 
@@ -394,14 +510,8 @@ public class MaxAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Long value = (Long) data;
             if (maxDeque != null) {
-                for (Iterator<Long> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() < value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                maxDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMaxDeque(value);
             }
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -412,8 +522,22 @@ public class MaxAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (maxDeque != null) {
-                maxDeque.removeFirstOccurrence(data);
-                maxValue = maxDeque.peekFirst();
+                long value = (Long) data;
+                if (!windowDeque.isEmpty() && windowDeque.peekFirst() == value) {
+                    // the oldest value is expired, which is only kept in the max deque if it is the max
+                    windowDeque.pollFirst();
+                    if (maxDeque.peekFirst() == value) {
+                        maxDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the max deque
+                    rebuildMaxDeque();
+                }
+                if (maxDeque.isEmpty()) {
+                    maxValue = null;
+                } else if (maxValue == null || maxValue != maxDeque.peekFirst()) {
+                    maxValue = maxDeque.peekFirst();
+                }
             } else {
                 if (maxValue != null && maxValue.equals(data)) {
                     maxValue = null;
@@ -426,6 +550,7 @@ public class MaxAttributeAggregatorExecutor
         public Object reset() {
             if (maxDeque != null) {
                 maxDeque.clear();
+                windowDeque.clear();
             }
             maxValue = null;
             return null;
@@ -441,13 +566,40 @@ public class MaxAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MaxValue", maxValue);
             state.put("MaxDeque", maxDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             maxValue = (Long) state.get("MaxValue");
-            maxDeque = (Deque<Long>) state.get("MaxDeque");
+            Object deque = state.get("MaxDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            maxDeque = deque instanceof Collection ?
+                    LongArrayDeque.from((Collection<Long>) deque) : (LongArrayDeque) deque;
+            windowDeque = (LongArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && maxDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the max are tracked
+                windowDeque = new LongArrayDeque();
+                for (int i = 0; i < maxDeque.size(); i++) {
+                    windowDeque.addLast(maxDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMaxDeque(long value) {
+            while (!maxDeque.isEmpty() && maxDeque.peekLast() < value) {
+                maxDeque.pollLast();
+            }
+            maxDeque.addLast(value);
+        }
+
+        private void rebuildMaxDeque() {
+            maxDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMaxDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -27,16 +27,16 @@ import io.siddhi.core.config.SiddhiQueryContext;
 import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.util.collection.DoubleArrayDeque;
+import io.siddhi.core.util.collection.LongArrayDeque;
 import io.siddhi.core.util.config.ConfigReader;
 import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateFactory;
 import io.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -158,12 +158,14 @@ public class MinAttributeAggregatorExecutor
     class MinAttributeAggregatorStateDouble extends MinAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> minDeque = null;
+        private DoubleArrayDeque minDeque = null;
+        private DoubleArrayDeque windowDeque = null;
         private volatile Double minValue = null;
 
         public MinAttributeAggregatorStateDouble(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minDeque = new DoubleArrayDeque();
+                windowDeque = new DoubleArrayDeque();
             }
         }
 
@@ -175,14 +177,8 @@ public class MinAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Double value = (Double) data;
             if (minDeque != null) {
-                for (Iterator<Double> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMinDeque(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -193,8 +189,22 @@ public class MinAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+                double value = (Double) data;
+                if (!windowDeque.isEmpty() && Double.compare(windowDeque.peekFirst(), value) == 0) {
+                    // the oldest value is expired, which is only kept in the min deque if it is the min
+                    windowDeque.pollFirst();
+                    if (Double.compare(minDeque.peekFirst(), value) == 0) {
+                        minDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the min deque
+                    rebuildMinDeque();
+                }
+                if (minDeque.isEmpty()) {
+                    minValue = null;
+                } else if (minValue == null || Double.compare(minValue, minDeque.peekFirst()) != 0) {
+                    minValue = minDeque.peekFirst();
+                }
             } else {
                 if (minValue != null && minValue.equals(data)) {
                     minValue = null;
@@ -207,6 +217,7 @@ public class MinAttributeAggregatorExecutor
         public Object reset() {
             if (minDeque != null) {
                 minDeque.clear();
+                windowDeque.clear();
             }
             minValue = null;
             return null;
@@ -222,13 +233,40 @@ public class MinAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
             state.put("MinDeque", minDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Double) state.get("MinValue");
-            minDeque = (Deque<Double>) state.get("MinDeque");
+            Object deque = state.get("MinDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            minDeque = deque instanceof Collection ?
+                    DoubleArrayDeque.from((Collection<Double>) deque) : (DoubleArrayDeque) deque;
+            windowDeque = (DoubleArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && minDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the min are tracked
+                windowDeque = new DoubleArrayDeque();
+                for (int i = 0; i < minDeque.size(); i++) {
+                    windowDeque.addLast(minDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMinDeque(double value) {
+            while (!minDeque.isEmpty() && minDeque.peekLast() > value) {
+                minDeque.pollLast();
+            }
+            minDeque.addLast(value);
+        }
+
+        private void rebuildMinDeque() {
+            minDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMinDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -240,12 +278,14 @@ public class MinAttributeAggregatorExecutor
     class MinAttributeAggregatorStateFloat extends MinAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> minDeque = null;
+        private DoubleArrayDeque minDeque = null;
+        private DoubleArrayDeque windowDeque = null;
         private volatile Float minValue = null;
 
         public MinAttributeAggregatorStateFloat(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minDeque = new DoubleArrayDeque();
+                windowDeque = new DoubleArrayDeque();
             }
         }
 
@@ -257,14 +297,8 @@ public class MinAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Float value = (Float) data;
             if (minDeque != null) {
-                for (Iterator<Float> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMinDeque(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -275,8 +309,22 @@ public class MinAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+                double value = (Float) data;
+                if (!windowDeque.isEmpty() && Double.compare(windowDeque.peekFirst(), value) == 0) {
+                    // the oldest value is expired, which is only kept in the min deque if it is the min
+                    windowDeque.pollFirst();
+                    if (Double.compare(minDeque.peekFirst(), value) == 0) {
+                        minDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the min deque
+                    rebuildMinDeque();
+                }
+                if (minDeque.isEmpty()) {
+                    minValue = null;
+                } else if (minValue == null || Double.compare(minValue, minDeque.peekFirst()) != 0) {
+                    minValue = (float) minDeque.peekFirst();
+                }
             } else {
                 if (minValue != null && minValue.equals(data)) {
                     minValue = null;
@@ -289,6 +337,7 @@ public class MinAttributeAggregatorExecutor
         public Object reset() {
             if (minDeque != null) {
                 minDeque.clear();
+                windowDeque.clear();
             }
             minValue = null;
             return null;
@@ -304,13 +353,40 @@ public class MinAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
             state.put("MinDeque", minDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Float) state.get("MinValue");
-            minDeque = (Deque<Float>) state.get("MinDeque");
+            Object deque = state.get("MinDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            minDeque = deque instanceof Collection ?
+                    DoubleArrayDeque.from((Collection<Float>) deque) : (DoubleArrayDeque) deque;
+            windowDeque = (DoubleArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && minDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the min are tracked
+                windowDeque = new DoubleArrayDeque();
+                for (int i = 0; i < minDeque.size(); i++) {
+                    windowDeque.addLast(minDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMinDeque(double value) {
+            while (!minDeque.isEmpty() && minDeque.peekLast() > value) {
+                minDeque.pollLast();
+            }
+            minDeque.addLast(value);
+        }
+
+        private void rebuildMinDeque() {
+            minDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMinDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -321,12 +397,14 @@ public class MinAttributeAggregatorExecutor
     class MinAttributeAggregatorStateInt extends MinAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> minDeque = null;
+        private LongArrayDeque minDeque = null;
+        private LongArrayDeque windowDeque = null;
         private volatile Integer minValue = null;
 
         public MinAttributeAggregatorStateInt(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minDeque = new LongArrayDeque();
+                windowDeque = new LongArrayDeque();
             }
         }
 
@@ -338,15 +416,8 @@ public class MinAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Integer value = (Integer) data;
             if (minDeque != null) {
-                for (Iterator<Integer> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMinDeque(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -358,6 +429,7 @@ public class MinAttributeAggregatorExecutor
         public Object reset() {
             if (minDeque != null) {
                 minDeque.clear();
+                windowDeque.clear();
             }
             minValue = null;
             return null;
@@ -371,8 +443,22 @@ public class MinAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+                long value = (Integer) data;
+                if (!windowDeque.isEmpty() && windowDeque.peekFirst() == value) {
+                    // the oldest value is expired, which is only kept in the min deque if it is the min
+                    windowDeque.pollFirst();
+                    if (minDeque.peekFirst() == value) {
+                        minDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the min deque
+                    rebuildMinDeque();
+                }
+                if (minDeque.isEmpty()) {
+                    minValue = null;
+                } else if (minValue == null || minValue != minDeque.peekFirst()) {
+                    minValue = (int) minDeque.peekFirst();
+                }
             } else {
                 if (minValue != null && minValue.equals(data)) {
                     minValue = null;
@@ -386,13 +472,40 @@ public class MinAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
             state.put("MinDeque", minDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Integer) state.get("MinValue");
-            minDeque = (Deque<Integer>) state.get("MinDeque");
+            Object deque = state.get("MinDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            minDeque = deque instanceof Collection ?
+                    LongArrayDeque.from((Collection<Integer>) deque) : (LongArrayDeque) deque;
+            windowDeque = (LongArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && minDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the min are tracked
+                windowDeque = new LongArrayDeque();
+                for (int i = 0; i < minDeque.size(); i++) {
+                    windowDeque.addLast(minDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMinDeque(long value) {
+            while (!minDeque.isEmpty() && minDeque.peekLast() > value) {
+                minDeque.pollLast();
+            }
+            minDeque.addLast(value);
+        }
+
+        private void rebuildMinDeque() {
+            minDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMinDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
@@ -403,12 +516,14 @@ public class MinAttributeAggregatorExecutor
     class MinAttributeAggregatorStateLong extends MinAggregatorState {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> minDeque = null;
+        private LongArrayDeque minDeque = null;
+        private LongArrayDeque windowDeque = null;
         private volatile Long minValue = null;
 
         public MinAttributeAggregatorStateLong(boolean trackFutureStates) {
             if (trackFutureStates) {
-                minDeque = new LinkedList<>();
+                minDeque = new LongArrayDeque();
+                windowDeque = new LongArrayDeque();
             }
         }
 
@@ -420,14 +535,8 @@ public class MinAttributeAggregatorExecutor
         public Object processAdd(Object data) {
             Long value = (Long) data;
             if (minDeque != null) {
-                for (Iterator<Long> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                    if (iterator.next() > value) {
-                        iterator.remove();
-                    } else {
-                        break;
-                    }
-                }
-                minDeque.addLast(value);
+                windowDeque.addLast(value);
+                addToMinDeque(value);
             }
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -439,6 +548,7 @@ public class MinAttributeAggregatorExecutor
         public Object reset() {
             if (minDeque != null) {
                 minDeque.clear();
+                windowDeque.clear();
             }
             minValue = null;
             return null;
@@ -452,8 +562,22 @@ public class MinAttributeAggregatorExecutor
         @Override
         public Object processRemove(Object data) {
             if (minDeque != null) {
-                minDeque.removeFirstOccurrence(data);
-                minValue = minDeque.peekFirst();
+                long value = (Long) data;
+                if (!windowDeque.isEmpty() && windowDeque.peekFirst() == value) {
+                    // the oldest value is expired, which is only kept in the min deque if it is the min
+                    windowDeque.pollFirst();
+                    if (minDeque.peekFirst() == value) {
+                        minDeque.pollFirst();
+                    }
+                } else if (windowDeque.removeFirstOccurrence(value)) {
+                    // values expired out of arrival order can be anywhere in the min deque
+                    rebuildMinDeque();
+                }
+                if (minDeque.isEmpty()) {
+                    minValue = null;
+                } else if (minValue == null || minValue != minDeque.peekFirst()) {
+                    minValue = minDeque.peekFirst();
+                }
             } else {
                 if (minValue != null && minValue.equals(data)) {
                     minValue = null;
@@ -467,13 +591,40 @@ public class MinAttributeAggregatorExecutor
             Map<String, Object> state = new HashMap<>();
             state.put("MinValue", minValue);
             state.put("MinDeque", minDeque);
+            state.put("WindowDeque", windowDeque);
             return state;
         }
 
         @Override
         public void restore(Map<String, Object> state) {
             minValue = (Long) state.get("MinValue");
-            minDeque = (Deque<Long>) state.get("MinDeque");
+            Object deque = state.get("MinDeque");
+            // states persisted by earlier versions hold boxed values in a linked list
+            minDeque = deque instanceof Collection ?
+                    LongArrayDeque.from((Collection<Long>) deque) : (LongArrayDeque) deque;
+            windowDeque = (LongArrayDeque) state.get("WindowDeque");
+            if (windowDeque == null && minDeque != null) {
+                // states persisted by earlier versions do not hold the window values, hence only the values that
+                // can still become the min are tracked
+                windowDeque = new LongArrayDeque();
+                for (int i = 0; i < minDeque.size(); i++) {
+                    windowDeque.addLast(minDeque.get(i));
+                }
+            }
+        }
+
+        private void addToMinDeque(long value) {
+            while (!minDeque.isEmpty() && minDeque.peekLast() > value) {
+                minDeque.pollLast();
+            }
+            minDeque.addLast(value);
+        }
+
+        private void rebuildMinDeque() {
+            minDeque.clear();
+            for (int i = 0; i < windowDeque.size(); i++) {
+                addToMinDeque(windowDeque.get(i));
+            }
         }
 
         protected Object currentValue() {
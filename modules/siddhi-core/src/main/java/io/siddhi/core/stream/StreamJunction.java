@@ -19,7 +19,13 @@
 package io.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.LiteBlockingWaitStrategy;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.config.SiddhiAppContext;
@@ -48,9 +54,11 @@ import org.apache.log4j.Logger;
 import java.beans.ExceptionListener;
 import java.lang.reflect.Constructor;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
@@ -69,6 +77,9 @@ public class StreamJunction implements EventBufferHolder {
     private List<Publisher> publishers = new LinkedList<>();
     private ExecutorService executorService;
     private boolean async = false;
+    private boolean workerPool = false;
+    private WaitStrategyType waitStrategyType;
+    private ProducerType producerType;
     private Disruptor<EventExchangeHolder> disruptor;
     private RingBuffer<EventExchangeHolder> ringBuffer;
     private ThroughputTracker throughputTracker = null;
@@ -117,6 +128,20 @@ public class StreamJunction implements EventBufferHolder {
                                 siddhiAppContext.getSiddhiAppString());
                     }
                 }
+                String workerPoolString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL);
+                if (workerPoolString != null) {
+                    this.workerPool = Boolean.parseBoolean(workerPoolString);
+                }
+                String waitStrategyString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyString != null) {
+                    this.waitStrategyType = parseWaitStrategy(waitStrategyString, asyncAnnotation);
+                }
+                String producerTypeString = asyncAnnotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE);
+                if (producerTypeString != null) {
+                    this.producerType = parseProducerType(producerTypeString, asyncAnnotation);
+                }
                 String batchSizeString = asyncAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_BATCH_SIZE);
                 if (batchSizeString != null) {
                     this.batchSize = Integer.parseInt(batchSizeString);
@@ -143,26 +168,48 @@ public class StreamJunction implements EventBufferHolder {
         isTraceEnabled = log.isTraceEnabled();
     }
 
+    private WaitStrategyType parseWaitStrategy(String waitStrategyString, Annotation asyncAnnotation) {
+        try {
+            return WaitStrategyType.valueOf(waitStrategyString.trim().toUpperCase().replace('.', '_')
+                    .replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new SiddhiAppCreationException("Annotation element '" +
+                    SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY + "' only supports " +
+                    Arrays.toString(WaitStrategyType.values()).toLowerCase() + ", but found, '" +
+                    waitStrategyString + "'.", e, asyncAnnotation.getQueryContextStartIndex(),
+                    asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+    }
+
+    private ProducerType parseProducerType(String producerTypeString, Annotation asyncAnnotation) {
+        try {
+            return ProducerType.valueOf(producerTypeString.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new SiddhiAppCreationException("Annotation element '" +
+                    SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE + "' only supports " +
+                    Arrays.toString(ProducerType.values()).toLowerCase() + ", but found, '" +
+                    producerTypeString + "'.", e, asyncAnnotation.getQueryContextStartIndex(),
+                    asyncAnnotation.getQueryContextEndIndex(), siddhiAppContext.getName(),
+                    siddhiAppContext.getSiddhiAppString());
+        }
+    }
+
     public void sendEvent(ComplexEvent complexEvent) {
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int eventCount = 0;
             while (complexEventList != null) {
-                if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(complexEventList);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
+                eventCount++;
                 complexEventList = complexEventList.getNext();
             }
+            if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
+                throughputTracker.eventsIn(eventCount);
+            }
+            publishComplexEvents(complexEvent, eventCount);
         } else {
             if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
                 int messageCount = 0;
@@ -188,9 +235,7 @@ public class StreamJunction implements EventBufferHolder {
         if (disruptor != null) {
             long sequenceNo = ringBuffer.next();
             try {
-                EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                eventExchangeHolder.getEvent().copyFrom(event);
-                eventExchangeHolder.getAndSetIsProcessed(false);
+                ringBuffer.get(sequenceNo).copyFrom(event);
             } finally {
                 ringBuffer.publish(sequenceNo);
             }
@@ -209,16 +254,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishEvents(events);
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events);
@@ -231,16 +267,7 @@ public class StreamJunction implements EventBufferHolder {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    EventExchangeHolder eventExchangeHolder = ringBuffer.get(sequenceNo);
-                    eventExchangeHolder.getEvent().copyFrom(event);
-                    eventExchangeHolder.getAndSetIsProcessed(false);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishEvents(events.iterator(), events.size());
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events.toArray(new Event[events.size()]));
@@ -248,6 +275,64 @@ public class StreamJunction implements EventBufferHolder {
         }
     }
 
+    /**
+     * Publish the given events to the ring buffer claiming and publishing sequences in batches, where each batch is
+     * bounded by the ring buffer size.
+     *
+     * @param events events to be published
+     */
+    private void publishEvents(Event[] events) {
+        int index = 0;
+        while (index < events.length) {
+            int claimSize = Math.min(events.length - index, bufferSize);
+            long hiSequence = ringBuffer.next(claimSize);
+            long loSequence = hiSequence - (claimSize - 1);
+            try {
+                for (long sequenceNo = loSequence; sequenceNo <= hiSequence; sequenceNo++) {
+                    ringBuffer.get(sequenceNo).copyFrom(events[index++]);
+                }
+            } finally {
+                ringBuffer.publish(loSequence, hiSequence);
+            }
+        }
+    }
+
+    private void publishEvents(Iterator<Event> events, int eventCount) {
+        int remaining = eventCount;
+        while (remaining > 0) {
+            int claimSize = Math.min(remaining, bufferSize);
+            long hiSequence = ringBuffer.next(claimSize);
+            long loSequence = hiSequence - (claimSize - 1);
+            try {
+                for (long sequenceNo = loSequence; sequenceNo <= hiSequence; sequenceNo++) {
+                    ringBuffer.get(sequenceNo).copyFrom(events.next());
+                }
+            } finally {
+                ringBuffer.publish(loSequence, hiSequence);
+            }
+            remaining -= claimSize;
+        }
+    }
+
+    private void publishComplexEvents(ComplexEvent complexEvent, int eventCount) {
+        ComplexEvent complexEventList = complexEvent;
+        int remaining = eventCount;
+        while (remaining > 0) {
+            int claimSize = Math.min(remaining, bufferSize);
+            long hiSequence = ringBuffer.next(claimSize);
+            long loSequence = hiSequence - (claimSize - 1);
+            try {
+                for (long sequenceNo = loSequence; sequenceNo <= hiSequence; sequenceNo++) {
+                    ringBuffer.get(sequenceNo).copyFrom(complexEventList);
+                    complexEventList = complexEventList.getNext();
+                }
+            } finally {
+                ringBuffer.publish(loSequence, hiSequence);
+            }
+            remaining -= claimSize;
+        }
+    }
+
     private void sendData(long timeStamp, Object[] data) {
         if (throughputTracker != null && Level.BASIC.compareTo(siddhiAppContext.getRootMetricsLevel()) <= 0) {
             throughputTracker.eventIn();
@@ -278,11 +363,16 @@ public class StreamJunction implements EventBufferHolder {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
+                    if (producerType == null) {
+                        producerType = siddhiAppContext.getSiddhiContext().getDefaultAsyncProducerType();
+                    }
+                    if (waitStrategyType == null) {
+                        waitStrategyType = siddhiAppContext.getSiddhiContext().getDefaultAsyncWaitStrategy();
+                    }
                     disruptor = new Disruptor<EventExchangeHolder>(
                             new EventExchangeHolderFactory(streamDefinition.getAttributeList().size()),
                             bufferSize, executorService, producerType,
-                            new BlockingWaitStrategy());
+                            waitStrategyType.createWaitStrategy());
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -293,7 +383,15 @@ public class StreamJunction implements EventBufferHolder {
                         bufferSize, executorService);
                 disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
             }
-            if (workers > 0) {
+            if (workerPool) {
+                StreamHandler[] streamHandlers = new StreamHandler[Math.max(workers, 1)];
+                for (int i = 0; i < streamHandlers.length; i++) {
+                    streamHandlers[i] = new StreamHandler(receivers, batchSize, streamDefinition.getId(),
+                            siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener,
+                            i, streamHandlers.length);
+                }
+                disruptor.handleEventsWith(streamHandlers);
+            } else if (workers > 0) {
                 for (int i = 0; i < workers; i++) {
                     disruptor.handleEventsWith(new StreamHandler(receivers, batchSize, streamDefinition.getId(),
                             siddhiAppContext.getName(), faultStreamJunction, onErrorAction, exceptionListener));
@@ -352,6 +450,19 @@ public class StreamJunction implements EventBufferHolder {
         return streamDefinition;
     }
 
+    public List<Receiver> getReceivers() {
+        return receivers;
+    }
+
+    /**
+     * Whether events are distributed among the workers such that each event is only consumed by one of them.
+     *
+     * @return true if the async workers of the junction are run as a worker pool
+     */
+    public boolean isWorkerPool() {
+        return async && workerPool;
+    }
+
     @Override
     public long getBufferedEvents() {
         if (disruptor != null) {
@@ -437,6 +548,50 @@ public class StreamJunction implements EventBufferHolder {
         STREAM
     }
 
+    /**
+     * Wait strategies supported by the consumers of async Stream Junctions
+     */
+    public enum WaitStrategyType {
+        BLOCKING {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return new BlockingWaitStrategy();
+            }
+        },
+        LITE_BLOCKING {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return new LiteBlockingWaitStrategy();
+            }
+        },
+        SLEEPING {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return new SleepingWaitStrategy();
+            }
+        },
+        YIELDING {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return new YieldingWaitStrategy();
+            }
+        },
+        BUSY_SPIN {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return new BusySpinWaitStrategy();
+            }
+        },
+        PHASED_BACKOFF {
+            @Override
+            public WaitStrategy createWaitStrategy() {
+                return PhasedBackoffWaitStrategy.withLock(1, 1000, TimeUnit.MICROSECONDS);
+            }
+        };
+
+        public abstract WaitStrategy createWaitStrategy();
+    }
+
     /**
      * Interface to be implemented by all receivers who need to subscribe to Stream Junction and receive events.
      */
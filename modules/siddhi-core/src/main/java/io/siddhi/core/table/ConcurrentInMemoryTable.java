@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.table.holder.ConcurrentIndexEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
+import io.siddhi.core.table.record.RecordTableHandler;
+import io.siddhi.core.util.collection.AddingStreamEventExtractor;
+import io.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
+import io.siddhi.core.util.collection.executor.CollectionExecutor;
+import io.siddhi.core.util.collection.executor.CompareCollectionExecutor;
+import io.siddhi.core.util.collection.operator.CompiledCondition;
+import io.siddhi.core.util.collection.operator.IndexOperator;
+import io.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
+import io.siddhi.core.util.collection.operator.Operator;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.query.api.definition.TableDefinition;
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * In-memory event table that allows concurrent access, enabled with the @Concurrent annotation on tables that have a
+ * primary key. Events are distributed over lock stripes by their primary key, hence operations with a primary key
+ * equality condition, and additions, only lock the stripe of that key and do not block operations on other stripes.
+ * Operations with other conditions lock all stripes, and behave the same as on {@link InMemoryTable}.
+ */
+public class ConcurrentInMemoryTable extends InMemoryTable {
+
+    private ConcurrentIndexEventHolder eventHolder;
+
+    @Override
+    public void init(TableDefinition tableDefinition, StreamEventFactory storeEventPool,
+                     StreamEventCloner storeEventCloner, ConfigReader configReader, SiddhiAppContext siddhiAppContext,
+                     RecordTableHandler recordTableHandler) {
+        super.init(tableDefinition, storeEventPool, storeEventCloner, configReader, siddhiAppContext,
+                recordTableHandler);
+        TableState state = stateHolder.getState();
+        try {
+            eventHolder = (ConcurrentIndexEventHolder) state.getEventHolder();
+        } finally {
+            stateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        StreamEvent streamEvent = addingEventChunk.getFirst();
+        while (streamEvent != null) {
+            StreamEvent next = streamEvent.getNext();
+            streamEvent.setNext(null);
+            Lock lock = eventHolder.getStripeLock(eventHolder.constructPrimaryKey(streamEvent)).writeLock();
+            lock.lock();
+            try {
+                eventHolder.add(new ComplexEventChunk<>(streamEvent, streamEvent));
+            } finally {
+                lock.unlock();
+                streamEvent.setNext(next);
+            }
+            streamEvent = next;
+        }
+    }
+
+    @Override
+    public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
+        ConcurrentCompiledCondition concurrentCompiledCondition = (ConcurrentCompiledCondition) compiledCondition;
+        Operator operator = (Operator) concurrentCompiledCondition.getOperatorCompiledCondition();
+        if (!concurrentCompiledCondition.isPrimaryKeyCondition()) {
+            eventHolder.lockAllStripes(true);
+            try {
+                operator.delete(deletingEventChunk, eventHolder);
+            } finally {
+                eventHolder.unlockAllStripes(true);
+            }
+            return;
+        }
+        StateEvent deletingEvent = deletingEventChunk.getFirst();
+        while (deletingEvent != null) {
+            StateEvent next = (StateEvent) deletingEvent.getNext();
+            deletingEvent.setNext(null);
+            Lock lock = eventHolder.getStripeLock(concurrentCompiledCondition.getPrimaryKey(deletingEvent))
+                    .writeLock();
+            lock.lock();
+            try {
+                operator.delete(new ComplexEventChunk<>(deletingEvent, deletingEvent), eventHolder);
+            } finally {
+                lock.unlock();
+                deletingEvent.setNext(next);
+            }
+            deletingEvent = next;
+        }
+    }
+
+    @Override
+    public void update(ComplexEventChunk<StateEvent> updatingEventChunk, CompiledCondition compiledCondition,
+                       CompiledUpdateSet compiledUpdateSet) {
+        ConcurrentCompiledCondition concurrentCompiledCondition = (ConcurrentCompiledCondition) compiledCondition;
+        Operator operator = (Operator) concurrentCompiledCondition.getOperatorCompiledCondition();
+        InMemoryCompiledUpdateSet inMemoryCompiledUpdateSet = (InMemoryCompiledUpdateSet) compiledUpdateSet;
+        if (!concurrentCompiledCondition.isPrimaryKeyCondition() ||
+                isPrimaryKeyUpdated(inMemoryCompiledUpdateSet)) {
+            eventHolder.lockAllStripes(true);
+            try {
+                operator.update(updatingEventChunk, eventHolder, inMemoryCompiledUpdateSet);
+            } finally {
+                eventHolder.unlockAllStripes(true);
+            }
+            return;
+        }
+        StateEvent updatingEvent = updatingEventChunk.getFirst();
+        while (updatingEvent != null) {
+            StateEvent next = (StateEvent) updatingEvent.getNext();
+            updatingEvent.setNext(null);
+            Lock lock = eventHolder.getStripeLock(concurrentCompiledCondition.getPrimaryKey(updatingEvent))
+                    .writeLock();
+            lock.lock();
+            try {
+                operator.update(new ComplexEventChunk<>(updatingEvent, updatingEvent), eventHolder,
+                        inMemoryCompiledUpdateSet);
+            } finally {
+                lock.unlock();
+                updatingEvent.setNext(next);
+            }
+            updatingEvent = next;
+        }
+    }
+
+    @Override
+    public void updateOrAdd(ComplexEventChunk<StateEvent> updateOrAddingEventChunk,
+                            CompiledCondition compiledCondition,
+                            CompiledUpdateSet compiledUpdateSet,
+                            AddingStreamEventExtractor addingStreamEventExtractor) {
+        ConcurrentCompiledCondition concurrentCompiledCondition = (ConcurrentCompiledCondition) compiledCondition;
+        InMemoryCompiledUpdateSet inMemoryCompiledUpdateSet = (InMemoryCompiledUpdateSet) compiledUpdateSet;
+        if (!concurrentCompiledCondition.isPrimaryKeyCondition() ||
+                isPrimaryKeyUpdated(inMemoryCompiledUpdateSet)) {
+            eventHolder.lockAllStripes(true);
+            try {
+                updateOrAdd(updateOrAddingEventChunk, concurrentCompiledCondition, inMemoryCompiledUpdateSet,
+                        addingStreamEventExtractor);
+            } finally {
+                eventHolder.unlockAllStripes(true);
+            }
+            return;
+        }
+        StateEvent updateOrAddingEvent = updateOrAddingEventChunk.getFirst();
+        while (updateOrAddingEvent != null) {
+            StateEvent next = (StateEvent) updateOrAddingEvent.getNext();
+            updateOrAddingEvent.setNext(null);
+            // the event to be added when nothing matches can carry a different primary key than the matched one
+            Object primaryKey = concurrentCompiledCondition.getPrimaryKey(updateOrAddingEvent);
+            Object addingPrimaryKey = eventHolder.constructPrimaryKey(
+                    addingStreamEventExtractor.getAddingStreamEvent(updateOrAddingEvent));
+            eventHolder.lockStripes(primaryKey, addingPrimaryKey);
+            try {
+                updateOrAdd(new ComplexEventChunk<>(updateOrAddingEvent, updateOrAddingEvent),
+                        concurrentCompiledCondition, inMemoryCompiledUpdateSet, addingStreamEventExtractor);
+            } finally {
+                eventHolder.unlockStripes(primaryKey, addingPrimaryKey);
+                updateOrAddingEvent.setNext(next);
+            }
+            updateOrAddingEvent = next;
+        }
+    }
+
+    private void updateOrAdd(ComplexEventChunk<StateEvent> updateOrAddingEventChunk,
+                             ConcurrentCompiledCondition compiledCondition,
+                             InMemoryCompiledUpdateSet compiledUpdateSet,
+                             AddingStreamEventExtractor addingStreamEventExtractor) {
+        ComplexEventChunk<StateEvent> failedEvents =
+                ((Operator) compiledCondition.getOperatorCompiledCondition()).
+                        tryUpdate(updateOrAddingEventChunk, eventHolder, compiledUpdateSet,
+                                addingStreamEventExtractor);
+        if (failedEvents != null && failedEvents.getFirst() != null) {
+            eventHolder.add(reduceEventsForUpdateOrInsert(addingStreamEventExtractor, compiledCondition,
+                    compiledUpdateSet, failedEvents));
+        }
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, CompiledCondition compiledCondition) {
+        ConcurrentCompiledCondition concurrentCompiledCondition = (ConcurrentCompiledCondition) compiledCondition;
+        Operator operator = (Operator) concurrentCompiledCondition.getOperatorCompiledCondition();
+        if (concurrentCompiledCondition.isPrimaryKeyCondition()) {
+            Lock lock = eventHolder.getStripeLock(concurrentCompiledCondition.getPrimaryKey(matchingEvent))
+                    .readLock();
+            lock.lock();
+            try {
+                return operator.contains(matchingEvent, eventHolder);
+            } finally {
+                lock.unlock();
+            }
+        }
+        eventHolder.lockAllStripes(false);
+        try {
+            return operator.contains(matchingEvent, eventHolder);
+        } finally {
+            eventHolder.unlockAllStripes(false);
+        }
+    }
+
+    @Override
+    public StreamEvent find(CompiledCondition compiledCondition, StateEvent matchingEvent) {
+        ConcurrentCompiledCondition concurrentCompiledCondition = (ConcurrentCompiledCondition) compiledCondition;
+        Operator operator = (Operator) concurrentCompiledCondition.getOperatorCompiledCondition();
+        if (concurrentCompiledCondition.isPrimaryKeyCondition()) {
+            Lock lock = eventHolder.getStripeLock(concurrentCompiledCondition.getPrimaryKey(matchingEvent))
+                    .readLock();
+            lock.lock();
+            try {
+                return operator.find(matchingEvent, eventHolder, tableStreamEventCloner);
+            } finally {
+                lock.unlock();
+            }
+        }
+        eventHolder.lockAllStripes(false);
+        try {
+            return operator.find(matchingEvent, eventHolder, tableStreamEventCloner);
+        } finally {
+            eventHolder.unlockAllStripes(false);
+        }
+    }
+
+    @Override
+    public CompiledCondition compileCondition(Expression condition, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                              List<VariableExpressionExecutor> variableExpressionExecutors,
+                                              Map<String, Table> tableMap, SiddhiQueryContext siddhiQueryContext) {
+        InMemoryCompiledCondition compiledCondition = (InMemoryCompiledCondition) super.compileCondition(
+                condition, matchingMetaInfoHolder, variableExpressionExecutors, tableMap, siddhiQueryContext);
+        Function<StateEvent, Object> primaryKeyResolver = null;
+        if (compiledCondition.getOperatorCompiledCondition() instanceof IndexOperator) {
+            CollectionExecutor collectionExecutor = ((IndexOperator) compiledCondition
+                    .getOperatorCompiledCondition()).getCollectionExecutor();
+            if (collectionExecutor instanceof CompareCollectionExecutor &&
+                    ((CompareCollectionExecutor) collectionExecutor).getOperator() == Compare.Operator.EQUAL &&
+                    ((CompareCollectionExecutor) collectionExecutor).getAttribute()
+                            .equals(eventHolder.getPrimaryKeyAttributes())) {
+                ExpressionExecutor valueExpressionExecutor =
+                        ((CompareCollectionExecutor) collectionExecutor).getValueExpressionExecutor();
+                primaryKeyResolver = valueExpressionExecutor::execute;
+            } else if (collectionExecutor instanceof AndMultiPrimaryKeyCollectionExecutor &&
+                    ((AndMultiPrimaryKeyCollectionExecutor) collectionExecutor).getCompositePrimaryKey()
+                            .equals(eventHolder.getPrimaryKeyAttributes())) {
+                primaryKeyResolver = ((AndMultiPrimaryKeyCollectionExecutor) collectionExecutor)
+                        ::constructPrimaryKeyValue;
+            }
+        }
+        return new ConcurrentCompiledCondition(compiledCondition.getOperatorCompiledCondition(),
+                compiledCondition.getUpdateOrInsertExpressionExecutor(), compiledCondition.getStoreEventIndex(),
+                primaryKeyResolver);
+    }
+
+    private boolean isPrimaryKeyUpdated(InMemoryCompiledUpdateSet compiledUpdateSet) {
+        for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : eventHolder.getPrimaryKeyReferenceHolders()) {
+            if (compiledUpdateSet.getExpressionExecutorMap()
+                    .containsKey(primaryKeyReferenceHolder.getPrimaryKeyPosition())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiled condition of {@link ConcurrentInMemoryTable}, which knows how to resolve the primary key matched by
+     * the condition, when the condition is a primary key equality check.
+     */
+    static class ConcurrentCompiledCondition extends InMemoryCompiledCondition {
+        private final Function<StateEvent, Object> primaryKeyResolver;
+
+        ConcurrentCompiledCondition(CompiledCondition operatorCompiledCondition,
+                                    ExpressionExecutor updateOrInsertExpressionExecutor, int storeEventIndex,
+                                    Function<StateEvent, Object> primaryKeyResolver) {
+            super(operatorCompiledCondition, updateOrInsertExpressionExecutor, storeEventIndex);
+            this.primaryKeyResolver = primaryKeyResolver;
+        }
+
+        boolean isPrimaryKeyCondition() {
+            return primaryKeyResolver != null;
+        }
+
+        Object getPrimaryKey(StateEvent matchingEvent) {
+            return primaryKeyResolver.apply(matchingEvent);
+        }
+    }
+}
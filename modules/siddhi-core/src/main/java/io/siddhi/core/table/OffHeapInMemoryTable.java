@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.table;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.table.holder.OffHeapEventHolder;
+import io.siddhi.core.table.record.RecordTableHandler;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.query.api.definition.TableDefinition;
+
+/**
+ * In-memory event table that keeps its events off the Java heap, enabled with the @OffHeap annotation. Events are
+ * stored in a memory mapped file laid out by the attribute types of the table, and the primary key and indexes are
+ * kept in direct memory, hence large tables do not add to the garbage collection overhead. The file is given with
+ * the 'file' element of the annotation, and the events stored in it are loaded when the table is created again. When
+ * no file is given a temporary file is used, which is deleted when the table is shut down. The events are included in
+ * the snapshots of the Siddhi App only when the 'snapshot' element of the annotation is 'true'.
+ */
+public class OffHeapInMemoryTable extends InMemoryTable {
+
+    private OffHeapEventHolder eventHolder;
+
+    @Override
+    public void init(TableDefinition tableDefinition, StreamEventFactory storeEventPool,
+                     StreamEventCloner storeEventCloner, ConfigReader configReader, SiddhiAppContext siddhiAppContext,
+                     RecordTableHandler recordTableHandler) {
+        super.init(tableDefinition, storeEventPool, storeEventCloner, configReader, siddhiAppContext,
+                recordTableHandler);
+        TableState state = stateHolder.getState();
+        try {
+            eventHolder = (OffHeapEventHolder) state.getEventHolder();
+        } finally {
+            stateHolder.returnState(state);
+        }
+    }
+
+    @Override
+    protected void destroy() {
+        readWriteLock.writeLock().lock();
+        try {
+            eventHolder.close();
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder;
+
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Typed tuple key of composite primary keys and composite indexes. Keys are ordered attribute by attribute, such
+ * that all keys sharing a prefix are adjacent in a sorted index, and can be looked up between the
+ * {@link #lowerBound(Object...)} and {@link #upperBound(Object...)} of that prefix.
+ */
+public final class CompositeKey implements Comparable<CompositeKey>, Serializable {
+
+    private static final long serialVersionUID = -3408416738932615232L;
+    private final Object[] values;
+    private final int bound;
+    private final int hashCode;
+
+    public CompositeKey(Object... values) {
+        this(values, 0);
+    }
+
+    private CompositeKey(Object[] values, int bound) {
+        this.values = values;
+        this.bound = bound;
+        this.hashCode = Arrays.hashCode(values) * 31 + bound;
+    }
+
+    /**
+     * @param prefix leading attribute values
+     * @return a key ordered before all the keys starting with the given prefix
+     */
+    public static CompositeKey lowerBound(Object... prefix) {
+        return new CompositeKey(prefix, -1);
+    }
+
+    /**
+     * @param prefix leading attribute values
+     * @return a key ordered after all the keys starting with the given prefix
+     */
+    public static CompositeKey upperBound(Object... prefix) {
+        return new CompositeKey(prefix, 1);
+    }
+
+    /**
+     * Converts a number to the type of a key attribute, as keys holding numbers of different types are never equal.
+     *
+     * @param value value compared with the key attribute
+     * @param type  type of the key attribute
+     * @return the value of the attribute type equal to the given value, or null if there is no such value
+     */
+    public static Object toKeyType(Object value, Attribute.Type type) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        Number number = (Number) value;
+        Number keyNumber;
+        switch (type) {
+            case INT:
+                keyNumber = number.intValue();
+                break;
+            case LONG:
+                keyNumber = number.longValue();
+                break;
+            case FLOAT:
+                keyNumber = number.floatValue();
+                break;
+            case DOUBLE:
+                keyNumber = number.doubleValue();
+                break;
+            default:
+                return value;
+        }
+        if ((number instanceof Integer || number instanceof Long) &&
+                (type == Attribute.Type.FLOAT || type == Attribute.Type.DOUBLE)) {
+            // integers are compared with floating point attributes after being widened the same way
+            return keyNumber;
+        }
+        return keyNumber.doubleValue() == number.doubleValue() ? keyNumber : null;
+    }
+
+    /**
+     * Converts a number to the type of a key attribute, rounding it to the closest value of the attribute type on
+     * the given side when the type cannot hold it, such that range comparisons give the same keys.
+     *
+     * @param value     value compared with the key attribute
+     * @param type      type of the key attribute
+     * @param roundDown true to round to the closest smaller value, false to round to the closest larger value
+     * @return the value of the attribute type
+     */
+    public static Object toKeyType(Object value, Attribute.Type type, boolean roundDown) {
+        Object keyValue = toKeyType(value, type);
+        if (keyValue != null || value == null) {
+            return keyValue;
+        }
+        double number = ((Number) value).doubleValue();
+        switch (type) {
+            case INT:
+                return (int) (roundDown ? Math.floor(number) : Math.ceil(number));
+            case LONG:
+                return (long) (roundDown ? Math.floor(number) : Math.ceil(number));
+            case FLOAT:
+                float keyNumber = (float) number;
+                if (roundDown && keyNumber > number) {
+                    return Math.nextDown(keyNumber);
+                } else if (!roundDown && keyNumber < number) {
+                    return Math.nextUp(keyNumber);
+                }
+                return keyNumber;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Finds the composite primary key matching a key logged before composite primary keys were typed, which holds the
+     * values of the key attributes each followed by {@link SiddhiConstants#KEY_DELIMITER}.
+     *
+     * @param legacyKey key values joined as a string
+     * @param keys      composite primary keys of the stored events
+     * @return the matching composite primary key, or null if there is none
+     */
+    public static CompositeKey fromLegacyKey(String legacyKey, Collection<Object> keys) {
+        for (Object key : keys) {
+            if (key instanceof CompositeKey) {
+                StringBuilder keyBuilder = new StringBuilder();
+                for (Object value : ((CompositeKey) key).values) {
+                    keyBuilder.append(value).append(SiddhiConstants.KEY_DELIMITER);
+                }
+                if (legacyKey.equals(keyBuilder.toString())) {
+                    return (CompositeKey) key;
+                }
+            }
+        }
+        return null;
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public int compareTo(CompositeKey other) {
+        int length = Math.min(values.length, other.values.length);
+        for (int i = 0; i < length; i++) {
+            int comparison = compare(values[i], other.values[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        if (values.length == other.values.length) {
+            return Integer.compare(bound, other.bound);
+        } else if (values.length < other.values.length) {
+            return bound == 0 ? -1 : bound;
+        } else {
+            return other.bound == 0 ? 1 : -other.bound;
+        }
+    }
+
+    private static int compare(Object value, Object otherValue) {
+        if (value == otherValue) {
+            return 0;
+        } else if (value == null) {
+            return -1;
+        } else if (otherValue == null) {
+            return 1;
+        }
+        return ((Comparable<Object>) value).compareTo(otherValue);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompositeKey)) {
+            return false;
+        }
+        CompositeKey that = (CompositeKey) o;
+        return hashCode == that.hashCode && bound == that.bound && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(values);
+    }
+}
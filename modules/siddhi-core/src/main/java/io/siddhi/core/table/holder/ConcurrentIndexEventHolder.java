@@ -0,0 +1,729 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.table.holder;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventFactory;
+import io.siddhi.core.event.stream.converter.StreamEventConverter;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.expression.condition.Compare;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static io.siddhi.core.event.stream.Operation.Operator.ADD;
+import static io.siddhi.core.event.stream.Operation.Operator.CLEAR;
+import static io.siddhi.core.event.stream.Operation.Operator.DELETE_BY_OPERATOR;
+import static io.siddhi.core.event.stream.Operation.Operator.OVERWRITE;
+import static io.siddhi.core.event.stream.Operation.Operator.REMOVE;
+
+/**
+ * Indexed EventHolder of concurrent in-memory tables. Events are kept in a concurrent primary key map and concurrent
+ * skip list or hash secondary indexes, and each primary key belongs to one of a fixed set of lock stripes. Callers lock the
+ * stripe of a primary key to access its event, or all stripes to run operations that can span many primary keys;
+ * see {@link io.siddhi.core.table.ConcurrentInMemoryTable}.
+ */
+public class ConcurrentIndexEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(ConcurrentIndexEventHolder.class);
+    private static final float FULL_SNAPSHOT_THRESHOLD = 2.1f;
+    private final ConcurrentMap<Object, StreamEvent> primaryKeyData;
+    private final Map<String, ConcurrentMap<Object, Set<StreamEvent>>> indexData;
+    private final ReentrantReadWriteLock[] stripeLocks;
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final String primaryKeyAttributes;
+    private final String tableName;
+    private final String siddhiAppName;
+    private final SiddhiAppContext siddhiAppContext;
+    private StreamEventFactory tableStreamEventFactory;
+    private StreamEventConverter eventConverter;
+    private Map<String, Integer> indexMetaData;
+    private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    // operations are logged by writers of all stripes, and are only drained while all the stripes are locked
+    private ConcurrentLinkedQueue<Operation> operationChangeLog = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger operationChangeLogSize = new AtomicInteger();
+    private volatile boolean forceFullSnapshot = true;
+    private volatile boolean isOperationLogEnabled = true;
+
+    public ConcurrentIndexEventHolder(StreamEventFactory tableStreamEventFactory, StreamEventConverter eventConverter,
+                                      PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                                      boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                                      Set<String> hashIndexAttributes, int stripes,
+                                      AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        this.tableStreamEventFactory = tableStreamEventFactory;
+        this.eventConverter = eventConverter;
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.indexMetaData = indexMetaData;
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+        this.siddhiAppContext = siddhiAppContext;
+
+        if (isPrimaryNumeric) {
+            primaryKeyData = new ConcurrentSkipListMap<>();
+        } else {
+            primaryKeyData = new ConcurrentHashMap<>();
+        }
+        if (primaryKeyReferenceHolders.length == 1) {
+            allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
+                    primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+            primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+        } else {
+            StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                        primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                        .append(SiddhiConstants.KEY_DELIMITER);
+            }
+            primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+        }
+        indexData = new HashMap<>();
+        for (String indexAttributeName : indexMetaData.keySet()) {
+            if (hashIndexAttributes.contains(indexAttributeName)) {
+                indexData.put(indexAttributeName, new ConcurrentHashMap<>());
+            } else {
+                indexData.put(indexAttributeName, new ConcurrentSkipListMap<>());
+            }
+        }
+        allIndexMetaData.putAll(indexMetaData);
+
+        stripeLocks = new ReentrantReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            stripeLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Get the lock of the stripe owning the given primary key.
+     *
+     * @param primaryKey primary key value, composite primary keys are given as their {@link CompositeKey}
+     * @return the read write lock of the stripe
+     */
+    public ReentrantReadWriteLock getStripeLock(Object primaryKey) {
+        return stripeLocks[getStripe(primaryKey)];
+    }
+
+    private int getStripe(Object primaryKey) {
+        if (primaryKey == null) {
+            return 0;
+        }
+        int hash = primaryKey.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % stripeLocks.length;
+    }
+
+    /**
+     * Acquire the write locks of the stripes owning the given primary keys, in stripe order to avoid deadlocks
+     * between callers.
+     *
+     * @param primaryKey      a primary key
+     * @param otherPrimaryKey another primary key, which can belong to the same stripe
+     */
+    public void lockStripes(Object primaryKey, Object otherPrimaryKey) {
+        int stripe = getStripe(primaryKey);
+        int otherStripe = getStripe(otherPrimaryKey);
+        stripeLocks[Math.min(stripe, otherStripe)].writeLock().lock();
+        if (stripe != otherStripe) {
+            stripeLocks[Math.max(stripe, otherStripe)].writeLock().lock();
+        }
+    }
+
+    public void unlockStripes(Object primaryKey, Object otherPrimaryKey) {
+        int stripe = getStripe(primaryKey);
+        int otherStripe = getStripe(otherPrimaryKey);
+        if (stripe != otherStripe) {
+            stripeLocks[Math.max(stripe, otherStripe)].writeLock().unlock();
+        }
+        stripeLocks[Math.min(stripe, otherStripe)].writeLock().unlock();
+    }
+
+    /**
+     * Lock all stripes, always in the same order to avoid deadlocks between callers.
+     *
+     * @param write whether the write locks or the read locks should be acquired
+     */
+    public void lockAllStripes(boolean write) {
+        for (ReentrantReadWriteLock stripeLock : stripeLocks) {
+            if (write) {
+                stripeLock.writeLock().lock();
+            } else {
+                stripeLock.readLock().lock();
+            }
+        }
+    }
+
+    public void unlockAllStripes(boolean write) {
+        for (int i = stripeLocks.length - 1; i >= 0; i--) {
+            if (write) {
+                stripeLocks[i].writeLock().unlock();
+            } else {
+                stripeLocks[i].readLock().unlock();
+            }
+        }
+    }
+
+    public Object constructPrimaryKey(ComplexEvent complexEvent) {
+        Object[] outputData = complexEvent.getOutputData();
+        if (primaryKeyReferenceHolders.length == 1) {
+            return outputData[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            Object[] values = new Object[primaryKeyReferenceHolders.length];
+            for (int i = 0; i < primaryKeyReferenceHolders.length; i++) {
+                values[i] = outputData[primaryKeyReferenceHolders[i].getPrimaryKeyPosition()];
+            }
+            return new CompositeKey(values);
+        }
+    }
+
+    public String getPrimaryKeyAttributes() {
+        return primaryKeyAttributes;
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        return primaryKeyData.keySet();
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexMetaData.containsValue(position);
+    }
+
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof ConcurrentSkipListMap;
+        }
+        return indexData.get(attribute) instanceof ConcurrentSkipListMap;
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            StreamEvent streamEvent = tableStreamEventFactory.newInstance();
+            eventConverter.convertComplexEvent(complexEvent, streamEvent);
+            addStoredEvent(streamEvent);
+        }
+    }
+
+    @Override
+    public void addStoredEvents(ComplexEventChunk<StreamEvent> storedEventChunk) {
+        storedEventChunk.reset();
+        while (storedEventChunk.hasNext()) {
+            addStoredEvent(storedEventChunk.next());
+        }
+    }
+
+    private void addStoredEvent(StreamEvent streamEvent) {
+        if (isOperationLogEnabled) {
+            // the stored event is logged without copying, as it is replaced rather than modified when its
+            // primary key or indexed attributes are updated
+            logOperation(new Operation(ADD, streamEvent));
+        }
+        add(streamEvent);
+    }
+
+    private void add(StreamEvent streamEvent) {
+        Object primaryKey = constructPrimaryKey(streamEvent);
+        if (primaryKey == null) {
+            dropEvent(streamEvent, "as its primary key is null");
+            return;
+        }
+        if (primaryKeyData.putIfAbsent(primaryKey, streamEvent) != null) {
+            dropEvent(streamEvent, "as there is already an event stored with primary key '" + primaryKey + "'");
+            return;
+        }
+        addToIndexes(streamEvent);
+    }
+
+    private void dropEvent(StreamEvent streamEvent, String reason) {
+        Exception e = new SiddhiAppRuntimeException("Siddhi App '" + siddhiAppName + "' table '" +
+                tableName + "' dropping event : " + streamEvent + ", " + reason);
+        if (siddhiAppContext.getRuntimeExceptionListener() != null) {
+            siddhiAppContext.getRuntimeExceptionListener().exceptionThrown(e);
+        }
+        log.error(e.getMessage(), e);
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        if (isOperationLogEnabled) {
+            logOperation(new Operation(OVERWRITE, streamEvent));
+        }
+        Object primaryKey = constructPrimaryKey(streamEvent);
+        if (primaryKey == null) {
+            dropEvent(streamEvent, "as its primary key is null");
+            return;
+        }
+        StreamEvent deletedEvent = primaryKeyData.put(primaryKey, streamEvent);
+        if (deletedEvent != null) {
+            deleteFromIndexes(deletedEvent);
+        }
+        addToIndexes(streamEvent);
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        return primaryKeyData.values();
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        if (attribute.equals(primaryKeyAttributes)) {
+            StreamEvent resultEvent;
+            HashSet<StreamEvent> resultEventSet;
+            switch (operator) {
+                case LESS_THAN:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, false).values();
+                case GREATER_THAN:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false).values();
+                case LESS_THAN_EQUAL:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, true).values();
+                case GREATER_THAN_EQUAL:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true).values();
+                case EQUAL:
+                    resultEvent = value == null ? null : primaryKeyData.get(value);
+                    if (resultEvent != null) {
+                        return Collections.singleton(resultEvent);
+                    }
+                    return Collections.emptySet();
+                case NOT_EQUAL:
+                    resultEventSet = new HashSet<>(primaryKeyData.values());
+                    resultEvent = value == null ? null : primaryKeyData.get(value);
+                    if (resultEvent != null) {
+                        resultEventSet.remove(resultEvent);
+                    }
+                    return resultEventSet;
+            }
+        } else {
+            HashSet<StreamEvent> resultEventSet = new HashSet<>();
+            ConcurrentMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Set<StreamEvent> resultEvents;
+            switch (operator) {
+                case LESS_THAN:
+                case GREATER_THAN:
+                case LESS_THAN_EQUAL:
+                case GREATER_THAN_EQUAL:
+                    for (Set<StreamEvent> eventSet : rangeIndexData(currentIndexedData, operator, value).values()) {
+                        resultEventSet.addAll(eventSet);
+                    }
+                    return resultEventSet;
+                case EQUAL:
+                    resultEvents = currentIndexedData.get(value);
+                    if (resultEvents != null) {
+                        resultEventSet.addAll(resultEvents);
+                    }
+                    return resultEventSet;
+                case NOT_EQUAL:
+                    for (Set<StreamEvent> eventSet : currentIndexedData.values()) {
+                        resultEventSet.addAll(eventSet);
+                    }
+                    resultEvents = currentIndexedData.get(value);
+                    if (resultEvents != null) {
+                        resultEventSet.removeAll(resultEvents);
+                    }
+                    return resultEventSet;
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    @Override
+    public void deleteAll() {
+        if (isOperationLogEnabled) {
+            logOperation(new Operation(CLEAR));
+        }
+        primaryKeyData.clear();
+        for (ConcurrentMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            aIndexedData.clear();
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (isOperationLogEnabled) {
+                logOperation(new Operation(REMOVE, streamEvent));
+            }
+            deleteAll(streamEvent);
+        }
+    }
+
+    private void deleteAll(StreamEvent streamEvent) {
+        Object primaryKey = constructPrimaryKey(streamEvent);
+        StreamEvent deletedEvent = primaryKey == null ? null : primaryKeyData.remove(primaryKey);
+        if (deletedEvent != null) {
+            deleteFromIndexes(deletedEvent);
+        }
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        if (isOperationLogEnabled) {
+            logOperation(new Operation(DELETE_BY_OPERATOR, new Object[]{attribute, operator, value}));
+        }
+        if (attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case LESS_THAN:
+                    deleteAll(((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, false));
+                    return;
+                case GREATER_THAN:
+                    deleteAll(((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, false));
+                    return;
+                case LESS_THAN_EQUAL:
+                    deleteAll(((NavigableMap<Object, StreamEvent>) primaryKeyData).headMap(value, true));
+                    return;
+                case GREATER_THAN_EQUAL:
+                    deleteAll(((NavigableMap<Object, StreamEvent>) primaryKeyData).tailMap(value, true));
+                    return;
+                case EQUAL:
+                    StreamEvent deletedEvent = value == null ? null : primaryKeyData.remove(value);
+                    if (deletedEvent != null) {
+                        deleteFromIndexes(deletedEvent);
+                    }
+                    return;
+                case NOT_EQUAL:
+                    StreamEvent streamEvent = value == null ? null : primaryKeyData.get(value);
+                    clear();
+                    if (streamEvent != null) {
+                        add(streamEvent);
+                    }
+                    return;
+            }
+        } else {
+            ConcurrentMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            switch (operator) {
+                case LESS_THAN:
+                case GREATER_THAN:
+                case LESS_THAN_EQUAL:
+                case GREATER_THAN_EQUAL:
+                    deleteAllIndexed(rangeIndexData(currentIndexedData, operator, value));
+                    return;
+                case EQUAL:
+                    Set<StreamEvent> deletedEventSet = currentIndexedData.get(value);
+                    if (deletedEventSet != null) {
+                        for (StreamEvent deletedEvent : new ArrayList<>(deletedEventSet)) {
+                            deleteAll(deletedEvent);
+                        }
+                    }
+                    return;
+                case NOT_EQUAL:
+                    Set<StreamEvent> matchingEventSet = currentIndexedData.get(value);
+                    ArrayList<StreamEvent> matchingEvents = matchingEventSet == null ? new ArrayList<>() :
+                            new ArrayList<>(matchingEventSet);
+                    clear();
+                    for (StreamEvent matchingEvent : matchingEvents) {
+                        add(matchingEvent);
+                    }
+                    return;
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    private void deleteAll(NavigableMap<Object, StreamEvent> primaryKeyRange) {
+        for (Iterator<StreamEvent> iterator = primaryKeyRange.values().iterator(); iterator.hasNext(); ) {
+            StreamEvent toDeleteEvent = iterator.next();
+            iterator.remove();
+            deleteFromIndexes(toDeleteEvent);
+        }
+    }
+
+    private void deleteAllIndexed(Map<Object, Set<StreamEvent>> indexRange) {
+        ArrayList<StreamEvent> toDeleteEvents = new ArrayList<>();
+        for (Set<StreamEvent> eventSet : indexRange.values()) {
+            toDeleteEvents.addAll(eventSet);
+        }
+        for (StreamEvent toDeleteEvent : toDeleteEvents) {
+            deleteAll(toDeleteEvent);
+        }
+    }
+
+    private void clear() {
+        primaryKeyData.clear();
+        for (ConcurrentMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            aIndexedData.clear();
+        }
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        if (attribute.equals(primaryKeyAttributes)) {
+            switch (operator) {
+                case LESS_THAN:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
+                case GREATER_THAN:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).higherKey(value) != null;
+                case LESS_THAN_EQUAL:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).ceilingKey(value) != null;
+                case GREATER_THAN_EQUAL:
+                    return ((NavigableMap<Object, StreamEvent>) primaryKeyData).floorKey(value) != null;
+                case EQUAL:
+                    return value != null && primaryKeyData.get(value) != null;
+                case NOT_EQUAL:
+                    return primaryKeyData.size() > 1;
+            }
+        } else {
+            ConcurrentMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            switch (operator) {
+                case LESS_THAN:
+                case GREATER_THAN:
+                case LESS_THAN_EQUAL:
+                case GREATER_THAN_EQUAL:
+                    return !rangeIndexData(currentIndexedData, operator, value).isEmpty();
+                case EQUAL:
+                    return currentIndexedData.get(value) != null;
+                case NOT_EQUAL:
+                    return currentIndexedData.size() > 1;
+            }
+        }
+        throw new OperationNotSupportedException(operator + " not supported for '" + value + "' by " + getClass()
+                .getName());
+    }
+
+    /**
+     * Returns the entries of the index with keys in the given range. For tree indexes this is a view of the index,
+     * while for hash indexes the keys are compared one by one, as range conditions are not planned on them.
+     */
+    private static Map<Object, Set<StreamEvent>> rangeIndexData(ConcurrentMap<Object, Set<StreamEvent>> indexMap,
+                                                                Compare.Operator operator, Object value) {
+        if (indexMap instanceof ConcurrentSkipListMap) {
+            ConcurrentSkipListMap<Object, Set<StreamEvent>> treeIndexMap =
+                    (ConcurrentSkipListMap<Object, Set<StreamEvent>>) indexMap;
+            switch (operator) {
+                case LESS_THAN:
+                    return treeIndexMap.headMap(value, false);
+                case GREATER_THAN:
+                    return treeIndexMap.tailMap(value, false);
+                case LESS_THAN_EQUAL:
+                    return treeIndexMap.headMap(value, true);
+                default:
+                    return treeIndexMap.tailMap(value, true);
+            }
+        }
+        Map<Object, Set<StreamEvent>> rangeIndexMap = new HashMap<>();
+        for (Map.Entry<Object, Set<StreamEvent>> entry : indexMap.entrySet()) {
+            int comparison = ((Comparable<Object>) entry.getKey()).compareTo(value);
+            if ((operator == Compare.Operator.LESS_THAN && comparison < 0)
+                    || (operator == Compare.Operator.GREATER_THAN && comparison > 0)
+                    || (operator == Compare.Operator.LESS_THAN_EQUAL && comparison <= 0)
+                    || (operator == Compare.Operator.GREATER_THAN_EQUAL && comparison >= 0)) {
+                rangeIndexMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return rangeIndexMap;
+    }
+
+    private void addToIndexes(StreamEvent streamEvent) {
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            ConcurrentMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+            Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+            // Events of different stripes can share the same index key, hence the lookup of the index entry and its
+            // removal when it becomes empty are done atomically per index.
+            synchronized (indexMap) {
+                Set<StreamEvent> values = indexMap.get(key);
+                if (values == null) {
+                    values = ConcurrentHashMap.newKeySet();
+                    indexMap.put(key, values);
+                }
+                values.add(streamEvent);
+            }
+        }
+    }
+
+    private void deleteFromIndexes(StreamEvent toDeleteEvent) {
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            ConcurrentMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+            Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
+            synchronized (indexMap) {
+                Set<StreamEvent> values = indexMap.get(key);
+                if (values != null) {
+                    values.remove(toDeleteEvent);
+                    if (values.size() == 0) {
+                        indexMap.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private void logOperation(Operation operation) {
+        if (!isFullSnapshot()) {
+            operationChangeLog.add(operation);
+            operationChangeLogSize.incrementAndGet();
+        } else if (!forceFullSnapshot) {
+            forceFullSnapshot = true;
+            operationChangeLog.clear();
+        }
+    }
+
+    private boolean isFullSnapshot() {
+        return operationChangeLogSize.get() > (primaryKeyData.size() * FULL_SNAPSHOT_THRESHOLD)
+                || forceFullSnapshot
+                || SnapshotRequest.isRequestForFullSnapshot();
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        lockAllStripes(false);
+        try {
+            synchronized (operationChangeLogSize) {
+                // no writer holds a stripe lock here, hence the log can be swapped without losing operations
+                boolean fullSnapshot = isFullSnapshot();
+                ConcurrentLinkedQueue<Operation> operations = operationChangeLog;
+                operationChangeLog = new ConcurrentLinkedQueue<>();
+                operationChangeLogSize.set(0);
+                if (fullSnapshot) {
+                    forceFullSnapshot = false;
+                    if (SnapshotRequest.isRequestForCapture()) {
+                        return new Snapshot(CapturedStreamEvents.capture(primaryKeyData.values()), false);
+                    }
+                    return new Snapshot(copyOfEvents(), false);
+                } else {
+                    return new Snapshot(new ArrayList<>(operations), true);
+                }
+            }
+        } finally {
+            unlockAllStripes(false);
+        }
+    }
+
+    /**
+     * Full snapshots are serialized after the stripe locks are released, hence they are taken from a point in time
+     * copy of the events rather than from the live maps.
+     *
+     * @return copies of all stored events
+     */
+    private ArrayList<StreamEvent> copyOfEvents() {
+        ArrayList<StreamEvent> events = new ArrayList<>(primaryKeyData.size());
+        for (StreamEvent streamEvent : primaryKeyData.values()) {
+            StreamEvent copy = tableStreamEventFactory.newInstance();
+            eventConverter.convertComplexEvent(streamEvent, copy);
+            events.add(copy);
+        }
+        return events;
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        lockAllStripes(true);
+        try {
+            TreeMap<Long, Snapshot> revisions = snapshotStatelist.getSnapshotStates();
+            this.isOperationLogEnabled = false;
+            for (Map.Entry<Long, Snapshot> snapshotEntry : revisions.entrySet()) {
+                if (!snapshotEntry.getValue().isIncrementalSnapshot()) {
+                    clear();
+                    for (StreamEvent streamEvent : (ArrayList<StreamEvent>) snapshotEntry.getValue().getState()) {
+                        add(streamEvent);
+                    }
+                    forceFullSnapshot = false;
+                } else {
+                    ArrayList<Operation> operations = (ArrayList<Operation>) snapshotEntry.getValue().getState();
+                    for (Operation op : operations) {
+                        switch (op.operation) {
+                            case ADD:
+                                add((StreamEvent) op.parameters);
+                                break;
+                            case REMOVE:
+                                deleteAll((StreamEvent) op.parameters);
+                                break;
+                            case CLEAR:
+                                deleteAll();
+                                break;
+                            case OVERWRITE:
+                                overwrite((StreamEvent) op.parameters);
+                                break;
+                            case DELETE_BY_OPERATOR:
+                                Object[] args = (Object[]) op.parameters;
+                                Object value = args[2];
+                                if (value instanceof String && !multiPrimaryKeyMetaData.isEmpty() &&
+                                        args[0].equals(primaryKeyAttributes)) {
+                                    // logged before composite primary keys were typed, the next snapshot drops them
+                                    value = CompositeKey.fromLegacyKey((String) value, primaryKeyData.keySet());
+                                    forceFullSnapshot = true;
+                                    if (value == null) {
+                                        break;
+                                    }
+                                }
+                                delete((String) args[0], (Compare.Operator) args[1], value);
+                                break;
+                            default:
+                                continue;
+                        }
+                    }
+                }
+            }
+        } finally {
+            this.isOperationLogEnabled = true;
+            unlockAllStripes(true);
+        }
+    }
+
+    @Override
+    public int size() {
+        return primaryKeyData.size();
+    }
+}
@@ -29,6 +29,7 @@ import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.exception.SiddhiAppRuntimeException;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 import io.siddhi.query.api.definition.AbstractDefinition;
@@ -37,7 +38,9 @@ import org.apache.log4j.Logger;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -63,7 +66,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private static final long serialVersionUID = 1272291743721603253L;
     private static final float FULL_SNAPSHOT_THRESHOLD = 2.1f;
     protected final Map<Object, StreamEvent> primaryKeyData;
-    protected final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    protected final Map<String, Map<Object, Set<StreamEvent>>> indexData;
     private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
     private final String tableName;
     private final String siddhiAppName;
@@ -74,6 +77,9 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private Map<String, Integer> indexMetaData;
     private Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private Map<String, int[]> compositeIndexMetaData;
+    private Map<String, String[]> compositeIndexAttributes = new LinkedHashMap<>();
+    private Set<Integer> compositeIndexPositions = new HashSet<>();
     private ArrayList<Operation> operationChangeLog = new ArrayList<>();
     private long eventsCount;
     private boolean forceFullSnapshot = true;
@@ -83,10 +89,39 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                             PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
                             boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
                             AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
+        this(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isPrimaryNumeric, indexMetaData,
+                Collections.emptySet(), tableDefinition, siddhiAppContext);
+    }
+
+    /**
+     * @param hashIndexAttributes indexed attributes that are only looked up by equality, which are kept in hash
+     *                            maps instead of tree maps
+     */
+    public IndexEventHolder(StreamEventFactory tableStreamEventFactory, StreamEventConverter eventConverter,
+                            PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Set<String> hashIndexAttributes, AbstractDefinition tableDefinition,
+                            SiddhiAppContext siddhiAppContext) {
+        this(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isPrimaryNumeric, indexMetaData,
+                Collections.emptyMap(), hashIndexAttributes, tableDefinition, siddhiAppContext);
+    }
+
+    /**
+     * @param compositeIndexMetaData attribute positions of the composite indexes by index name, where the index
+     *                               name is the attribute names joined with {@link SiddhiConstants#KEY_DELIMITER}
+     * @param hashIndexAttributes    indexed attributes and composite indexes that are only looked up by equality,
+     *                               which are kept in hash maps instead of tree maps
+     */
+    public IndexEventHolder(StreamEventFactory tableStreamEventFactory, StreamEventConverter eventConverter,
+                            PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Map<String, int[]> compositeIndexMetaData, Set<String> hashIndexAttributes,
+                            AbstractDefinition tableDefinition, SiddhiAppContext siddhiAppContext) {
         this.tableStreamEventFactory = tableStreamEventFactory;
         this.eventConverter = eventConverter;
         this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
         this.indexMetaData = indexMetaData;
+        this.compositeIndexMetaData = compositeIndexMetaData;
         this.tableName = tableDefinition.getId();
         this.siddhiAppName = siddhiAppContext.getName();
         this.siddhiAppContext = siddhiAppContext;
@@ -114,12 +149,30 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         } else {
             primaryKeyData = null;
         }
-        if (indexMetaData.size() > 0) {
-            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
+        if (indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
+            indexData = new HashMap<String, Map<Object, Set<StreamEvent>>>();
             for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                if (hashIndexAttributes.contains(indexAttributeName)) {
+                    indexData.put(indexAttributeName, new HashMap<Object, Set<StreamEvent>>());
+                } else {
+                    indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                }
             }
             allIndexMetaData.putAll(indexMetaData);
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                if (hashIndexAttributes.contains(compositeIndexEntry.getKey())) {
+                    indexData.put(compositeIndexEntry.getKey(), new HashMap<Object, Set<StreamEvent>>());
+                } else {
+                    indexData.put(compositeIndexEntry.getKey(), new TreeMap<Object, Set<StreamEvent>>());
+                }
+                String[] attributeNames = new String[compositeIndexEntry.getValue().length];
+                for (int i = 0; i < attributeNames.length; i++) {
+                    attributeNames[i] = tableDefinition.getAttributeList().get(compositeIndexEntry.getValue()[i])
+                            .getName();
+                    compositeIndexPositions.add(compositeIndexEntry.getValue()[i]);
+                }
+                compositeIndexAttributes.put(compositeIndexEntry.getKey(), attributeNames);
+            }
         } else {
             indexData = null;
         }
@@ -156,7 +209,20 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     @Override
     public boolean isAttributeIndexed(int position) {
-        return allIndexMetaData.containsValue(position);
+        return allIndexMetaData.containsValue(position) || compositeIndexPositions.contains(position);
+    }
+
+    @Override
+    public Map<String, String[]> getCompositeIndexAttributes() {
+        return compositeIndexAttributes;
+    }
+
+    @Override
+    public boolean isAttributeRangeIndexed(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.get(attribute) instanceof TreeMap;
     }
 
     @Override
@@ -166,19 +232,31 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             ComplexEvent complexEvent = addingEventChunk.next();
             StreamEvent streamEvent = tableStreamEventFactory.newInstance();
             eventConverter.convertComplexEvent(complexEvent, streamEvent);
-            eventsCount++;
-            if (isOperationLogEnabled) {
-                if (!isFullSnapshot()) {
-                    StreamEvent streamEvent2 = tableStreamEventFactory.newInstance();
-                    eventConverter.convertComplexEvent(complexEvent, streamEvent2);
-                    operationChangeLog.add(new Operation(ADD, streamEvent2));
-                } else {
-                    operationChangeLog.clear();
-                    forceFullSnapshot = true;
-                }
+            addStoredEvent(streamEvent);
+        }
+    }
+
+    @Override
+    public void addStoredEvents(ComplexEventChunk<StreamEvent> storedEventChunk) {
+        storedEventChunk.reset();
+        while (storedEventChunk.hasNext()) {
+            addStoredEvent(storedEventChunk.next());
+        }
+    }
+
+    private void addStoredEvent(StreamEvent streamEvent) {
+        eventsCount++;
+        if (isOperationLogEnabled) {
+            if (!isFullSnapshot()) {
+                // the stored event is logged without copying, as it is replaced rather than modified when its
+                // primary key or indexed attributes are updated
+                operationChangeLog.add(new Operation(ADD, streamEvent));
+            } else {
+                operationChangeLog.clear();
+                forceFullSnapshot = true;
             }
-            add(streamEvent);
         }
+        add(streamEvent);
     }
 
     private void add(StreamEvent streamEvent) {
@@ -199,19 +277,76 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
+                addToIndex(indexData.get(indexEntry.getKey()), streamEvent.getOutputData()[indexEntry.getValue()],
+                        streamEvent);
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                addToIndex(indexData.get(compositeIndexEntry.getKey()),
+                        constructCompositeKey(streamEvent, compositeIndexEntry.getValue()), streamEvent);
+            }
+        }
+
+    }
+
+    private static void addToIndex(Map<Object, Set<StreamEvent>> indexMap, Object key, StreamEvent streamEvent) {
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values == null) {
+            // Most keys refer to a single event, hence a set is only created when a second event is added
+            indexMap.put(key, Collections.singleton(streamEvent));
+        } else if (values instanceof HashSet) {
+            values.add(streamEvent);
+        } else {
+            values = new HashSet<StreamEvent>(values);
+            values.add(streamEvent);
+            indexMap.put(key, values);
+        }
+    }
+
+    private static void removeFromIndex(Map<Object, Set<StreamEvent>> indexMap, Object key,
+                                        StreamEvent streamEvent) {
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values != null && values.contains(streamEvent)) {
+            if (values.size() == 1) {
+                indexMap.remove(key);
+            } else {
+                values.remove(streamEvent);
             }
         }
+    }
 
+    /**
+     * Returns the entries of the index with keys in the given range. For tree indexes this is a view of the index,
+     * while for hash indexes the keys are compared one by one, as range conditions are not planned on them.
+     */
+    private static Map<Object, Set<StreamEvent>> rangeIndexData(Map<Object, Set<StreamEvent>> indexMap,
+                                                                Compare.Operator operator, Object value) {
+        if (indexMap instanceof TreeMap) {
+            TreeMap<Object, Set<StreamEvent>> treeIndexMap = (TreeMap<Object, Set<StreamEvent>>) indexMap;
+            switch (operator) {
+                case LESS_THAN:
+                    return treeIndexMap.headMap(value, false);
+                case GREATER_THAN:
+                    return treeIndexMap.tailMap(value, false);
+                case LESS_THAN_EQUAL:
+                    return treeIndexMap.headMap(value, true);
+                default:
+                    return treeIndexMap.tailMap(value, true);
+            }
+        }
+        Map<Object, Set<StreamEvent>> rangeIndexMap = new HashMap<Object, Set<StreamEvent>>();
+        for (Map.Entry<Object, Set<StreamEvent>> entry : indexMap.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            int comparison = ((Comparable<Object>) entry.getKey()).compareTo(value);
+            if ((operator == Compare.Operator.LESS_THAN && comparison < 0)
+                    || (operator == Compare.Operator.GREATER_THAN && comparison > 0)
+                    || (operator == Compare.Operator.LESS_THAN_EQUAL && comparison <= 0)
+                    || (operator == Compare.Operator.GREATER_THAN_EQUAL && comparison >= 0)) {
+                rangeIndexMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return rangeIndexMap;
     }
 
     private Object constructPrimaryKey(StreamEvent streamEvent,
@@ -219,13 +354,78 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         if (primaryKeyReferenceHolders.length == 1) {
             return streamEvent.getOutputData()[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
         } else {
-            StringBuilder stringBuilder = new StringBuilder();
-            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
-                stringBuilder.append(streamEvent.getOutputData()[primaryKeyReferenceHolder.getPrimaryKeyPosition()])
-                        .append(SiddhiConstants.KEY_DELIMITER);
+            Object[] values = new Object[primaryKeyReferenceHolders.length];
+            for (int i = 0; i < primaryKeyReferenceHolders.length; i++) {
+                values[i] = streamEvent.getOutputData()[primaryKeyReferenceHolders[i].getPrimaryKeyPosition()];
+            }
+            return new CompositeKey(values);
+        }
+    }
+
+    private static CompositeKey constructCompositeKey(StreamEvent streamEvent, int[] positions) {
+        Object[] values = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            values[i] = streamEvent.getOutputData()[positions[i]];
+        }
+        return new CompositeKey(values);
+    }
+
+    /**
+     * Returns the entries of the composite index matching the given key. The leading values of the key are matched
+     * by equality, and the last value is compared with the given operator, such that a key shorter than the index
+     * looks up a prefix of the index attributes.
+     */
+    private static Map<Object, Set<StreamEvent>> compositeIndexData(Map<Object, Set<StreamEvent>> indexMap,
+                                                                    int indexSize, Compare.Operator operator,
+                                                                    CompositeKey key) {
+        Object[] values = key.getValues();
+        Object[] prefix = Arrays.copyOf(values, values.length - 1);
+        Object[] prefixWithNull = Arrays.copyOf(values, values.length);
+        prefixWithNull[values.length - 1] = null;
+        Object last = values[values.length - 1];
+        CompositeKey from;
+        CompositeKey to;
+        switch (operator) {
+            case EQUAL:
+                if (values.length == indexSize) {
+                    Set<StreamEvent> events = indexMap.get(key);
+                    return events == null ? Collections.emptyMap() : Collections.singletonMap(key, events);
+                }
+                from = CompositeKey.lowerBound(values);
+                to = CompositeKey.upperBound(values);
+                break;
+            case GREATER_THAN:
+                from = CompositeKey.upperBound(values);
+                to = CompositeKey.upperBound(prefix);
+                break;
+            case GREATER_THAN_EQUAL:
+                from = CompositeKey.lowerBound(values);
+                to = CompositeKey.upperBound(prefix);
+                break;
+            case LESS_THAN:
+                from = CompositeKey.upperBound(prefixWithNull);
+                to = CompositeKey.lowerBound(values);
+                break;
+            case LESS_THAN_EQUAL:
+                from = CompositeKey.upperBound(prefixWithNull);
+                to = CompositeKey.upperBound(values);
+                break;
+            default:
+                throw new OperationNotSupportedException(operator + " not supported by composite indexes");
+        }
+        if (operator != Compare.Operator.EQUAL && last == null) {
+            return Collections.emptyMap();
+        }
+        if (indexMap instanceof TreeMap) {
+            return ((TreeMap<Object, Set<StreamEvent>>) indexMap).subMap(from, true, to, false);
+        }
+        Map<Object, Set<StreamEvent>> matchingIndexMap = new HashMap<Object, Set<StreamEvent>>();
+        for (Map.Entry<Object, Set<StreamEvent>> entry : indexMap.entrySet()) {
+            if (from.compareTo((CompositeKey) entry.getKey()) < 0 && to.compareTo((CompositeKey) entry.getKey()) > 0) {
+                matchingIndexMap.put(entry.getKey(), entry.getValue());
             }
-            return stringBuilder.toString();
         }
+        return matchingIndexMap;
     }
 
     protected void handleCachePolicyAttributeUpdate(StreamEvent streamEvent) {
@@ -236,9 +436,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     public void overwrite(StreamEvent streamEvent) {
         if (isOperationLogEnabled) {
             if (!isFullSnapshot()) {
-                StreamEvent streamEvent2 = tableStreamEventFactory.newInstance();
-                eventConverter.convertComplexEvent(streamEvent, streamEvent2);
-                operationChangeLog.add(new Operation(OVERWRITE, streamEvent2));
+                operationChangeLog.add(new Operation(OVERWRITE, streamEvent));
             } else {
                 operationChangeLog.clear();
                 forceFullSnapshot = true;
@@ -255,23 +453,19 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
         if (indexData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+                Map<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
                 if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
+                    removeFromIndex(indexMap, deletedEvent.getOutputData()[indexEntry.getValue()], deletedEvent);
                 }
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
+                addToIndex(indexMap, streamEvent.getOutputData()[indexEntry.getValue()], streamEvent);
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                Map<Object, Set<StreamEvent>> indexMap = indexData.get(compositeIndexEntry.getKey());
+                if (deletedEvent != null) {
+                    removeFromIndex(indexMap, constructCompositeKey(deletedEvent, compositeIndexEntry.getValue()),
+                            deletedEvent);
                 }
+                addToIndex(indexMap, constructCompositeKey(streamEvent, compositeIndexEntry.getValue()), streamEvent);
             }
         }
     }
@@ -282,9 +476,9 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             return primaryKeyData.values();
         } else if (indexData != null) {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            Iterator<TreeMap<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
+            Iterator<Map<Object, Set<StreamEvent>>> iterator = indexData.values().iterator();
             if (iterator.hasNext()) {
-                TreeMap<Object, Set<StreamEvent>> aIndexData = iterator.next();
+                Map<Object, Set<StreamEvent>> aIndexData = iterator.next();
                 for (Set<StreamEvent> streamEvents : aIndexData.values()) {
                     resultEventSet.addAll(streamEvents);
                 }
@@ -306,6 +500,15 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     @Override
     public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
 
+        if (indexData != null && compositeIndexMetaData.containsKey(attribute)) {
+            HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+            for (Set<StreamEvent> eventSet : compositeIndexData(indexData.get(attribute),
+                    compositeIndexMetaData.get(attribute).length, operator, (CompositeKey) value).values()) {
+                resultEventSet.addAll(eventSet);
+            }
+            return resultEventSet;
+        }
+
         if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
             StreamEvent resultEvent;
             HashSet<StreamEvent> resultEventSet;
@@ -340,27 +543,15 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
             Set<StreamEvent> resultEvents;
             switch (operator) {
                 case LESS_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, false).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
                 case GREATER_THAN:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, false).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
                 case LESS_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.headMap(value, true).values()) {
-                        resultEventSet.addAll(eventSet);
-                    }
-                    return resultEventSet;
                 case GREATER_THAN_EQUAL:
-                    for (Set<StreamEvent> eventSet : currentIndexedData.tailMap(value, true).values()) {
+                    for (Set<StreamEvent> eventSet : rangeIndexData(currentIndexedData, operator, value).values()) {
                         resultEventSet.addAll(eventSet);
                     }
                     return resultEventSet;
@@ -405,7 +596,7 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             primaryKeyData.clear();
         }
         if (indexData != null) {
-            for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
+            for (Map<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
                 aIndexedData.clear();
             }
         }
@@ -416,8 +607,6 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
         for (StreamEvent streamEvent : storeEventSet) {
             if (isOperationLogEnabled) {
                 if (!isFullSnapshot()) {
-                    StreamEvent streamEvent2 = tableStreamEventFactory.newInstance();
-                    eventConverter.convertComplexEvent(streamEvent, streamEvent2);
                     operationChangeLog.add(new Operation(REMOVE, streamEvent));
                 } else {
                     operationChangeLog.clear();
@@ -453,6 +642,15 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
         }
 
+        if (indexData != null && compositeIndexMetaData.containsKey(attribute)) {
+            Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            for (Object key : new ArrayList<>(compositeIndexData(currentIndexedData,
+                    compositeIndexMetaData.get(attribute).length, operator, (CompositeKey) value).keySet())) {
+                deleteFromIndexesAndPrimaryKey(attribute, currentIndexedData.remove(key));
+            }
+            return;
+        }
+
         if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
             switch (operator) {
 
@@ -510,39 +708,12 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             switch (operator) {
 
                 case LESS_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, false).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
                 case GREATER_THAN:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, false).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
                 case LESS_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            headMap(value, true).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
-                    }
-                    return;
                 case GREATER_THAN_EQUAL:
-                    for (Iterator<Set<StreamEvent>> iterator = indexData.get(attribute).
-                            tailMap(value, true).values().iterator();
-                         iterator.hasNext(); ) {
-                        Set<StreamEvent> deletedEventSet = iterator.next();
-                        deleteFromIndexesAndPrimaryKey(attribute, deletedEventSet);
-                        iterator.remove();
+                    Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+                    for (Object key : new ArrayList<>(rangeIndexData(currentIndexedData, operator, value).keySet())) {
+                        deleteFromIndexesAndPrimaryKey(attribute, currentIndexedData.remove(key));
                     }
                     return;
                 case EQUAL:
@@ -566,7 +737,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
     @Override
     public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
-        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+        if (indexData != null && compositeIndexMetaData.containsKey(attribute)) {
+            return !compositeIndexData(indexData.get(attribute), compositeIndexMetaData.get(attribute).length,
+                    operator, (CompositeKey) value).isEmpty();
+        } else if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
             switch (operator) {
                 case LESS_THAN:
                     return ((TreeMap<Object, StreamEvent>) primaryKeyData).lowerKey(value) != null;
@@ -581,8 +755,23 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
+        } else if (!(indexData.get(attribute) instanceof TreeMap)) {
+            Map<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+
+            switch (operator) {
+                case LESS_THAN:
+                case GREATER_THAN:
+                case LESS_THAN_EQUAL:
+                case GREATER_THAN_EQUAL:
+                    return !rangeIndexData(currentIndexedData, operator, value).isEmpty();
+                case EQUAL:
+                    return currentIndexedData.get(value) != null;
+                case NOT_EQUAL:
+                    return currentIndexedData.size() > 1;
+            }
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            TreeMap<Object, Set<StreamEvent>> currentIndexedData =
+                    (TreeMap<Object, Set<StreamEvent>>) indexData.get(attribute);
 
             switch (operator) {
 
@@ -612,15 +801,14 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             }
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
                 if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                    Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
-                    Set<StreamEvent> values = indexMap.get(key);
-                    if (values != null) {
-                        values.remove(deletedEvent);
-                        if (values.size() == 0) {
-                            indexMap.remove(key);
-                        }
-                    }
+                    removeFromIndex(indexData.get(indexEntry.getKey()),
+                            deletedEvent.getOutputData()[indexEntry.getValue()], deletedEvent);
+                }
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                if (!currentAttribute.equals(compositeIndexEntry.getKey())) {
+                    removeFromIndex(indexData.get(compositeIndexEntry.getKey()),
+                            constructCompositeKey(deletedEvent, compositeIndexEntry.getValue()), deletedEvent);
                 }
             }
         }
@@ -629,15 +817,12 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
         if (indexMetaData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values != null) {
-                    values.remove(toDeleteEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
+                removeFromIndex(indexData.get(indexEntry.getKey()),
+                        toDeleteEvent.getOutputData()[indexEntry.getValue()], toDeleteEvent);
+            }
+            for (Map.Entry<String, int[]> compositeIndexEntry : compositeIndexMetaData.entrySet()) {
+                removeFromIndex(indexData.get(compositeIndexEntry.getKey()),
+                        constructCompositeKey(toDeleteEvent, compositeIndexEntry.getValue()), toDeleteEvent);
             }
         }
     }
@@ -651,7 +836,10 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
     public Snapshot getSnapshot() {
         if (isFullSnapshot()) {
             forceFullSnapshot = false;
-            return new Snapshot(this, false);
+            if (SnapshotRequest.isRequestForCapture()) {
+                return new Snapshot(CapturedStreamEvents.capture(getAllEvents()), false);
+            }
+            return new Snapshot(new ArrayList<>(getAllEvents()), false);
         } else {
             Snapshot snapshot = new Snapshot(operationChangeLog, true);
             operationChangeLog = new ArrayList<>();
@@ -667,14 +855,17 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
             Map.Entry<Long, Snapshot> snapshotEntry = itr.next();
             if (!snapshotEntry.getValue().isIncrementalSnapshot()) {
                 this.deleteAll();
-                IndexEventHolder snapshotEventHolder = (IndexEventHolder) snapshotEntry.getValue().getState();
-                if (primaryKeyData != null) {
-                    primaryKeyData.clear();
-                    primaryKeyData.putAll(snapshotEventHolder.primaryKeyData);
-                }
-                if (indexData != null) {
-                    indexData.clear();
-                    indexData.putAll(snapshotEventHolder.indexData);
+                Object state = snapshotEntry.getValue().getState();
+                if (state instanceof IndexEventHolder) {
+                    // Full snapshots taken before the table events were snapshotted as a list, which are added
+                    // again as their primary keys and indexes may have been built differently
+                    for (StreamEvent streamEvent : new ArrayList<>(((IndexEventHolder) state).getAllEvents())) {
+                        add(streamEvent);
+                    }
+                } else {
+                    for (StreamEvent streamEvent : (Collection<StreamEvent>) state) {
+                        add(streamEvent);
+                    }
                 }
                 forceFullSnapshot = false;
             } else {
@@ -695,7 +886,17 @@ public class IndexEventHolder implements IndexedEventHolder, Serializable {
                             break;
                         case DELETE_BY_OPERATOR:
                             Object[] args = (Object[]) op.parameters;
-                            delete((String) args[0], (Compare.Operator) args[1], args[2]);
+                            Object value = args[2];
+                            if (value instanceof String && !multiPrimaryKeyMetaData.isEmpty() &&
+                                    args[0].equals(primaryKeyAttributes)) {
+                                // logged before composite primary keys were typed, the next snapshot drops such logs
+                                value = CompositeKey.fromLegacyKey((String) value, primaryKeyData.keySet());
+                                forceFullSnapshot = true;
+                                if (value == null) {
+                                    break;
+                                }
+                            }
+                            delete((String) args[0], (Compare.Operator) args[1], value);
                             break;
                         default:
                             continue;
@@ -44,6 +44,15 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                 tableDefinition, siddhiAppContext);
     }
 
+    public IndexEventHolderForCache(StreamEventFactory tableStreamEventFactory, StreamEventConverter eventConverter,
+                                    PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders, boolean isPrimaryNumeric,
+                                    Map<String, Integer> indexMetaData, Map<String, int[]> compositeIndexMetaData,
+                                    Set<String> hashIndexAttributes, AbstractDefinition tableDefinition,
+                                    SiddhiAppContext siddhiAppContext) {
+        super(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isPrimaryNumeric, indexMetaData,
+                compositeIndexMetaData, hashIndexAttributes, tableDefinition, siddhiAppContext);
+    }
+
     @Override
     protected void handleCachePolicyAttributeUpdate(StreamEvent streamEvent) {
         cacheTable.updateCachePolicyAttribute(streamEvent);
@@ -55,7 +64,9 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
 
     @Override
     public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
-        if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
+        if (getCompositeIndexAttributes().containsKey(attribute)) {
+            return super.containsEventSet(attribute, operator, value);
+        } else if (primaryKeyData != null && attribute.equals(primaryKeyAttributes)) {
             StreamEvent foundEvent;
             switch (operator) {
                 case LESS_THAN:
@@ -105,8 +116,11 @@ public class IndexEventHolderForCache extends IndexEventHolder implements Indexe
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
+        } else if (!(indexData.get(attribute) instanceof TreeMap)) {
+            return super.containsEventSet(attribute, operator, value);
         } else {
-            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            TreeMap<Object, Set<StreamEvent>> currentIndexedData =
+                    (TreeMap<Object, Set<StreamEvent>>) indexData.get(attribute);
 
             switch (operator) {
 
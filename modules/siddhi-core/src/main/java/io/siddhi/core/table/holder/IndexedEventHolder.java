@@ -18,10 +18,13 @@
 
 package io.siddhi.core.table.holder;
 
+import io.siddhi.core.event.ComplexEventChunk;
 import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,6 +36,37 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean isAttributeIndexed(int position);
 
+    /**
+     * Checks whether range conditions on the attribute can be answered by its index, as hash based indexes only
+     * support equality lookups.
+     *
+     * @param attribute indexed or primary key attribute
+     * @return true if the index of the attribute is sorted
+     */
+    default boolean isAttributeRangeIndexed(String attribute) {
+        return isAttributeIndexed(attribute);
+    }
+
+    /**
+     * Composite indexes are looked up by their index name with a {@link CompositeKey} holding the values of a prefix
+     * of the index attributes, where the last value of the key is compared with the given operator.
+     *
+     * @return attribute names of the composite indexes by index name
+     */
+    default Map<String, String[]> getCompositeIndexAttributes() {
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Adds events which are already in the stored event layout, such as updated copies of stored events, so that
+     * they are stored without being converted again.
+     *
+     * @param storedEventChunk events in the stored event layout, which must not be reused by the caller
+     */
+    default void addStoredEvents(ComplexEventChunk<StreamEvent> storedEventChunk) {
+        add(storedEventChunk);
+    }
+
     Collection<StreamEvent> getAllEvents();
 
     Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value);
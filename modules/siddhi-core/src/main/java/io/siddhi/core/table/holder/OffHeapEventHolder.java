@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.table.holder;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.definition.AbstractDefinition;
+import io.siddhi.query.api.expression.condition.Compare;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * EventHolder implementation where events are stored off-heap in an {@link OffHeapRowStore}, and the primary key
+ * and the indexes are kept in {@link OffHeapHashIndex}es. Equality conditions on the primary key and on indexed
+ * attributes are served by the hash indexes, while other comparisons on them scan the stored rows.
+ * <p>
+ * Events returned by this holder are materialized from the stored rows, and updating their output data writes the
+ * new values back to the stored rows. The stored events are only included in snapshots when row snapshots are
+ * enabled, as they are copied to the heap on every snapshot; restoring such a snapshot replaces the stored events.
+ * When a file is given, the events stored in it are also available when the table is created again with the same
+ * file.
+ */
+public class OffHeapEventHolder implements IndexedEventHolder {
+
+    private static final Logger log = Logger.getLogger(OffHeapEventHolder.class);
+    private final OffHeapRowStore rowStore;
+    private final boolean deleteOnClose;
+    private final boolean snapshotRows;
+    private final PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders;
+    private final OffHeapHashIndex primaryKeyIndex;
+    private final boolean[] primaryKeyPositions;
+    private final Map<String, Integer> indexMetaData;
+    private final OffHeapHashIndex[] indexes;
+    private final Map<String, Integer> multiPrimaryKeyMetaData = new LinkedHashMap<>();
+    private final Map<String, Integer> allIndexMetaData = new HashMap<>();
+    private final int attributeCount;
+    private final String tableName;
+    private final String siddhiAppName;
+    private final SiddhiAppContext siddhiAppContext;
+    private String primaryKeyAttributes = null;
+    private boolean closed = false;
+
+    public OffHeapEventHolder(OffHeapRowStore rowStore, boolean deleteOnClose, boolean snapshotRows,
+                              PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                              Map<String, Integer> indexMetaData, AbstractDefinition tableDefinition,
+                              SiddhiAppContext siddhiAppContext) {
+        this.rowStore = rowStore;
+        this.deleteOnClose = deleteOnClose;
+        this.snapshotRows = snapshotRows;
+        this.primaryKeyReferenceHolders = primaryKeyReferenceHolders;
+        this.indexMetaData = indexMetaData;
+        this.attributeCount = tableDefinition.getAttributeList().size();
+        this.tableName = tableDefinition.getId();
+        this.siddhiAppName = siddhiAppContext.getName();
+        this.siddhiAppContext = siddhiAppContext;
+        this.primaryKeyPositions = new boolean[attributeCount];
+        this.indexes = new OffHeapHashIndex[attributeCount];
+
+        if (primaryKeyReferenceHolders != null) {
+            primaryKeyIndex = new OffHeapHashIndex();
+            if (primaryKeyReferenceHolders.length == 1) {
+                allIndexMetaData.put(primaryKeyReferenceHolders[0].getPrimaryKeyAttribute(),
+                        primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+                primaryKeyAttributes = primaryKeyReferenceHolders[0].getPrimaryKeyAttribute();
+            } else {
+                StringBuilder primaryKeyAttributesBuilder = new StringBuilder();
+                for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                    multiPrimaryKeyMetaData.put(primaryKeyReferenceHolder.getPrimaryKeyAttribute(),
+                            primaryKeyReferenceHolder.getPrimaryKeyPosition());
+                    primaryKeyAttributesBuilder.append(primaryKeyReferenceHolder.getPrimaryKeyAttribute())
+                            .append(SiddhiConstants.KEY_DELIMITER);
+                }
+                primaryKeyAttributes = primaryKeyAttributesBuilder.toString();
+            }
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder : primaryKeyReferenceHolders) {
+                primaryKeyPositions[primaryKeyReferenceHolder.getPrimaryKeyPosition()] = true;
+            }
+        } else {
+            primaryKeyIndex = null;
+        }
+        for (Integer position : indexMetaData.values()) {
+            indexes[position] = new OffHeapHashIndex();
+        }
+        allIndexMetaData.putAll(indexMetaData);
+
+        // Index the rows already stored in the file
+        long rowCount = rowStore.getRowCount();
+        for (long rowId = 0; rowId < rowCount; rowId++) {
+            if (rowStore.isLive(rowId)) {
+                index(rowId, rowStore.read(rowId));
+            }
+        }
+    }
+
+    @Override
+    public Set<Object> getAllPrimaryKeyValues() {
+        if (primaryKeyIndex == null) {
+            return null;
+        }
+        Set<Object> primaryKeyValues = new HashSet<>();
+        forEachRow(rowId -> primaryKeyValues.add(constructPrimaryKey(rowStore.read(rowId))));
+        return primaryKeyValues;
+    }
+
+    @Override
+    public PrimaryKeyReferenceHolder[] getPrimaryKeyReferenceHolders() {
+        return primaryKeyReferenceHolders;
+    }
+
+    @Override
+    public boolean isMultiPrimaryKeyAttribute(String attributeName) {
+        return multiPrimaryKeyMetaData.containsKey(attributeName);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(String attribute) {
+        return allIndexMetaData.containsKey(attribute);
+    }
+
+    @Override
+    public boolean isAttributeIndexed(int position) {
+        return allIndexMetaData.containsValue(position);
+    }
+
+    @Override
+    public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
+        addingEventChunk.reset();
+        while (addingEventChunk.hasNext()) {
+            ComplexEvent complexEvent = addingEventChunk.next();
+            add(complexEvent.getOutputData(), complexEvent.getTimestamp());
+        }
+    }
+
+    private void add(Object[] data, long timestamp) {
+        if (primaryKeyIndex != null) {
+            Object primaryKey = constructPrimaryKey(data);
+            if (findPrimaryKeyRow(primaryKey) >= 0) {
+                StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+                streamEvent.setOutputData(data);
+                streamEvent.setTimestamp(timestamp);
+                Exception e = new SiddhiAppRuntimeException("Siddhi App '" + siddhiAppName + "' table '" +
+                        tableName + "' dropping event : " + streamEvent + ", as there is already an event stored " +
+                        "with primary key '" + primaryKey + "'");
+                if (siddhiAppContext.getRuntimeExceptionListener() != null) {
+                    siddhiAppContext.getRuntimeExceptionListener().exceptionThrown(e);
+                }
+                log.error(e.getMessage(), e);
+                return;
+            }
+        }
+        index(rowStore.insert(data, timestamp), data);
+    }
+
+    @Override
+    public void overwrite(StreamEvent streamEvent) {
+        if (primaryKeyIndex != null) {
+            long rowId = findPrimaryKeyRow(constructPrimaryKey(streamEvent.getOutputData()));
+            if (rowId >= 0) {
+                deleteRow(rowId);
+            }
+        }
+        index(rowStore.insert(streamEvent.getOutputData(), streamEvent.getTimestamp()),
+                streamEvent.getOutputData());
+    }
+
+    @Override
+    public Collection<StreamEvent> getAllEvents() {
+        List<StreamEvent> events = new ArrayList<>((int) rowStore.size());
+        forEachRow(rowId -> events.add(materialize(rowId)));
+        return events;
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value) {
+        long[] rowIds = findRows(attribute, operator, value);
+        Set<StreamEvent> resultEventSet = new HashSet<>();
+        for (long rowId : rowIds) {
+            resultEventSet.add(materialize(rowId));
+        }
+        return resultEventSet;
+    }
+
+    @Override
+    public void deleteAll() {
+        rowStore.clear();
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.clear();
+        }
+        for (OffHeapHashIndex index : indexes) {
+            if (index != null) {
+                index.clear();
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll(Collection<StreamEvent> storeEventSet) {
+        for (StreamEvent streamEvent : storeEventSet) {
+            if (streamEvent instanceof OffHeapStreamEvent && ((OffHeapStreamEvent) streamEvent).holder == this) {
+                long rowId = ((OffHeapStreamEvent) streamEvent).rowId;
+                if (rowStore.isLive(rowId)) {
+                    deleteRow(rowId);
+                }
+            } else if (primaryKeyIndex != null) {
+                long rowId = findPrimaryKeyRow(constructPrimaryKey(streamEvent.getOutputData()));
+                if (rowId >= 0) {
+                    deleteRow(rowId);
+                }
+            } else {
+                long rowCount = rowStore.getRowCount();
+                for (long rowId = 0; rowId < rowCount; rowId++) {
+                    if (rowStore.isLive(rowId) && Objects.deepEquals(rowStore.read(rowId),
+                            streamEvent.getOutputData())) {
+                        deleteRow(rowId);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void delete(String attribute, Compare.Operator operator, Object value) {
+        for (long rowId : findRows(attribute, operator, value)) {
+            deleteRow(rowId);
+        }
+    }
+
+    @Override
+    public boolean containsEventSet(String attribute, Compare.Operator operator, Object value) {
+        if (operator == Compare.Operator.EQUAL) {
+            if (primaryKeyIndex != null && attribute.equals(primaryKeyAttributes)) {
+                return findPrimaryKeyRow(value) >= 0;
+            }
+            Integer position = indexMetaData.get(attribute);
+            if (position != null) {
+                boolean[] found = new boolean[1];
+                indexes[position].forEach(Objects.hashCode(value), rowId -> {
+                    if (!found[0] && Objects.equals(value, rowStore.read(rowId, position))) {
+                        found[0] = true;
+                    }
+                });
+                return found[0];
+            }
+        }
+        return findRows(attribute, operator, value).length > 0;
+    }
+
+    @Override
+    public int size() {
+        return (int) rowStore.size();
+    }
+
+    /**
+     * Returns the stored events as a full snapshot when row snapshots are enabled, such that restoring a revision
+     * brings the stored events back to that revision, even when the events in the file have changed since. Otherwise
+     * an empty snapshot is returned, which leaves the stored events unchanged when it is restored.
+     */
+    @Override
+    public Snapshot getSnapshot() {
+        if (!snapshotRows) {
+            return new Snapshot(null, false);
+        }
+        List<StreamEvent> events = new ArrayList<>((int) rowStore.size());
+        forEachRow(rowId -> {
+            StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+            streamEvent.setOutputData(rowStore.read(rowId));
+            streamEvent.setTimestamp(rowStore.readTimestamp(rowId));
+            events.add(streamEvent);
+        });
+        return new Snapshot(events, false);
+    }
+
+    @Override
+    public void restore(SnapshotStateList snapshotStatelist) {
+        for (Snapshot snapshot : snapshotStatelist.getSnapshotStates().values()) {
+            Object state = snapshot.getState();
+            if (!snapshot.isIncrementalSnapshot() && state != null) {
+                deleteAll();
+                for (StreamEvent streamEvent : (Collection<StreamEvent>) state) {
+                    add(streamEvent.getOutputData(), streamEvent.getTimestamp());
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the row store, deleting its files when they were created only for this holder.
+     */
+    public void close() {
+        if (!closed) {
+            closed = true;
+            rowStore.close(deleteOnClose);
+        }
+    }
+
+    private long[] findRows(String attribute, Compare.Operator operator, Object value) {
+        LongStream.Builder rowIds = LongStream.builder();
+        if (primaryKeyIndex != null && attribute.equals(primaryKeyAttributes)) {
+            if (operator == Compare.Operator.EQUAL) {
+                long rowId = findPrimaryKeyRow(value);
+                if (rowId >= 0) {
+                    rowIds.add(rowId);
+                }
+            } else {
+                forEachRow(rowId -> {
+                    if (matches(constructPrimaryKey(rowStore.read(rowId)), operator, value)) {
+                        rowIds.add(rowId);
+                    }
+                });
+            }
+        } else {
+            Integer position = indexMetaData.get(attribute);
+            if (position == null) {
+                throw new OperationNotSupportedException("Attribute '" + attribute + "' is not indexed in table '" +
+                        tableName + "'");
+            }
+            if (operator == Compare.Operator.EQUAL) {
+                indexes[position].forEach(Objects.hashCode(value), rowId -> {
+                    if (Objects.equals(value, rowStore.read(rowId, position))) {
+                        rowIds.add(rowId);
+                    }
+                });
+            } else {
+                forEachRow(rowId -> {
+                    if (matches(rowStore.read(rowId, position), operator, value)) {
+                        rowIds.add(rowId);
+                    }
+                });
+            }
+        }
+        return rowIds.build().toArray();
+    }
+
+    private boolean matches(Object storedValue, Compare.Operator operator, Object value) {
+        switch (operator) {
+            case EQUAL:
+                return Objects.equals(storedValue, value);
+            case NOT_EQUAL:
+                return !Objects.equals(storedValue, value);
+            default:
+                if (storedValue == null || value == null) {
+                    return false;
+                }
+                int comparison;
+                if (storedValue instanceof Number && value instanceof Number
+                        && storedValue.getClass() != value.getClass()) {
+                    comparison = Double.compare(((Number) storedValue).doubleValue(),
+                            ((Number) value).doubleValue());
+                } else {
+                    comparison = ((Comparable<Object>) storedValue).compareTo(value);
+                }
+                switch (operator) {
+                    case LESS_THAN:
+                        return comparison < 0;
+                    case GREATER_THAN:
+                        return comparison > 0;
+                    case LESS_THAN_EQUAL:
+                        return comparison <= 0;
+                    case GREATER_THAN_EQUAL:
+                        return comparison >= 0;
+                    default:
+                        throw new OperationNotSupportedException(operator + " not supported for '" + value +
+                                "' by " + getClass().getName());
+                }
+        }
+    }
+
+    private void forEachRow(LongConsumer consumer) {
+        long rowCount = rowStore.getRowCount();
+        for (long rowId = 0; rowId < rowCount; rowId++) {
+            if (rowStore.isLive(rowId)) {
+                consumer.accept(rowId);
+            }
+        }
+    }
+
+    private long findPrimaryKeyRow(Object primaryKey) {
+        long[] found = {-1};
+        primaryKeyIndex.forEach(Objects.hashCode(primaryKey), rowId -> {
+            if (found[0] < 0 && Objects.equals(primaryKey, constructPrimaryKey(rowId))) {
+                found[0] = rowId;
+            }
+        });
+        return found[0];
+    }
+
+    private Object constructPrimaryKey(Object[] data) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return data[primaryKeyReferenceHolders[0].getPrimaryKeyPosition()];
+        } else {
+            Object[] values = new Object[primaryKeyReferenceHolders.length];
+            for (int i = 0; i < primaryKeyReferenceHolders.length; i++) {
+                values[i] = data[primaryKeyReferenceHolders[i].getPrimaryKeyPosition()];
+            }
+            return new CompositeKey(values);
+        }
+    }
+
+    private Object constructPrimaryKey(long rowId) {
+        if (primaryKeyReferenceHolders.length == 1) {
+            return rowStore.read(rowId, primaryKeyReferenceHolders[0].getPrimaryKeyPosition());
+        } else {
+            Object[] values = new Object[primaryKeyReferenceHolders.length];
+            for (int i = 0; i < primaryKeyReferenceHolders.length; i++) {
+                values[i] = rowStore.read(rowId, primaryKeyReferenceHolders[i].getPrimaryKeyPosition());
+            }
+            return new CompositeKey(values);
+        }
+    }
+
+    private void index(long rowId, Object[] data) {
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.add(Objects.hashCode(constructPrimaryKey(data)), rowId);
+        }
+        for (int i = 0; i < attributeCount; i++) {
+            if (indexes[i] != null) {
+                indexes[i].add(Objects.hashCode(data[i]), rowId);
+            }
+        }
+    }
+
+    private void deleteRow(long rowId) {
+        if (primaryKeyIndex != null) {
+            primaryKeyIndex.remove(Objects.hashCode(constructPrimaryKey(rowId)), rowId);
+        }
+        for (int i = 0; i < attributeCount; i++) {
+            if (indexes[i] != null) {
+                indexes[i].remove(Objects.hashCode(rowStore.read(rowId, i)), rowId);
+            }
+        }
+        rowStore.delete(rowId);
+    }
+
+    private void update(long rowId, int attributePosition, Object value) {
+        if (!rowStore.isLive(rowId)) {
+            return;
+        }
+        boolean primaryKeyAttribute = primaryKeyIndex != null && primaryKeyPositions[attributePosition];
+        if (primaryKeyAttribute) {
+            primaryKeyIndex.remove(Objects.hashCode(constructPrimaryKey(rowId)), rowId);
+        }
+        if (indexes[attributePosition] != null) {
+            indexes[attributePosition].remove(Objects.hashCode(rowStore.read(rowId, attributePosition)), rowId);
+        }
+        rowStore.update(rowId, attributePosition, value);
+        if (primaryKeyAttribute) {
+            primaryKeyIndex.add(Objects.hashCode(constructPrimaryKey(rowId)), rowId);
+        }
+        if (indexes[attributePosition] != null) {
+            indexes[attributePosition].add(Objects.hashCode(value), rowId);
+        }
+    }
+
+    private StreamEvent materialize(long rowId) {
+        OffHeapStreamEvent streamEvent = new OffHeapStreamEvent(this, rowId, attributeCount);
+        streamEvent.setTimestamp(rowStore.readTimestamp(rowId));
+        streamEvent.setOutputData(rowStore.read(rowId));
+        return streamEvent;
+    }
+
+    /**
+     * Event materialized from a stored row, which writes updates of its output data back to the row. Materialized
+     * events of the same row are equal.
+     */
+    private static class OffHeapStreamEvent extends StreamEvent {
+
+        private static final long serialVersionUID = -1836390151766946170L;
+        private final transient OffHeapEventHolder holder;
+        private final long rowId;
+
+        OffHeapStreamEvent(OffHeapEventHolder holder, long rowId, int outputDataSize) {
+            super(0, 0, outputDataSize);
+            this.holder = holder;
+            this.rowId = rowId;
+        }
+
+        @Override
+        public void setOutputData(Object object, int index) {
+            super.setOutputData(object, index);
+            if (holder != null) {
+                holder.update(rowId, index, object);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OffHeapStreamEvent)) {
+                return false;
+            }
+            OffHeapStreamEvent event = (OffHeapStreamEvent) o;
+            return holder == event.holder && rowId == event.rowId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(rowId);
+        }
+    }
+}
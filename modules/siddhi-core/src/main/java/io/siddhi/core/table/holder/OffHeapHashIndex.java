@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.table.holder;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongConsumer;
+
+/**
+ * Open addressing hash index kept in direct memory, that maps the hash codes of keys to the ids of the rows of an
+ * {@link OffHeapRowStore}. Keys are not stored in the index, hence the rows found for a hash code should be matched
+ * against the key by the caller. Multiple rows can be indexed with the same hash code.
+ */
+public class OffHeapHashIndex {
+
+    private static final int SLOT_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+
+    private final int maxCapacity;
+    private ByteBuffer slots;
+    private int capacity;
+    private int size;
+    private int deleted;
+
+    public OffHeapHashIndex() {
+        this(MAX_CAPACITY);
+    }
+
+    /**
+     * @param maxCapacity maximum number of slots, a power of two, of which at most half can hold rows
+     */
+    public OffHeapHashIndex(int maxCapacity) {
+        if (Integer.bitCount(maxCapacity) != 1 || maxCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Maximum capacity " + maxCapacity + " of off-heap hash index " +
+                    "should be a power of two, not larger than " + MAX_CAPACITY);
+        }
+        this.maxCapacity = maxCapacity;
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    private static int spread(int hash) {
+        int spread = (hash ^ (hash >>> 16)) * 0x9E3779B9;
+        return spread ^ (spread >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+        this.size = 0;
+        this.deleted = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(int hash, long rowId) {
+        if ((size + deleted + 1) * 2 > capacity) {
+            resize();
+        }
+        int mask = capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long entry = slots.getLong(slot * SLOT_SIZE);
+            if (entry == EMPTY || entry == DELETED) {
+                if (entry == DELETED) {
+                    deleted--;
+                }
+                slots.putLong(slot * SLOT_SIZE, rowId + 1);
+                slots.putInt(slot * SLOT_SIZE + 8, hash);
+                size++;
+                return;
+            }
+        }
+    }
+
+    public boolean remove(int hash, long rowId) {
+        int mask = capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long entry = slots.getLong(slot * SLOT_SIZE);
+            if (entry == EMPTY) {
+                return false;
+            }
+            if (entry == rowId + 1) {
+                slots.putLong(slot * SLOT_SIZE, DELETED);
+                size--;
+                deleted++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Passes the ids of all the rows indexed with the given hash code to the consumer. The consumer should not
+     * modify the index.
+     */
+    public void forEach(int hash, LongConsumer consumer) {
+        int mask = capacity - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            long entry = slots.getLong(slot * SLOT_SIZE);
+            if (entry == EMPTY) {
+                return;
+            }
+            if (entry != DELETED && slots.getInt(slot * SLOT_SIZE + 8) == hash) {
+                consumer.accept(entry - 1);
+            }
+        }
+    }
+
+    public void clear() {
+        allocate(Math.min(INITIAL_CAPACITY, maxCapacity));
+    }
+
+    /**
+     * Rehashes the index to a capacity where the rows fill at most a quarter of the slots, or to the maximum
+     * capacity, where they can fill up to half of the slots as allowed by {@link #add(int, long)}.
+     */
+    private void resize() {
+        if ((size + 1) * 2 > maxCapacity) {
+            throw new IllegalStateException("Off-heap hash index cannot hold more than " + (maxCapacity / 2) +
+                    " rows");
+        }
+        int newCapacity = capacity;
+        while ((size + 1) * 4 > newCapacity && newCapacity < maxCapacity) {
+            newCapacity <<= 1;
+        }
+        ByteBuffer oldSlots = slots;
+        int oldCapacity = capacity;
+        allocate(newCapacity);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long entry = oldSlots.getLong(slot * SLOT_SIZE);
+            if (entry != EMPTY && entry != DELETED) {
+                add(oldSlots.getInt(slot * SLOT_SIZE + 8), entry - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.table.holder;
+
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores the rows of a table in memory mapped files, where each row has a fixed width laid out by the attribute types
+ * of the table. Values of numeric and boolean attributes are stored in the row itself, while values of string and
+ * object attributes are appended to a separate variable data file and referenced from the row. Slots of deleted rows
+ * are chained into a free list through the rows themselves, and reused by later inserts.
+ * <p>
+ * The files are mapped in chunks of a fixed size, and a row never spans two chunks. The header at the start of the
+ * first chunk records the layout and the allocation state of the store, such that the rows are available when the
+ * store is opened again with the same layout. The mapped chunks are only guaranteed to be written to the files when
+ * the store is flushed.
+ * <p>
+ * This class is not thread safe for writes; reads only use absolute positions, hence they can run concurrently when
+ * there are no writes.
+ */
+public class OffHeapRowStore {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+    public static final String VARIABLE_DATA_FILE_SUFFIX = ".var";
+    private static final String COMPACTION_FILE_SUFFIX = ".compact";
+    private static final int MAGIC = 0x5344484F;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int LAYOUT_OFFSET = 8;
+    private static final int CHUNK_SIZE_OFFSET = 12;
+    private static final int ROW_COUNT_OFFSET = 16;
+    private static final int LIVE_ROW_COUNT_OFFSET = 24;
+    private static final int FREE_ROW_OFFSET = 32;
+    private static final int VARIABLE_DATA_END_OFFSET = 40;
+    private static final int VARIABLE_DATA_GARBAGE_OFFSET = 48;
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+
+    private final File file;
+    private final File variableDataFile;
+    private final Attribute.Type[] types;
+    private final int timestampOffset;
+    private final int[] valueOffsets;
+    private final int rowWidth;
+    private final int chunkSize;
+    private final int rowsPerChunk;
+    private final FileChannel rowChannel;
+    private final List<MappedByteBuffer> rowChunks = new ArrayList<>();
+    private final MappedByteBuffer header;
+    private VariableDataFile variableData;
+
+    public OffHeapRowStore(File file, Attribute.Type[] types, int chunkSize) throws IOException {
+        this.file = file;
+        this.variableDataFile = new File(file.getPath() + VARIABLE_DATA_FILE_SUFFIX);
+        this.types = types;
+        this.chunkSize = chunkSize;
+        this.valueOffsets = new int[types.length];
+        // Status byte and null bits, followed by the event timestamp and the values
+        this.timestampOffset = (1 + (types.length + 7) / 8 + 7) & ~7;
+        int offset = timestampOffset + 8;
+        for (int i = 0; i < types.length; i++) {
+            valueOffsets[i] = offset;
+            offset += valueWidth(types[i]);
+        }
+        this.rowWidth = (offset + 7) & ~7;
+        this.rowsPerChunk = (chunkSize - HEADER_SIZE) / rowWidth;
+        if (rowsPerChunk <= 0) {
+            throw new IllegalArgumentException("Chunk size " + chunkSize + " is too small for rows of " + rowWidth +
+                    " bytes");
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        this.rowChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean existing = rowChannel.size() >= HEADER_SIZE;
+        this.header = mapChunk(rowChannel, 0);
+        rowChunks.add(header);
+        if (existing && header.getInt(MAGIC_OFFSET) == MAGIC && header.getInt(VERSION_OFFSET) == VERSION
+                && header.getInt(LAYOUT_OFFSET) == layout() && header.getInt(CHUNK_SIZE_OFFSET) == chunkSize
+                && variableDataFile.exists()) {
+            this.variableData = new VariableDataFile(variableDataFile, chunkSize,
+                    header.getLong(VARIABLE_DATA_END_OFFSET));
+            if (getRowCount() > 0) {
+                ensureRowChunk(getRowCount() - 1);
+            }
+        } else {
+            this.variableData = new VariableDataFile(variableDataFile, chunkSize, 0);
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(VERSION_OFFSET, VERSION);
+            header.putInt(LAYOUT_OFFSET, layout());
+            header.putInt(CHUNK_SIZE_OFFSET, chunkSize);
+            clear();
+        }
+    }
+
+    private static int valueWidth(Attribute.Type type) {
+        switch (type) {
+            case BOOL:
+                return 1;
+            case INT:
+            case FLOAT:
+                return 4;
+            default:
+                // Long and double values, and references to string and object values
+                return 8;
+        }
+    }
+
+    private static MappedByteBuffer mapChunk(FileChannel channel, long chunkIndex, int chunkSize)
+            throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, chunkIndex * chunkSize, chunkSize);
+    }
+
+    private MappedByteBuffer mapChunk(FileChannel channel, long chunkIndex) throws IOException {
+        return mapChunk(channel, chunkIndex, chunkSize);
+    }
+
+    private int layout() {
+        int layout = 1;
+        for (Attribute.Type type : types) {
+            layout = 31 * layout + type.ordinal();
+        }
+        return layout;
+    }
+
+    /**
+     * @return the number of row slots used so far, including the free ones
+     */
+    public long getRowCount() {
+        return header.getLong(ROW_COUNT_OFFSET);
+    }
+
+    /**
+     * @return the number of rows stored
+     */
+    public long size() {
+        return header.getLong(LIVE_ROW_COUNT_OFFSET);
+    }
+
+    public boolean isLive(long rowId) {
+        return rowId >= 0 && rowId < getRowCount() && rowChunk(rowId).get(rowPosition(rowId)) == LIVE;
+    }
+
+    /**
+     * Stores the values as a new row, reusing the slot of a deleted row when there is one.
+     *
+     * @param values    values of the row, by attribute position
+     * @param timestamp timestamp of the event of the row
+     * @return id of the row
+     */
+    public long insert(Object[] values, long timestamp) {
+        long rowId = header.getLong(FREE_ROW_OFFSET) - 1;
+        if (rowId >= 0) {
+            header.putLong(FREE_ROW_OFFSET, rowChunk(rowId).getLong(rowPosition(rowId) + timestampOffset));
+        } else {
+            rowId = getRowCount();
+            ensureRowChunk(rowId);
+            header.putLong(ROW_COUNT_OFFSET, rowId + 1);
+        }
+        ByteBuffer chunk = rowChunk(rowId);
+        int position = rowPosition(rowId);
+        for (int i = 1; i < timestampOffset; i++) {
+            chunk.put(position + i, (byte) 0);
+        }
+        chunk.putLong(position + timestampOffset, timestamp);
+        for (int i = 0; i < types.length; i++) {
+            writeValue(rowId, i, values[i]);
+        }
+        chunk.put(position, LIVE);
+        header.putLong(LIVE_ROW_COUNT_OFFSET, size() + 1);
+        return rowId;
+    }
+
+    /**
+     * Replaces the value of an attribute of a stored row.
+     */
+    public void update(long rowId, int attributePosition, Object value) {
+        releaseValue(rowId, attributePosition);
+        writeValue(rowId, attributePosition, value);
+        compactVariableDataIfNeeded();
+    }
+
+    /**
+     * Deletes a stored row, and adds its slot to the free list.
+     */
+    public void delete(long rowId) {
+        ByteBuffer chunk = rowChunk(rowId);
+        int position = rowPosition(rowId);
+        for (int i = 0; i < types.length; i++) {
+            releaseValue(rowId, i);
+        }
+        chunk.put(position, FREE);
+        chunk.putLong(position + timestampOffset, header.getLong(FREE_ROW_OFFSET));
+        header.putLong(FREE_ROW_OFFSET, rowId + 1);
+        header.putLong(LIVE_ROW_COUNT_OFFSET, size() - 1);
+        compactVariableDataIfNeeded();
+    }
+
+    /**
+     * Deletes all the rows.
+     */
+    public void clear() {
+        header.putLong(ROW_COUNT_OFFSET, 0);
+        header.putLong(LIVE_ROW_COUNT_OFFSET, 0);
+        header.putLong(FREE_ROW_OFFSET, 0);
+        header.putLong(VARIABLE_DATA_END_OFFSET, 0);
+        header.putLong(VARIABLE_DATA_GARBAGE_OFFSET, 0);
+        variableData.end = 0;
+    }
+
+    public long readTimestamp(long rowId) {
+        return rowChunk(rowId).getLong(rowPosition(rowId) + timestampOffset);
+    }
+
+    public Object[] read(long rowId) {
+        Object[] values = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            values[i] = read(rowId, i);
+        }
+        return values;
+    }
+
+    public Object read(long rowId, int attributePosition) {
+        ByteBuffer chunk = rowChunk(rowId);
+        int position = rowPosition(rowId);
+        if ((chunk.get(position + 1 + attributePosition / 8) & (1 << (attributePosition % 8))) != 0) {
+            return null;
+        }
+        int valuePosition = position + valueOffsets[attributePosition];
+        switch (types[attributePosition]) {
+            case STRING:
+                return new String(variableData.read(chunk.getLong(valuePosition)), StandardCharsets.UTF_8);
+            case INT:
+                return chunk.getInt(valuePosition);
+            case LONG:
+                return chunk.getLong(valuePosition);
+            case FLOAT:
+                return chunk.getFloat(valuePosition);
+            case DOUBLE:
+                return chunk.getDouble(valuePosition);
+            case BOOL:
+                return chunk.get(valuePosition) != 0;
+            default:
+                return deserialize(variableData.read(chunk.getLong(valuePosition)));
+        }
+    }
+
+    /**
+     * Writes the mapped chunks of both files to the storage device.
+     */
+    public void flush() {
+        for (MappedByteBuffer rowChunk : rowChunks) {
+            rowChunk.force();
+        }
+        variableData.force();
+    }
+
+    /**
+     * Flushes and closes the files of the store.
+     *
+     * @param deleteFiles whether the files should be deleted after closing
+     */
+    public void close(boolean deleteFiles) {
+        try {
+            if (!deleteFiles) {
+                flush();
+            }
+            rowChunks.clear();
+            rowChannel.close();
+            variableData.close();
+            if (deleteFiles) {
+                Files.deleteIfExists(file.toPath());
+                Files.deleteIfExists(variableDataFile.toPath());
+            }
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error while closing off-heap row store '" + file + "', " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private int rowPosition(long rowId) {
+        return HEADER_SIZE + (int) (rowId % rowsPerChunk) * rowWidth;
+    }
+
+    private ByteBuffer rowChunk(long rowId) {
+        return rowChunks.get((int) (rowId / rowsPerChunk));
+    }
+
+    private void ensureRowChunk(long rowId) {
+        long chunkIndex = rowId / rowsPerChunk;
+        try {
+            while (rowChunks.size() <= chunkIndex) {
+                rowChunks.add(mapChunk(rowChannel, rowChunks.size()));
+            }
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error while extending off-heap row store '" + file + "', " +
+                    e.getMessage(), e);
+        }
+    }
+
+    private boolean isVariableWidth(int attributePosition) {
+        return types[attributePosition] == Attribute.Type.STRING || types[attributePosition] == Attribute.Type.OBJECT;
+    }
+
+    private void writeValue(long rowId, int attributePosition, Object value) {
+        ByteBuffer chunk = rowChunk(rowId);
+        int position = rowPosition(rowId);
+        int nullBitsPosition = position + 1 + attributePosition / 8;
+        byte nullBit = (byte) (1 << (attributePosition % 8));
+        if (value == null) {
+            chunk.put(nullBitsPosition, (byte) (chunk.get(nullBitsPosition) | nullBit));
+            return;
+        }
+        chunk.put(nullBitsPosition, (byte) (chunk.get(nullBitsPosition) & ~nullBit));
+        int valuePosition = position + valueOffsets[attributePosition];
+        switch (types[attributePosition]) {
+            case STRING:
+                chunk.putLong(valuePosition, appendVariableData(((String) value).getBytes(StandardCharsets.UTF_8)));
+                break;
+            case INT:
+                chunk.putInt(valuePosition, (Integer) value);
+                break;
+            case LONG:
+                chunk.putLong(valuePosition, (Long) value);
+                break;
+            case FLOAT:
+                chunk.putFloat(valuePosition, (Float) value);
+                break;
+            case DOUBLE:
+                chunk.putDouble(valuePosition, (Double) value);
+                break;
+            case BOOL:
+                chunk.put(valuePosition, (Boolean) value ? (byte) 1 : (byte) 0);
+                break;
+            default:
+                chunk.putLong(valuePosition, appendVariableData(serialize(value)));
+        }
+    }
+
+    private void releaseValue(long rowId, int attributePosition) {
+        if (isVariableWidth(attributePosition)) {
+            ByteBuffer chunk = rowChunk(rowId);
+            int position = rowPosition(rowId);
+            if ((chunk.get(position + 1 + attributePosition / 8) & (1 << (attributePosition % 8))) == 0) {
+                long reference = chunk.getLong(position + valueOffsets[attributePosition]);
+                header.putLong(VARIABLE_DATA_GARBAGE_OFFSET, header.getLong(VARIABLE_DATA_GARBAGE_OFFSET) +
+                        variableData.length(reference));
+            }
+        }
+    }
+
+    private long appendVariableData(byte[] data) {
+        long reference = variableData.append(data);
+        header.putLong(VARIABLE_DATA_END_OFFSET, variableData.end);
+        return reference;
+    }
+
+    /**
+     * Rewrites the variable data of the stored rows to a new file when more than half of the variable data file is
+     * occupied by values of deleted rows and replaced values.
+     */
+    private void compactVariableDataIfNeeded() {
+        long garbage = header.getLong(VARIABLE_DATA_GARBAGE_OFFSET);
+        if (garbage < chunkSize || garbage * 2 < variableData.end) {
+            return;
+        }
+        File compactionFile = new File(variableDataFile.getPath() + COMPACTION_FILE_SUFFIX);
+        try {
+            Files.deleteIfExists(compactionFile.toPath());
+            VariableDataFile compactedData = new VariableDataFile(compactionFile, chunkSize, 0);
+            long rowCount = getRowCount();
+            for (long rowId = 0; rowId < rowCount; rowId++) {
+                ByteBuffer chunk = rowChunk(rowId);
+                int position = rowPosition(rowId);
+                if (chunk.get(position) != LIVE) {
+                    continue;
+                }
+                for (int i = 0; i < types.length; i++) {
+                    if (isVariableWidth(i) && (chunk.get(position + 1 + i / 8) & (1 << (i % 8))) == 0) {
+                        int valuePosition = position + valueOffsets[i];
+                        chunk.putLong(valuePosition, compactedData.append(variableData.read(
+                                chunk.getLong(valuePosition))));
+                    }
+                }
+            }
+            long end = compactedData.end;
+            compactedData.force();
+            compactedData.close();
+            variableData.close();
+            Files.move(compactionFile.toPath(), variableDataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            variableData = new VariableDataFile(variableDataFile, chunkSize, end);
+            header.putLong(VARIABLE_DATA_END_OFFSET, end);
+            header.putLong(VARIABLE_DATA_GARBAGE_OFFSET, 0);
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error while compacting variable data of off-heap row store '" +
+                    file + "', " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+             ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(value);
+            objectOutputStream.flush();
+            return byteArrayOutputStream.toByteArray();
+        } catch (IOException e) {
+            throw new SiddhiAppRuntimeException("Error while serializing object '" + value + "' to off-heap row " +
+                    "store '" + file + "', " + e.getMessage(), e);
+        }
+    }
+
+    private Object deserialize(byte[] data) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return objectInputStream.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SiddhiAppRuntimeException("Error while deserializing object from off-heap row store '" +
+                    file + "', " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Append only file of length prefixed values, mapped in chunks. A value never spans two chunks, and a reference
+     * to a value is its position in the file.
+     */
+    private static class VariableDataFile {
+
+        private final File file;
+        private final int chunkSize;
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> chunks = new ArrayList<>();
+        private long end;
+
+        VariableDataFile(File file, int chunkSize, long end) throws IOException {
+            this.file = file;
+            this.chunkSize = chunkSize;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.end = end;
+            long chunkCount = (end + chunkSize - 1) / chunkSize;
+            for (long i = 0; i < chunkCount; i++) {
+                chunks.add(mapChunk(channel, i, chunkSize));
+            }
+        }
+
+        long append(byte[] data) {
+            int length = 4 + data.length;
+            if (length > chunkSize) {
+                throw new SiddhiAppRuntimeException("Value of " + data.length + " bytes is too large for off-heap " +
+                        "row store '" + file + "', with chunk size " + chunkSize);
+            }
+            long reference = end;
+            if (reference % chunkSize + length > chunkSize) {
+                reference = (reference / chunkSize + 1) * chunkSize;
+            }
+            int chunkIndex = (int) (reference / chunkSize);
+            try {
+                while (chunks.size() <= chunkIndex) {
+                    chunks.add(mapChunk(channel, chunks.size(), chunkSize));
+                }
+            } catch (IOException e) {
+                throw new SiddhiAppRuntimeException("Error while extending off-heap variable data file '" + file +
+                        "', " + e.getMessage(), e);
+            }
+            ByteBuffer chunk = chunks.get(chunkIndex).duplicate();
+            chunk.position((int) (reference % chunkSize));
+            chunk.putInt(data.length);
+            chunk.put(data);
+            end = reference + length;
+            return reference;
+        }
+
+        byte[] read(long reference) {
+            ByteBuffer chunk = chunks.get((int) (reference / chunkSize)).duplicate();
+            chunk.position((int) (reference % chunkSize));
+            byte[] data = new byte[chunk.getInt()];
+            chunk.get(data);
+            return data;
+        }
+
+        int length(long reference) {
+            return 4 + chunks.get((int) (reference / chunkSize)).getInt((int) (reference % chunkSize));
+        }
+
+        void force() {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        }
+
+        void close() throws IOException {
+            chunks.clear();
+            channel.close();
+        }
+    }
+}
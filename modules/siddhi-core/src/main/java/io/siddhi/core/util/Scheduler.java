@@ -36,9 +36,9 @@ import org.apache.log4j.Logger;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -55,6 +55,8 @@ public class Scheduler implements ExternalReferencedHolder {
     private SiddhiQueryContext siddhiQueryContext;
     private LockWrapper lockWrapper;
     private ScheduledExecutorService scheduledExecutorService;
+    private TimingWheel timingWheel;
+    private long timerCoalescingTick = 0;
     private StreamEventFactory streamEventFactory;
     private LatencyTracker latencyTracker;
     private StateHolder<SchedulerState> stateHolder;
@@ -66,6 +68,7 @@ public class Scheduler implements ExternalReferencedHolder {
         this.siddhiQueryContext = siddhiQueryContext;
         this.singleThreadEntryValve = singleThreadEntryValve;
         this.scheduledExecutorService = siddhiQueryContext.getSiddhiAppContext().getScheduledExecutorService();
+        this.timingWheel = siddhiQueryContext.getSiddhiAppContext().getTimingWheel();
         this.mutex = new Semaphore(1);
 
         siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator()
@@ -111,10 +114,21 @@ public class Scheduler implements ExternalReferencedHolder {
     }
 
     public void notifyAt(long time) {
+        if (timerCoalescingTick > 0) {
+            long elapsedTimeInTick = Math.floorMod(time, timerCoalescingTick);
+            if (elapsedTimeInTick != 0) {
+                time += timerCoalescingTick - elapsedTimeInTick;
+            }
+        }
         SchedulerState state = stateHolder.getState();
         try {
+            if (timerCoalescingTick > 0 && time == state.lastNotifyTime && !state.toNotifyQueue.isEmpty()) {
+                // a timer of the same tick is already queued, hence it will send the timer event for this time
+                return;
+            }
             // Insert the time into the queue
             state.toNotifyQueue.put(time);
+            state.lastNotifyTime = time;
             schedule(time, state, false);     // Let the subclasses to schedule the scheduler
         } catch (InterruptedException e) {
             // InterruptedException ignored if scheduledExecutorService has already been shutdown
@@ -136,11 +150,9 @@ public class Scheduler implements ExternalReferencedHolder {
                         long timeDiff = time - siddhiQueryContext.getSiddhiAppContext().
                                 getTimestampGenerator().currentTime();
                         if (timeDiff > 0) {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    timeDiff, TimeUnit.MILLISECONDS);
+                            state.scheduledFuture = schedule(state.eventCaller, timeDiff);
                         } else {
-                            state.scheduledFuture = scheduledExecutorService.schedule(state.eventCaller,
-                                    0, TimeUnit.MILLISECONDS);
+                            state.scheduledFuture = schedule(state.eventCaller, 0);
                         }
                     }
 
@@ -155,6 +167,17 @@ public class Scheduler implements ExternalReferencedHolder {
     }
 
 
+    /**
+     * Schedules the event caller with the timing wheel when it is enabled for the Siddhi App, or otherwise with the
+     * scheduled executor service.
+     */
+    private Future<?> schedule(EventCaller eventCaller, long delay) {
+        if (timingWheel != null) {
+            return timingWheel.newTimeout(eventCaller, delay, TimeUnit.MILLISECONDS);
+        }
+        return scheduledExecutorService.schedule(eventCaller, delay, TimeUnit.MILLISECONDS);
+    }
+
     public void setStreamEventFactory(StreamEventFactory streamEventFactory) {
         this.streamEventFactory = streamEventFactory;
     }
@@ -163,6 +186,16 @@ public class Scheduler implements ExternalReferencedHolder {
         this.latencyTracker = latencyTracker;
     }
 
+    /**
+     * Coalesces the notifications of each tick of the given duration into a single timer event, by rounding the
+     * notification times up to the end of their tick.
+     *
+     * @param timerCoalescingTick duration of the tick in milliseconds, or zero to notify at the exact times
+     */
+    public void setTimerCoalescingTick(long timerCoalescingTick) {
+        this.timerCoalescingTick = timerCoalescingTick;
+    }
+
     /**
      * Go through the timestamps stored in the toNotifyQueue and send the TIMER events for the expired events.
      *
@@ -297,16 +330,14 @@ public class Scheduler implements ExternalReferencedHolder {
                     long currentTime = siddhiQueryContext.getSiddhiAppContext().getTimestampGenerator().currentTime();
 
                     if (toNotifyTime != null) {
-                        state.scheduledFuture = scheduledExecutorService.
-                                schedule(this, toNotifyTime - currentTime, TimeUnit.MILLISECONDS);
+                        state.scheduledFuture = schedule(this, toNotifyTime - currentTime);
                     } else {
                         try {
                             mutex.acquire();
                             state.running = false;
                             if (state.toNotifyQueue.peek() != null) {
                                 state.running = true;
-                                state.scheduledFuture = scheduledExecutorService.schedule(this,
-                                        0, TimeUnit.MILLISECONDS);
+                                state.scheduledFuture = schedule(this, 0);
                             }
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
@@ -332,8 +363,9 @@ public class Scheduler implements ExternalReferencedHolder {
         private final BlockingQueue<Long> toNotifyQueue = new LinkedBlockingQueue<Long>();
         private final String key;
         private volatile boolean running = false;
+        private long lastNotifyTime = Long.MIN_VALUE;
         private EventCaller eventCaller;
-        private ScheduledFuture scheduledFuture;
+        private Future<?> scheduledFuture;
 
         public SchedulerState() {
             this.key = SiddhiAppContext.getPartitionFlowId();
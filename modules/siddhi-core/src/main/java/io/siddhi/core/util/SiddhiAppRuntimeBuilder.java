@@ -25,17 +25,20 @@ import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.partition.PartitionRuntime;
 import io.siddhi.core.partition.PartitionRuntimeImpl;
+import io.siddhi.core.partition.PartitionStreamReceiver;
 import io.siddhi.core.query.QueryRuntime;
 import io.siddhi.core.query.QueryRuntimeImpl;
 import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.output.callback.InsertIntoStreamCallback;
+import io.siddhi.core.query.output.callback.InsertIntoTableCallback;
 import io.siddhi.core.query.output.callback.InsertIntoWindowCallback;
 import io.siddhi.core.query.output.callback.OutputCallback;
 import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.stream.input.InputManager;
 import io.siddhi.core.stream.input.source.Source;
+import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.stream.output.sink.Sink;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.trigger.Trigger;
@@ -52,9 +55,11 @@ import io.siddhi.query.api.definition.TriggerDefinition;
 import io.siddhi.query.api.definition.WindowDefinition;
 
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -283,10 +288,78 @@ public class SiddhiAppRuntimeBuilder {
     }
 
     public SiddhiAppRuntime build() {
+        for (StreamJunction streamJunction : streamJunctionMap.values()) {
+            if (streamJunction.isWorkerPool()) {
+                validateOrderInsensitiveConsumers(streamJunction.getStreamId(), streamJunction, new HashSet<>());
+            }
+        }
         return new SiddhiAppRuntimeImpl(streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
                 aggregationDefinitionMap, inputManager, queryProcessorMap, streamJunctionMap, tableMap, windowMap,
                 aggregationMap, sourceMap, sinkMap, partitionMap, triggerMap,
                 siddhiAppContext, siddhiAppRuntimeMap);
     }
 
+    /**
+     * Validates that the events of a worker pool enabled stream, and the events derived from them, are only
+     * consumed by stateless queries, as the worker pool does not preserve the order of the events.
+     */
+    private void validateOrderInsensitiveConsumers(String workerPoolStreamId, StreamJunction streamJunction,
+                                                   Set<String> validatedStreamIds) {
+        if (!validatedStreamIds.add(streamJunction.getStreamId())) {
+            return;
+        }
+        for (StreamJunction.Receiver receiver : streamJunction.getReceivers()) {
+            if (receiver instanceof StreamCallback) {
+                // callbacks and sinks only publish the events out of the Siddhi App
+                continue;
+            } else if (receiver instanceof PartitionStreamReceiver) {
+                throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') cannot be consumed by " +
+                        "partitions, as the worker pool does not preserve the order of the events",
+                        streamJunction.getStreamDefinition(), siddhiAppContext);
+            } else if (!(receiver instanceof ProcessStreamReceiver)) {
+                throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') cannot be consumed by '" +
+                        receiver.getClass().getName() + "', as the worker pool does not preserve the order of " +
+                        "the events", streamJunction.getStreamDefinition(), siddhiAppContext);
+            }
+            for (AggregationRuntime aggregationRuntime : aggregationMap.values()) {
+                if (aggregationRuntime.getSingleStreamRuntime().getProcessStreamReceiver() == receiver) {
+                    throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                            SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') cannot be consumed by " +
+                            "aggregations, as the worker pool does not preserve the order of the events, but " +
+                            "aggregation '" + aggregationRuntime.getAggregationDefinition().getId() +
+                            "' consumes from stream '" + streamJunction.getStreamId() + "'",
+                            aggregationRuntime.getAggregationDefinition(), siddhiAppContext);
+                }
+            }
+            String queryName = ((ProcessStreamReceiver) receiver).getSiddhiQueryContext().getName();
+            QueryRuntime queryRuntime = queryProcessorMap.get(queryName);
+            if (queryRuntime == null) {
+                throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') can only be consumed by " +
+                        "stateless queries, as the worker pool does not preserve the order of the events, but '" +
+                        queryName + "' consuming from stream '" + streamJunction.getStreamId() +
+                        "' is not a query", streamJunction.getStreamDefinition(), siddhiAppContext);
+            } else if (queryRuntime.isStateful()) {
+                throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') can only be consumed by " +
+                        "stateless queries, as the worker pool does not preserve the order of the events, but '" +
+                        queryName + "' consuming from stream '" + streamJunction.getStreamId() +
+                        "' is stateful", queryRuntime.getQuery(), siddhiAppContext);
+            }
+            OutputCallback outputCallback = ((QueryRuntimeImpl) queryRuntime).getOutputCallback();
+            if (outputCallback instanceof InsertIntoStreamCallback) {
+                validateOrderInsensitiveConsumers(workerPoolStreamId, streamJunctionMap.get(
+                        ((InsertIntoStreamCallback) outputCallback).getOutputStreamDefinition().getId()),
+                        validatedStreamIds);
+            } else if (outputCallback != null && !(outputCallback instanceof InsertIntoTableCallback)) {
+                throw new SiddhiAppCreationException("Stream '" + workerPoolStreamId + "' with @Async(" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_WORKER_POOL + "='true') can only be consumed by " +
+                        "queries inserting into streams or tables, as the worker pool does not preserve the " +
+                        "order of the events, but query '" + queryName + "' does not",
+                        queryRuntime.getQuery(), siddhiAppContext);
+            }
+        }
+    }
 }
@@ -48,6 +48,14 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_PLAYBACK = "Playback";
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
     public static final String ANNOTATION_ASYNC = "Async";
+    public static final String ANNOTATION_EVENT_POOL = "EventPool";
+    public static final String ANNOTATION_COMPILE_EXPRESSIONS = "CompileExpressions";
+    public static final String ANNOTATION_COPIED_SNAPSHOT = "CopiedSnapshot";
+    public static final String ANNOTATION_PARALLEL_SNAPSHOT = "ParallelSnapshot";
+    public static final String ANNOTATION_SNAPSHOT_COMPACTION = "SnapshotCompaction";
+    public static final String ANNOTATION_TIMING_WHEEL = "TimingWheel";
+    public static final String ANNOTATION_TIMER_COALESCING = "TimerCoalescing";
+    public static final String ANNOTATION_KEY_CACHE = "KeyCache";
 
     public static final String ANNOTATION_ON_ERROR = "OnError";
     public static final String FAULT_STREAM_PREFIX = "!";
@@ -58,6 +66,8 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_INDEX = "Index";
     public static final String ANNOTATION_PRIMARY_KEY = "PrimaryKey";
+    public static final String ANNOTATION_CONCURRENT = "Concurrent";
+    public static final String ANNOTATION_OFF_HEAP = "OffHeap";
     public static final String ANNOTATION_STORE = "Store";
     public static final String ANNOTATION_SOURCE = "Source";
     public static final String ANNOTATION_SINK = "Sink";
@@ -68,8 +78,17 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
+    public static final String ANNOTATION_ELEMENT_SIZE = "size";
     public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
+    public static final String ANNOTATION_ELEMENT_INCREMENTS = "increments";
+    public static final String ANNOTATION_ELEMENT_TICK = "tick";
     public static final String ANNOTATION_ELEMENT_MAX_BATCH_SIZE = "batch.size.max";
+    public static final String ANNOTATION_ELEMENT_STRIPES = "stripes";
+    public static final String ANNOTATION_ELEMENT_FILE = "file";
+    public static final String ANNOTATION_ELEMENT_SNAPSHOT = "snapshot";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER_TYPE = "producer.type";
+    public static final String ANNOTATION_ELEMENT_WORKER_POOL = "worker.pool";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
@@ -79,12 +98,23 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ELEMENT_ENABLE = "enable";
     public static final String ANNOTATION_ELEMENT_IDLE_PERIOD = "idle.period";
     public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
+    public static final String ANNOTATION_ELEMENT_MAX_PARTITIONS = "max.partitions";
     public static final String ANNOTATION_ELEMENT_INCLUDE = "include";
     public static final String ANNOTATION_PARTITION_BY_ID = "PartitionById";
 
     public static final String TRUE = "true";
     public static final String TRIGGER_START = "start";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_EVENT_POOL_SIZE = 1024;
+    public static final int DEFAULT_TABLE_STRIPES = 16;
+    public static final String INDEX_TYPE_HASH = "hash";
+    public static final String INDEX_TYPE_TREE = "tree";
+    public static final int DEFAULT_SNAPSHOT_COMPACTION_INCREMENTS = 20;
+    public static final long DEFAULT_SNAPSHOT_COMPACTION_SIZE = 8 * 1024 * 1024;
+    public static final long DEFAULT_TIMING_WHEEL_TICK = 1;
+    public static final int DEFAULT_TIMING_WHEEL_SIZE = 512;
+    public static final long DEFAULT_TIMER_COALESCING_TICK = 10;
+    public static final int DEFAULT_KEY_CACHE_SIZE = 0;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -107,6 +137,8 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_SOURCE_MAPPERS = "SourceMappers";
     public static final String METRIC_INFIX_SINKS = "Sinks";
     public static final String METRIC_INFIX_SINK_MAPPERS = "SinkMappers";
+    public static final String METRIC_INFIX_SNAPSHOTS = "Snapshots";
+    public static final String METRIC_INFIX_PARTITIONS = "Partitions";
     public static final String METRIC_TYPE_FIND = "find";
     public static final String METRIC_TYPE_INSERT = "insert";
     public static final String METRIC_TYPE_UPDATE = "update";
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hierarchical timing wheel used by all the {@link Scheduler}s of a Siddhi App to run their timers with a single
+ * wheel thread. Timers are bucketed by tick, and all the timers expiring at the same tick are run as one batch by the
+ * given executor, instead of scheduling each of them separately with the scheduled executor service.
+ * <p>
+ * All levels of the wheel have the same number of slots, and a slot of a level spans all the slots of the level below.
+ * Timers are added to the lowest level that can hold them, and are moved to the lower levels as the wheel turns, such
+ * that adding and expiring a timer are both constant time operations.
+ */
+public class TimingWheel {
+
+    private static final Logger log = Logger.getLogger(TimingWheel.class);
+
+    private final long tickNanos;
+    private final int wheelSize;
+    private final Executor executor;
+    private final ThreadFactory threadFactory;
+    private final long startTime = System.nanoTime();
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile boolean running = true;
+    private volatile boolean idle = false;
+    private volatile Thread wheelThread;
+
+    // accessed only by the wheel thread
+    private final List<List<Timeout>[]> levels = new ArrayList<>();
+    private long currentTick;
+    private long timeoutCount;
+
+    /**
+     * @param tick          duration of a tick in milliseconds
+     * @param wheelSize     number of slots in each level of the wheel
+     * @param executor      executor used to run the timers expired at each tick
+     * @param threadFactory factory used to create the wheel thread
+     */
+    public TimingWheel(long tick, int wheelSize, Executor executor, ThreadFactory threadFactory) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tick);
+        this.wheelSize = wheelSize;
+        this.executor = executor;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Schedules the task to be run after the given delay. The wheel thread is started with the first timer.
+     *
+     * @param task  task to be run
+     * @param delay delay after which the task is run
+     * @param unit  time unit of the delay
+     * @return the timeout, which can be used to cancel the task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(task, System.nanoTime() + unit.toNanos(Math.max(delay, 0)));
+        if (!running) {
+            return timeout;
+        }
+        if (!started.get() && started.compareAndSet(false, true)) {
+            wheelThread = threadFactory.newThread(this::run);
+            wheelThread.start();
+        }
+        pendingTimeouts.offer(timeout);
+        Thread thread = wheelThread;
+        if (idle && thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel thread, the timers that are not yet expired are not run.
+     */
+    public void shutdown() {
+        running = false;
+        Thread thread = wheelThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        pendingTimeouts.clear();
+    }
+
+    private void run() {
+        List<Timeout> expiredTimeouts = new ArrayList<>();
+        while (running) {
+            if (timeoutCount == 0 && pendingTimeouts.isEmpty()) {
+                // no timers to wait for, hence the wheel thread is parked until a timer is added
+                idle = true;
+                if (pendingTimeouts.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                idle = false;
+                currentTick = Math.max(currentTick, (System.nanoTime() - startTime) / tickNanos);
+                continue;
+            }
+            Timeout timeout;
+            while ((timeout = pendingTimeouts.poll()) != null) {
+                long deadline = timeout.deadline - startTime;
+                timeout.deadlineTick = deadline <= 0 ? 0 : (deadline + tickNanos - 1) / tickNanos;
+                timeoutCount++;
+                add(timeout, expiredTimeouts);
+            }
+            long tick = (System.nanoTime() - startTime) / tickNanos;
+            while (currentTick < tick) {
+                currentTick++;
+                expire(expiredTimeouts);
+            }
+            if (!expiredTimeouts.isEmpty()) {
+                timeoutCount -= expiredTimeouts.size();
+                fire(expiredTimeouts);
+                expiredTimeouts = new ArrayList<>();
+            }
+            long nextTickTime = startTime + (currentTick + 1) * tickNanos;
+            long sleepTime = nextTickTime - System.nanoTime();
+            if (sleepTime > 0) {
+                LockSupport.parkNanos(this, sleepTime);
+            }
+        }
+    }
+
+    private void add(Timeout timeout, List<Timeout> expiredTimeouts) {
+        if (timeout.deadlineTick <= currentTick) {
+            expiredTimeouts.add(timeout);
+            return;
+        }
+        long remainingTicks = timeout.deadlineTick - currentTick;
+        int level = 0;
+        long slotTicks = 1;
+        while (remainingTicks >= slotTicks * wheelSize && slotTicks <= Long.MAX_VALUE / wheelSize / wheelSize) {
+            slotTicks *= wheelSize;
+            level++;
+        }
+        List<Timeout>[] slots = getLevel(level);
+        int slot = (int) ((timeout.deadlineTick / slotTicks) % wheelSize);
+        if (slots[slot] == null) {
+            slots[slot] = new ArrayList<>();
+        }
+        slots[slot].add(timeout);
+    }
+
+    private List<Timeout>[] getLevel(int level) {
+        while (levels.size() <= level) {
+            levels.add(new List[wheelSize]);
+        }
+        return levels.get(level);
+    }
+
+    /**
+     * Moves the timers of the upper level slots starting at the current tick to the lower levels, and collects the
+     * timers of the current slot of the lowest level.
+     */
+    private void expire(List<Timeout> expiredTimeouts) {
+        long slotTicks = wheelSize;
+        for (int level = 1; level < levels.size() && currentTick % slotTicks == 0; level++) {
+            List<Timeout>[] slots = levels.get(level);
+            int slot = (int) ((currentTick / slotTicks) % wheelSize);
+            List<Timeout> timeouts = slots[slot];
+            if (timeouts != null) {
+                slots[slot] = null;
+                for (Timeout timeout : timeouts) {
+                    if (timeout.isCancelled()) {
+                        timeoutCount--;
+                    } else {
+                        add(timeout, expiredTimeouts);
+                    }
+                }
+            }
+            if (slotTicks > Long.MAX_VALUE / wheelSize) {
+                break;
+            }
+            slotTicks *= wheelSize;
+        }
+        if (levels.isEmpty()) {
+            return;
+        }
+        List<Timeout>[] slots = levels.get(0);
+        int slot = (int) (currentTick % wheelSize);
+        List<Timeout> timeouts = slots[slot];
+        if (timeouts != null) {
+            slots[slot] = null;
+            for (Timeout timeout : timeouts) {
+                if (timeout.isCancelled()) {
+                    timeoutCount--;
+                } else {
+                    add(timeout, expiredTimeouts);
+                }
+            }
+        }
+    }
+
+    private void fire(List<Timeout> expiredTimeouts) {
+        try {
+            executor.execute(() -> {
+                for (Timeout timeout : expiredTimeouts) {
+                    timeout.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (running) {
+                log.error("Error when running " + expiredTimeouts.size() + " expired timers of the timing wheel", e);
+            }
+        }
+    }
+
+    /**
+     * Timer added to the {@link TimingWheel}, which can be cancelled before it expires.
+     */
+    public static class Timeout extends FutureTask<Void> {
+
+        private final long deadline;
+        private long deadlineTick;
+
+        private Timeout(Runnable task, long deadline) {
+            super(task, null);
+            this.deadline = deadline;
+        }
+    }
+}
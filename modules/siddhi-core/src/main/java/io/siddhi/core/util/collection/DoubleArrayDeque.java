@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+/**
+ * Double ended queue of primitive double values backed by a growable ring buffer, that does not box the values nor
+ * allocate a node per value. Adding and polling at either end is amortized O(1). This is not thread safe.
+ */
+public class DoubleArrayDeque implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private transient double[] values;
+    private transient int head;
+    private transient int size;
+
+    public DoubleArrayDeque() {
+        values = new double[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Creates a deque holding the given values in their iteration order, used to restore states that were
+     * persisted with boxed deques.
+     *
+     * @param collection values to be added
+     * @return new deque
+     */
+    public static DoubleArrayDeque from(Collection<? extends Number> collection) {
+        DoubleArrayDeque deque = new DoubleArrayDeque();
+        for (Number value : collection) {
+            deque.addLast(value.doubleValue());
+        }
+        return deque;
+    }
+
+    public void addLast(double value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    public double peekFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[head];
+    }
+
+    public double peekLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return values[(head + size - 1) & (values.length - 1)];
+    }
+
+    /**
+     * @param index position of the value counted from the head
+     * @return value at the given position
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[(head + index) & (values.length - 1)];
+    }
+
+    public double pollFirst() {
+        double value = peekFirst();
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    public double pollLast() {
+        double value = peekLast();
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes the first value that is equal to the given value as per {@link Double#equals(Object)}, the lookup
+     * starts from the head hence removing the first value is O(1).
+     *
+     * @param value value to be removed
+     * @return true if a value is removed
+     */
+    public boolean removeFirstOccurrence(double value) {
+        int mask = values.length - 1;
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(values[(head + i) & mask]) == bits) {
+                if (i == 0) {
+                    pollFirst();
+                } else {
+                    for (int j = i; j < size - 1; j++) {
+                        values[(head + j) & mask] = values[(head + j + 1) & mask];
+                    }
+                    size--;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        double[] newValues = new double[values.length << 1];
+        int firstPart = Math.min(size, values.length - head);
+        System.arraycopy(values, head, newValues, 0, firstPart);
+        System.arraycopy(values, 0, newValues, firstPart, size - firstPart);
+        values = newValues;
+        head = 0;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        int mask = values.length - 1;
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(values[(head + i) & mask]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int length = in.readInt();
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < length) {
+            capacity <<= 1;
+        }
+        values = new double[capacity];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        head = 0;
+        size = length;
+    }
+}
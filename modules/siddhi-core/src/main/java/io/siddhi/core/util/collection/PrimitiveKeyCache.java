@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection;
+
+import io.siddhi.query.api.definition.Attribute;
+
+/**
+ * Resolves the String flow keys of int and long partition and group by values through a fixed size, direct mapped
+ * cache, such that the key of a recurring value is built only once instead of for every event. As the same String
+ * instance is returned for a cached value, its hash code is computed once and the state map lookups using it succeed
+ * on reference equality.
+ * <p>
+ * Each slot holds an immutable entry of a primitive value and its key, and a value replaces the entry of any other
+ * value mapped to the same slot. Hence, the memory used is bounded by the cache size, and the cache can be shared by
+ * concurrent threads without locking.
+ * <p>
+ * A missed lookup costs an entry allocation on top of building the key, hence the cache only pays off when a small
+ * set of values recurs, and it is only enabled for apps configured with {@code @app:KeyCache(size='...')}.
+ */
+public class PrimitiveKeyCache {
+
+    private final String keySuffix;
+    private final CachedKey[] cachedKeys;
+    private final int mask;
+
+    /**
+     * @param size      maximum number of keys to cache, rounded up to a power of two
+     * @param keySuffix suffix appended to the value when building its key, or null if the key is the value itself
+     */
+    public PrimitiveKeyCache(int size, String keySuffix) {
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.cachedKeys = new CachedKey[capacity];
+        this.mask = capacity - 1;
+        this.keySuffix = keySuffix;
+    }
+
+    /**
+     * @param type      type of the key attribute
+     * @param cacheSize configured cache size, where zero disables the cache
+     * @return whether keys of the given type should be resolved through a {@link PrimitiveKeyCache}
+     */
+    public static boolean isSupported(Attribute.Type type, int cacheSize) {
+        return cacheSize > 0 && (type == Attribute.Type.INT || type == Attribute.Type.LONG);
+    }
+
+    /**
+     * @param value non null int or long value
+     * @return the String key of the value
+     */
+    public String getKey(Object value) {
+        long primitiveValue = ((Number) value).longValue();
+        long hash = primitiveValue * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        CachedKey cachedKey = cachedKeys[index];
+        if (cachedKey != null && cachedKey.value == primitiveValue) {
+            return cachedKey.key;
+        }
+        String key = keySuffix == null ? value.toString() : value + keySuffix;
+        cachedKeys[index] = new CachedKey(primitiveValue, key);
+        return key;
+    }
+
+    /**
+     * Immutable cache entry, such that a slot read by a concurrent thread always holds a consistent value and key.
+     */
+    private static final class CachedKey {
+        private final long value;
+        private final String key;
+
+        private CachedKey(long value, String key) {
+            this.value = value;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+
+/**
+ * Aggregates the values of a sliding window with an associative combine function that does not need to be
+ * invertible nor commutative, using the two-stacks algorithm. New values are pushed to the back stack keeping its
+ * running aggregate, and the oldest values are popped from the front stack which keeps the aggregate of each value
+ * with all the newer values below it. When the front stack is empty the back stack is flipped onto it, hence adding,
+ * removing the oldest value and reading the aggregate are amortized O(1) with O(1) combines each.
+ * <p>
+ * Removing a value other than the oldest, as done by windows that do not expire in arrival order, rebuilds the
+ * stacks in O(n). This is not thread safe.
+ *
+ * @param <T> type of the values and of the aggregate
+ */
+public class SlidingWindowAggregator<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final BinaryOperator<T> combine;
+    private Object[] frontValues = new Object[DEFAULT_CAPACITY];
+    private Object[] frontAggregates = new Object[DEFAULT_CAPACITY];
+    private int frontSize;
+    private Object[] backValues = new Object[DEFAULT_CAPACITY];
+    private int backSize;
+    private T backAggregate;
+
+    public SlidingWindowAggregator(BinaryOperator<T> combine) {
+        this.combine = combine;
+    }
+
+    /**
+     * Adds the newest value of the window.
+     *
+     * @param value value to be added, cannot be null
+     */
+    public void add(T value) {
+        if (backSize == backValues.length) {
+            backValues = Arrays.copyOf(backValues, backSize << 1);
+        }
+        backValues[backSize++] = value;
+        backAggregate = backAggregate == null ? value : combine.apply(backAggregate, value);
+    }
+
+    /**
+     * Removes the given value from the window, which is O(1) when it is the oldest value.
+     *
+     * @param value value to be removed
+     * @return true if the value is found and removed
+     */
+    public boolean remove(T value) {
+        if (isEmpty()) {
+            return false;
+        }
+        if (Objects.equals(peekFirst(), value)) {
+            removeFirst();
+            return true;
+        }
+        List<T> values = values();
+        if (!values.remove(value)) {
+            return false;
+        }
+        clear();
+        for (T remaining : values) {
+            add(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the oldest value of the window.
+     *
+     * @return the removed value
+     */
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        if (frontSize == 0) {
+            flip();
+        }
+        T value = (T) frontValues[--frontSize];
+        frontValues[frontSize] = null;
+        frontAggregates[frontSize] = null;
+        return value;
+    }
+
+    /**
+     * Returns the aggregate of all the values in the window in their arrival order.
+     *
+     * @return aggregate, or null if the window is empty
+     */
+    public T aggregate() {
+        if (frontSize == 0) {
+            return backAggregate;
+        }
+        T frontAggregate = (T) frontAggregates[frontSize - 1];
+        return backAggregate == null ? frontAggregate : combine.apply(frontAggregate, backAggregate);
+    }
+
+    /**
+     * Returns the values of the window from the oldest to the newest.
+     *
+     * @return copy of the values
+     */
+    public List<T> values() {
+        List<T> values = new ArrayList<>(frontSize + backSize);
+        for (int i = frontSize - 1; i >= 0; i--) {
+            values.add((T) frontValues[i]);
+        }
+        for (int i = 0; i < backSize; i++) {
+            values.add((T) backValues[i]);
+        }
+        return values;
+    }
+
+    public boolean isEmpty() {
+        return frontSize == 0 && backSize == 0;
+    }
+
+    public int size() {
+        return frontSize + backSize;
+    }
+
+    public void clear() {
+        Arrays.fill(frontValues, 0, frontSize, null);
+        Arrays.fill(frontAggregates, 0, frontSize, null);
+        Arrays.fill(backValues, 0, backSize, null);
+        frontSize = 0;
+        backSize = 0;
+        backAggregate = null;
+    }
+
+    private T peekFirst() {
+        return (T) (frontSize > 0 ? frontValues[frontSize - 1] : backValues[0]);
+    }
+
+    private void flip() {
+        if (frontValues.length < backSize) {
+            frontValues = new Object[backValues.length];
+            frontAggregates = new Object[backValues.length];
+        }
+        // the newest value goes to the bottom, so that each aggregate covers the value and all the newer ones
+        for (int i = backSize - 1; i >= 0; i--) {
+            T value = (T) backValues[i];
+            backValues[i] = null;
+            frontValues[frontSize] = value;
+            frontAggregates[frontSize] = frontSize == 0 ? value :
+                    combine.apply(value, (T) frontAggregates[frontSize - 1]);
+            frontSize++;
+        }
+        backSize = 0;
+        backAggregate = null;
+    }
+}
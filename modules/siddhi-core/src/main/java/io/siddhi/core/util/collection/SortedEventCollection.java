@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection;
+
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collection of events kept sorted by the given comparator in a balanced tree, such that adding an event and removing
+ * the last event are O(log n). Events that are equal according to the comparator are kept in their insertion order,
+ * and the last of them is the most recently added one. This is not thread safe.
+ */
+public class SortedEventCollection extends AbstractCollection<StreamEvent> {
+
+    // values are either a single event, or a deque of the events that are equal according to the comparator
+    private final TreeMap<StreamEvent, Object> sortedEvents;
+    private int size;
+
+    public SortedEventCollection(Comparator<StreamEvent> comparator) {
+        this.sortedEvents = new TreeMap<>(comparator);
+    }
+
+    @Override
+    public boolean add(StreamEvent streamEvent) {
+        Object existing = sortedEvents.putIfAbsent(streamEvent, streamEvent);
+        if (existing instanceof ArrayDeque) {
+            ((ArrayDeque<StreamEvent>) existing).addLast(streamEvent);
+        } else if (existing != null) {
+            ArrayDeque<StreamEvent> equalEvents = new ArrayDeque<>();
+            equalEvents.addLast((StreamEvent) existing);
+            equalEvents.addLast(streamEvent);
+            sortedEvents.put(streamEvent, equalEvents);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the last event in the sort order.
+     *
+     * @return the removed event, or null if the collection is empty
+     */
+    public StreamEvent removeLast() {
+        Map.Entry<StreamEvent, Object> lastEntry = sortedEvents.lastEntry();
+        if (lastEntry == null) {
+            return null;
+        }
+        size--;
+        if (lastEntry.getValue() instanceof ArrayDeque) {
+            ArrayDeque<StreamEvent> equalEvents = (ArrayDeque<StreamEvent>) lastEntry.getValue();
+            StreamEvent streamEvent = equalEvents.pollLast();
+            if (equalEvents.isEmpty()) {
+                sortedEvents.pollLastEntry();
+            }
+            return streamEvent;
+        }
+        sortedEvents.pollLastEntry();
+        return (StreamEvent) lastEntry.getValue();
+    }
+
+    @Override
+    public void clear() {
+        sortedEvents.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<StreamEvent> iterator() {
+        Iterator<Object> valueIterator = sortedEvents.values().iterator();
+        return new Iterator<StreamEvent>() {
+            private Iterator<StreamEvent> equalEventIterator = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                return equalEventIterator.hasNext() || valueIterator.hasNext();
+            }
+
+            @Override
+            public StreamEvent next() {
+                if (equalEventIterator.hasNext()) {
+                    return equalEventIterator.next();
+                }
+                Object value = valueIterator.next();
+                if (value instanceof ArrayDeque) {
+                    equalEventIterator = ((ArrayDeque<StreamEvent>) value).iterator();
+                    return equalEventIterator.next();
+                }
+                return (StreamEvent) value;
+            }
+        };
+    }
+}
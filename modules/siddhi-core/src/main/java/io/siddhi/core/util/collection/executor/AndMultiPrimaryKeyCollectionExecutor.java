@@ -24,26 +24,31 @@ import io.siddhi.core.event.stream.StreamEvent;
 import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.table.CacheTable;
+import io.siddhi.core.table.holder.CompositeKey;
 import io.siddhi.core.table.holder.IndexedEventHolder;
-import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.query.api.definition.Attribute;
 import io.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Implementation of {@link CollectionExecutor}
  */
 public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor {
+    private static final Object NO_MATCHING_KEY = new Object();
     private final String compositePrimaryKey;
     private final List<ExpressionExecutor> multiPrimaryKeyExpressionExecutors;
+    private final Attribute.Type[] primaryKeyTypes;
     private CacheTable cacheTable;
 
     public AndMultiPrimaryKeyCollectionExecutor(String compositePrimaryKey,
                                                 List<ExpressionExecutor> multiPrimaryKeyExpressionExecutors,
-                                                CacheTable cacheTable) {
+                                                Attribute.Type[] primaryKeyTypes, CacheTable cacheTable) {
         this.compositePrimaryKey = compositePrimaryKey;
         this.multiPrimaryKeyExpressionExecutors = multiPrimaryKeyExpressionExecutors;
+        this.primaryKeyTypes = primaryKeyTypes;
         this.cacheTable = cacheTable;
     }
 
@@ -75,20 +80,26 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
     }
 
     public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
-        return indexedEventHolder.findEvents(compositePrimaryKey, Compare.Operator.EQUAL,
-                constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors));
+        Object primaryKeyValue = constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors);
+        if (primaryKeyValue == NO_MATCHING_KEY) {
+            return Collections.emptySet();
+        }
+        return indexedEventHolder.findEvents(compositePrimaryKey, Compare.Operator.EQUAL, primaryKeyValue);
     }
 
     @Override
     public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
-        return indexedEventHolder.containsEventSet(compositePrimaryKey, Compare.Operator.EQUAL,
-                constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors));
+        Object primaryKeyValue = constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors);
+        return primaryKeyValue != NO_MATCHING_KEY &&
+                indexedEventHolder.containsEventSet(compositePrimaryKey, Compare.Operator.EQUAL, primaryKeyValue);
     }
 
     @Override
     public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
-        indexedEventHolder.delete(compositePrimaryKey, Compare.Operator.EQUAL,
-                constructPrimaryKeyValue(deletingEvent, multiPrimaryKeyExpressionExecutors));
+        Object primaryKeyValue = constructPrimaryKeyValue(deletingEvent, multiPrimaryKeyExpressionExecutors);
+        if (primaryKeyValue != NO_MATCHING_KEY) {
+            indexedEventHolder.delete(compositePrimaryKey, Compare.Operator.EQUAL, primaryKeyValue);
+        }
     }
 
     @Override
@@ -98,16 +109,23 @@ public class AndMultiPrimaryKeyCollectionExecutor implements CollectionExecutor
 
     private Object constructPrimaryKeyValue(StateEvent matchingEvent,
                                             List<ExpressionExecutor> multiPrimaryKeyExpressionExecutors) {
-        if (multiPrimaryKeyExpressionExecutors.size() == 1) {
-            return multiPrimaryKeyExpressionExecutors.get(0).execute(matchingEvent);
-        } else {
-            StringBuilder stringBuilder = new StringBuilder();
-            for (ExpressionExecutor expressionExecutor : multiPrimaryKeyExpressionExecutors) {
-                stringBuilder.append(expressionExecutor.execute(matchingEvent))
-                        .append(SiddhiConstants.KEY_DELIMITER);
+        Object[] values = new Object[multiPrimaryKeyExpressionExecutors.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = multiPrimaryKeyExpressionExecutors.get(i).execute(matchingEvent);
+            values[i] = CompositeKey.toKeyType(value, primaryKeyTypes[i]);
+            if (values[i] == null && value != null) {
+                return NO_MATCHING_KEY;
             }
-            return stringBuilder.toString();
         }
+        if (values.length == 1) {
+            return values[0];
+        } else {
+            return new CompositeKey(values);
+        }
+    }
+
+    public Object constructPrimaryKeyValue(StateEvent matchingEvent) {
+        return constructPrimaryKeyValue(matchingEvent, multiPrimaryKeyExpressionExecutors);
     }
 
     public String getCompositePrimaryKey() {
@@ -125,4 +125,8 @@ public class CompareCollectionExecutor implements CollectionExecutor {
         return attribute;
     }
 
+    public Compare.Operator getOperator() {
+        return operator;
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection.executor;
+
+import io.siddhi.core.event.ComplexEventChunk;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.event.stream.StreamEventCloner;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.table.CacheTable;
+import io.siddhi.core.table.holder.CompositeKey;
+import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.query.api.definition.Attribute;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Implementation of {@link CollectionExecutor} which looks up the events from a composite index, using a
+ * {@link CompositeKey} built from the values of the matched index attributes.
+ */
+public class CompositeIndexCollectionExecutor implements CollectionExecutor {
+    private final String indexName;
+    private final Compare.Operator operator;
+    private final List<ExpressionExecutor> valueExpressionExecutors;
+    private final Attribute.Type[] keyTypes;
+    private final boolean isFullKey;
+    private CacheTable cacheTable;
+
+    public CompositeIndexCollectionExecutor(String indexName, Compare.Operator operator,
+                                            List<ExpressionExecutor> valueExpressionExecutors,
+                                            Attribute.Type[] keyTypes, boolean isFullKey, CacheTable cacheTable) {
+        this.indexName = indexName;
+        this.operator = operator;
+        this.valueExpressionExecutors = valueExpressionExecutors;
+        this.keyTypes = keyTypes;
+        this.isFullKey = isFullKey;
+        this.cacheTable = cacheTable;
+    }
+
+    public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
+            storeEventCloner) {
+
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>();
+        for (StreamEvent storeEvent : findEvents(matchingEvent, indexedEventHolder)) {
+            if (cacheTable != null) {
+                cacheTable.updateCachePolicyAttribute(storeEvent);
+            }
+            if (storeEventCloner != null) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            } else {
+                returnEventChunk.add(storeEvent);
+            }
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        CompositeKey key = constructKey(matchingEvent);
+        if (key == null) {
+            return Collections.emptySet();
+        }
+        return indexedEventHolder.findEvents(indexName, operator, key);
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        CompositeKey key = constructKey(matchingEvent);
+        return key != null && indexedEventHolder.containsEventSet(indexName, operator, key);
+    }
+
+    @Override
+    public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
+        CompositeKey key = constructKey(deletingEvent);
+        if (key != null) {
+            indexedEventHolder.delete(indexName, operator, key);
+        }
+    }
+
+    @Override
+    public Cost getDefaultCost() {
+        if (isFullKey && operator == Compare.Operator.EQUAL) {
+            return Cost.SINGLE_RETURN_INDEX_MATCHING;
+        } else {
+            return Cost.MULTI_RETURN_INDEX_MATCHING;
+        }
+    }
+
+    /**
+     * @return the key holding the values converted to the index attribute types, or null if no key can match them
+     */
+    private CompositeKey constructKey(StateEvent matchingEvent) {
+        Object[] values = new Object[valueExpressionExecutors.size()];
+        for (int i = 0; i < values.length; i++) {
+            Object value = valueExpressionExecutors.get(i).execute(matchingEvent);
+            if (i == values.length - 1 && operator != Compare.Operator.EQUAL) {
+                // the compared value is rounded such that the range holds the same keys
+                values[i] = CompositeKey.toKeyType(value, keyTypes[i],
+                        operator == Compare.Operator.GREATER_THAN || operator == Compare.Operator.LESS_THAN_EQUAL);
+            } else {
+                values[i] = CompositeKey.toKeyType(value, keyTypes[i]);
+                if (values[i] == null && value != null) {
+                    return null;
+                }
+            }
+        }
+        return new CompositeKey(values);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.collection.expression;
+
+import io.siddhi.query.api.expression.Expression;
+import io.siddhi.query.api.expression.condition.Compare;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of {@link CollectionExpression} which represent conditions answered by a composite index. The
+ * leading index attributes are matched by equality, and the last matched attribute is compared with the operator.
+ */
+public class CompositeIndexCollectionExpression implements CollectionExpression {
+
+    private final Expression expression;
+    private final CollectionScope collectionScope;
+    private final String indexName;
+    private final Compare.Operator operator;
+    private final List<Expression> valueExpressions;
+    private final boolean isFullKey;
+
+    public CompositeIndexCollectionExpression(Expression expression, CollectionScope collectionScope,
+                                              String indexName, Compare.Operator operator,
+                                              List<Expression> valueExpressions, boolean isFullKey) {
+        this.expression = expression;
+        this.collectionScope = collectionScope;
+        this.indexName = indexName;
+        this.operator = operator;
+        this.valueExpressions = valueExpressions;
+        this.isFullKey = isFullKey;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public Compare.Operator getOperator() {
+        return operator;
+    }
+
+    public List<Expression> getValueExpressions() {
+        return valueExpressions;
+    }
+
+    /**
+     * @return true if all the index attributes are matched by equality
+     */
+    public boolean isFullKey() {
+        return isFullKey;
+    }
+
+    public Expression getExpression() {
+        return expression;
+    }
+
+    @Override
+    public CollectionScope getCollectionScope() {
+        return collectionScope;
+    }
+
+    @Override
+    public Set<String> getMultiPrimaryKeys() {
+        return Collections.emptySet();
+    }
+}
@@ -168,13 +168,20 @@ public class IndexOperator implements Operator {
                     StreamEvent streamEvent = foundEventChunk.next();
                     foundEventChunk.remove();
                     streamEvent.setNext(null); // to make the chained state back to normal
+                    // the deleted event is left unchanged as it can be referred by the table operation log
+                    StreamEvent updatedEvent = new StreamEvent(0, 0, streamEvent.getOutputData().length);
+                    updatedEvent.setOutputData(streamEvent.getOutputData().clone());
+                    updatedEvent.setTimestamp(streamEvent.getTimestamp());
+                    updatedEvent.setType(streamEvent.getType());
                     for (Map.Entry<Integer, ExpressionExecutor> entry :
                             compiledUpdateSet.getExpressionExecutorMap().entrySet()) {
-                        streamEvent.setOutputData(entry.getValue().execute(overwritingOrAddingEvent), entry.getKey());
+                        updatedEvent.setOutputData(entry.getValue().execute(overwritingOrAddingEvent),
+                                entry.getKey());
                     }
-                    toUpdateEventChunk.add(streamEvent);
+                    toUpdateEventChunk.add(updatedEvent);
                 }
-                storeEvents.add(toUpdateEventChunk);
+                // the updated events are already in the stored event layout
+                storeEvents.addStoredEvents(toUpdateEventChunk);
             } else {
                 StreamEvent first = foundEventChunk.getFirst();
                 while (first != null) {
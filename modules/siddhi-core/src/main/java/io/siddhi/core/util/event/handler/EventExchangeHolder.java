@@ -18,6 +18,7 @@
 
 package io.siddhi.core.util.event.handler;
 
+import io.siddhi.core.event.ComplexEvent;
 import io.siddhi.core.event.Event;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +39,16 @@ public class EventExchangeHolder {
         return event;
     }
 
+    public void copyFrom(Event event) {
+        this.event.copyFrom(event);
+        processed.set(false);
+    }
+
+    public void copyFrom(ComplexEvent complexEvent) {
+        this.event.copyFrom(complexEvent);
+        processed.set(false);
+    }
+
     public boolean getAndSetIsProcessed(boolean isProcessed) {
         return processed.getAndSet(isProcessed);
     }
@@ -28,7 +28,9 @@ import java.util.LinkedList;
 import java.util.List;
 
 /**
- * Interface to be implemented to receive events via handlers.
+ * Interface to be implemented to receive events via handlers. Handlers of a worker pool each consume the events of
+ * their own share of the sequences, such that each event is only consumed by one of them while the events are still
+ * batched till the end of each batch.
  */
 public class StreamHandler implements EventHandler<EventExchangeHolder> {
 
@@ -40,6 +42,8 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
     private final ExceptionListener exceptionListener;
     private List<StreamJunction.Receiver> receivers;
     private int batchSize;
+    private int workerIndex;
+    private int workerCount;
     private List<Event> eventBuffer = new LinkedList<>();
 
     public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
@@ -54,8 +58,24 @@ public class StreamHandler implements EventHandler<EventExchangeHolder> {
         this.exceptionListener = exceptionListener;
     }
 
+    /**
+     * Creates a handler of a worker pool, consuming the events at the sequences assigned to the given worker.
+     *
+     * @param workerIndex index of the worker among the workers of the pool
+     * @param workerCount number of workers in the pool
+     */
+    public StreamHandler(List<StreamJunction.Receiver> receivers, int batchSize,
+                         String streamName, String siddhiAppName, StreamJunction faultStreamJunction,
+                         StreamJunction.OnErrorAction onErrorAction, ExceptionListener exceptionListener,
+                         int workerIndex, int workerCount) {
+        this(receivers, batchSize, streamName, siddhiAppName, faultStreamJunction, onErrorAction, exceptionListener);
+        this.workerIndex = workerIndex;
+        this.workerCount = workerCount;
+    }
+
     public void onEvent(EventExchangeHolder eventExchangeHolder, long sequence, boolean endOfBatch) {
-        boolean isProcessed = eventExchangeHolder.getAndSetIsProcessed(true);
+        boolean isProcessed = workerCount > 0 ? sequence % workerCount != workerIndex :
+                eventExchangeHolder.getAndSetIsProcessed(true);
         if (!isProcessed) {
             eventBuffer.add(eventExchangeHolder.getEvent());
             if (eventBuffer.size() == batchSize || endOfBatch) {
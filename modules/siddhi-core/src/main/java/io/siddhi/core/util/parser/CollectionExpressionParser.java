@@ -27,12 +27,14 @@ import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.table.CacheTable;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.table.holder.IndexedEventHolder;
+import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.executor.AndMultiPrimaryKeyCollectionExecutor;
 import io.siddhi.core.util.collection.executor.AnyAndCollectionExecutor;
 import io.siddhi.core.util.collection.executor.CollectionExecutor;
 import io.siddhi.core.util.collection.executor.CompareCollectionExecutor;
 import io.siddhi.core.util.collection.executor.CompareExhaustiveAndCollectionExecutor;
+import io.siddhi.core.util.collection.executor.CompositeIndexCollectionExecutor;
 import io.siddhi.core.util.collection.executor.ExhaustiveCollectionExecutor;
 import io.siddhi.core.util.collection.executor.NonAndCollectionExecutor;
 import io.siddhi.core.util.collection.executor.NonCollectionExecutor;
@@ -44,6 +46,7 @@ import io.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import io.siddhi.core.util.collection.expression.BasicCollectionExpression;
 import io.siddhi.core.util.collection.expression.CollectionExpression;
 import io.siddhi.core.util.collection.expression.CompareCollectionExpression;
+import io.siddhi.core.util.collection.expression.CompositeIndexCollectionExpression;
 import io.siddhi.core.util.collection.expression.NotCollectionExpression;
 import io.siddhi.core.util.collection.expression.NullCollectionExpression;
 import io.siddhi.core.util.collection.expression.OrCollectionExpression;
@@ -110,6 +113,11 @@ public class CollectionExpressionParser {
                                                                           MatchingMetaInfoHolder matchingMetaInfoHolder,
                                                                           IndexedEventHolder indexedEventHolder) {
         if (expression instanceof And) {
+            CollectionExpression compositeIndexCollectionExpression = parseCompositeIndexCollectionExpression(
+                    expression, matchingMetaInfoHolder, indexedEventHolder);
+            if (compositeIndexCollectionExpression != null) {
+                return compositeIndexCollectionExpression;
+            }
 
             CollectionExpression leftCollectionExpression = parseInternalCollectionExpression(((And) expression)
                     .getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
@@ -210,6 +218,11 @@ public class CollectionExpressionParser {
                     leftCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.PRIMARY_KEY_ATTRIBUTE ||
                     leftCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.PARTIAL_PRIMARY_KEY_ATTRIBUTE) &&
                     rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.NON) {
+                if (!isIndexUsable(leftCollectionExpression, ((Compare) expression).getOperator(),
+                        indexedEventHolder)) {
+                    return parseExhaustiveCollectionExpression(expression, matchingMetaInfoHolder,
+                            indexedEventHolder);
+                }
                 switch (leftCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
                         return new CompareCollectionExpression((Compare) expression, CollectionExpression.CollectionScope.INDEXED_RESULT_SET,
@@ -228,25 +241,11 @@ public class CollectionExpressionParser {
                     && (rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.INDEXED_ATTRIBUTE ||
                     rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.PRIMARY_KEY_ATTRIBUTE ||
                     rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.PARTIAL_PRIMARY_KEY_ATTRIBUTE)) {
-                Compare.Operator operator = ((Compare) expression).getOperator();
                 //moving let to right
-                switch (operator) {
-                    case LESS_THAN:
-                        operator = Compare.Operator.GREATER_THAN;
-                        break;
-                    case GREATER_THAN:
-                        operator = Compare.Operator.LESS_THAN;
-                        break;
-                    case LESS_THAN_EQUAL:
-                        operator = Compare.Operator.GREATER_THAN_EQUAL;
-                        break;
-                    case GREATER_THAN_EQUAL:
-                        operator = Compare.Operator.LESS_THAN_EQUAL;
-                        break;
-                    case EQUAL:
-                        break;
-                    case NOT_EQUAL:
-                        break;
+                Compare.Operator operator = reverse(((Compare) expression).getOperator());
+                if (!isIndexUsable(rightCollectionExpression, operator, indexedEventHolder)) {
+                    return parseExhaustiveCollectionExpression(expression, matchingMetaInfoHolder,
+                            indexedEventHolder);
                 }
                 switch (rightCollectionExpression.getCollectionScope()) {
                     case INDEXED_ATTRIBUTE:
@@ -261,7 +260,7 @@ public class CollectionExpressionParser {
                 }
             } else {
                 //comparing non indexed table with stream attributes or another table attribute
-                return new BasicCollectionExpression(expression, CollectionExpression.CollectionScope.EXHAUSTIVE);
+                return parseExhaustiveCollectionExpression(expression, matchingMetaInfoHolder, indexedEventHolder);
             }
         } else if (expression instanceof Constant) {
             return new BasicCollectionExpression(expression, CollectionExpression.CollectionScope.NON);
@@ -380,6 +379,206 @@ public class CollectionExpressionParser {
         throw new UnsupportedOperationException(expression.toString() + " not supported!");
     }
 
+    private static Compare.Operator reverse(Compare.Operator operator) {
+        switch (operator) {
+            case LESS_THAN:
+                return Compare.Operator.GREATER_THAN;
+            case GREATER_THAN:
+                return Compare.Operator.LESS_THAN;
+            case LESS_THAN_EQUAL:
+                return Compare.Operator.GREATER_THAN_EQUAL;
+            case GREATER_THAN_EQUAL:
+                return Compare.Operator.LESS_THAN_EQUAL;
+            default:
+                return operator;
+        }
+    }
+
+    private static CollectionExpression parseExhaustiveCollectionExpression(
+            Expression expression, MatchingMetaInfoHolder matchingMetaInfoHolder,
+            IndexedEventHolder indexedEventHolder) {
+        CollectionExpression compositeIndexCollectionExpression = parseCompositeIndexCollectionExpression(
+                expression, matchingMetaInfoHolder, indexedEventHolder);
+        if (compositeIndexCollectionExpression != null) {
+            return compositeIndexCollectionExpression;
+        }
+        return new BasicCollectionExpression(expression, CollectionExpression.CollectionScope.EXHAUSTIVE);
+    }
+
+    /**
+     * Plans the conditions of the given conjunction on a composite index, when the index attributes are compared by
+     * equality from the first index attribute onwards, optionally followed by a range condition on the next index
+     * attribute. The conditions not answered by the index are evaluated on the events found from the index.
+     *
+     * @return the collection expression using the composite index, or null if no composite index answers more
+     * conditions than the primary key and the single attribute indexes
+     */
+    private static CollectionExpression parseCompositeIndexCollectionExpression(
+            Expression expression, MatchingMetaInfoHolder matchingMetaInfoHolder,
+            IndexedEventHolder indexedEventHolder) {
+        if (indexedEventHolder == null || indexedEventHolder.getCompositeIndexAttributes().isEmpty()) {
+            return null;
+        }
+        List<Expression> conditions = new ArrayList<>();
+        collectConditions(expression, conditions);
+        Map<String, IndexedCondition> equalConditions = new HashMap<>();
+        Map<String, IndexedCondition> rangeConditions = new HashMap<>();
+        for (Expression condition : conditions) {
+            if (!(condition instanceof Compare)) {
+                continue;
+            }
+            Compare compare = (Compare) condition;
+            CollectionExpression leftCollectionExpression = parseInternalCollectionExpression(
+                    compare.getLeftExpression(), matchingMetaInfoHolder, indexedEventHolder);
+            CollectionExpression rightCollectionExpression = parseInternalCollectionExpression(
+                    compare.getRightExpression(), matchingMetaInfoHolder, indexedEventHolder);
+            IndexedCondition indexedCondition;
+            if (getCollectionAttribute(leftCollectionExpression) != null &&
+                    rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.NON) {
+                indexedCondition = new IndexedCondition(condition,
+                        getCollectionAttribute(leftCollectionExpression), compare.getOperator(),
+                        compare.getRightExpression());
+            } else if (getCollectionAttribute(rightCollectionExpression) != null &&
+                    leftCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.NON) {
+                indexedCondition = new IndexedCondition(condition,
+                        getCollectionAttribute(rightCollectionExpression), reverse(compare.getOperator()),
+                        compare.getLeftExpression());
+            } else {
+                continue;
+            }
+            if (indexedCondition.operator == Compare.Operator.EQUAL) {
+                equalConditions.putIfAbsent(indexedCondition.attribute, indexedCondition);
+            } else if (indexedCondition.operator != Compare.Operator.NOT_EQUAL) {
+                rangeConditions.putIfAbsent(indexedCondition.attribute, indexedCondition);
+            }
+        }
+        if (indexedEventHolder.getPrimaryKeyReferenceHolders() != null) {
+            boolean isPrimaryKeyMatched = true;
+            for (PrimaryKeyReferenceHolder primaryKeyReferenceHolder :
+                    indexedEventHolder.getPrimaryKeyReferenceHolders()) {
+                isPrimaryKeyMatched &= equalConditions.containsKey(primaryKeyReferenceHolder.getPrimaryKeyAttribute());
+            }
+            if (isPrimaryKeyMatched) {
+                return null;
+            }
+        }
+
+        String bestIndexName = null;
+        List<IndexedCondition> bestIndexedConditions = null;
+        boolean isBestFullKey = false;
+        for (Map.Entry<String, String[]> compositeIndex :
+                indexedEventHolder.getCompositeIndexAttributes().entrySet()) {
+            String[] attributes = compositeIndex.getValue();
+            List<IndexedCondition> indexedConditions = new ArrayList<>();
+            while (indexedConditions.size() < attributes.length &&
+                    equalConditions.containsKey(attributes[indexedConditions.size()])) {
+                indexedConditions.add(equalConditions.get(attributes[indexedConditions.size()]));
+            }
+            boolean isFullKey = indexedConditions.size() == attributes.length;
+            if (!isFullKey) {
+                if (!indexedEventHolder.isAttributeRangeIndexed(compositeIndex.getKey())) {
+                    // hash based composite indexes can only be looked up by all their attributes
+                    continue;
+                }
+                IndexedCondition rangeCondition = rangeConditions.get(attributes[indexedConditions.size()]);
+                if (rangeCondition != null) {
+                    indexedConditions.add(rangeCondition);
+                }
+            }
+            if (indexedConditions.isEmpty()) {
+                continue;
+            }
+            if (indexedConditions.size() == 1) {
+                IndexedCondition indexedCondition = indexedConditions.get(0);
+                if (indexedCondition.operator == Compare.Operator.EQUAL ?
+                        indexedEventHolder.isAttributeIndexed(indexedCondition.attribute) :
+                        indexedEventHolder.isAttributeRangeIndexed(indexedCondition.attribute)) {
+                    // the single attribute index answers the condition as well
+                    continue;
+                }
+            }
+            if (bestIndexedConditions == null || indexedConditions.size() > bestIndexedConditions.size() ||
+                    (indexedConditions.size() == bestIndexedConditions.size() && isFullKey && !isBestFullKey)) {
+                bestIndexName = compositeIndex.getKey();
+                bestIndexedConditions = indexedConditions;
+                isBestFullKey = isFullKey;
+            }
+        }
+        if (bestIndexName == null) {
+            return null;
+        }
+
+        Expression indexedExpression = null;
+        List<Expression> valueExpressions = new ArrayList<>();
+        for (IndexedCondition indexedCondition : bestIndexedConditions) {
+            indexedExpression = indexedExpression == null ? indexedCondition.condition :
+                    Expression.and(indexedExpression, indexedCondition.condition);
+            valueExpressions.add(indexedCondition.value);
+        }
+        CollectionExpression compositeIndexCollectionExpression = new CompositeIndexCollectionExpression(
+                indexedExpression, CollectionExpression.CollectionScope.INDEXED_RESULT_SET, bestIndexName,
+                bestIndexedConditions.get(bestIndexedConditions.size() - 1).operator, valueExpressions,
+                isBestFullKey);
+
+        Expression remainingExpression = null;
+        for (Expression condition : conditions) {
+            boolean isIndexed = false;
+            for (IndexedCondition indexedCondition : bestIndexedConditions) {
+                isIndexed |= indexedCondition.condition == condition;
+            }
+            if (!isIndexed) {
+                remainingExpression = remainingExpression == null ? condition :
+                        Expression.and(remainingExpression, condition);
+            }
+        }
+        if (remainingExpression == null) {
+            return compositeIndexCollectionExpression;
+        }
+        CollectionExpression remainingCollectionExpression = parseInternalCollectionExpression(remainingExpression,
+                matchingMetaInfoHolder, indexedEventHolder);
+        if (remainingCollectionExpression.getCollectionScope() ==
+                CollectionExpression.CollectionScope.PARTIAL_PRIMARY_KEY_ATTRIBUTE) {
+            remainingCollectionExpression = new BasicCollectionExpression(remainingExpression,
+                    CollectionExpression.CollectionScope.EXHAUSTIVE);
+        }
+        return new AndCollectionExpression(expression,
+                CollectionExpression.CollectionScope.OPTIMISED_PRIMARY_KEY_OR_INDEXED_RESULT_SET,
+                compositeIndexCollectionExpression, remainingCollectionExpression);
+    }
+
+    private static void collectConditions(Expression expression, List<Expression> conditions) {
+        if (expression instanceof And) {
+            collectConditions(((And) expression).getLeftExpression(), conditions);
+            collectConditions(((And) expression).getRightExpression(), conditions);
+        } else {
+            conditions.add(expression);
+        }
+    }
+
+    private static String getCollectionAttribute(CollectionExpression collectionExpression) {
+        if (collectionExpression instanceof AttributeCollectionExpression) {
+            return ((AttributeCollectionExpression) collectionExpression).getAttribute();
+        } else if (collectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.EXHAUSTIVE &&
+                collectionExpression.getExpression() instanceof Variable) {
+            return ((Variable) collectionExpression.getExpression()).getAttributeName();
+        }
+        return null;
+    }
+
+    /**
+     * Range conditions cannot be answered by hash based indexes, hence they are evaluated exhaustively.
+     */
+    private static boolean isIndexUsable(CollectionExpression attributeCollectionExpression,
+                                         Compare.Operator operator, IndexedEventHolder indexedEventHolder) {
+        if (operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL ||
+                indexedEventHolder == null ||
+                attributeCollectionExpression.getCollectionScope() ==
+                        CollectionExpression.CollectionScope.PARTIAL_PRIMARY_KEY_ATTRIBUTE) {
+            return true;
+        }
+        return indexedEventHolder.isAttributeRangeIndexed(
+                ((AttributeCollectionExpression) attributeCollectionExpression).getAttribute());
+    }
 
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
@@ -476,6 +675,25 @@ public class CollectionExpressionParser {
                         (NullCollectionExpression) collectionExpression).getAttribute(),
                         Compare.Operator.EQUAL, new ConstantExpressionExecutor(null, Attribute.Type.OBJECT), null);
             }
+        } else if (collectionExpression instanceof CompositeIndexCollectionExpression) {
+            CompositeIndexCollectionExpression compositeIndexCollectionExpression =
+                    (CompositeIndexCollectionExpression) collectionExpression;
+            List<ExpressionExecutor> valueExpressionExecutors = new ArrayList<>();
+            for (Expression valueExpression : compositeIndexCollectionExpression.getValueExpressions()) {
+                valueExpressionExecutors.add(ExpressionParser.parseExpression(valueExpression,
+                        matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(),
+                        tableMap, variableExpressionExecutors, false, 0,
+                        processingMode, outputExpectsExpiredEvents, siddhiQueryContext));
+            }
+            String[] indexAttributes = compositeIndexCollectionExpression.getIndexName()
+                    .split(SiddhiConstants.KEY_DELIMITER);
+            Attribute.Type[] keyTypes = new Attribute.Type[valueExpressionExecutors.size()];
+            for (int i = 0; i < keyTypes.length; i++) {
+                keyTypes[i] = matchingMetaInfoHolder.getStoreDefinition().getAttributeType(indexAttributes[i]);
+            }
+            return new CompositeIndexCollectionExecutor(compositeIndexCollectionExpression.getIndexName(),
+                    compositeIndexCollectionExpression.getOperator(), valueExpressionExecutors, keyTypes,
+                    compositeIndexCollectionExpression.isFullKey(), isCache ? cacheTable : null);
         } else if (collectionExpression instanceof AndMultiPrimaryKeyCollectionExpression) {
             Map<String, ExpressionExecutor> multiPrimaryKeyExpressionExecutors =
                     buildMultiPrimaryKeyExpressionExecutors(collectionExpression,
@@ -484,18 +702,21 @@ public class CollectionExpressionParser {
             List<Attribute> attributes = matchingMetaInfoHolder.getStoreDefinition().getAttributeList();
             StringBuilder compositePrimaryKey = new StringBuilder();
             List<ExpressionExecutor> sortedExecutors = new ArrayList<ExpressionExecutor>();
+            List<Attribute.Type> primaryKeyTypes = new ArrayList<Attribute.Type>();
             for (Attribute attribute : attributes) {
                 ExpressionExecutor expressionExecutor = multiPrimaryKeyExpressionExecutors.get(attribute.getName());
                 if (expressionExecutor != null) {
                     sortedExecutors.add(expressionExecutor);
+                    primaryKeyTypes.add(attribute.getType());
                     compositePrimaryKey.append(attribute.getName()).append(SiddhiConstants.KEY_DELIMITER);
                 }
             }
             if (isCache) {
                 return new AndMultiPrimaryKeyCollectionExecutor(compositePrimaryKey.toString(), sortedExecutors,
-                        cacheTable);
+                        primaryKeyTypes.toArray(new Attribute.Type[0]), cacheTable);
             } else {
-                return new AndMultiPrimaryKeyCollectionExecutor(compositePrimaryKey.toString(), sortedExecutors, null);
+                return new AndMultiPrimaryKeyCollectionExecutor(compositePrimaryKey.toString(), sortedExecutors,
+                        primaryKeyTypes.toArray(new Attribute.Type[0]), null);
             }
         } else if (collectionExpression instanceof AndCollectionExpression) {
             CollectionExpression leftCollectionExpression = ((AndCollectionExpression) collectionExpression)
@@ -910,4 +1131,21 @@ public class CollectionExpressionParser {
 
     }
 
+    /**
+     * Condition comparing a table attribute with a value that does not depend on the table.
+     */
+    private static class IndexedCondition {
+        private final Expression condition;
+        private final String attribute;
+        private final Compare.Operator operator;
+        private final Expression value;
+
+        private IndexedCondition(Expression condition, String attribute, Compare.Operator operator,
+                                 Expression value) {
+            this.condition = condition;
+            this.attribute = attribute;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
 }
@@ -25,10 +25,14 @@ import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.converter.ZeroStreamEventConverter;
 import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
 import io.siddhi.core.exception.OperationNotSupportedException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.table.holder.ConcurrentIndexEventHolder;
 import io.siddhi.core.table.holder.EventHolder;
 import io.siddhi.core.table.holder.IndexEventHolder;
 import io.siddhi.core.table.holder.IndexEventHolderForCache;
 import io.siddhi.core.table.holder.ListEventHolder;
+import io.siddhi.core.table.holder.OffHeapEventHolder;
+import io.siddhi.core.table.holder.OffHeapRowStore;
 import io.siddhi.core.table.holder.PrimaryKeyReferenceHolder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.query.api.annotation.Annotation;
@@ -39,8 +43,15 @@ import io.siddhi.query.api.exception.SiddhiAppValidationException;
 import io.siddhi.query.api.util.AnnotationHelper;
 import org.apache.log4j.Logger;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class to parse {@link EventHolder}
@@ -71,33 +82,70 @@ public class EventHolderPasser {
                     .toArray(PrimaryKeyReferenceHolder[]::new);
         }
 
+        Map<String, int[]> compositeIndexMetaData = new LinkedHashMap<String, int[]>();
+        Set<String> hashIndexAttributes = new HashSet<String>();
         for (Annotation indexAnnotation : AnnotationHelper.getAnnotations(SiddhiConstants.ANNOTATION_INDEX,
                 tableDefinition.getAnnotations())) {
-            if (indexAnnotation.getElements().size() == 0) {
+            List<Element> indexElements = new ArrayList<Element>();
+            for (Element element : indexAnnotation.getElements()) {
+                if (element.getKey() == null || element.getKey().isEmpty()) {
+                    indexElements.add(element);
+                }
+            }
+            if (indexElements.size() == 0) {
                 throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation of " +
-                        "in-memory table should contain only one index element, but found "
-                        + indexAnnotation.getElements().size() + " element",
+                        "in-memory table should contain at least one index element, but found "
+                        + indexElements.size() + " element",
                         indexAnnotation.getQueryContextStartIndex(),
                         indexAnnotation.getQueryContextEndIndex());
-            } else if (indexAnnotation.getElements().size() > 1) {
-                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation of the " +
-                        "in-memory table should only contain one index element but found "
-                        + indexAnnotation.getElements().size() + " elements. To use multiple indexes, " +
-                        "define multiple '@index(<index key>)' annotations with one index element " +
-                        "per each index key",
-                        indexAnnotation.getQueryContextStartIndex(),
+            }
+            String indexType = indexAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TYPE);
+            if (indexType != null && !indexType.trim().equalsIgnoreCase(SiddhiConstants.INDEX_TYPE_HASH) &&
+                    !indexType.trim().equalsIgnoreCase(SiddhiConstants.INDEX_TYPE_TREE)) {
+                throw new SiddhiAppValidationException("Annotation element '" +
+                        SiddhiConstants.ANNOTATION_ELEMENT_TYPE + "' of " + SiddhiConstants.ANNOTATION_INDEX +
+                        " annotation should be either '" + SiddhiConstants.INDEX_TYPE_TREE + "' or '" +
+                        SiddhiConstants.INDEX_TYPE_HASH + "', but found '" + indexType + "', at '" +
+                        tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
                         indexAnnotation.getQueryContextEndIndex());
             }
-            for (Element element : indexAnnotation.getElements()) {
-                Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
-                        .getAttributePosition(element.getValue().trim()));
+            String indexName;
+            if (indexElements.size() == 1) {
+                indexName = indexElements.get(0).getValue().trim();
+                Integer previousValue = indexMetaData.put(indexName, tableDefinition.getAttributePosition(indexName));
                 if (previousValue != null) {
                     throw new SiddhiAppValidationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
-                            "annotations defined with same attribute '" + element.getValue().trim() + "', at '" +
+                            "annotations defined with same attribute '" + indexName + "', at '" +
+                            tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                            indexAnnotation.getQueryContextEndIndex());
+                }
+            } else {
+                // composite index, keyed by the attribute names similar to composite primary keys
+                StringBuilder indexNameBuilder = new StringBuilder();
+                Set<String> indexAttributes = new HashSet<String>();
+                int[] positions = new int[indexElements.size()];
+                for (int i = 0; i < positions.length; i++) {
+                    String attributeName = indexElements.get(i).getValue().trim();
+                    if (!indexAttributes.add(attributeName)) {
+                        throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation " +
+                                "contains attribute '" + attributeName + "' more than once, at '" +
+                                tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
+                                indexAnnotation.getQueryContextEndIndex());
+                    }
+                    positions[i] = tableDefinition.getAttributePosition(attributeName);
+                    indexNameBuilder.append(attributeName).append(SiddhiConstants.KEY_DELIMITER);
+                }
+                indexName = indexNameBuilder.toString();
+                if (compositeIndexMetaData.put(indexName, positions) != null) {
+                    throw new SiddhiAppValidationException("Multiple " + SiddhiConstants.ANNOTATION_INDEX + " " +
+                            "annotations defined with same attributes '" + indexAttributes + "', at '" +
                             tableDefinition.getId() + "'", indexAnnotation.getQueryContextStartIndex(),
                             indexAnnotation.getQueryContextEndIndex());
                 }
             }
+            if (indexType != null && indexType.trim().equalsIgnoreCase(SiddhiConstants.INDEX_TYPE_HASH)) {
+                hashIndexAttributes.add(indexName);
+            }
         }
 
         // not support indexBy.
@@ -109,7 +157,31 @@ public class EventHolderPasser {
                     " at '" + tableDefinition.getId() + "'");
         }
 
-        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0) {
+        Annotation offHeapAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_OFF_HEAP,
+                tableDefinition.getAnnotations());
+        if (compositeIndexMetaData.size() > 0 && !isCacheTable) {
+            Annotation annotation = offHeapAnnotation != null ? offHeapAnnotation : AnnotationHelper.getAnnotation(
+                    SiddhiConstants.ANNOTATION_CONCURRENT, tableDefinition.getAnnotations());
+            if (annotation != null) {
+                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotations with " +
+                        "multiple attributes cannot be used together with " + annotation.getName() +
+                        " annotation, at '" + tableDefinition.getId() + "'",
+                        annotation.getQueryContextStartIndex(), annotation.getQueryContextEndIndex());
+            }
+        }
+        if (offHeapAnnotation != null && !isCacheTable) {
+            if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENT,
+                    tableDefinition.getAnnotations()) != null) {
+                throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_OFF_HEAP + " annotation cannot " +
+                        "be used together with " + SiddhiConstants.ANNOTATION_CONCURRENT + " annotation, at '" +
+                        tableDefinition.getId() + "'", offHeapAnnotation.getQueryContextStartIndex(),
+                        offHeapAnnotation.getQueryContextEndIndex());
+            }
+            return parseOffHeap(offHeapAnnotation, tableDefinition, primaryKeyReferenceHolders, indexMetaData,
+                    siddhiAppContext);
+        }
+
+        if (primaryKeyReferenceHolders != null || indexMetaData.size() > 0 || compositeIndexMetaData.size() > 0) {
             boolean isNumeric = false;
             if (primaryKeyReferenceHolders != null) {
                 if (primaryKeyReferenceHolders.length == 1) {
@@ -122,13 +194,30 @@ public class EventHolderPasser {
                 }
 
             }
-            if (isCacheTable) {
+            Annotation concurrentAnnotation = AnnotationHelper.getAnnotation(
+                    SiddhiConstants.ANNOTATION_CONCURRENT, tableDefinition.getAnnotations());
+            if (concurrentAnnotation != null && !isCacheTable) {
+                if (primaryKeyReferenceHolders == null) {
+                    throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_CONCURRENT + " annotation " +
+                            "requires the table to have a " + SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation, " +
+                            "at '" + tableDefinition.getId() + "'", concurrentAnnotation.getQueryContextStartIndex(),
+                            concurrentAnnotation.getQueryContextEndIndex());
+                }
+                return new ConcurrentIndexEventHolder(tableStreamEventFactory, eventConverter,
+                        primaryKeyReferenceHolders, isNumeric, indexMetaData, hashIndexAttributes,
+                        parseStripes(concurrentAnnotation, tableDefinition), tableDefinition, siddhiAppContext);
+            } else if (isCacheTable) {
                 return new IndexEventHolderForCache(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                        indexMetaData, tableDefinition, siddhiAppContext);
+                        indexMetaData, compositeIndexMetaData, hashIndexAttributes, tableDefinition, siddhiAppContext);
             } else {
                 return new IndexEventHolder(tableStreamEventFactory, eventConverter, primaryKeyReferenceHolders, isNumeric,
-                        indexMetaData, tableDefinition, siddhiAppContext);
+                        indexMetaData, compositeIndexMetaData, hashIndexAttributes, tableDefinition, siddhiAppContext);
             }
+        } else if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENT,
+                tableDefinition.getAnnotations()) != null && !isCacheTable) {
+            throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_CONCURRENT + " annotation requires " +
+                    "the table to have a " + SiddhiConstants.ANNOTATION_PRIMARY_KEY + " annotation, at '" +
+                    tableDefinition.getId() + "'");
         } else {
             MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
             for (Attribute attribute : tableDefinition.getAttributeList()) {
@@ -140,5 +229,61 @@ public class EventHolderPasser {
         }
     }
 
+    private static EventHolder parseOffHeap(Annotation offHeapAnnotation, AbstractDefinition tableDefinition,
+                                            PrimaryKeyReferenceHolder[] primaryKeyReferenceHolders,
+                                            Map<String, Integer> indexMetaData,
+                                            SiddhiAppContext siddhiAppContext) {
+        Attribute.Type[] types = new Attribute.Type[tableDefinition.getAttributeList().size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = tableDefinition.getAttributeList().get(i).getType();
+        }
+        String fileName = offHeapAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_FILE);
+        String snapshot = offHeapAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SNAPSHOT);
+        if (snapshot != null && !("true".equalsIgnoreCase(snapshot.trim()) ||
+                "false".equalsIgnoreCase(snapshot.trim()))) {
+            throw new SiddhiAppValidationException("Annotation element '" +
+                    SiddhiConstants.ANNOTATION_ELEMENT_SNAPSHOT + "' of " + SiddhiConstants.ANNOTATION_OFF_HEAP +
+                    " annotation should be 'true' or 'false', but found '" + snapshot + "', at '" +
+                    tableDefinition.getId() + "'", offHeapAnnotation.getQueryContextStartIndex(),
+                    offHeapAnnotation.getQueryContextEndIndex());
+        }
+        try {
+            File file;
+            if (fileName == null) {
+                file = File.createTempFile(siddhiAppContext.getName() + "-" + tableDefinition.getId() + "-",
+                        ".offheap");
+            } else {
+                file = new File(fileName.trim());
+            }
+            return new OffHeapEventHolder(new OffHeapRowStore(file, types, OffHeapRowStore.DEFAULT_CHUNK_SIZE),
+                    fileName == null, snapshot != null && Boolean.parseBoolean(snapshot.trim()),
+                    primaryKeyReferenceHolders, indexMetaData, tableDefinition, siddhiAppContext);
+        } catch (IOException e) {
+            throw new SiddhiAppCreationException("Error while creating the off-heap storage of table '" +
+                    tableDefinition.getId() + "', " + e.getMessage(), e,
+                    offHeapAnnotation.getQueryContextStartIndex(), offHeapAnnotation.getQueryContextEndIndex(),
+                    siddhiAppContext);
+        }
+    }
 
+    private static int parseStripes(Annotation concurrentAnnotation, AbstractDefinition tableDefinition) {
+        String stripesString = concurrentAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_STRIPES);
+        if (stripesString == null) {
+            return SiddhiConstants.DEFAULT_TABLE_STRIPES;
+        }
+        int stripes;
+        try {
+            stripes = Integer.parseInt(stripesString.trim());
+        } catch (NumberFormatException e) {
+            stripes = -1;
+        }
+        if (stripes <= 0) {
+            throw new SiddhiAppValidationException("Annotation element '" +
+                    SiddhiConstants.ANNOTATION_ELEMENT_STRIPES + "' of " + SiddhiConstants.ANNOTATION_CONCURRENT +
+                    " annotation should be a positive integer, but found '" + stripesString + "', at '" +
+                    tableDefinition.getId() + "'", concurrentAnnotation.getQueryContextStartIndex(),
+                    concurrentAnnotation.getQueryContextEndIndex());
+        }
+        return stripes;
+    }
 }
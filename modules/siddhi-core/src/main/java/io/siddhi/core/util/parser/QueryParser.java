@@ -27,6 +27,7 @@ import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.event.stream.MetaStreamEvent.EventType;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.ExpressionCompiler;
 import io.siddhi.core.query.QueryRuntime;
 import io.siddhi.core.query.QueryRuntimeImpl;
 import io.siddhi.core.query.input.stream.StreamRuntime;
@@ -231,8 +232,13 @@ public class QueryParser {
 
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
+            int eventPoolSize = 0;
+            if (siddhiAppContext.getEventPoolSize() > 0 &&
+                    QueryParserHelper.isEventRecyclable(streamRuntime, outputRateLimiter, outputCallback)) {
+                eventPoolSize = siddhiAppContext.getEventPoolSize();
+            }
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    siddhiQueryContext.getName());
+                    siddhiQueryContext.getName(), eventPoolSize);
 
             // Update cache compile selection variable expression executors
             if (streamRuntime instanceof JoinStreamRuntime) {
@@ -251,6 +257,8 @@ public class QueryParser {
                 }));
             }
 
+            ExpressionCompiler.compile(siddhiQueryContext);
+
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime
                     .getMetaComplexEvent()));
 
@@ -25,6 +25,7 @@ import io.siddhi.core.event.stream.MetaStreamEvent;
 import io.siddhi.core.executor.ConstantExpressionExecutor;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.ExpressionCompiler;
 import io.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import io.siddhi.core.query.processor.ProcessingMode;
 import io.siddhi.core.query.selector.GroupByKeyGenerator;
@@ -234,7 +235,8 @@ public class SelectorParser {
                 } else {
                     ((MetaStreamEvent) metaComplexEvent).addOutputDataAllowingDuplicate(null);
                 }
-                AttributeProcessor attributeProcessor = new AttributeProcessor(expressionExecutor);
+                AttributeProcessor attributeProcessor = new AttributeProcessor(
+                        ExpressionCompiler.compilable(expressionExecutor, siddhiQueryContext));
                 attributeProcessor.setOutputPosition(i);
                 attributeProcessorList.add(attributeProcessor);
                 outputDefinition.attribute(outputAttribute.getRename(), attributeProcessor.getOutputType());
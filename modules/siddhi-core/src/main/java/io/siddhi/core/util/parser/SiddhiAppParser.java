@@ -29,6 +29,7 @@ import io.siddhi.core.util.IdGenerator;
 import io.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.ThreadBarrier;
+import io.siddhi.core.util.TimingWheel;
 import io.siddhi.core.util.snapshot.SnapshotService;
 import io.siddhi.core.util.statistics.metrics.Level;
 import io.siddhi.core.util.timestamp.TimestampGenerator;
@@ -102,6 +103,86 @@ public class SiddhiAppParser {
                 siddhiAppContext.setEnforceOrder(true);
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COMPILE_EXPRESSIONS,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setCompileExpressions(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_COPIED_SNAPSHOT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                siddhiAppContext.setCopiedSnapshot(true);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL_SNAPSHOT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                int snapshotWorkers = Runtime.getRuntime().availableProcessors();
+                String snapshotWorkersString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+                if (snapshotWorkersString != null) {
+                    snapshotWorkers = Integer.parseInt(snapshotWorkersString);
+                    if (snapshotWorkers <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_PARALLEL_SNAPSHOT + " cannot be negative or zero, but " +
+                                "found, '" + snapshotWorkers + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                siddhiAppContext.setSnapshotWorkers(snapshotWorkers);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SNAPSHOT_COMPACTION,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                int compactionIncrements = SiddhiConstants.DEFAULT_SNAPSHOT_COMPACTION_INCREMENTS;
+                long compactionSize = SiddhiConstants.DEFAULT_SNAPSHOT_COMPACTION_SIZE;
+                String compactionIncrementsString = annotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_INCREMENTS);
+                if (compactionIncrementsString != null) {
+                    compactionIncrements = Integer.parseInt(compactionIncrementsString);
+                    if (compactionIncrements <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_INCREMENTS + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_SNAPSHOT_COMPACTION + " cannot be negative or zero, " +
+                                "but found, '" + compactionIncrements + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                String compactionSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+                if (compactionSizeString != null) {
+                    compactionSize = Long.parseLong(compactionSizeString);
+                    if (compactionSize <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_SNAPSHOT_COMPACTION + " cannot be negative or zero, " +
+                                "but found, '" + compactionSize + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                siddhiAppContext.setSnapshotCompactionIncrements(compactionIncrements);
+                siddhiAppContext.setSnapshotCompactionSize(compactionSize);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                int eventPoolSize = SiddhiConstants.DEFAULT_EVENT_POOL_SIZE;
+                String eventPoolSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+                if (eventPoolSizeString != null) {
+                    eventPoolSize = Integer.parseInt(eventPoolSizeString);
+                    if (eventPoolSize <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_EVENT_POOL + " cannot be negative or zero, but found, '" +
+                                eventPoolSize + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                siddhiAppContext.setEventPoolSize(eventPoolSize);
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_ASYNC,
                     siddhiApp.getAnnotations());
             if (annotation != null) {
@@ -168,6 +249,74 @@ public class SiddhiAppParser {
                     new ThreadFactoryBuilder().setNameFormat("Siddhi-" +
                             siddhiAppContext.getName() + "-scheduler-thread-%d").build()));
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_TIMING_WHEEL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                long tick = SiddhiConstants.DEFAULT_TIMING_WHEEL_TICK;
+                int wheelSize = SiddhiConstants.DEFAULT_TIMING_WHEEL_SIZE;
+                String tickString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TICK);
+                if (tickString != null) {
+                    tick = Long.parseLong(tickString);
+                    if (tick <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_TICK + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_TIMING_WHEEL + " cannot be negative or zero, but " +
+                                "found, '" + tick + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                String wheelSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+                if (wheelSizeString != null) {
+                    wheelSize = Integer.parseInt(wheelSizeString);
+                    if (wheelSize <= 1) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_TIMING_WHEEL + " should be greater than one, but " +
+                                "found, '" + wheelSize + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                siddhiAppContext.setTimingWheel(new TimingWheel(tick, wheelSize,
+                        siddhiAppContext.getScheduledExecutorService(),
+                        new ThreadFactoryBuilder().setNameFormat("Siddhi-" +
+                                siddhiAppContext.getName() + "-timing-wheel-thread-%d").build()));
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_TIMER_COALESCING,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                long tick = SiddhiConstants.DEFAULT_TIMER_COALESCING_TICK;
+                String tickString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_TICK);
+                if (tickString != null) {
+                    tick = Long.parseLong(tickString);
+                    if (tick <= 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_TICK + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_TIMER_COALESCING + " cannot be negative or zero, but " +
+                                "found, '" + tick + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                }
+                siddhiAppContext.setTimerCoalescingTick(tick);
+            }
+
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_KEY_CACHE,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                String keyCacheSizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+                if (keyCacheSizeString != null) {
+                    int keyCacheSize = Integer.parseInt(keyCacheSizeString);
+                    if (keyCacheSize < 0) {
+                        throw new SiddhiAppCreationException("Annotation element '" +
+                                SiddhiConstants.ANNOTATION_ELEMENT_SIZE + "' of @app:" +
+                                SiddhiConstants.ANNOTATION_KEY_CACHE + " cannot be negative, but found, '" +
+                                keyCacheSize + "'.", annotation.getQueryContextStartIndex(),
+                                annotation.getQueryContextEndIndex());
+                    }
+                    siddhiAppContext.setKeyCacheSize(keyCacheSize);
+                }
+            }
+
             // Select the TimestampGenerator based on playback mode on/off
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PLAYBACK,
                     siddhiApp.getAnnotations());
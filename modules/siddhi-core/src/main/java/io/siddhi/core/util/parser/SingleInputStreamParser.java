@@ -25,6 +25,7 @@ import io.siddhi.core.exception.OperationNotSupportedException;
 import io.siddhi.core.exception.SiddhiAppCreationException;
 import io.siddhi.core.executor.ExpressionExecutor;
 import io.siddhi.core.executor.VariableExpressionExecutor;
+import io.siddhi.core.executor.compiled.ExpressionCompiler;
 import io.siddhi.core.query.input.ProcessStreamReceiver;
 import io.siddhi.core.query.input.stream.single.EntryValveProcessor;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
@@ -137,6 +138,10 @@ public class SingleInputStreamParser {
                         }
                     }
                     Scheduler scheduler = SchedulerParser.parse(entryValveProcessor, siddhiQueryContext);
+                    if (currentProcessor instanceof WindowProcessor) {
+                        scheduler.setTimerCoalescingTick(
+                                siddhiQueryContext.getSiddhiAppContext().getTimerCoalescingTick());
+                    }
                     ((SchedulingProcessor) currentProcessor).setScheduler(scheduler);
                 }
                 if (currentProcessor instanceof AbstractStreamProcessor) {
@@ -204,7 +209,8 @@ public class SingleInputStreamParser {
 
         ConfigReader configReader;
         if (streamHandler instanceof Filter) {
-            return new FilterProcessor(attributeExpressionExecutors[0]);
+            return new FilterProcessor(ExpressionCompiler.compilable(attributeExpressionExecutors[0],
+                    siddhiQueryContext));
 
         } else if (streamHandler instanceof Window) {
             WindowProcessor windowProcessor = (WindowProcessor) SiddhiClassLoader.loadExtensionImplementation(
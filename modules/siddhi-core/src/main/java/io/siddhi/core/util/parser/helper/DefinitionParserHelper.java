@@ -39,7 +39,9 @@ import io.siddhi.core.stream.output.sink.SinkHandlerManager;
 import io.siddhi.core.stream.output.sink.SinkMapper;
 import io.siddhi.core.stream.output.sink.distributed.DistributedTransport;
 import io.siddhi.core.stream.output.sink.distributed.DistributionStrategy;
+import io.siddhi.core.table.ConcurrentInMemoryTable;
 import io.siddhi.core.table.InMemoryTable;
+import io.siddhi.core.table.OffHeapInMemoryTable;
 import io.siddhi.core.table.Table;
 import io.siddhi.core.table.record.RecordTableHandler;
 import io.siddhi.core.table.record.RecordTableHandlerManager;
@@ -207,6 +209,12 @@ public class DefinitionParserHelper {
                         TableExtensionHolder.getInstance(siddhiAppContext));
                 configReader = siddhiAppContext.getSiddhiContext().getConfigManager()
                         .generateConfigReader(extension.getNamespace(), extension.getName());
+            } else if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_OFF_HEAP,
+                    tableDefinition.getAnnotations()) != null) {
+                table = new OffHeapInMemoryTable();
+            } else if (AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_CONCURRENT,
+                    tableDefinition.getAnnotations()) != null) {
+                table = new ConcurrentInMemoryTable();
             } else {
                 table = new InMemoryTable();
             }
@@ -25,6 +25,7 @@ import io.siddhi.core.event.state.MetaStateEventAttribute;
 import io.siddhi.core.event.state.StateEventCloner;
 import io.siddhi.core.event.state.StateEventFactory;
 import io.siddhi.core.event.stream.MetaStreamEvent;
+import io.siddhi.core.event.stream.PooledStreamEventFactory;
 import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.populater.ComplexEventPopulater;
@@ -35,9 +36,15 @@ import io.siddhi.core.query.input.stream.StreamRuntime;
 import io.siddhi.core.query.input.stream.join.JoinProcessor;
 import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
+import io.siddhi.core.query.output.callback.InsertIntoStreamCallback;
+import io.siddhi.core.query.output.callback.OutputCallback;
+import io.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import io.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
 import io.siddhi.core.query.processor.Processor;
+import io.siddhi.core.query.processor.RecycleSafeProcessor;
 import io.siddhi.core.query.processor.SchedulingProcessor;
 import io.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import io.siddhi.core.query.selector.QuerySelector;
 import io.siddhi.core.util.SiddhiConstants;
 import io.siddhi.core.util.collection.operator.IncrementalAggregateCompileCondition;
 import io.siddhi.core.util.lock.LockWrapper;
@@ -153,24 +160,39 @@ public class QueryParserHelper {
 
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
                                          LockWrapper lockWrapper, String queryName) {
+        initStreamRuntime(runtime, metaComplexEvent, lockWrapper, queryName, 0);
+    }
+
+    /**
+     * Initialize the stream runtime, where the events of a single stream runtime are pooled when the event pool size
+     * is positive.
+     *
+     * @param runtime          stream runtime to be initialized
+     * @param metaComplexEvent meta event of the stream runtime
+     * @param lockWrapper      lock of the query
+     * @param queryName        name of the query
+     * @param eventPoolSize    maximum number of recycled events held per thread, or 0 to disable pooling
+     */
+    public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent,
+                                         LockWrapper lockWrapper, String queryName, int eventPoolSize) {
 
         if (runtime instanceof SingleStreamRuntime) {
             initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent,
-                    null, lockWrapper, queryName);
+                    null, lockWrapper, queryName, eventPoolSize);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
             StateEventFactory stateEventFactory = new StateEventFactory(metaStateEvent);
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i), i, metaStateEvent, stateEventFactory,
-                        lockWrapper, queryName);
+                        lockWrapper, queryName, 0);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventFactory stateEventFactory,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName, int eventPoolSize) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -178,7 +200,12 @@ public class QueryParserHelper {
         } else {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
-        StreamEventFactory streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        StreamEventFactory streamEventFactory;
+        if (eventPoolSize > 0) {
+            streamEventFactory = new PooledStreamEventFactory(metaStreamEvent, eventPoolSize);
+        } else {
+            streamEventFactory = new StreamEventFactory(metaStreamEvent);
+        }
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventFactory(streamEventFactory);
@@ -224,6 +251,37 @@ public class QueryParserHelper {
         }
     }
 
+    /**
+     * Checks whether the events of the stream runtime can be recycled once they are processed by the query. This is
+     * only the case when no processor, rate limiter or output callback of the query retains the events it receives.
+     *
+     * @param runtime           stream runtime of the query
+     * @param outputRateLimiter output rate limiter of the query
+     * @param outputCallback    output callback of the query, or null if there is none
+     * @return whether the events can be recycled
+     */
+    public static boolean isEventRecyclable(StreamRuntime runtime, OutputRateLimiter outputRateLimiter,
+                                            OutputCallback outputCallback) {
+        if (!(runtime instanceof SingleStreamRuntime)) {
+            return false;
+        }
+        SingleStreamRuntime singleStreamRuntime = (SingleStreamRuntime) runtime;
+        if (singleStreamRuntime.getProcessStreamReceiver().getClass() != ProcessStreamReceiver.class) {
+            return false;
+        }
+        Processor processor = singleStreamRuntime.getProcessorChain();
+        while (processor != null && !(processor instanceof QuerySelector)) {
+            if (!(processor instanceof RecycleSafeProcessor)) {
+                return false;
+            }
+            processor = processor.getNextProcessor();
+        }
+        if (outputRateLimiter.getClass() != PassThroughOutputRateLimiter.class) {
+            return false;
+        }
+        return outputCallback == null || outputCallback instanceof InsertIntoStreamCallback;
+    }
+
     public static LatencyTracker createLatencyTracker(SiddhiAppContext siddhiAppContext, String name, String type,
                                                       String function) {
         LatencyTracker latencyTracker = null;
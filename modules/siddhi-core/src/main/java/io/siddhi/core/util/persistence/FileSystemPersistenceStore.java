@@ -20,38 +20,125 @@ package io.siddhi.core.util.persistence;
 
 import com.google.common.io.Files;
 import io.siddhi.core.exception.CannotClearSiddhiAppStateException;
+import io.siddhi.core.util.persistence.util.FramedSnapshotInputStream;
+import io.siddhi.core.util.persistence.util.FramedSnapshotOutputStream;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
+import io.siddhi.core.util.persistence.util.SnapshotFileFormat;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Map;
 
 /**
- * Implementation of Persistence Store that would persist snapshots to the file system
+ * Implementation of Persistence Store that would persist snapshots to the file system. Snapshots are streamed to a
+ * temporary file, which is atomically renamed to the revision once the snapshot is written completely. Snapshots are
+ * written in the configured {@link SnapshotFileFormat}, while snapshots of any format can be loaded.
  */
-public class FileSystemPersistenceStore implements PersistenceStore {
+public class FileSystemPersistenceStore implements StreamingPersistenceStore {
 
     private static final Logger log = Logger.getLogger(FileSystemPersistenceStore.class);
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private int numberOfRevisionsToSave;
     private String folder;
+    private SnapshotFileFormat format = SnapshotFileFormat.RAW;
+
+    public FileSystemPersistenceStore() {
+    }
+
+    public FileSystemPersistenceStore(String storageFilePath, int numberOfRevisionsToSave) {
+        this(storageFilePath, numberOfRevisionsToSave, SnapshotFileFormat.RAW);
+    }
+
+    public FileSystemPersistenceStore(String storageFilePath, int numberOfRevisionsToSave,
+                                      SnapshotFileFormat format) {
+        this.folder = storageFilePath;
+        this.numberOfRevisionsToSave = numberOfRevisionsToSave;
+        this.format = format;
+    }
 
     @Override
     public void save(String siddhiAppName, String revision, byte[] snapshot) {
-        File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
         try {
-            Files.createParentDirs(file);
-            Files.write(snapshot, file);
-            cleanOldRevisions(siddhiAppName);
-            if (log.isDebugEnabled()) {
-                log.debug("Periodic persistence of " + siddhiAppName + " persisted successfully.");
-            }
+            save(siddhiAppName, revision, outputStream -> outputStream.write(snapshot));
         } catch (IOException e) {
             log.error("Cannot save the revision " + revision + " of SiddhiApp: " + siddhiAppName +
                     " to the file system.", e);
         }
     }
 
+    @Override
+    public void save(String siddhiAppName, String revision, SnapshotWriter snapshotWriter) throws IOException {
+        prepare(siddhiAppName, revision, snapshotWriter).commit();
+    }
+
+    /**
+     * Writes the snapshot to the temporary file of the revision, which is synced and renamed to the revision when
+     * committed, such that neither is done while processing is paused.
+     */
+    @Override
+    public PreparedSnapshot prepare(String siddhiAppName, String revision, SnapshotWriter snapshotWriter)
+            throws IOException {
+        File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
+        File tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX);
+        Files.createParentDirs(file);
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(tempFile), BUFFER_SIZE)) {
+            if (format == SnapshotFileFormat.RAW) {
+                snapshotWriter.write(outputStream);
+            } else {
+                FramedSnapshotOutputStream framedSnapshotOutputStream = new FramedSnapshotOutputStream(
+                        outputStream, siddhiAppName, revision, format == SnapshotFileFormat.COMPRESSED);
+                snapshotWriter.write(framedSnapshotOutputStream);
+                framedSnapshotOutputStream.finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+        return new PreparedSnapshot() {
+            @Override
+            public void commit() throws IOException {
+                try (FileChannel fileChannel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+                    fileChannel.force(true);
+                } catch (IOException | RuntimeException e) {
+                    deleteTempFile(tempFile);
+                    throw e;
+                }
+                try {
+                    java.nio.file.Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    java.nio.file.Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                cleanOldRevisions(siddhiAppName);
+                if (log.isDebugEnabled()) {
+                    log.debug("Periodic persistence of " + siddhiAppName + " persisted successfully.");
+                }
+            }
+
+            @Override
+            public void discard() {
+                deleteTempFile(tempFile);
+            }
+        };
+    }
+
+    private void deleteTempFile(File tempFile) {
+        if (tempFile.exists() && !tempFile.delete()) {
+            log.error("Error deleting the incomplete revision file " + tempFile.getName());
+        }
+    }
+
     @Override
     public void setProperties(Map properties) {
         Map configurationMap = (Map) properties.get(PersistenceConstants.STATE_PERSISTENCE_CONFIGS);
@@ -76,6 +163,8 @@ public class FileSystemPersistenceStore implements PersistenceStore {
             } else {
                 folder = String.valueOf(folderObject);
             }
+            format = SnapshotFileFormat.fromConfig(
+                    configurationMap.get(PersistenceConstants.STATE_PERSISTENCE_FORMAT));
 
         } else {
             folder = PersistenceConstants.DEFAULT_FILE_PERSISTENCE_FOLDER;
@@ -90,6 +179,9 @@ public class FileSystemPersistenceStore implements PersistenceStore {
         File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
         try {
             byte[] bytes = Files.toByteArray(file);
+            if (SnapshotFileFormat.isFramed(bytes, bytes.length)) {
+                bytes = FramedSnapshotInputStream.decode(bytes, siddhiAppName, revision);
+            }
             log.info("State loaded for " + siddhiAppName + " revision " + revision + " from the file system.");
             return bytes;
         } catch (IOException e) {
@@ -99,10 +191,33 @@ public class FileSystemPersistenceStore implements PersistenceStore {
         return null;
     }
 
+    @Override
+    public InputStream loadAsStream(String siddhiAppName, String revision) throws IOException {
+        File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
+        if (!file.isFile()) {
+            return null;
+        }
+        log.info("Loading state for " + siddhiAppName + " revision " + revision + " from the file system.");
+        InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+        try {
+            byte[] header = new byte[4];
+            inputStream.mark(header.length);
+            int headerLength = inputStream.read(header);
+            inputStream.reset();
+            if (!SnapshotFileFormat.isFramed(header, headerLength)) {
+                return inputStream;
+            }
+            // the blocks are validated while they are read, and the end block when the stream is fully read
+            return new FramedSnapshotInputStream(inputStream, siddhiAppName, revision);
+        } catch (IOException | RuntimeException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
     @Override
     public String getLastRevision(String siddhiAppName) {
-        File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
+        File[] files = listRevisionFiles(new File(folder + File.separator + siddhiAppName));
 
         if (files == null || files.length == 0) {
             return null;
@@ -148,7 +263,7 @@ public class FileSystemPersistenceStore implements PersistenceStore {
 
     private void cleanOldRevisions(String siddhiAppName) {
         File targetDirectory = new File(folder + File.separator + siddhiAppName);
-        File[] files = targetDirectory.listFiles();
+        File[] files = listRevisionFiles(targetDirectory);
         if (files != null) {
             while (files.length > numberOfRevisionsToSave) {
                 String firstRevision = null;
@@ -165,11 +280,21 @@ public class FileSystemPersistenceStore implements PersistenceStore {
                         log.error("Error deleting old revision " + firstRevision);
                     }
                 }
-                files = targetDirectory.listFiles();
+                files = listRevisionFiles(targetDirectory);
                 if (files == null || files.length < 1) {
                     break;
                 }
             }
         }
     }
+
+    /**
+     * Method to list the revision files, excluding the temporary files of revisions that are being written
+     *
+     * @param directory is the directory of the Siddhi Application
+     * @return revision files, or null if the directory does not exist
+     */
+    private File[] listRevisionFiles(File directory) {
+        return directory.listFiles((dir, name) -> !name.endsWith(TEMP_FILE_SUFFIX));
+    }
 }
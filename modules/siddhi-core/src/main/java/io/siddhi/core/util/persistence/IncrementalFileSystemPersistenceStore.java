@@ -20,24 +20,41 @@ package io.siddhi.core.util.persistence;
 
 import com.google.common.io.Files;
 import io.siddhi.core.exception.CannotClearSiddhiAppStateException;
+import io.siddhi.core.exception.PersistenceStoreException;
+import io.siddhi.core.util.persistence.util.FramedSnapshotInputStream;
+import io.siddhi.core.util.persistence.util.FramedSnapshotOutputStream;
 import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
+import io.siddhi.core.util.persistence.util.SnapshotFileFormat;
+import io.siddhi.core.util.persistence.util.SnapshotSegmentLog;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Implementation of Persistence Store that would persist snapshots to the file system
+ * Implementation of Persistence Store that would persist snapshots to the file system. Each revision is written to
+ * its own file by default, or appended to the {@link SnapshotSegmentLog} of the Siddhi App when the segment layout
+ * is used.
  */
 public class IncrementalFileSystemPersistenceStore implements IncrementalPersistenceStore {
 
     private static final Logger log = Logger.getLogger(IncrementalFileSystemPersistenceStore.class);
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
     private String folder;
+    private SnapshotFileFormat format = SnapshotFileFormat.RAW;
+    private boolean segmented;
+    private final Map<String, SnapshotSegmentLog> segmentLogs = new ConcurrentHashMap<>();
 
     public IncrementalFileSystemPersistenceStore() {
     }
@@ -46,13 +63,61 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
         folder = storageFilePath;
     }
 
+    public IncrementalFileSystemPersistenceStore(String storageFilePath, SnapshotFileFormat format) {
+        this.folder = storageFilePath;
+        this.format = format;
+    }
+
+    public IncrementalFileSystemPersistenceStore(String storageFilePath, SnapshotFileFormat format,
+                                                 boolean segmented) {
+        this.folder = storageFilePath;
+        this.format = format;
+        this.segmented = segmented;
+    }
+
     @Override
     public void save(IncrementalSnapshotInfo snapshotInfo, byte[] snapshot) {
         File file = new File(folder + File.separator + snapshotInfo.getSiddhiAppId() + File.separator +
                 snapshotInfo.getRevision());
         try {
-            Files.createParentDirs(file);
-            Files.write(snapshot, file);
+            if (segmented) {
+                if (format != SnapshotFileFormat.RAW) {
+                    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(snapshot.length + 64);
+                    try (FramedSnapshotOutputStream outputStream = new FramedSnapshotOutputStream(
+                            byteArrayOutputStream, snapshotInfo.getSiddhiAppId(), snapshotInfo.getRevision(),
+                            format == SnapshotFileFormat.COMPRESSED)) {
+                        outputStream.write(snapshot);
+                    }
+                    snapshot = byteArrayOutputStream.toByteArray();
+                }
+                getSegmentLog(snapshotInfo.getSiddhiAppId()).put(snapshotInfo.getRevision(), snapshot);
+            } else {
+                Files.createParentDirs(file);
+                // write to a temporary file that is renamed to the revision, such that it is never read half written
+                File tempFile = new File(file.getPath() + TEMP_FILE_SUFFIX);
+                try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                    if (format == SnapshotFileFormat.RAW) {
+                        fileOutputStream.write(snapshot);
+                    } else {
+                        FramedSnapshotOutputStream outputStream = new FramedSnapshotOutputStream(
+                                new BufferedOutputStream(fileOutputStream), snapshotInfo.getSiddhiAppId(),
+                                snapshotInfo.getRevision(), format == SnapshotFileFormat.COMPRESSED);
+                        outputStream.write(snapshot);
+                        outputStream.finish();
+                    }
+                    fileOutputStream.getFD().sync();
+                } catch (IOException | RuntimeException e) {
+                    if (!tempFile.delete()) {
+                        log.error("Error deleting the incomplete revision file " + tempFile.getName());
+                    }
+                    throw e;
+                }
+                try {
+                    java.nio.file.Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    java.nio.file.Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
             cleanOldRevisions(snapshotInfo);
             if (log.isDebugEnabled()) {
                 log.debug("Incremental persistence of '" + snapshotInfo.getSiddhiAppId() +
@@ -66,7 +131,25 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
 
     @Override
     public void setProperties(Map properties) {
-        //nothing to do
+        Map configurationMap = (Map) properties.get(PersistenceConstants.STATE_PERSISTENCE_CONFIGS);
+        if (configurationMap != null) {
+            format = SnapshotFileFormat.fromConfig(
+                    configurationMap.get(PersistenceConstants.STATE_PERSISTENCE_FORMAT));
+            Object layout = configurationMap.get(PersistenceConstants.STATE_PERSISTENCE_LAYOUT);
+            if (layout != null) {
+                if (PersistenceConstants.STATE_PERSISTENCE_LAYOUT_SEGMENT.equalsIgnoreCase(
+                        String.valueOf(layout).trim())) {
+                    segmented = true;
+                } else if (PersistenceConstants.STATE_PERSISTENCE_LAYOUT_FILE.equalsIgnoreCase(
+                        String.valueOf(layout).trim())) {
+                    segmented = false;
+                } else {
+                    throw new PersistenceStoreException("Unknown persistence layout '" + layout + "', supported " +
+                            "layouts are '" + PersistenceConstants.STATE_PERSISTENCE_LAYOUT_FILE + "' and '" +
+                            PersistenceConstants.STATE_PERSISTENCE_LAYOUT_SEGMENT + "'");
+                }
+            }
+        }
     }
 
     @Override
@@ -75,7 +158,23 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
                 snapshotInfo.getRevision());
         byte[] bytes = null;
         try {
-            bytes = Files.toByteArray(file);
+            byte[] fileBytes;
+            if (segmented) {
+                fileBytes = getSegmentLog(snapshotInfo.getSiddhiAppId()).get(snapshotInfo.getRevision());
+                if (fileBytes == null) {
+                    log.error("Cannot load the revision '" + snapshotInfo.getRevision() + "' of SiddhiApp '" +
+                            snapshotInfo.getSiddhiAppId() + "' as it is not found in the snapshot segments.");
+                    return null;
+                }
+            } else {
+                fileBytes = Files.toByteArray(file);
+            }
+            if (SnapshotFileFormat.isFramed(fileBytes, fileBytes.length)) {
+                bytes = FramedSnapshotInputStream.decode(fileBytes, snapshotInfo.getSiddhiAppId(),
+                        snapshotInfo.getRevision());
+            } else {
+                bytes = fileBytes;
+            }
             if (log.isDebugEnabled()) {
                 log.debug("State loaded for SiddhiApp '" + snapshotInfo.getSiddhiAppId() + "' revision '" +
                         snapshotInfo.getRevision() + "' from file system.");
@@ -90,14 +189,12 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
     @Override
     public List<IncrementalSnapshotInfo> getListOfRevisionsToLoad(long restoreTime, String siddhiAppName) {
 
-        File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
-        if (files == null || files.length == 0) {
+        List<String> revisions = listRevisions(siddhiAppName);
+        if (revisions.isEmpty()) {
             return null;
         }
         List<IncrementalSnapshotInfo> results = new ArrayList<>();
-        for (File file : files) {
-            String fileName = file.getName();
+        for (String fileName : revisions) {
             IncrementalSnapshotInfo snapshotInfo = PersistenceHelper.convertRevision(fileName);
             if (snapshotInfo.getTime() <= restoreTime &&
                     siddhiAppName.equals(snapshotInfo.getSiddhiAppId()) &&
@@ -118,13 +215,11 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
     public String getLastRevision(String siddhiAppName) {
         long restoreTime = -1;
         IncrementalSnapshotInfo lastSnapshotInfo = null;
-        File dir = new File(folder + File.separator + siddhiAppName);
-        File[] files = dir.listFiles();
-        if (files == null || files.length == 0) {
+        List<String> revisions = listRevisions(siddhiAppName);
+        if (revisions.isEmpty()) {
             return null;
         }
-        for (File file : files) {
-            String fileName = file.getName();
+        for (String fileName : revisions) {
             IncrementalSnapshotInfo snapshotInfo = PersistenceHelper.convertRevision(fileName);
             if (snapshotInfo.getTime() > restoreTime &&
                     siddhiAppName.equals(snapshotInfo.getSiddhiAppId()) &&
@@ -148,6 +243,15 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
 
     @Override
     public void clearAllRevisions(String siddhiAppName) {
+        if (segmented) {
+            try {
+                getSegmentLog(siddhiAppName).clear();
+            } catch (IOException e) {
+                throw new CannotClearSiddhiAppStateException("Persistence state segments of Siddhi App '" +
+                        siddhiAppName + "' are not deleted", e);
+            }
+            return;
+        }
         File dir = new File(folder + File.separator + siddhiAppName);
         File[] files = dir.listFiles();
         if (files == null || files.length == 0) {
@@ -167,37 +271,63 @@ public class IncrementalFileSystemPersistenceStore implements IncrementalPersist
         }
     }
 
-    private void cleanOldRevisions(IncrementalSnapshotInfo incrementalSnapshotInfo) {
+    private void cleanOldRevisions(IncrementalSnapshotInfo incrementalSnapshotInfo) throws IOException {
         if (incrementalSnapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.INCREMENT) {
-            File dir = new File(folder + File.separator + incrementalSnapshotInfo.getSiddhiAppId());
-            File[] files = dir.listFiles();
+            long baseTimeStamp = (incrementalSnapshotInfo.getTime());
+            for (String fileName : listRevisions(incrementalSnapshotInfo.getSiddhiAppId())) {
+                IncrementalSnapshotInfo snapshotInfo = PersistenceHelper.convertRevision(fileName);
+                if (snapshotInfo.getTime() < baseTimeStamp &&
+                        incrementalSnapshotInfo.getId().equals(snapshotInfo.getId())) {
+                    if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE &&
+                            snapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                        deleteRevision(incrementalSnapshotInfo.getSiddhiAppId(), fileName);
+                    } else if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC &&
+                            snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                        deleteRevision(incrementalSnapshotInfo.getSiddhiAppId(), fileName);
+                    }
+                }
+            }
+        }
+    }
+
+    private void deleteRevision(String siddhiAppName, String revision) throws IOException {
+        if (segmented) {
+            getSegmentLog(siddhiAppName).remove(revision);
+        } else {
+            File file = new File(folder + File.separator + siddhiAppName + File.separator + revision);
+            if (file.exists()) {
+                Boolean isDeleted = file.delete();
+                if (!isDeleted) {
+                    log.error("Error deleting old revision " + revision);
+                }
+            }
+        }
+    }
+
+    private List<String> listRevisions(String siddhiAppName) {
+        List<String> revisions = new ArrayList<>();
+        if (segmented) {
+            try {
+                revisions.addAll(getSegmentLog(siddhiAppName).getRevisions());
+            } catch (IOException e) {
+                log.error("Cannot read the snapshot segments of SiddhiApp '" + siddhiAppName + "'.", e);
+            }
+        } else {
+            File[] files = new File(folder + File.separator + siddhiAppName).listFiles();
             if (files != null) {
-                long baseTimeStamp = (incrementalSnapshotInfo.getTime());
                 for (File file : files) {
-                    String fileName = file.getName();
-                    IncrementalSnapshotInfo snapshotInfo = PersistenceHelper.convertRevision(fileName);
-                    if (snapshotInfo.getTime() < baseTimeStamp &&
-                            incrementalSnapshotInfo.getId().equals(snapshotInfo.getId())) {
-                        if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.BASE &&
-                                snapshotInfo.getType() != IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
-                            if (file.exists()) {
-                                Boolean isDeleted = file.delete();
-                                if (!isDeleted) {
-                                    log.error("Error deleting old revision " + fileName);
-                                }
-                            }
-                        } else if (incrementalSnapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC &&
-                                snapshotInfo.getType() == IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
-                            if (file.exists()) {
-                                Boolean isDeleted = file.delete();
-                                if (!isDeleted) {
-                                    log.error("Error deleting old revision " + fileName);
-                                }
-                            }
-                        }
+                    if (!file.getName().endsWith(SnapshotSegmentLog.SEGMENT_FILE_SUFFIX) &&
+                            !file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                        revisions.add(file.getName());
                     }
                 }
             }
         }
+        return revisions;
+    }
+
+    private SnapshotSegmentLog getSegmentLog(String siddhiAppName) {
+        return segmentLogs.computeIfAbsent(siddhiAppName, k -> new SnapshotSegmentLog(
+                new File(folder + File.separator + siddhiAppName), SnapshotSegmentLog.DEFAULT_SEGMENT_SIZE));
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.persistence;
+
+import java.io.IOException;
+
+/**
+ * Snapshot of a revision that is written to a {@link StreamingPersistenceStore}, but is not visible as a revision
+ * until it is committed.
+ */
+public interface PreparedSnapshot {
+
+    /**
+     * Make the written snapshot visible as its revision.
+     *
+     * @throws IOException when the snapshot cannot be committed
+     */
+    void commit() throws IOException;
+
+    /**
+     * Discard the written snapshot, when it is not going to be committed.
+     */
+    void discard();
+
+}
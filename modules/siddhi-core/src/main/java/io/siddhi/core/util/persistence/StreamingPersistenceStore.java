@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * {@link PersistenceStore} that also saves and loads snapshots as streams, such that copied snapshots are serialized
+ * straight into the store, and restores never hold the whole snapshot in memory as a byte array.
+ */
+public interface StreamingPersistenceStore extends PersistenceStore {
+
+    /**
+     * Save a revision by letting the given writer write the snapshot to the store. The revision should only become
+     * visible to {@link #getLastRevision(String)} and {@link #loadAsStream(String, String)} after the snapshot is
+     * written completely.
+     *
+     * @param siddhiAppId    name of the Siddhi App
+     * @param revision       revision of the snapshot
+     * @param snapshotWriter writer of the serialized snapshot
+     * @throws IOException when the snapshot cannot be written
+     */
+    void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter) throws IOException;
+
+    /**
+     * Write the snapshot of a revision without making it visible, such that the snapshot can be written while
+     * processing is paused, and be committed after processing continues. By default, the snapshot is written to a
+     * local spill file, which is saved to the store when committed.
+     *
+     * @param siddhiAppId    name of the Siddhi App
+     * @param revision       revision of the snapshot
+     * @param snapshotWriter writer of the serialized snapshot
+     * @return the written snapshot, which should be either committed or discarded
+     * @throws IOException when the snapshot cannot be written
+     */
+    default PreparedSnapshot prepare(String siddhiAppId, String revision, SnapshotWriter snapshotWriter)
+            throws IOException {
+        File spillFile = File.createTempFile("siddhi-snapshot-", ".tmp");
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(spillFile), 64 * 1024)) {
+            snapshotWriter.write(outputStream);
+        } catch (IOException | RuntimeException e) {
+            spillFile.delete();
+            throw e;
+        }
+        return new PreparedSnapshot() {
+            @Override
+            public void commit() throws IOException {
+                try {
+                    save(siddhiAppId, revision, outputStream -> Files.copy(spillFile.toPath(), outputStream));
+                } finally {
+                    discard();
+                }
+            }
+
+            @Override
+            public void discard() {
+                spillFile.delete();
+            }
+        };
+    }
+
+    /**
+     * Open the snapshot of a revision for reading. The caller is responsible for closing the returned stream.
+     *
+     * @param siddhiAppId name of the Siddhi App
+     * @param revision    revision of the snapshot
+     * @return stream of the serialized snapshot, or null if the revision does not exist
+     * @throws IOException when the snapshot cannot be read
+     */
+    InputStream loadAsStream(String siddhiAppId, String revision) throws IOException;
+
+}
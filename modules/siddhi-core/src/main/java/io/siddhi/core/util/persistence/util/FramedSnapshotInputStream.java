@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.persistence.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * {@link InputStream} reading a snapshot written by {@link FramedSnapshotOutputStream}. The header is validated when
+ * the stream is created, and the checksum of each block is validated before its bytes are returned.
+ */
+public class FramedSnapshotInputStream extends InputStream {
+
+    private final DataInputStream inputStream;
+    private final CRC32 checksum = new CRC32();
+    private final byte[] buffer = new byte[SnapshotFileFormat.BLOCK_SIZE];
+    private final byte[] storedBuffer = new byte[SnapshotFileFormat.BLOCK_SIZE];
+    private Inflater inflater;
+    private int position;
+    private int limit;
+    private int blockCount;
+    private long rawLength;
+    private byte blockType;
+    private int blockRawLength;
+    private int blockStoredLength;
+    private boolean ended;
+
+    public FramedSnapshotInputStream(InputStream inputStream, String siddhiAppName, String revision)
+            throws IOException {
+        this.inputStream = new DataInputStream(inputStream);
+        readHeader(this.inputStream, siddhiAppName, revision);
+    }
+
+    /**
+     * Validates the header, the block checksums and the end block of a framed snapshot, without decompressing it.
+     *
+     * @param inputStream   stream of the framed snapshot, which is fully consumed
+     * @param siddhiAppName name of the Siddhi App the snapshot should belong to
+     * @param revision      revision the snapshot should belong to
+     * @throws IOException when the snapshot is not valid or cannot be read
+     */
+    public static void validate(InputStream inputStream, String siddhiAppName, String revision) throws IOException {
+        FramedSnapshotInputStream framedSnapshotInputStream =
+                new FramedSnapshotInputStream(inputStream, siddhiAppName, revision);
+        while (framedSnapshotInputStream.readBlock()) {
+            framedSnapshotInputStream.blockCount++;
+            framedSnapshotInputStream.rawLength += framedSnapshotInputStream.blockRawLength;
+        }
+    }
+
+    /**
+     * Validates a framed snapshot and returns the serialized snapshot it holds.
+     *
+     * @param snapshot      bytes of the framed snapshot
+     * @param siddhiAppName name of the Siddhi App the snapshot should belong to
+     * @param revision      revision the snapshot should belong to
+     * @return the serialized snapshot
+     * @throws IOException when the snapshot is not valid
+     */
+    public static byte[] decode(byte[] snapshot, String siddhiAppName, String revision) throws IOException {
+        validate(new ByteArrayInputStream(snapshot), siddhiAppName, revision);
+        try (FramedSnapshotInputStream inputStream = new FramedSnapshotInputStream(
+                new ByteArrayInputStream(snapshot), siddhiAppName, revision)) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(snapshot.length);
+            byte[] bytes = new byte[SnapshotFileFormat.BLOCK_SIZE];
+            int length;
+            while ((length = inputStream.read(bytes, 0, bytes.length)) != -1) {
+                outputStream.write(bytes, 0, length);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == limit && !nextBlock()) {
+            return -1;
+        }
+        int readLength = Math.min(length, limit - position);
+        System.arraycopy(buffer, position, bytes, offset, readLength);
+        position += readLength;
+        return readLength;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inflater != null) {
+            inflater.end();
+        }
+        inputStream.close();
+    }
+
+    private boolean nextBlock() throws IOException {
+        while (readBlock()) {
+            if (blockType == SnapshotFileFormat.BLOCK_DEFLATED) {
+                if (inflater == null) {
+                    inflater = new Inflater();
+                }
+                inflater.reset();
+                inflater.setInput(storedBuffer, 0, blockStoredLength);
+                try {
+                    if (inflater.inflate(buffer, 0, blockRawLength) != blockRawLength || !inflater.finished()) {
+                        throw new StreamCorruptedException("Deflated block " + blockCount +
+                                " does not match its raw length " + blockRawLength);
+                    }
+                } catch (DataFormatException e) {
+                    throw new StreamCorruptedException("Deflated block " + blockCount + " is corrupted, " +
+                            e.getMessage());
+                }
+            } else {
+                System.arraycopy(storedBuffer, 0, buffer, 0, blockRawLength);
+            }
+            blockCount++;
+            rawLength += blockRawLength;
+            position = 0;
+            limit = blockRawLength;
+            if (limit > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the next block to the stored buffer and validates its checksum, or validates the end block.
+     *
+     * @return false if the end block is reached
+     * @throws IOException when the block is not valid or cannot be read
+     */
+    private boolean readBlock() throws IOException {
+        if (ended) {
+            return false;
+        }
+        blockType = inputStream.readByte();
+        if (blockType == SnapshotFileFormat.BLOCK_END) {
+            int expectedBlockCount = inputStream.readInt();
+            long expectedRawLength = inputStream.readLong();
+            if (expectedBlockCount != blockCount || expectedRawLength != rawLength) {
+                throw new StreamCorruptedException("Snapshot has " + blockCount + " blocks of " + rawLength +
+                        " bytes, but " + expectedBlockCount + " blocks of " + expectedRawLength +
+                        " bytes are expected");
+            }
+            ended = true;
+            return false;
+        }
+        if (blockType != SnapshotFileFormat.BLOCK_STORED && blockType != SnapshotFileFormat.BLOCK_DEFLATED) {
+            throw new StreamCorruptedException("Unknown type " + blockType + " of block " + blockCount);
+        }
+        blockRawLength = inputStream.readInt();
+        blockStoredLength = inputStream.readInt();
+        int expectedChecksum = inputStream.readInt();
+        if (blockRawLength < 0 || blockRawLength > buffer.length || blockStoredLength < 0 ||
+                blockStoredLength > storedBuffer.length ||
+                (blockType == SnapshotFileFormat.BLOCK_STORED && blockStoredLength != blockRawLength)) {
+            throw new StreamCorruptedException("Invalid lengths of block " + blockCount);
+        }
+        inputStream.readFully(storedBuffer, 0, blockStoredLength);
+        checksum.reset();
+        checksum.update(storedBuffer, 0, blockStoredLength);
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new StreamCorruptedException("Checksum mismatch in block " + blockCount);
+        }
+        return true;
+    }
+
+    private static void readHeader(DataInputStream inputStream, String siddhiAppName, String revision)
+            throws IOException {
+        if (inputStream.readInt() != SnapshotFileFormat.MAGIC) {
+            throw new StreamCorruptedException("Snapshot of revision '" + revision + "' is not a framed snapshot");
+        }
+        byte version = inputStream.readByte();
+        if (version != SnapshotFileFormat.FORMAT_VERSION_1) {
+            throw new StreamCorruptedException("Unsupported snapshot format version " + version +
+                    " in revision '" + revision + "'");
+        }
+        byte compression = inputStream.readByte();
+        if (compression != SnapshotFileFormat.COMPRESSION_NONE &&
+                compression != SnapshotFileFormat.COMPRESSION_DEFLATE) {
+            throw new StreamCorruptedException("Unsupported snapshot compression " + compression +
+                    " in revision '" + revision + "'");
+        }
+        String snapshotSiddhiAppName = inputStream.readUTF();
+        String snapshotRevision = inputStream.readUTF();
+        if (!snapshotSiddhiAppName.equals(siddhiAppName) || !snapshotRevision.equals(revision)) {
+            throw new StreamCorruptedException("Snapshot of revision '" + snapshotRevision + "' of SiddhiApp '" +
+                    snapshotSiddhiAppName + "' found when loading revision '" + revision + "' of SiddhiApp '" +
+                    siddhiAppName + "'");
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.persistence.util;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * {@link OutputStream} writing a snapshot in the {@link SnapshotFileFormat#FRAMED} or
+ * {@link SnapshotFileFormat#COMPRESSED} format. {@link #finish()} must be called after the snapshot is written.
+ */
+public class FramedSnapshotOutputStream extends OutputStream {
+
+    private final DataOutputStream outputStream;
+    private final Deflater deflater;
+    private final CRC32 checksum = new CRC32();
+    private final byte[] buffer = new byte[SnapshotFileFormat.BLOCK_SIZE];
+    private byte[] compressedBuffer;
+    private int position;
+    private int blockCount;
+    private long rawLength;
+    private boolean finished;
+
+    public FramedSnapshotOutputStream(OutputStream outputStream, String siddhiAppName, String revision,
+                                      boolean compressed) throws IOException {
+        this.outputStream = new DataOutputStream(outputStream);
+        if (compressed) {
+            this.deflater = new Deflater(Deflater.BEST_SPEED);
+            this.compressedBuffer = new byte[SnapshotFileFormat.BLOCK_SIZE];
+        } else {
+            this.deflater = null;
+        }
+        this.outputStream.writeInt(SnapshotFileFormat.MAGIC);
+        this.outputStream.writeByte(SnapshotFileFormat.FORMAT_VERSION_1);
+        this.outputStream.writeByte(compressed ? SnapshotFileFormat.COMPRESSION_DEFLATE :
+                SnapshotFileFormat.COMPRESSION_NONE);
+        this.outputStream.writeUTF(siddhiAppName);
+        this.outputStream.writeUTF(revision);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == buffer.length) {
+            writeBlock();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (position == buffer.length) {
+                writeBlock();
+            }
+            int copyLength = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, copyLength);
+            position += copyLength;
+            offset += copyLength;
+            length -= copyLength;
+        }
+    }
+
+    /**
+     * Writes the buffered bytes and the end block, without closing the underlying stream.
+     *
+     * @throws IOException when the underlying stream cannot be written
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (position > 0) {
+            writeBlock();
+        }
+        outputStream.writeByte(SnapshotFileFormat.BLOCK_END);
+        outputStream.writeInt(blockCount);
+        outputStream.writeLong(rawLength);
+        outputStream.flush();
+        if (deflater != null) {
+            deflater.end();
+        }
+        finished = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        byte[] storedBytes = buffer;
+        int storedLength = position;
+        byte blockType = SnapshotFileFormat.BLOCK_STORED;
+        if (deflater != null) {
+            deflater.reset();
+            deflater.setInput(buffer, 0, position);
+            deflater.finish();
+            int compressedLength = deflater.deflate(compressedBuffer, 0, compressedBuffer.length);
+            // blocks that do not shrink are stored as they are
+            if (deflater.finished() && compressedLength < position) {
+                storedBytes = compressedBuffer;
+                storedLength = compressedLength;
+                blockType = SnapshotFileFormat.BLOCK_DEFLATED;
+            }
+        }
+        checksum.reset();
+        checksum.update(storedBytes, 0, storedLength);
+        outputStream.writeByte(blockType);
+        outputStream.writeInt(position);
+        outputStream.writeInt(storedLength);
+        outputStream.writeInt((int) checksum.getValue());
+        outputStream.write(storedBytes, 0, storedLength);
+        rawLength += position;
+        blockCount++;
+        position = 0;
+    }
+}
@@ -25,6 +25,10 @@ public class PersistenceConstants {
 
     public static final String STATE_PERSISTENCE_REVISIONS_TO_KEEP = "revisionsToKeep";
     public static final String STATE_PERSISTENCE_CONFIGS = "config";
+    public static final String STATE_PERSISTENCE_FORMAT = "format";
+    public static final String STATE_PERSISTENCE_LAYOUT = "layout";
+    public static final String STATE_PERSISTENCE_LAYOUT_FILE = "file";
+    public static final String STATE_PERSISTENCE_LAYOUT_SEGMENT = "segment";
     public static final String DEFAULT_FILE_PERSISTENCE_FOLDER = "siddhi-app-persistence";
     public static final String REVISION_SEPARATOR = "__";
 
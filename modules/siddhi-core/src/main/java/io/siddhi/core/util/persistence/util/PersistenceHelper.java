@@ -21,15 +21,21 @@ package io.siddhi.core.util.persistence.util;
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.exception.PersistenceStoreException;
 import io.siddhi.core.util.SiddhiConstants;
+import io.siddhi.core.util.persistence.PreparedSnapshot;
+import io.siddhi.core.util.persistence.SnapshotWriter;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.snapshot.AsyncIncrementalSnapshotPersistor;
 import io.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
 import io.siddhi.core.util.snapshot.IncrementalSnapshot;
+import io.siddhi.core.util.snapshot.IncrementalSnapshotCompactor;
 import io.siddhi.core.util.snapshot.PersistenceReference;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 /**
  * Helper Class to persist snapshots
@@ -61,9 +67,104 @@ public final class PersistenceHelper {
         return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
     }
 
+    /**
+     * Persists a captured full snapshot, which is serialized in the background before it is saved.
+     *
+     * @param snapshotSupplier supplier of the serialized snapshot
+     * @param siddhiAppContext Siddhi App context
+     * @return reference of the persisted revision
+     */
+    public static PersistenceReference persist(Supplier<byte[]> snapshotSupplier,
+                                               SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshotSupplier,
+                siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName(),
+                revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
+    /**
+     * Persists a captured full snapshot by streaming it to the {@link StreamingPersistenceStore} of the Siddhi App in
+     * the background.
+     *
+     * @param snapshotWriter   writer of the serialized snapshot
+     * @param siddhiAppContext Siddhi App context
+     * @return reference of the persisted revision
+     */
+    public static PersistenceReference persist(SnapshotWriter snapshotWriter, SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshotWriter,
+                (StreamingPersistenceStore) siddhiAppContext.getSiddhiContext().getPersistenceStore(),
+                siddhiAppContext.getName(), revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
+    /**
+     * Persists a full snapshot by writing it to the {@link StreamingPersistenceStore} of the Siddhi App right away,
+     * while the revision is only committed in the background.
+     *
+     * @param snapshotWriter   writer of the serialized snapshot
+     * @param siddhiAppContext Siddhi App context
+     * @return reference of the persisted revision
+     */
+    public static PersistenceReference persistPrepared(SnapshotWriter snapshotWriter,
+                                                       SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        StreamingPersistenceStore persistenceStore =
+                (StreamingPersistenceStore) siddhiAppContext.getSiddhiContext().getPersistenceStore();
+        String revision = revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName();
+        PreparedSnapshot preparedSnapshot;
+        try {
+            preparedSnapshot = persistenceStore.prepare(siddhiAppContext.getName(), revision, snapshotWriter);
+        } catch (IOException e) {
+            throw new PersistenceStoreException("Cannot save the revision " + revision + " of SiddhiApp: " +
+                    siddhiAppContext.getName() + ", " + e.getMessage(), e);
+        }
+        AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(preparedSnapshot,
+                persistenceStore, siddhiAppContext.getName(), revisionTime);
+        Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
+        return new PersistenceReference(future, asyncSnapshotPersistor.getRevision());
+    }
+
     public static PersistenceReference persist(IncrementalSnapshot serializeObj, SiddhiAppContext siddhiAppContext) {
         long revisionTime = System.currentTimeMillis();
         List<Future> incrementalFutures = new ArrayList<>();
+        for (AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor :
+                createIncrementalSnapshotPersistors(serializeObj, revisionTime, siddhiAppContext)) {
+            incrementalFutures.add(siddhiAppContext.getExecutorService().submit(asyncIncrementSnapshotPersistor));
+        }
+        return new PersistenceReference(incrementalFutures,
+                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
+    }
+
+    /**
+     * Persists a captured incremental snapshot, which is serialized in the background before its parts are saved.
+     *
+     * @param snapshotSupplier supplier of the serialized incremental snapshot
+     * @param siddhiAppContext Siddhi App context
+     * @return reference of the persisted revision
+     */
+    public static PersistenceReference persistIncremental(Supplier<IncrementalSnapshot> snapshotSupplier,
+                                                          SiddhiAppContext siddhiAppContext) {
+        long revisionTime = System.currentTimeMillis();
+        List<Future> incrementalFutures = new ArrayList<>();
+        incrementalFutures.add(siddhiAppContext.getExecutorService().submit(() -> {
+            for (AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor :
+                    createIncrementalSnapshotPersistors(snapshotSupplier.get(), revisionTime, siddhiAppContext)) {
+                asyncIncrementSnapshotPersistor.run();
+            }
+        }));
+        return new PersistenceReference(incrementalFutures,
+                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
+    }
+
+    private static List<AsyncIncrementalSnapshotPersistor> createIncrementalSnapshotPersistors(
+            IncrementalSnapshot serializeObj, long revisionTime, SiddhiAppContext siddhiAppContext) {
+        List<AsyncIncrementalSnapshotPersistor> incrementalPersistors = new ArrayList<>();
+        IncrementalSnapshotCompactor incrementalSnapshotCompactor =
+                siddhiAppContext.getSnapshotService().getIncrementalSnapshotCompactor();
         //Periodic state
         Map<String, Map<String, byte[]>> periodicStateBase = serializeObj.getPeriodicState();
         if (periodicStateBase != null) {
@@ -75,9 +176,7 @@ public final class PersistenceHelper {
                             siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
                             new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
                                     revisionTime, IncrementalSnapshotInfo.SnapshotType.PERIODIC, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
+                    incrementalPersistors.add(asyncIncrementSnapshotPersistor);
                 });
             });
         }
@@ -87,14 +186,15 @@ public final class PersistenceHelper {
             incrementalStateBase.forEach((partitionId, value) -> {
                 value.forEach((id, value1) -> {
                     String[] items = id.split(PersistenceConstants.REVISION_SEPARATOR);
+                    IncrementalSnapshotInfo snapshotInfo = new IncrementalSnapshotInfo(
+                            siddhiAppContext.getName(), partitionId, items[1], items[2], revisionTime,
+                            IncrementalSnapshotInfo.SnapshotType.BASE, items[0]);
                     AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor = new
                             AsyncIncrementalSnapshotPersistor(value1,
-                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
-                            new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
-                                    revisionTime, IncrementalSnapshotInfo.SnapshotType.BASE, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
+                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(), snapshotInfo,
+                            incrementalSnapshotCompactor.record(snapshotInfo, value1.length) ?
+                                    incrementalSnapshotCompactor : null);
+                    incrementalPersistors.add(asyncIncrementSnapshotPersistor);
                 });
             });
         }
@@ -105,18 +205,18 @@ public final class PersistenceHelper {
             incrementalState.forEach((partitionId, value) -> {
                 value.forEach((id, value1) -> {
                     String[] items = id.split(PersistenceConstants.REVISION_SEPARATOR);
+                    IncrementalSnapshotInfo snapshotInfo = new IncrementalSnapshotInfo(
+                            siddhiAppContext.getName(), partitionId, items[1], items[2], revisionTime,
+                            IncrementalSnapshotInfo.SnapshotType.INCREMENT, items[0]);
                     AsyncIncrementalSnapshotPersistor asyncIncrementSnapshotPersistor = new
                             AsyncIncrementalSnapshotPersistor(value1,
-                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(),
-                            new IncrementalSnapshotInfo(siddhiAppContext.getName(), partitionId, items[1], items[2],
-                                    revisionTime, IncrementalSnapshotInfo.SnapshotType.INCREMENT, items[0]));
-                    Future future = siddhiAppContext.getExecutorService().
-                            submit(asyncIncrementSnapshotPersistor);
-                    incrementalFutures.add(future);
+                            siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore(), snapshotInfo,
+                            incrementalSnapshotCompactor.record(snapshotInfo, value1.length) ?
+                                    incrementalSnapshotCompactor : null);
+                    incrementalPersistors.add(asyncIncrementSnapshotPersistor);
                 });
             });
         }
-        return new PersistenceReference(incrementalFutures,
-                revisionTime + PersistenceConstants.REVISION_SEPARATOR + siddhiAppContext.getName());
+        return incrementalPersistors;
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.persistence.util;
+
+import io.siddhi.core.exception.PersistenceStoreException;
+
+/**
+ * Formats in which the file system persistence stores write snapshots.
+ * <p>
+ * A framed snapshot starts with a header holding the magic number, format version, compression, Siddhi App name and
+ * revision. It is followed by blocks of at most {@link #BLOCK_SIZE} bytes, each holding its type, raw length, stored
+ * length, the CRC32 checksum of the stored bytes and the stored bytes, which are optionally deflated. The snapshot
+ * ends with an end block holding the number of blocks and the total raw length.
+ */
+public enum SnapshotFileFormat {
+
+    /**
+     * Serialized snapshot bytes as they are.
+     */
+    RAW,
+    /**
+     * Framed snapshot with checksummed blocks.
+     */
+    FRAMED,
+    /**
+     * Framed snapshot with checksummed and deflate compressed blocks.
+     */
+    COMPRESSED;
+
+    public static final int MAGIC = 0x53445346;
+    public static final byte FORMAT_VERSION_1 = 1;
+    public static final int BLOCK_SIZE = 64 * 1024;
+    static final byte COMPRESSION_NONE = 0;
+    static final byte COMPRESSION_DEFLATE = 1;
+    static final byte BLOCK_END = 0;
+    static final byte BLOCK_STORED = 1;
+    static final byte BLOCK_DEFLATED = 2;
+
+    /**
+     * Checks whether the given bytes start with the header of a framed snapshot.
+     *
+     * @param bytes  bytes of the snapshot
+     * @param length number of valid bytes
+     * @return true if the snapshot is framed
+     */
+    public static boolean isFramed(byte[] bytes, int length) {
+        return length >= 4 && ((bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 |
+                (bytes[3] & 0xFF)) == MAGIC;
+    }
+
+    /**
+     * Parses the format configured for a persistence store, which defaults to {@link #RAW}.
+     *
+     * @param format configured format name, can be null
+     * @return snapshot file format
+     */
+    public static SnapshotFileFormat fromConfig(Object format) {
+        if (format == null) {
+            return RAW;
+        }
+        try {
+            return SnapshotFileFormat.valueOf(String.valueOf(format).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new PersistenceStoreException("Unknown snapshot format '" + format + "', supported formats are " +
+                    "'raw', 'framed' and 'compressed'", e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.persistence.util;
+
+import io.siddhi.core.util.MappedBufferUtil;
+import org.apache.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of the revisions of a Siddhi App, stored in segment files of a directory. Each record holds the
+ * magic number, the record type, the revision name, the payload and the CRC32 checksum of the type, revision and
+ * payload. Removing a revision appends a deletion record, so that the revisions can be rebuilt by scanning the
+ * segments in order. Appends are forced to the disk before they return. The segments are read through memory mapped
+ * buffers, which are released before a segment is truncated or deleted.
+ * <p>
+ * A new segment is started once the active segment exceeds the segment size. The oldest segment is deleted once it
+ * holds no live revisions, or its live revisions are appended to the active segment once they occupy less than half
+ * of it, so that the log does not grow beyond the revisions being kept.
+ */
+public class SnapshotSegmentLog {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final String SEGMENT_FILE_SUFFIX = ".segment";
+    private static final Logger log = Logger.getLogger(SnapshotSegmentLog.class);
+    private static final int RECORD_MAGIC = 0x53445352;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_DELETE = 2;
+    // magic, type, revision length, payload length and checksum
+    private static final int RECORD_OVERHEAD = 4 + 1 + 4 + 4 + 4;
+
+    private final File directory;
+    private final long segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, RecordLocation> revisions = new HashMap<>();
+    private FileChannel activeChannel;
+    private boolean loaded;
+
+    public SnapshotSegmentLog(File directory, long segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Appends the payload of a revision, replacing the revision if it is already in the log.
+     *
+     * @param revision revision name
+     * @param payload  payload of the revision
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void put(String revision, byte[] payload) throws IOException {
+        load();
+        append(RECORD_PUT, revision, payload);
+        forceActiveChannel();
+    }
+
+    /**
+     * Reads the payload of a revision.
+     *
+     * @param revision revision name
+     * @return payload of the revision, or null if the revision is not in the log
+     * @throws IOException if the segment cannot be read
+     */
+    public synchronized byte[] get(String revision) throws IOException {
+        load();
+        RecordLocation location = revisions.get(revision);
+        if (location == null) {
+            return null;
+        }
+        ByteBuffer buffer = location.segment.map(location.payloadOffset + location.payloadLength);
+        byte[] payload = new byte[location.payloadLength];
+        buffer.position((int) location.payloadOffset);
+        buffer.get(payload);
+        return payload;
+    }
+
+    /**
+     * Removes a revision from the log.
+     *
+     * @param revision revision name
+     * @throws IOException if the deletion record cannot be written
+     */
+    public synchronized void remove(String revision) throws IOException {
+        load();
+        if (revisions.containsKey(revision)) {
+            append(RECORD_DELETE, revision, null);
+            forceActiveChannel();
+            reclaimSegments();
+        }
+    }
+
+    /**
+     * @return names of the revisions in the log
+     * @throws IOException if the segments cannot be read
+     */
+    public synchronized List<String> getRevisions() throws IOException {
+        load();
+        return new ArrayList<>(revisions.keySet());
+    }
+
+    /**
+     * Deletes all the segments of the log.
+     *
+     * @throws IOException if a segment cannot be deleted
+     */
+    public synchronized void clear() throws IOException {
+        load();
+        closeActiveChannel();
+        for (Segment segment : segments) {
+            segment.unmap();
+            Files.deleteIfExists(segment.file.toPath());
+        }
+        segments.clear();
+        revisions.clear();
+    }
+
+    private void load() throws IOException {
+        if (loaded) {
+            return;
+        }
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files);
+            for (int i = 0; i < files.length; i++) {
+                Segment segment = new Segment(files[i], Long.parseLong(files[i].getName().substring(0,
+                        files[i].getName().length() - SEGMENT_FILE_SUFFIX.length())));
+                segment.size = files[i].length();
+                segments.add(segment);
+                long validSize = scan(segment);
+                if (validSize < segment.size) {
+                    log.warn("Ignoring " + (segment.size - validSize) + " bytes of incomplete or corrupted " +
+                            "records at the end of snapshot segment '" + files[i].getAbsolutePath() + "'.");
+                    if (i == files.length - 1) {
+                        // drop the partially written tail, so that new records are appended after valid ones
+                        segment.unmap();
+                        try (FileChannel channel = FileChannel.open(files[i].toPath(), StandardOpenOption.WRITE)) {
+                            channel.truncate(validSize);
+                        }
+                    }
+                    segment.size = validSize;
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    private long scan(Segment segment) throws IOException {
+        ByteBuffer buffer = segment.map(segment.size);
+        CRC32 checksum = new CRC32();
+        int position = 0;
+        while (segment.size - position >= RECORD_OVERHEAD) {
+            buffer.position(position);
+            if (buffer.getInt() != RECORD_MAGIC) {
+                break;
+            }
+            byte type = buffer.get();
+            int revisionLength = buffer.getInt();
+            if (revisionLength < 0 || revisionLength > segment.size - position - RECORD_OVERHEAD) {
+                break;
+            }
+            byte[] revisionBytes = new byte[revisionLength];
+            buffer.get(revisionBytes);
+            int payloadLength = buffer.getInt();
+            long recordLength = (long) RECORD_OVERHEAD + revisionLength + payloadLength;
+            if (payloadLength < 0 || recordLength > segment.size - position) {
+                break;
+            }
+            int payloadOffset = buffer.position();
+            checksum.reset();
+            checksum.update(type);
+            checksum.update(revisionBytes);
+            ByteBuffer payload = buffer.duplicate();
+            payload.limit(payloadOffset + payloadLength);
+            checksum.update(payload);
+            buffer.position(payloadOffset + payloadLength);
+            if (buffer.getInt() != (int) checksum.getValue() || (type != RECORD_PUT && type != RECORD_DELETE)) {
+                break;
+            }
+            index(type, new String(revisionBytes, StandardCharsets.UTF_8), segment, payloadOffset, payloadLength,
+                    (int) recordLength);
+            position += recordLength;
+        }
+        return position;
+    }
+
+    private void append(byte type, String revision, byte[] payload) throws IOException {
+        int length = payload != null ? payload.length : 0;
+        byte[] revisionBytes = revision.getBytes(StandardCharsets.UTF_8);
+        int recordLength = RECORD_OVERHEAD + revisionBytes.length + length;
+        Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || (segment.size > 0 && segment.size + recordLength > segmentSize)) {
+            closeActiveChannel();
+            long sequence = segment == null ? 1 : segment.sequence + 1;
+            segment = new Segment(new File(directory, String.format("%020d", sequence) + SEGMENT_FILE_SUFFIX),
+                    sequence);
+            segments.add(segment);
+        }
+        if (activeChannel == null) {
+            directory.mkdirs();
+            activeChannel = FileChannel.open(segment.file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            activeChannel.position(segment.size);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(type);
+        checksum.update(revisionBytes);
+        ByteBuffer record = ByteBuffer.allocate(recordLength);
+        record.putInt(RECORD_MAGIC);
+        record.put(type);
+        record.putInt(revisionBytes.length);
+        record.put(revisionBytes);
+        record.putInt(length);
+        if (payload != null) {
+            checksum.update(payload);
+            record.put(payload);
+        }
+        record.putInt((int) checksum.getValue());
+        record.flip();
+        while (record.hasRemaining()) {
+            activeChannel.write(record);
+        }
+        long payloadOffset = segment.size + recordLength - 4 - length;
+        segment.size += recordLength;
+        index(type, revision, segment, payloadOffset, length, recordLength);
+    }
+
+    private void index(byte type, String revision, Segment segment, long payloadOffset, int payloadLength,
+                       int recordLength) {
+        RecordLocation previous;
+        if (type == RECORD_PUT) {
+            previous = revisions.put(revision, new RecordLocation(segment, payloadOffset, payloadLength,
+                    recordLength));
+            segment.liveSize += recordLength;
+        } else {
+            previous = revisions.remove(revision);
+        }
+        if (previous != null) {
+            previous.segment.liveSize -= previous.recordLength;
+        }
+    }
+
+    private void reclaimSegments() throws IOException {
+        // only the oldest segment is deleted, as its deletion records cannot hide revisions of older segments
+        while (segments.size() > 1) {
+            Segment segment = segments.get(0);
+            if (segment.liveSize > 0 && segment.liveSize * 2 >= segment.size) {
+                return;
+            }
+            if (segment.liveSize > 0) {
+                ByteBuffer buffer = segment.map(segment.size);
+                List<String> liveRevisions = new ArrayList<>();
+                for (Map.Entry<String, RecordLocation> entry : revisions.entrySet()) {
+                    if (entry.getValue().segment == segment) {
+                        liveRevisions.add(entry.getKey());
+                    }
+                }
+                for (String revision : liveRevisions) {
+                    RecordLocation location = revisions.get(revision);
+                    byte[] payload = new byte[location.payloadLength];
+                    buffer.position((int) location.payloadOffset);
+                    buffer.get(payload);
+                    append(RECORD_PUT, revision, payload);
+                }
+                // the copied revisions must be durable before their only other copy is deleted
+                forceActiveChannel();
+            }
+            segments.remove(0);
+            segment.unmap();
+            Files.deleteIfExists(segment.file.toPath());
+            if (log.isDebugEnabled()) {
+                log.debug("Deleted snapshot segment '" + segment.file.getAbsolutePath() + "'.");
+            }
+        }
+    }
+
+    private void forceActiveChannel() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.force(false);
+        }
+    }
+
+    private void closeActiveChannel() throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+            activeChannel = null;
+        }
+    }
+
+    /**
+     * Segment file of the log.
+     */
+    private static class Segment {
+        private final File file;
+        private final long sequence;
+        private long size;
+        private long liveSize;
+        private MappedByteBuffer buffer;
+
+        private Segment(File file, long sequence) {
+            this.file = file;
+            this.sequence = sequence;
+        }
+
+        /**
+         * Maps the segment, remapping it when the current mapping does not cover the requested size.
+         */
+        private ByteBuffer map(long requiredSize) throws IOException {
+            if (buffer == null || buffer.capacity() < requiredSize) {
+                unmap();
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+            }
+            return buffer.duplicate();
+        }
+
+        /**
+         * Releases the mapping of the segment, as the log only uses the duplicates of the buffer while it is locked.
+         */
+        private void unmap() {
+            MappedBufferUtil.release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Location of the payload of a revision.
+     */
+    private static class RecordLocation {
+        private final Segment segment;
+        private final long payloadOffset;
+        private final int payloadLength;
+        private final int recordLength;
+
+        private RecordLocation(Segment segment, long payloadOffset, int payloadLength, int recordLength) {
+            this.segment = segment;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+            this.recordLength = recordLength;
+        }
+    }
+}
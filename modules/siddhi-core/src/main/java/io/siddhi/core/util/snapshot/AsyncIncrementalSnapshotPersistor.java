@@ -31,9 +31,24 @@ public class AsyncIncrementalSnapshotPersistor implements Runnable {
     private byte[] snapshots;
     private IncrementalPersistenceStore incrementalPersistenceStore;
     private IncrementalSnapshotInfo snapshotInfo;
+    private IncrementalSnapshotCompactor incrementalSnapshotCompactor;
 
     public AsyncIncrementalSnapshotPersistor(byte[] snapshots, IncrementalPersistenceStore incrementalPersistenceStore,
                                              IncrementalSnapshotInfo snapshotInfo) {
+        this(snapshots, incrementalPersistenceStore, snapshotInfo, null);
+    }
+
+    /**
+     * Creates a persistor which compacts the increments of the element once the snapshot is persisted.
+     *
+     * @param snapshots                    serialized snapshot
+     * @param incrementalPersistenceStore  persistence store
+     * @param snapshotInfo                 info of the snapshot
+     * @param incrementalSnapshotCompactor compactor of the increments, or null if no compaction is needed
+     */
+    public AsyncIncrementalSnapshotPersistor(byte[] snapshots, IncrementalPersistenceStore incrementalPersistenceStore,
+                                             IncrementalSnapshotInfo snapshotInfo,
+                                             IncrementalSnapshotCompactor incrementalSnapshotCompactor) {
         if (incrementalPersistenceStore == null) {
             throw new NoPersistenceStoreException("No incremental persistence store assigned for siddhi app '" +
                     snapshotInfo.getSiddhiAppId() + "'");
@@ -41,6 +56,7 @@ public class AsyncIncrementalSnapshotPersistor implements Runnable {
         this.snapshots = snapshots;
         this.incrementalPersistenceStore = incrementalPersistenceStore;
         this.snapshotInfo = snapshotInfo;
+        this.incrementalSnapshotCompactor = incrementalSnapshotCompactor;
     }
 
     public String getRevision() {
@@ -57,6 +73,13 @@ public class AsyncIncrementalSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
+            if (incrementalSnapshotCompactor != null) {
+                try {
+                    incrementalSnapshotCompactor.compact(snapshotInfo);
+                } catch (RuntimeException e) {
+                    log.error("Cannot compact the incremental snapshots of '" + snapshotInfo.getId() + "'.", e);
+                }
+            }
         } else {
             throw new NoPersistenceStoreException("No persistence store assigned for siddhi app " +
                     snapshotInfo.getSiddhiAppId());
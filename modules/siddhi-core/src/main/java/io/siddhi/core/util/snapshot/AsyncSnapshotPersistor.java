@@ -19,16 +19,25 @@
 package io.siddhi.core.util.snapshot;
 
 import io.siddhi.core.exception.NoPersistenceStoreException;
+import io.siddhi.core.exception.PersistenceStoreException;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.PreparedSnapshot;
+import io.siddhi.core.util.persistence.SnapshotWriter;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.util.function.Supplier;
+
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
-    private byte[] snapshots;
+    private Supplier<byte[]> snapshots;
+    private SnapshotWriter snapshotWriter;
+    private PreparedSnapshot preparedSnapshot;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
@@ -36,6 +45,20 @@ public class AsyncSnapshotPersistor implements Runnable {
 
     public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore,
                                   String siddhiAppName, long time) {
+        this(() -> snapshots, persistenceStore, siddhiAppName, time);
+    }
+
+    /**
+     * Creates a persistor that obtains the snapshot when it runs, so that the serialization of captured snapshots
+     * happens in the background.
+     *
+     * @param snapshots        supplier of the serialized snapshot
+     * @param persistenceStore persistence store the snapshot is saved to
+     * @param siddhiAppName    name of the Siddhi App
+     * @param time             revision time of the snapshot
+     */
+    public AsyncSnapshotPersistor(Supplier<byte[]> snapshots, PersistenceStore persistenceStore,
+                                  String siddhiAppName, long time) {
         if (persistenceStore == null) {
             throw new NoPersistenceStoreException("No persistence store assigned for siddhi app '" +
                     siddhiAppName + "'");
@@ -47,6 +70,36 @@ public class AsyncSnapshotPersistor implements Runnable {
         this.revision = time + PersistenceConstants.REVISION_SEPARATOR + siddhiAppName;
     }
 
+    /**
+     * Creates a persistor that streams the snapshot to a {@link StreamingPersistenceStore} when it runs, such that the
+     * snapshot is never materialized as a byte array.
+     *
+     * @param snapshotWriter   writer of the serialized snapshot
+     * @param persistenceStore streaming persistence store the snapshot is saved to
+     * @param siddhiAppName    name of the Siddhi App
+     * @param time             revision time of the snapshot
+     */
+    public AsyncSnapshotPersistor(SnapshotWriter snapshotWriter, StreamingPersistenceStore persistenceStore,
+                                  String siddhiAppName, long time) {
+        this((Supplier<byte[]>) null, persistenceStore, siddhiAppName, time);
+        this.snapshotWriter = snapshotWriter;
+    }
+
+    /**
+     * Creates a persistor that commits a snapshot which was already written to the store, such that only making the
+     * revision visible happens in the background.
+     *
+     * @param preparedSnapshot snapshot written to the store
+     * @param persistenceStore streaming persistence store the snapshot is written to
+     * @param siddhiAppName    name of the Siddhi App
+     * @param time             revision time of the snapshot
+     */
+    public AsyncSnapshotPersistor(PreparedSnapshot preparedSnapshot, StreamingPersistenceStore persistenceStore,
+                                  String siddhiAppName, long time) {
+        this((Supplier<byte[]>) null, persistenceStore, siddhiAppName, time);
+        this.preparedSnapshot = preparedSnapshot;
+    }
+
     public String getRevision() {
         return revision;
     }
@@ -57,7 +110,23 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            if (preparedSnapshot != null) {
+                try {
+                    preparedSnapshot.commit();
+                } catch (IOException e) {
+                    throw new PersistenceStoreException("Cannot save the revision " + revision +
+                            " of SiddhiApp: " + siddhiAppName + ", " + e.getMessage(), e);
+                }
+            } else if (snapshotWriter != null) {
+                try {
+                    ((StreamingPersistenceStore) persistenceStore).save(siddhiAppName, revision, snapshotWriter);
+                } catch (IOException e) {
+                    throw new PersistenceStoreException("Cannot save the revision " + revision +
+                            " of SiddhiApp: " + siddhiAppName + ", " + e.getMessage(), e);
+                }
+            } else {
+                persistenceStore.save(siddhiAppName, revision, snapshots.get());
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
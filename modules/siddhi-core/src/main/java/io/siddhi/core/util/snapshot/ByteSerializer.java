@@ -20,19 +20,27 @@ package io.siddhi.core.util.snapshot;
 
 import io.siddhi.core.config.SiddhiAppContext;
 import io.siddhi.core.util.ExceptionUtil;
+import io.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.StateSerializer;
 import org.apache.log4j.Logger;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
- * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa
+ * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa, using the
+ * {@link StateSerializer} of the Siddhi Manager. Snapshots written with Java serialization are always restored using
+ * {@link JavaStateSerializer}.
  */
 public class ByteSerializer {
     private static final Logger log = Logger.getLogger(ByteSerializer.class);
+    private static final StateSerializer DEFAULT_STATE_SERIALIZER = new BinaryStateSerializer();
+    private static final StateSerializer JAVA_STATE_SERIALIZER = new JavaStateSerializer();
 
     private ByteSerializer() {
     }
@@ -43,8 +51,7 @@ public class ByteSerializer {
         if (obj != null) {
             try {
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos);
-                oos.writeObject(obj);
+                getStateSerializer(siddhiAppContext).serialize(obj, baos);
                 out = baos.toByteArray();
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
@@ -65,8 +72,11 @@ public class ByteSerializer {
         if (bytes != null) {
             try {
                 ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bios);
-                out = ois.readObject();
+                if (JavaStateSerializer.isJavaSerialized(bytes)) {
+                    out = JAVA_STATE_SERIALIZER.deserialize(bios);
+                } else {
+                    out = getStateSerializer(siddhiAppContext).deserialize(bios);
+                }
             } catch (IOException e) {
                 log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
                         " Error when writing to object.", e);
@@ -83,4 +93,72 @@ public class ByteSerializer {
         }
         return out;
     }
+
+    /**
+     * Serialize the object directly to the given stream, without materializing it as a byte array.
+     *
+     * @param obj              object to serialize
+     * @param outputStream     stream to write to, which is not closed
+     * @param siddhiAppContext Siddhi App context
+     * @throws IOException when the stream cannot be written
+     */
+    public static void objectToStream(Object obj, OutputStream outputStream, SiddhiAppContext siddhiAppContext)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        getStateSerializer(siddhiAppContext).serialize(obj, outputStream);
+        outputStream.flush();
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("For SiddhiApp '" + siddhiAppContext.getName() + "'. Encoded to stream in :" +
+                    (end - start) + " msec");
+        }
+    }
+
+    /**
+     * Deserialize an object from the given stream, without reading the stream fully to a byte array.
+     *
+     * @param inputStream      stream to read from, which is not closed
+     * @param siddhiAppContext Siddhi App context
+     * @return the deserialized object, or null if it cannot be deserialized
+     */
+    public static Object streamToObject(InputStream inputStream, SiddhiAppContext siddhiAppContext) {
+        long start = System.currentTimeMillis();
+        Object out;
+        try {
+            if (!inputStream.markSupported()) {
+                inputStream = new BufferedInputStream(inputStream);
+            }
+            byte[] header = new byte[2];
+            inputStream.mark(header.length);
+            int headerLength = inputStream.read(header);
+            inputStream.reset();
+            if (headerLength == header.length && JavaStateSerializer.isJavaSerialized(header)) {
+                out = JAVA_STATE_SERIALIZER.deserialize(inputStream);
+            } else {
+                out = getStateSerializer(siddhiAppContext).deserialize(inputStream);
+            }
+        } catch (IOException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when reading from stream.", e);
+            return null;
+        } catch (ClassNotFoundException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when reading from stream.", e);
+            return null;
+        }
+        long end = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("SiddhiApp '" + siddhiAppContext.getName() + "' decoded from stream in: " + (end - start) +
+                    " milliseconds");
+        }
+        return out;
+    }
+
+    private static StateSerializer getStateSerializer(SiddhiAppContext siddhiAppContext) {
+        if (siddhiAppContext.getSiddhiContext() != null
+                && siddhiAppContext.getSiddhiContext().getStateSerializer() != null) {
+            return siddhiAppContext.getSiddhiContext().getStateSerializer();
+        }
+        return DEFAULT_STATE_SERIALIZER;
+    }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
+import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import org.apache.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compacts the incremental snapshots of the elements of a Siddhi App. Once the increments persisted after the last
+ * base of an element exceed the configured count or size, the base and the increments are merged to a new base, in
+ * which the operation change logs of each state are merged to a single change log. Restoring the element then loads
+ * and deserializes a single revision instead of replaying every increment. As the merged change log is still replayed
+ * on restore, the compaction is skipped when it grows beyond {@link #MAX_COMPACTED_OPERATIONS}, and a full snapshot
+ * of the element is requested for its next persist instead.
+ */
+public class IncrementalSnapshotCompactor {
+
+    private static final Logger log = Logger.getLogger(IncrementalSnapshotCompactor.class);
+    static final int MAX_COMPACTED_OPERATIONS = 10000;
+    private final SiddhiAppContext siddhiAppContext;
+    private final Map<String, long[]> incrementsSinceBase = new ConcurrentHashMap<>();
+    private final Set<String> fullSnapshotRequests = ConcurrentHashMap.newKeySet();
+
+    public IncrementalSnapshotCompactor(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    /**
+     * Records a persisted revision of an element.
+     *
+     * @param snapshotInfo info of the revision
+     * @param size         size of the serialized revision in bytes
+     * @return true if the increments of the element are to be compacted after the revision is persisted
+     */
+    public boolean record(IncrementalSnapshotInfo snapshotInfo, long size) {
+        if (siddhiAppContext.getSnapshotCompactionIncrements() <= 0) {
+            return false;
+        }
+        switch (snapshotInfo.getType()) {
+            case BASE:
+                incrementsSinceBase.remove(snapshotInfo.getId());
+                return false;
+            case INCREMENT:
+                long[] increments = incrementsSinceBase.computeIfAbsent(snapshotInfo.getId(), k -> new long[2]);
+                synchronized (increments) {
+                    increments[0]++;
+                    increments[1] += size;
+                    return increments[0] >= siddhiAppContext.getSnapshotCompactionIncrements() ||
+                            increments[1] >= siddhiAppContext.getSnapshotCompactionSize();
+                }
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Checks whether a full snapshot is requested for the element, and clears the request.
+     *
+     * @param id id of the element, see {@link IncrementalSnapshotInfo#getId()}
+     * @return true if the next snapshot of the element should be a full snapshot
+     */
+    public boolean takeFullSnapshotRequest(String id) {
+        return fullSnapshotRequests.remove(id);
+    }
+
+    public boolean hasFullSnapshotRequests() {
+        return !fullSnapshotRequests.isEmpty();
+    }
+
+    /**
+     * Merges the last base of the element and the increments persisted after it, up to the given increment, and
+     * persists them as a new base. The compaction is skipped if the element has been persisted again meanwhile, or
+     * when any of its revisions cannot be loaded. When the merged change log of a state exceeds
+     * {@link #MAX_COMPACTED_OPERATIONS}, the compaction is skipped and a full snapshot of the element is requested.
+     *
+     * @param snapshotInfo info of the last persisted increment of the element
+     */
+    public void compact(IncrementalSnapshotInfo snapshotInfo) {
+        IncrementalPersistenceStore incrementalPersistenceStore =
+                siddhiAppContext.getSiddhiContext().getIncrementalPersistenceStore();
+        List<IncrementalSnapshotInfo> revisions = incrementalPersistenceStore.getListOfRevisionsToLoad(
+                Long.MAX_VALUE, snapshotInfo.getSiddhiAppId());
+        if (revisions == null) {
+            return;
+        }
+        List<IncrementalSnapshotInfo> elementRevisions = new ArrayList<>();
+        for (IncrementalSnapshotInfo revision : revisions) {
+            if (revision.getId().equals(snapshotInfo.getId()) &&
+                    revision.getType() != IncrementalSnapshotInfo.SnapshotType.PERIODIC) {
+                if (revision.getTime() > snapshotInfo.getTime()) {
+                    return;
+                }
+                elementRevisions.add(revision);
+            }
+        }
+        elementRevisions.sort(Comparator.comparingLong(IncrementalSnapshotInfo::getTime)
+                .thenComparing(IncrementalSnapshotInfo::getType));
+        int baseIndex = -1;
+        for (int i = 0; i < elementRevisions.size(); i++) {
+            if (elementRevisions.get(i).getType() == IncrementalSnapshotInfo.SnapshotType.BASE) {
+                baseIndex = i;
+            }
+        }
+        if (baseIndex < 0 || baseIndex == elementRevisions.size() - 1) {
+            return;
+        }
+        Map<String, Object> compactedSnapshot = new HashMap<>();
+        for (IncrementalSnapshotInfo revision : elementRevisions.subList(baseIndex, elementRevisions.size())) {
+            byte[] serializedSnapshot = incrementalPersistenceStore.load(revision);
+            Map<String, Object> itemSnapshots = serializedSnapshot == null ? null :
+                    (Map<String, Object>) ByteSerializer.byteToObject(serializedSnapshot, siddhiAppContext);
+            if (itemSnapshots == null) {
+                log.warn("Skipping the compaction of the incremental snapshots of '" + snapshotInfo.getId() +
+                        "' as revision '" + revision.getRevision() + "' cannot be loaded.");
+                return;
+            }
+            for (Map.Entry<String, Object> itemSnapshot : itemSnapshots.entrySet()) {
+                Object value = itemSnapshot.getValue();
+                boolean merged = true;
+                if (value instanceof Snapshot) {
+                    merged = merge(compactedSnapshot, itemSnapshot.getKey(), revision.getTime(), (Snapshot) value);
+                } else if (value instanceof SnapshotStateList) {
+                    for (Map.Entry<Long, Snapshot> snapshot :
+                            ((SnapshotStateList) value).getSnapshotStates().entrySet()) {
+                        merged &= merge(compactedSnapshot, itemSnapshot.getKey(), snapshot.getKey(),
+                                snapshot.getValue());
+                    }
+                } else {
+                    compactedSnapshot.put(itemSnapshot.getKey(), value);
+                }
+                if (!merged) {
+                    // replaying the merged log would cost more than restoring a full snapshot of the element
+                    fullSnapshotRequests.add(snapshotInfo.getId());
+                    if (log.isDebugEnabled()) {
+                        log.debug("Requested a full snapshot of '" + snapshotInfo.getId() + "' as its change " +
+                                "log exceeds " + MAX_COMPACTED_OPERATIONS + " operations.");
+                    }
+                    return;
+                }
+            }
+        }
+        // the compacted base succeeds the merged increment, so that persisting it removes all merged revisions
+        IncrementalSnapshotInfo compactedSnapshotInfo = new IncrementalSnapshotInfo(snapshotInfo.getSiddhiAppId(),
+                snapshotInfo.getPartitionId(), snapshotInfo.getQueryName(), snapshotInfo.getElementId(),
+                snapshotInfo.getTime() + 1, IncrementalSnapshotInfo.SnapshotType.BASE,
+                snapshotInfo.getPartitionGroupByKey());
+        incrementalPersistenceStore.save(compactedSnapshotInfo,
+                ByteSerializer.objectToByte(compactedSnapshot, siddhiAppContext));
+        incrementsSinceBase.remove(snapshotInfo.getId());
+        if (log.isDebugEnabled()) {
+            log.debug("Compacted " + (elementRevisions.size() - baseIndex) + " incremental snapshots of '" +
+                    snapshotInfo.getId() + "' to revision '" + compactedSnapshotInfo.getRevision() + "'.");
+        }
+    }
+
+    /**
+     * Merges the snapshot of a state to the compacted snapshot.
+     *
+     * @return false if the merged change log of the state exceeds {@link #MAX_COMPACTED_OPERATIONS}
+     */
+    private boolean merge(Map<String, Object> compactedSnapshot, String key, long time, Snapshot snapshot) {
+        Object value = compactedSnapshot.get(key);
+        SnapshotStateList snapshotStateList;
+        if (value instanceof SnapshotStateList) {
+            snapshotStateList = (SnapshotStateList) value;
+        } else {
+            snapshotStateList = new SnapshotStateList();
+            compactedSnapshot.put(key, snapshotStateList);
+        }
+        if (!snapshot.isIncrementalSnapshot()) {
+            snapshotStateList.getSnapshotStates().clear();
+            snapshotStateList.putSnapshotState(time, snapshot);
+            return true;
+        }
+        Map.Entry<Long, Snapshot> lastSnapshot = snapshotStateList.getSnapshotStates().lastEntry();
+        if (lastSnapshot != null && lastSnapshot.getValue().isIncrementalSnapshot()) {
+            // operations of consecutive increments are applied in order, hence they can be replayed as one log
+            List<Operation> lastOperations = (List<Operation>) lastSnapshot.getValue().getState();
+            List<Operation> nextOperations = (List<Operation>) snapshot.getState();
+            if (lastOperations.size() + nextOperations.size() > MAX_COMPACTED_OPERATIONS) {
+                return false;
+            }
+            ArrayList<Operation> operations = new ArrayList<>(lastOperations.size() + nextOperations.size());
+            operations.addAll(lastOperations);
+            operations.addAll(nextOperations);
+            snapshotStateList.getSnapshotStates().remove(lastSnapshot.getKey());
+            snapshotStateList.putSnapshotState(time, new Snapshot(operations, true));
+        } else {
+            snapshotStateList.putSnapshotState(time, snapshot);
+        }
+        return true;
+    }
+}
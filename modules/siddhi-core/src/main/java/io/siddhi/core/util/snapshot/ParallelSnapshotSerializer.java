@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.util.snapshot;
+
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.ExceptionUtil;
+import org.apache.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Serializes and deserializes the states of the elements of a snapshot in parallel, using the executor service of the
+ * Siddhi App. The states of different queries are independent, hence they are serialized in separate chunks, which
+ * are written to the snapshot as they complete, and merged by the calling thread on restore.
+ */
+public class ParallelSnapshotSerializer {
+
+    private static final Logger log = Logger.getLogger(ParallelSnapshotSerializer.class);
+    private static final int CHUNKED_SNAPSHOT_MAGIC = 0x5344434B;
+    private static final int END_OF_CHUNKS = -1;
+    private static final int CHUNKS_PER_WORKER = 4;
+    private final SiddhiAppContext siddhiAppContext;
+
+    public ParallelSnapshotSerializer(SiddhiAppContext siddhiAppContext) {
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    /**
+     * Serializes the full snapshot to a byte array, see {@link #serialize(Map, OutputStream)}.
+     *
+     * @param fullSnapshot full snapshot by partition id, partition and group by key, query and element id
+     * @return the serialized full snapshot, or null if it cannot be serialized
+     */
+    public byte[] serialize(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try {
+            serialize(fullSnapshot, outputStream);
+        } catch (IOException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when writing byte array.", e);
+            return null;
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Serializes the full snapshot to the given stream. When parallel snapshots are enabled, the states of each query
+     * are put in one of a few chunks per worker, such that events shared between the elements of a query are written
+     * once. The chunks are serialized in parallel, where the calling thread is one of the workers, and each chunk is
+     * written to the stream with its length as soon as it completes. Otherwise the full snapshot is serialized as it
+     * is.
+     *
+     * @param fullSnapshot full snapshot by partition id, partition and group by key, query and element id
+     * @param outputStream stream to write to, which is not closed
+     * @throws IOException when the stream cannot be written
+     */
+    public void serialize(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+                          OutputStream outputStream) throws IOException {
+        int workers = siddhiAppContext.getSnapshotWorkers();
+        if (workers <= 1) {
+            ByteSerializer.objectToStream(fullSnapshot, outputStream, siddhiAppContext);
+            return;
+        }
+        Map<String, List<Object[]>> queryStates = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionIdSnapshot :
+                fullSnapshot.entrySet()) {
+            for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> partitionGroupByKeySnapshot :
+                    partitionIdSnapshot.getValue().entrySet()) {
+                for (Map.Entry<String, Map<String, Map<String, Object>>> querySnapshot :
+                        partitionGroupByKeySnapshot.getValue().entrySet()) {
+                    queryStates.computeIfAbsent(partitionIdSnapshot.getKey() + "--" + querySnapshot.getKey(),
+                            k -> new ArrayList<>()).add(new Object[]{partitionIdSnapshot.getKey(),
+                            partitionGroupByKeySnapshot.getKey(), querySnapshot.getKey(),
+                            querySnapshot.getValue()});
+                }
+            }
+        }
+        List<List<Object[]>> queries = new ArrayList<>(queryStates.values());
+        int chunkCount = Math.min(queries.size(), workers * CHUNKS_PER_WORKER);
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+        dataOutputStream.writeInt(CHUNKED_SNAPSHOT_MAGIC);
+        BlockingQueue<Object> completedChunks = new ArrayBlockingQueue<>(Math.max(chunkCount, 1));
+        AtomicInteger nextChunk = new AtomicInteger();
+        Function<Integer, Object> chunkSerializer = chunk -> {
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> chunkSnapshot = new HashMap<>();
+            for (int i = chunk; i < queries.size(); i += chunkCount) {
+                for (Object[] queryState : queries.get(i)) {
+                    chunkSnapshot.computeIfAbsent((String) queryState[0], k -> new HashMap<>())
+                            .computeIfAbsent((String) queryState[1], k -> new HashMap<>())
+                            .put((String) queryState[2], (Map<String, Map<String, Object>>) queryState[3]);
+                }
+            }
+            try {
+                ByteArrayOutputStream chunkOutputStream = new ByteArrayOutputStream();
+                ByteSerializer.objectToStream(chunkSnapshot, chunkOutputStream, siddhiAppContext);
+                return chunkOutputStream.toByteArray();
+            } catch (Throwable t) {
+                return t;
+            }
+        };
+        Runnable worker = () -> {
+            for (int chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement()) {
+                Object serializedChunk = chunkSerializer.apply(chunk);
+                completedChunks.add(serializedChunk);
+                if (serializedChunk instanceof Throwable) {
+                    return;
+                }
+            }
+        };
+        // the calling thread is one of the workers, it serializes the next chunk when no chunk is ready to write
+        for (int i = Math.min(workers, chunkCount); i > 1; i--) {
+            siddhiAppContext.getExecutorService().submit(worker);
+        }
+        try {
+            for (int i = 0; i < chunkCount; i++) {
+                Object completedChunk = completedChunks.poll();
+                if (completedChunk == null) {
+                    int chunk = nextChunk.getAndIncrement();
+                    completedChunk = chunk < chunkCount ? chunkSerializer.apply(chunk) : completedChunks.take();
+                }
+                if (completedChunk instanceof Throwable) {
+                    Throwable t = (Throwable) completedChunk;
+                    throw new SiddhiAppRuntimeException("Parallel snapshot of Siddhi app '" +
+                            siddhiAppContext.getName() + "' failed, " + t.getMessage(), t);
+                }
+                byte[] chunkBytes = (byte[]) completedChunk;
+                dataOutputStream.writeInt(chunkBytes.length);
+                dataOutputStream.write(chunkBytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SiddhiAppRuntimeException("Parallel snapshot of Siddhi app '" +
+                    siddhiAppContext.getName() + "' interrupted", e);
+        } finally {
+            // stop the workers from serializing the remaining chunks when the snapshot cannot be written
+            nextChunk.set(chunkCount);
+        }
+        dataOutputStream.writeInt(END_OF_CHUNKS);
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Deserializes the full snapshot from a byte array, see {@link #deserialize(InputStream)}.
+     *
+     * @param snapshot serialized full snapshot
+     * @return full snapshot by partition id, partition and group by key, query and element id, or null if it cannot
+     * be deserialized
+     */
+    public Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> deserialize(byte[] snapshot) {
+        return deserialize(new ByteArrayInputStream(snapshot));
+    }
+
+    /**
+     * Deserializes the full snapshot from the given stream. The chunks of a snapshot taken with parallel snapshots
+     * enabled are deserialized as they are read, in parallel when parallel snapshots are enabled, and merged to a
+     * single full snapshot.
+     *
+     * @param inputStream stream of the serialized full snapshot, which is not closed
+     * @return full snapshot by partition id, partition and group by key, query and element id, or null if it cannot
+     * be deserialized
+     */
+    public Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> deserialize(
+            InputStream inputStream) {
+        int workers = siddhiAppContext.getSnapshotWorkers();
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
+        Deque<Future<Object>> pendingChunks = new ArrayDeque<>();
+        try {
+            if (!inputStream.markSupported()) {
+                inputStream = new BufferedInputStream(inputStream);
+            }
+            DataInputStream dataInputStream = new DataInputStream(inputStream);
+            inputStream.mark(Integer.BYTES);
+            if (dataInputStream.readInt() != CHUNKED_SNAPSHOT_MAGIC) {
+                inputStream.reset();
+                return deserializeChunks(ByteSerializer.streamToObject(inputStream, siddhiAppContext));
+            }
+            // each chunk is deserialized as soon as it is read, while at most one chunk per worker is pending
+            for (int length = dataInputStream.readInt(); length != END_OF_CHUNKS; length = dataInputStream.readInt()) {
+                byte[] chunk = new byte[length];
+                dataInputStream.readFully(chunk);
+                if (workers <= 1) {
+                    if (!mergeChunk(fullSnapshot, ByteSerializer.byteToObject(chunk, siddhiAppContext))) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (pendingChunks.size() >= workers && !mergeChunk(fullSnapshot, pendingChunks.poll().get())) {
+                    return null;
+                }
+                pendingChunks.add(siddhiAppContext.getExecutorService().submit(
+                        () -> ByteSerializer.byteToObject(chunk, siddhiAppContext)));
+            }
+            while (!pendingChunks.isEmpty()) {
+                if (!mergeChunk(fullSnapshot, pendingChunks.poll().get())) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            log.error(ExceptionUtil.getMessageWithContext(e, siddhiAppContext) +
+                    " Error when reading snapshot chunks.", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SiddhiAppRuntimeException("Parallel restore of Siddhi app '" +
+                    siddhiAppContext.getName() + "' interrupted", e);
+        } catch (ExecutionException e) {
+            throw new SiddhiAppRuntimeException("Parallel restore of Siddhi app '" +
+                    siddhiAppContext.getName() + "' failed, " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            for (Future<Object> pendingChunk : pendingChunks) {
+                pendingChunk.cancel(false);
+            }
+        }
+        return fullSnapshot;
+    }
+
+    /**
+     * Returns the full snapshot from the deserialized snapshot, where snapshots taken before the chunks were written
+     * one by one hold the list of serialized chunks.
+     */
+    private Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> deserializeChunks(
+            Object snapshot) {
+        if (!(snapshot instanceof List)) {
+            return (Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>) snapshot;
+        }
+        List<Object> chunkSnapshots = map((List<byte[]>) snapshot,
+                chunk -> ByteSerializer.byteToObject(chunk, siddhiAppContext));
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
+        for (Object chunkSnapshot : chunkSnapshots) {
+            if (!mergeChunk(fullSnapshot, chunkSnapshot)) {
+                return null;
+            }
+        }
+        return fullSnapshot;
+    }
+
+    /**
+     * Merges the deserialized snapshot of a chunk to the full snapshot.
+     *
+     * @return false if the chunk could not be deserialized
+     */
+    private boolean mergeChunk(Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot,
+                               Object chunkSnapshot) {
+        if (chunkSnapshot == null) {
+            return false;
+        }
+        for (Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> partitionIdSnapshot :
+                ((Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>) chunkSnapshot)
+                        .entrySet()) {
+            Map<String, Map<String, Map<String, Map<String, Object>>>> mergedPartitionIdSnapshot =
+                    fullSnapshot.computeIfAbsent(partitionIdSnapshot.getKey(), k -> new HashMap<>());
+            for (Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> partitionGroupByKeySnapshot :
+                    partitionIdSnapshot.getValue().entrySet()) {
+                Map<String, Map<String, Map<String, Object>>> mergedPartitionGroupByKeySnapshot =
+                        mergedPartitionIdSnapshot.computeIfAbsent(partitionGroupByKeySnapshot.getKey(),
+                                k -> new HashMap<>());
+                for (Map.Entry<String, Map<String, Map<String, Object>>> querySnapshot :
+                        partitionGroupByKeySnapshot.getValue().entrySet()) {
+                    mergedPartitionGroupByKeySnapshot.computeIfAbsent(querySnapshot.getKey(),
+                            k -> new HashMap<>()).putAll(querySnapshot.getValue());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serializes the item snapshots of an incremental snapshot in parallel when parallel snapshots are enabled.
+     *
+     * @param snapshotIncrements item snapshots by partition id and item id
+     * @return serialized item snapshots by partition id and item id
+     */
+    public Map<String, Map<String, byte[]>> serializeIncrements(
+            Map<String, Map<String, Map<String, Object>>> snapshotIncrements) {
+        List<Map.Entry<String, Map<String, Object>>> itemSnapshots = new ArrayList<>();
+        for (Map<String, Map<String, Object>> partitionIdSnapshot : snapshotIncrements.values()) {
+            itemSnapshots.addAll(partitionIdSnapshot.entrySet());
+        }
+        List<byte[]> serializedItemSnapshots = map(itemSnapshots,
+                itemSnapshot -> ByteSerializer.objectToByte(itemSnapshot.getValue(), siddhiAppContext));
+        Map<String, Map<String, byte[]>> serializedSnapshotIncrements = new HashMap<>();
+        int index = 0;
+        for (Map.Entry<String, Map<String, Map<String, Object>>> partitionIdSnapshot :
+                snapshotIncrements.entrySet()) {
+            Map<String, byte[]> serializedPartitionIdSnapshot = new HashMap<>();
+            for (String itemId : partitionIdSnapshot.getValue().keySet()) {
+                serializedPartitionIdSnapshot.put(itemId, serializedItemSnapshots.get(index++));
+            }
+            serializedSnapshotIncrements.put(partitionIdSnapshot.getKey(), serializedPartitionIdSnapshot);
+        }
+        return serializedSnapshotIncrements;
+    }
+
+    /**
+     * Deserializes the given item snapshots of an incremental snapshot in parallel. Returns null when parallel
+     * snapshots are not enabled, such that the items are deserialized one by one while they are restored.
+     *
+     * @param serializedItemSnapshots serialized item snapshots
+     * @return deserialized item snapshots by their serialized bytes, or null
+     */
+    public Map<byte[], Object> deserializeIncrements(List<byte[]> serializedItemSnapshots) {
+        if (siddhiAppContext.getSnapshotWorkers() <= 1) {
+            return null;
+        }
+        List<Object> itemSnapshots = map(serializedItemSnapshots,
+                itemSnapshot -> ByteSerializer.byteToObject(itemSnapshot, siddhiAppContext));
+        Map<byte[], Object> deserializedItemSnapshots = new IdentityHashMap<>(serializedItemSnapshots.size());
+        for (int i = 0; i < serializedItemSnapshots.size(); i++) {
+            deserializedItemSnapshots.put(serializedItemSnapshots.get(i), itemSnapshots.get(i));
+        }
+        return deserializedItemSnapshots;
+    }
+
+    /**
+     * Applies the function to all the items using the configured number of snapshot workers, where the calling thread
+     * is one of the workers. Each worker takes the next unprocessed item, such that large and small items are
+     * balanced across the workers.
+     */
+    private <T, R> List<R> map(List<T> items, Function<T, R> function) {
+        int workers = Math.min(siddhiAppContext.getSnapshotWorkers(), items.size());
+        List<R> results = new ArrayList<>(items.size());
+        if (workers <= 1) {
+            for (T item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+        Object[] resultArray = new Object[items.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int index = nextIndex.getAndIncrement(); index < resultArray.length;
+                 index = nextIndex.getAndIncrement()) {
+                resultArray[index] = function.apply(items.get(index));
+            }
+        };
+        List<Future<?>> futures = new ArrayList<>(workers - 1);
+        for (int i = 1; i < workers; i++) {
+            futures.add(siddhiAppContext.getExecutorService().submit(worker));
+        }
+        try {
+            worker.run();
+        } finally {
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SiddhiAppRuntimeException("Parallel snapshot of Siddhi app '" +
+                            siddhiAppContext.getName() + "' interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new SiddhiAppRuntimeException("Parallel snapshot of Siddhi app '" +
+                            siddhiAppContext.getName() + "' failed, " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }
+        for (Object result : resultArray) {
+            results.add((R) result);
+        }
+        return results;
+    }
+}
@@ -30,6 +30,14 @@ public class SnapshotRequest {
                 }
             };
 
+    private static final ThreadLocal<Boolean> requestForCapture =
+            new ThreadLocal<Boolean>() {
+                @Override
+                protected Boolean initialValue() {
+                    return false;
+                }
+            };
+
     public static void requestForFullSnapshot(boolean enable) {
         requestForFullSnapshot.set(enable);
     }
@@ -38,4 +46,16 @@ public class SnapshotRequest {
         return requestForFullSnapshot.get();
     }
 
+    /**
+     * @param enable whether the snapshot is taken for a copied snapshot, where state holders can return a
+     *               {@link io.siddhi.core.util.snapshot.state.CapturedStreamEvents} of their events
+     */
+    public static void requestForCapture(boolean enable) {
+        requestForCapture.set(enable);
+    }
+
+    public static boolean isRequestForCapture() {
+        return requestForCapture.get();
+    }
+
 }
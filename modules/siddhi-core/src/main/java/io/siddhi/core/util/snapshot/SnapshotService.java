@@ -26,6 +26,8 @@ import io.siddhi.core.exception.SiddhiAppRuntimeException;
 import io.siddhi.core.util.ThreadBarrier;
 import io.siddhi.core.util.persistence.IncrementalPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.SnapshotWriter;
+import io.siddhi.core.util.persistence.StreamingPersistenceStore;
 import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
 import io.siddhi.core.util.persistence.util.PersistenceConstants;
 import io.siddhi.core.util.persistence.util.PersistenceHelper;
@@ -35,6 +37,11 @@ import io.siddhi.core.util.snapshot.state.State;
 import io.siddhi.core.util.snapshot.state.StateHolder;
 import org.apache.log4j.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -42,6 +49,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
@@ -54,11 +63,15 @@ public class SnapshotService {
     private final ThreadBarrier threadBarrier;
     private ConcurrentHashMap<String, PartitionIdStateHolder> partitionIdStates;
     private SiddhiAppContext siddhiAppContext;
+    private ParallelSnapshotSerializer parallelSnapshotSerializer;
+    private IncrementalSnapshotCompactor incrementalSnapshotCompactor;
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
         this.siddhiAppContext = siddhiAppContext;
         this.threadBarrier = siddhiAppContext.getThreadBarrier();
         this.partitionIdStates = new ConcurrentHashMap<>();
+        this.parallelSnapshotSerializer = new ParallelSnapshotSerializer(siddhiAppContext);
+        this.incrementalSnapshotCompactor = new IncrementalSnapshotCompactor(siddhiAppContext);
     }
 
     public static ThreadLocal<Boolean> getSkipStateStorageThreadLocal() {
@@ -69,6 +82,10 @@ public class SnapshotService {
         return partitionIdStates;
     }
 
+    public IncrementalSnapshotCompactor getIncrementalSnapshotCompactor() {
+        return incrementalSnapshotCompactor;
+    }
+
     public Map<String, StateHolder> getStateHolderMap(String partitionId, String queryName) {
         Boolean skipSnapshotable = skipStateStorageThreadLocal.get();
         if (skipSnapshotable == null || !skipSnapshotable) {
@@ -88,89 +105,55 @@ public class SnapshotService {
     }
 
     public byte[] fullSnapshot() {
+        if (siddhiAppContext.isCopiedSnapshot()) {
+            return captureFullSnapshot().get();
+        }
+        return takeFullSnapshot(parallelSnapshotSerializer::serialize);
+    }
+
+    /**
+     * Serializes the full snapshot directly to the given stream while holding the thread barrier, such that the
+     * snapshot is never materialized as a byte array.
+     *
+     * @param outputStream stream the serialized snapshot is written to
+     * @throws IOException when the snapshot cannot be written to the stream
+     */
+    public void fullSnapshot(OutputStream outputStream) throws IOException {
+        if (siddhiAppContext.isCopiedSnapshot()) {
+            captureFullSnapshotWriter().write(outputStream);
+            return;
+        }
+        try {
+            takeFullSnapshot(fullSnapshot -> {
+                try {
+                    parallelSnapshotSerializer.serialize(fullSnapshot, outputStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> T takeFullSnapshot(
+            Function<Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>, T> serializer) {
         try {
             SnapshotRequest.requestForFullSnapshot(true);
-            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
-            byte[] serializedFullState = null;
+            T serializedFullState = null;
             if (log.isDebugEnabled()) {
                 log.debug("Taking snapshot ...");
             }
             try {
                 threadBarrier.lock();
                 waitForSystemStabilization();
-                for (Map.Entry<String, PartitionIdStateHolder> partitionIdState : partitionIdStates.entrySet()) {
-                    for (Map.Entry<String, ElementStateHolder> queryState :
-                            partitionIdState.getValue().queryStateHolderMap.entrySet()) {
-                        for (Map.Entry<String, StateHolder> elementState :
-                                queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
-                            try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
-                                        partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
-                                            partitionKeyState.getValue().entrySet()) {
-                                        String partitionAndGroupByKey = partitionKeyState.getKey() + "--" +
-                                                groupByKeyState.getKey();
-                                        State state = groupByKeyState.getValue();
-                                        Map<String, Object> itemStates = state.snapshot();
-                                        if (itemStates != null) {
-                                            Map<String, Object> itemSnapshots = new HashMap<>();
-                                            for (Map.Entry<String, Object> itemState : itemStates.entrySet()) {
-                                                if (itemState.getValue() instanceof Snapshot) {
-                                                    if (((Snapshot) itemState.getValue()).isIncrementalSnapshot()) {
-                                                        throw new NoPersistenceStoreException("No incremental " +
-                                                                "persistence store exist to store incremental " +
-                                                                "snapshot of siddhiApp:'"
-                                                                + siddhiAppContext.getName()
-                                                                + "' subElement:'" + queryState.getKey()
-                                                                + "' elementId:'" + elementState.getKey()
-                                                                + "' partitionKey:'" + partitionKeyState.getKey()
-                                                                + "' groupByKey:'" + groupByKeyState.getKey()
-                                                                + "' and itemKey:'" + itemState.getKey() + "'");
-                                                    } else {
-                                                        itemSnapshots.put(itemState.getKey(), itemState.getValue());
-                                                    }
-                                                } else {
-                                                    itemSnapshots.put(itemState.getKey(), itemState.getValue());
-                                                }
-                                            }
-                                            Map<String, Map<String, Map<String, Map<String, Object>>>>
-                                                    partitionIdSnapshot = fullSnapshot.computeIfAbsent(
-                                                    partitionIdState.getKey(),
-                                                    k -> new HashMap<>());
-                                            Map<String, Map<String, Map<String, Object>>> partitionGroupByKeySnapshot =
-                                                    partitionIdSnapshot.computeIfAbsent(
-                                                            partitionAndGroupByKey,
-                                                            k -> new HashMap<>());
-                                            Map<String, Map<String, Object>> querySnapshot =
-                                                    partitionGroupByKeySnapshot.computeIfAbsent(
-                                                            queryState.getKey(),
-                                                            k -> new HashMap<>());
-                                            Map<String, Object> elementSnapshot =
-                                                    querySnapshot.get(elementState.getKey());
-                                            if (elementSnapshot == null) {
-                                                querySnapshot.put(elementState.getKey(), itemSnapshots);
-                                            } else {
-                                                throw new SiddhiAppRuntimeException("Duplicate state exist for " +
-                                                        "siddhiApp:'" + siddhiAppContext.getName()
-                                                        + "' partitionKey:'" + partitionKeyState.getKey()
-                                                        + "' groupByKey:'" + groupByKeyState.getKey()
-                                                        + "' subElement:'" + queryState.getKey()
-                                                        + "' elementId:'" + elementState.getKey() + "'");
-                                            }
-                                        }
-                                    }
-                                }
-                            } finally {
-                                elementState.getValue().returnAllStates(partitionKeyStates);
-                            }
-                        }
-                    }
-                }
+                Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot =
+                        collectFullSnapshot();
                 if (log.isDebugEnabled()) {
                     log.debug("Snapshot serialization started ...");
                 }
-                serializedFullState = ByteSerializer.objectToByte(fullSnapshot, siddhiAppContext);
+                serializedFullState = serializer.apply(fullSnapshot);
                 if (log.isDebugEnabled()) {
                     log.debug("Snapshot serialization finished.");
                 }
@@ -186,96 +169,309 @@ public class SnapshotService {
         }
     }
 
-    public IncrementalSnapshot incrementalSnapshot() {
+    /**
+     * Captures a copy of the states of all the elements while holding the thread barrier. The events of tables and
+     * windows are captured without copying their data, as they copy their data on the next write instead, and the
+     * other states are deep copied. The returned supplier serializes the copy, and can be called after the Siddhi App
+     * continues processing events.
+     *
+     * @return supplier of the serialized full snapshot
+     */
+    public Supplier<byte[]> captureFullSnapshot() {
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot =
+                captureFullSnapshotState();
+        return () -> parallelSnapshotSerializer.serialize(fullSnapshot);
+    }
+
+    /**
+     * Captures a copy of the states of all the elements like {@link #captureFullSnapshot()}, and returns a writer
+     * that serializes the copy directly to the stream of a {@link StreamingPersistenceStore}.
+     *
+     * @return writer of the full snapshot
+     */
+    public SnapshotWriter captureFullSnapshotWriter() {
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot =
+                captureFullSnapshotState();
+        return outputStream -> parallelSnapshotSerializer.serialize(fullSnapshot, outputStream);
+    }
+
+    private Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> captureFullSnapshotState() {
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot;
         try {
-            SnapshotRequest.requestForFullSnapshot(false);
-            Map<String, Map<String, byte[]>> incrementalSnapshotMap = new HashMap<>();
-            Map<String, Map<String, byte[]>> incrementalBaseSnapshotMap = new HashMap<>();
-            Map<String, Map<String, byte[]>> periodicSnapshotMap = new HashMap<>();
+            SnapshotRequest.requestForFullSnapshot(true);
+            SnapshotRequest.requestForCapture(true);
             if (log.isDebugEnabled()) {
-                log.debug("Taking snapshot ...");
+                log.debug("Capturing snapshot ...");
             }
+            long start = System.currentTimeMillis();
             try {
                 threadBarrier.lock();
                 waitForSystemStabilization();
-                for (Map.Entry<String, PartitionIdStateHolder> partitionIdState : partitionIdStates.entrySet()) {
-                    for (Map.Entry<String, ElementStateHolder> queryState :
-                            partitionIdState.getValue().queryStateHolderMap.entrySet()) {
-                        for (Map.Entry<String, StateHolder> elementState :
-                                queryState.getValue().elementHolderMap.entrySet()) {
-                            Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
-                            try {
-                                for (Map.Entry<String, Map<String, State>> partitionKeyState :
-                                        partitionKeyStates.entrySet()) {
-                                    for (Map.Entry<String, State> groupByKeyState :
-                                            partitionKeyState.getValue().entrySet()) {
-                                        State state = groupByKeyState.getValue();
-                                        Map<String, Object> itemStates = state.snapshot();
-                                        if (itemStates != null) {
-                                            Map<String, Object> itemSnapshotsIncremental = new HashMap<>();
-                                            Map<String, Object> itemSnapshotsIncrementalBase = new HashMap<>();
-                                            Map<String, Object> itemSnapshotsPeriodic = new HashMap<>();
-                                            for (Map.Entry<String, Object> itemState : itemStates.entrySet()) {
-                                                if (itemState.getValue() instanceof Snapshot) {
-                                                    if (((Snapshot) itemState.getValue()).isIncrementalSnapshot()) {
-                                                        itemSnapshotsIncremental.put(itemState.getKey(),
-                                                                itemState.getValue());
-                                                    } else {
-                                                        itemSnapshotsIncrementalBase.put(
-                                                                itemState.getKey(), itemState.getValue());
-                                                    }
-                                                } else {
-                                                    itemSnapshotsPeriodic.put(itemState.getKey(), itemState.getValue());
-                                                }
-                                            }
-                                            if (!itemSnapshotsIncremental.isEmpty()) {
-                                                addToSnapshotIncrements(incrementalSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsIncremental);
-                                            }
-                                            if (!itemSnapshotsIncrementalBase.isEmpty()) {
-                                                addToSnapshotIncrements(incrementalBaseSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsIncrementalBase);
-                                            }
-                                            if (!itemSnapshotsPeriodic.isEmpty()) {
-                                                addToSnapshotIncrements(periodicSnapshotMap, partitionIdState,
-                                                        queryState, elementState, partitionKeyState, groupByKeyState,
-                                                        itemSnapshotsPeriodic);
+                fullSnapshot = (Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>)
+                        SnapshotStateCopier.copy(collectFullSnapshot());
+            } finally {
+                threadBarrier.unlock();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Snapshot captured for Siddhi app '" + siddhiAppContext.getName() + "' in " +
+                        (System.currentTimeMillis() - start) + " msec");
+            }
+        } finally {
+            SnapshotRequest.requestForFullSnapshot(false);
+            SnapshotRequest.requestForCapture(false);
+        }
+        return fullSnapshot;
+    }
+
+    private Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> collectFullSnapshot() {
+        Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot = new HashMap<>();
+        for (Map.Entry<String, PartitionIdStateHolder> partitionIdState : partitionIdStates.entrySet()) {
+            for (Map.Entry<String, ElementStateHolder> queryState :
+                    partitionIdState.getValue().queryStateHolderMap.entrySet()) {
+                for (Map.Entry<String, StateHolder> elementState :
+                        queryState.getValue().elementHolderMap.entrySet()) {
+                    Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                    try {
+                        for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                partitionKeyStates.entrySet()) {
+                            for (Map.Entry<String, State> groupByKeyState :
+                                    partitionKeyState.getValue().entrySet()) {
+                                String partitionAndGroupByKey = partitionKeyState.getKey() + "--" +
+                                        groupByKeyState.getKey();
+                                State state = groupByKeyState.getValue();
+                                Map<String, Object> itemStates = state.snapshot();
+                                if (itemStates != null) {
+                                    Map<String, Object> itemSnapshots = new HashMap<>();
+                                    for (Map.Entry<String, Object> itemState : itemStates.entrySet()) {
+                                        if (itemState.getValue() instanceof Snapshot) {
+                                            if (((Snapshot) itemState.getValue()).isIncrementalSnapshot()) {
+                                                throw new NoPersistenceStoreException("No incremental " +
+                                                        "persistence store exist to store incremental " +
+                                                        "snapshot of siddhiApp:'"
+                                                        + siddhiAppContext.getName()
+                                                        + "' subElement:'" + queryState.getKey()
+                                                        + "' elementId:'" + elementState.getKey()
+                                                        + "' partitionKey:'" + partitionKeyState.getKey()
+                                                        + "' groupByKey:'" + groupByKeyState.getKey()
+                                                        + "' and itemKey:'" + itemState.getKey() + "'");
+                                            } else {
+                                                itemSnapshots.put(itemState.getKey(), itemState.getValue());
                                             }
+                                        } else {
+                                            itemSnapshots.put(itemState.getKey(), itemState.getValue());
                                         }
                                     }
+                                    Map<String, Map<String, Map<String, Map<String, Object>>>>
+                                            partitionIdSnapshot = fullSnapshot.computeIfAbsent(
+                                            partitionIdState.getKey(),
+                                            k -> new HashMap<>());
+                                    Map<String, Map<String, Map<String, Object>>> partitionGroupByKeySnapshot =
+                                            partitionIdSnapshot.computeIfAbsent(
+                                                    partitionAndGroupByKey,
+                                                    k -> new HashMap<>());
+                                    Map<String, Map<String, Object>> querySnapshot =
+                                            partitionGroupByKeySnapshot.computeIfAbsent(
+                                                    queryState.getKey(),
+                                                    k -> new HashMap<>());
+                                    Map<String, Object> elementSnapshot =
+                                            querySnapshot.get(elementState.getKey());
+                                    if (elementSnapshot == null) {
+                                        querySnapshot.put(elementState.getKey(), itemSnapshots);
+                                    } else {
+                                        throw new SiddhiAppRuntimeException("Duplicate state exist for " +
+                                                "siddhiApp:'" + siddhiAppContext.getName()
+                                                + "' partitionKey:'" + partitionKeyState.getKey()
+                                                + "' groupByKey:'" + groupByKeyState.getKey()
+                                                + "' subElement:'" + queryState.getKey()
+                                                + "' elementId:'" + elementState.getKey() + "'");
+                                    }
                                 }
-                            } finally {
-                                elementState.getValue().returnAllStates(partitionKeyStates);
                             }
                         }
+                    } finally {
+                        elementState.getValue().returnAllStates(partitionKeyStates);
                     }
                 }
+            }
+        }
+        return fullSnapshot;
+    }
 
+    public IncrementalSnapshot incrementalSnapshot() {
+        if (siddhiAppContext.isCopiedSnapshot()) {
+            return captureIncrementalSnapshot().get();
+        }
+        try {
+            SnapshotRequest.requestForFullSnapshot(false);
+            IncrementalSnapshot snapshot;
+            if (log.isDebugEnabled()) {
+                log.debug("Taking snapshot ...");
+            }
+            try {
+                threadBarrier.lock();
+                waitForSystemStabilization();
+                snapshot = serializeIncrementalSnapshot(collectIncrementalSnapshot());
             } finally {
                 threadBarrier.unlock();
             }
             if (log.isDebugEnabled()) {
                 log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
             }
-            IncrementalSnapshot snapshot = new IncrementalSnapshot();
-            if (!incrementalSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalState(incrementalSnapshotMap);
+            return snapshot;
+        } finally {
+            SnapshotRequest.requestForFullSnapshot(false);
+        }
+    }
+
+    /**
+     * Captures a copy of the incremental, incremental base and periodic states of all the elements while holding the
+     * thread barrier, like {@link #captureFullSnapshot()}. The returned supplier serializes the copy, and can be
+     * called after the Siddhi App continues processing events.
+     *
+     * @return supplier of the serialized incremental snapshot
+     */
+    public Supplier<IncrementalSnapshot> captureIncrementalSnapshot() {
+        Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>> incrementalSnapshot =
+                new HashMap<>();
+        try {
+            SnapshotRequest.requestForFullSnapshot(false);
+            SnapshotRequest.requestForCapture(true);
+            if (log.isDebugEnabled()) {
+                log.debug("Capturing snapshot ...");
             }
-            if (!incrementalBaseSnapshotMap.isEmpty()) {
-                snapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
+            long start = System.currentTimeMillis();
+            try {
+                threadBarrier.lock();
+                waitForSystemStabilization();
+                for (Map.Entry<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>>
+                        entry : collectIncrementalSnapshot().entrySet()) {
+                    incrementalSnapshot.put(entry.getKey(), (Map<String, Map<String, Map<String, Object>>>)
+                            SnapshotStateCopier.copy(entry.getValue()));
+                }
+            } finally {
+                threadBarrier.unlock();
             }
-            if (!periodicSnapshotMap.isEmpty()) {
-                snapshot.setPeriodicState(periodicSnapshotMap);
+            if (log.isDebugEnabled()) {
+                log.debug("Snapshot captured for Siddhi app '" + siddhiAppContext.getName() + "' in " +
+                        (System.currentTimeMillis() - start) + " msec");
             }
-            return snapshot;
         } finally {
             SnapshotRequest.requestForFullSnapshot(false);
+            SnapshotRequest.requestForCapture(false);
+        }
+        return () -> serializeIncrementalSnapshot(incrementalSnapshot);
+    }
+
+    private Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>>
+    collectIncrementalSnapshot() {
+        Map<String, Map<String, Map<String, Object>>> incrementalSnapshot = new HashMap<>();
+        Map<String, Map<String, Map<String, Object>>> incrementalBaseSnapshot = new HashMap<>();
+        Map<String, Map<String, Map<String, Object>>> periodicSnapshot = new HashMap<>();
+        for (Map.Entry<String, PartitionIdStateHolder> partitionIdState : partitionIdStates.entrySet()) {
+            for (Map.Entry<String, ElementStateHolder> queryState :
+                    partitionIdState.getValue().queryStateHolderMap.entrySet()) {
+                for (Map.Entry<String, StateHolder> elementState :
+                        queryState.getValue().elementHolderMap.entrySet()) {
+                    Map<String, Map<String, State>> partitionKeyStates = elementState.getValue().getAllStates();
+                    try {
+                        for (Map.Entry<String, Map<String, State>> partitionKeyState :
+                                partitionKeyStates.entrySet()) {
+                            for (Map.Entry<String, State> groupByKeyState :
+                                    partitionKeyState.getValue().entrySet()) {
+                                State state = groupByKeyState.getValue();
+                                Map<String, Object> itemStates;
+                                if (incrementalSnapshotCompactor.hasFullSnapshotRequests() &&
+                                        incrementalSnapshotCompactor.takeFullSnapshotRequest(
+                                                new IncrementalSnapshotInfo(siddhiAppContext.getName(),
+                                                        partitionIdState.getKey(), queryState.getKey(),
+                                                        elementState.getKey(), 0,
+                                                        IncrementalSnapshotInfo.SnapshotType.BASE,
+                                                        partitionKeyState.getKey() + "--" +
+                                                                groupByKeyState.getKey()).getId())) {
+                                    // a new base is taken as the increments of the element cannot be compacted
+                                    SnapshotRequest.requestForFullSnapshot(true);
+                                    try {
+                                        itemStates = state.snapshot();
+                                    } finally {
+                                        SnapshotRequest.requestForFullSnapshot(false);
+                                    }
+                                } else {
+                                    itemStates = state.snapshot();
+                                }
+                                if (itemStates != null) {
+                                    Map<String, Object> itemSnapshotsIncremental = new HashMap<>();
+                                    Map<String, Object> itemSnapshotsIncrementalBase = new HashMap<>();
+                                    Map<String, Object> itemSnapshotsPeriodic = new HashMap<>();
+                                    for (Map.Entry<String, Object> itemState : itemStates.entrySet()) {
+                                        if (itemState.getValue() instanceof Snapshot) {
+                                            if (((Snapshot) itemState.getValue()).isIncrementalSnapshot()) {
+                                                itemSnapshotsIncremental.put(itemState.getKey(),
+                                                        itemState.getValue());
+                                            } else {
+                                                itemSnapshotsIncrementalBase.put(
+                                                        itemState.getKey(), itemState.getValue());
+                                            }
+                                        } else {
+                                            itemSnapshotsPeriodic.put(itemState.getKey(), itemState.getValue());
+                                        }
+                                    }
+                                    if (!itemSnapshotsIncremental.isEmpty()) {
+                                        addToSnapshotIncrements(incrementalSnapshot, partitionIdState,
+                                                queryState, elementState, partitionKeyState, groupByKeyState,
+                                                itemSnapshotsIncremental);
+                                    }
+                                    if (!itemSnapshotsIncrementalBase.isEmpty()) {
+                                        addToSnapshotIncrements(incrementalBaseSnapshot, partitionIdState,
+                                                queryState, elementState, partitionKeyState, groupByKeyState,
+                                                itemSnapshotsIncrementalBase);
+                                    }
+                                    if (!itemSnapshotsPeriodic.isEmpty()) {
+                                        addToSnapshotIncrements(periodicSnapshot, partitionIdState,
+                                                queryState, elementState, partitionKeyState, groupByKeyState,
+                                                itemSnapshotsPeriodic);
+                                    }
+                                }
+                            }
+                        }
+                    } finally {
+                        elementState.getValue().returnAllStates(partitionKeyStates);
+                    }
+                }
+            }
+        }
+        Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>> snapshots =
+                new HashMap<>();
+        snapshots.put(IncrementalSnapshotInfo.SnapshotType.INCREMENT, incrementalSnapshot);
+        snapshots.put(IncrementalSnapshotInfo.SnapshotType.BASE, incrementalBaseSnapshot);
+        snapshots.put(IncrementalSnapshotInfo.SnapshotType.PERIODIC, periodicSnapshot);
+        return snapshots;
+    }
+
+    private IncrementalSnapshot serializeIncrementalSnapshot(
+            Map<IncrementalSnapshotInfo.SnapshotType, Map<String, Map<String, Map<String, Object>>>> snapshots) {
+        IncrementalSnapshot snapshot = new IncrementalSnapshot();
+        Map<String, Map<String, byte[]>> incrementalSnapshotMap =
+                parallelSnapshotSerializer.serializeIncrements(
+                        snapshots.get(IncrementalSnapshotInfo.SnapshotType.INCREMENT));
+        if (!incrementalSnapshotMap.isEmpty()) {
+            snapshot.setIncrementalState(incrementalSnapshotMap);
+        }
+        Map<String, Map<String, byte[]>> incrementalBaseSnapshotMap =
+                parallelSnapshotSerializer.serializeIncrements(
+                        snapshots.get(IncrementalSnapshotInfo.SnapshotType.BASE));
+        if (!incrementalBaseSnapshotMap.isEmpty()) {
+            snapshot.setIncrementalStateBase(incrementalBaseSnapshotMap);
+        }
+        Map<String, Map<String, byte[]>> periodicSnapshotMap =
+                parallelSnapshotSerializer.serializeIncrements(
+                        snapshots.get(IncrementalSnapshotInfo.SnapshotType.PERIODIC));
+        if (!periodicSnapshotMap.isEmpty()) {
+            snapshot.setPeriodicState(periodicSnapshotMap);
         }
+        return snapshot;
     }
 
-    private void addToSnapshotIncrements(Map<String, Map<String, byte[]>> incrementalSnapshotMap,
+    private void addToSnapshotIncrements(Map<String, Map<String, Map<String, Object>>> incrementalSnapshotMap,
                                          Map.Entry<String, PartitionIdStateHolder> partitionIdState,
                                          Map.Entry<String, ElementStateHolder> queryState,
                                          Map.Entry<String, StateHolder> elementState,
@@ -285,12 +481,11 @@ public class SnapshotService {
         String id = partitionKeyState.getKey() + "--" + groupByKeyState.getKey() +
                 PersistenceConstants.REVISION_SEPARATOR + queryState.getKey() +
                 PersistenceConstants.REVISION_SEPARATOR + elementState.getKey();
-        Map<String, byte[]> partitionIdSnapshot =
+        Map<String, Map<String, Object>> partitionIdSnapshot =
                 incrementalSnapshotMap.computeIfAbsent(
                         partitionIdState.getKey(),
                         k -> new HashMap<>());
-        partitionIdSnapshot.put(id, ByteSerializer.objectToByte(
-                itemSnapshotsIncremental, siddhiAppContext));
+        partitionIdSnapshot.put(id, itemSnapshotsIncremental);
     }
 
     public Map<String, Object> queryState(String queryName) {
@@ -331,13 +526,46 @@ public class SnapshotService {
     }
 
     public void restore(byte[] snapshot) throws CannotRestoreSiddhiAppStateException {
+        if (snapshot == null) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                    getName() + " failed due to no snapshot.");
+        }
+        restoreFullSnapshot(parallelSnapshotSerializer.deserialize(snapshot));
+    }
+
+    /**
+     * Restores the full snapshot read from the given stream, without reading the stream fully to a byte array. The
+     * stream is read to its end before any state is restored, such that a stream validating the snapshot while it is
+     * read fails before the states are changed.
+     *
+     * @param snapshot stream of the serialized snapshot, which is not closed
+     * @throws CannotRestoreSiddhiAppStateException when the snapshot cannot be restored
+     */
+    public void restore(InputStream snapshot) throws CannotRestoreSiddhiAppStateException {
         if (snapshot == null) {
             throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
                     getName() + " failed due to no snapshot.");
         }
         Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot =
-                (Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>)
-                        ByteSerializer.byteToObject(snapshot, siddhiAppContext);
+                parallelSnapshotSerializer.deserialize(snapshot);
+        if (fullSnapshot != null) {
+            try {
+                byte[] remainingBytes = new byte[8192];
+                int length;
+                do {
+                    length = snapshot.read(remainingBytes);
+                } while (length != -1);
+            } catch (IOException e) {
+                throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                        getName() + " failed due to invalid snapshot.", e);
+            }
+        }
+        restoreFullSnapshot(fullSnapshot);
+    }
+
+    private void restoreFullSnapshot(
+            Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> fullSnapshot)
+            throws CannotRestoreSiddhiAppStateException {
         if (fullSnapshot == null) {
             throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
                     getName() + " failed due to invalid snapshot.");
@@ -432,6 +660,20 @@ public class SnapshotService {
     public void restore(Map<String, Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>>
                                 snapshot)
             throws CannotRestoreSiddhiAppStateException {
+        List<byte[]> serializedItemSnapshots = new ArrayList<>();
+        for (Map<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>> partitionIdSnapshot :
+                snapshot.values()) {
+            for (Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>> incrementalStateByTime :
+                    partitionIdSnapshot.values()) {
+                for (Map<Long, Map<IncrementalSnapshotInfo, byte[]>> idByTime : incrementalStateByTime.values()) {
+                    for (Map<IncrementalSnapshotInfo, byte[]> incrementalStateByInfo : idByTime.values()) {
+                        serializedItemSnapshots.addAll(incrementalStateByInfo.values());
+                    }
+                }
+            }
+        }
+        Map<byte[], Object> deserializedItemSnapshots =
+                parallelSnapshotSerializer.deserializeIncrements(serializedItemSnapshots);
         try {
             threadBarrier.lock();
             waitForSystemStabilization();
@@ -449,7 +691,8 @@ public class SnapshotService {
                          iterator = partitionIdSnapshot.getValue().entrySet().iterator(); iterator.hasNext(); ) {
                         Map.Entry<String, Map<String, Map<Long, Map<IncrementalSnapshotInfo, byte[]>>>>
                                 partitionGroupByKeySnapshot = iterator.next();
-                        restoreIncrementalSnapshot(partitionStateHolder, partitionGroupByKeySnapshot.getValue());
+                        restoreIncrementalSnapshot(partitionStateHolder, partitionGroupByKeySnapshot.getValue(),
+                                deserializedItemSnapshots);
                         iterator.remove();
                     }
 
@@ -467,7 +710,8 @@ public class SnapshotService {
 
     private void restoreIncrementalSnapshot(PartitionIdStateHolder partitionIdStateHolder,
                                             Map<String, Map<Long, Map<IncrementalSnapshotInfo,
-                                                    byte[]>>> incrementalStateByTime) {
+                                                    byte[]>>> incrementalStateByTime,
+                                            Map<byte[], Object> deserializedItemSnapshots) {
         if (incrementalStateByTime != null) {
             String id = null;
             State state = null;
@@ -491,10 +735,16 @@ public class SnapshotService {
                             Map.Entry<IncrementalSnapshotInfo, byte[]> incrementalStateByInfoEntry = iterator1.next();
                             iterator1.remove();
                             IncrementalSnapshotInfo incrementalSnapshotInfo = incrementalStateByInfoEntry.getKey();
-                            Map<String, Object> singleIncrementSnapshot = (Map<String, Object>)
-                                    ByteSerializer.byteToObject(
-                                            incrementalStateByInfoEntry.getValue(),
-                                            siddhiAppContext);
+                            Map<String, Object> singleIncrementSnapshot;
+                            if (deserializedItemSnapshots != null) {
+                                singleIncrementSnapshot = (Map<String, Object>)
+                                        deserializedItemSnapshots.remove(incrementalStateByInfoEntry.getValue());
+                            } else {
+                                singleIncrementSnapshot = (Map<String, Object>)
+                                        ByteSerializer.byteToObject(
+                                                incrementalStateByInfoEntry.getValue(),
+                                                siddhiAppContext);
+                            }
                             if (singleIncrementSnapshot != null) {
                                 if (!incrementalSnapshotInfo.getId().equals(id)) {
                                     if (id != null) {
@@ -564,6 +814,15 @@ public class SnapshotService {
                                                         partitionGroupByKeyStateByTimeEntry.getKey(),
                                                         snapshot);
                                             }
+                                        } else if (singleIncrementSnapshotEntry.getValue() instanceof
+                                                SnapshotStateList) {
+                                            // compacted base, which holds the base and the merged increments
+                                            SnapshotStateList snapshotStateList = (SnapshotStateList)
+                                                    deserializedStateMap.computeIfAbsent(
+                                                            singleIncrementSnapshotEntry.getKey(),
+                                                            k -> new SnapshotStateList());
+                                            snapshotStateList.getSnapshotStates().putAll(((SnapshotStateList)
+                                                    singleIncrementSnapshotEntry.getValue()).getSnapshotStates());
                                         } else {
                                             deserializedStateMap.put(singleIncrementSnapshotEntry.getKey(),
                                                     singleIncrementSnapshotEntry.getValue());
@@ -613,17 +872,21 @@ public class SnapshotService {
             if (log.isDebugEnabled()) {
                 log.debug("Restoring revision: " + revision + " ...");
             }
-            byte[] snapshot = persistenceStore.load(siddhiAppContext.getName(), revision);
-            if (snapshot != null) {
-                restore(snapshot);
-                if (log.isDebugEnabled()) {
-                    log.debug("Restored revision: " + revision);
-                }
+            if (persistenceStore instanceof StreamingPersistenceStore) {
+                restoreRevision((StreamingPersistenceStore) persistenceStore, revision);
             } else {
-                if (log.isDebugEnabled()) {
-                    log.debug("No data found for revision: " + revision);
+                byte[] snapshot = persistenceStore.load(siddhiAppContext.getName(), revision);
+                if (snapshot != null) {
+                    restore(snapshot);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Restored revision: " + revision);
+                    }
+                } else {
+                    if (log.isDebugEnabled()) {
+                        log.debug("No data found for revision: " + revision);
+                    }
+                    throw new PersistenceStoreException("No data found for revision: " + revision);
                 }
-                throw new PersistenceStoreException("No data found for revision: " + revision);
             }
         } else if (incrementalPersistenceStore != null) {
             if (log.isDebugEnabled()) {
@@ -687,6 +950,15 @@ public class SnapshotService {
                             computeIfAbsent(snapshotInfo.getTime(), k -> new HashMap<>());
                     incrementalStateByInfo.put(snapshotInfo, incrementalPersistenceStore.load(snapshotInfo));
                 }
+                // resume counting the increments of each element from its oldest loaded revision
+                for (int i = incrementalSnapshotInfos.size() - 1; i >= 0; i--) {
+                    IncrementalSnapshotInfo snapshotInfo = incrementalSnapshotInfos.get(i);
+                    byte[] serializedSnapshot = incrementalState.get(snapshotInfo.getPartitionId())
+                            .get(snapshotInfo.getPartitionGroupByKey()).get(snapshotInfo.getId())
+                            .get(snapshotInfo.getTime()).get(snapshotInfo);
+                    incrementalSnapshotCompactor.record(snapshotInfo,
+                            serializedSnapshot != null ? serializedSnapshot.length : 0);
+                }
                 restore(incrementalState);
                 if (log.isDebugEnabled()) {
                     log.debug("Restored revision: " + revision);
@@ -703,6 +975,25 @@ public class SnapshotService {
         }
     }
 
+    private void restoreRevision(StreamingPersistenceStore persistenceStore, String revision)
+            throws CannotRestoreSiddhiAppStateException {
+        try (InputStream snapshot = persistenceStore.loadAsStream(siddhiAppContext.getName(), revision)) {
+            if (snapshot == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("No data found for revision: " + revision);
+                }
+                throw new PersistenceStoreException("No data found for revision: " + revision);
+            }
+            restore(snapshot);
+            if (log.isDebugEnabled()) {
+                log.debug("Restored revision: " + revision);
+            }
+        } catch (IOException e) {
+            throw new CannotRestoreSiddhiAppStateException("Restoring of Siddhi app " + siddhiAppContext.
+                    getName() + " failed as revision " + revision + " cannot be read.", e);
+        }
+    }
+
     public String restoreLastRevision() throws CannotRestoreSiddhiAppStateException {
         PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
         IncrementalPersistenceStore incrementalPersistenceStore =
@@ -752,11 +1043,12 @@ public class SnapshotService {
     }
 
     private void waitForSystemStabilization() {
-        int retryCount = 100;
+        // check often, as the threads are paused until the active threads complete processing their events
+        int retryCount = 10000;
         int activeThreads = siddhiAppContext.getThreadBarrier().getActiveThreads();
         while (activeThreads != 0 && retryCount > 0) {
             try {
-                Thread.sleep(1000);
+                Thread.sleep(10);
             } catch (InterruptedException e) {
                 throw new SiddhiAppRuntimeException("Stabilization of Siddhi App " + siddhiAppContext.getName() +
                         " for snapshot/restore interrupted. " + e.getMessage(), e);
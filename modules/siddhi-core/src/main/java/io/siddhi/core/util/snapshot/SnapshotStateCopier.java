@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot;
+
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.SiddhiAppRuntimeException;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Copies the states returned by the state holders, so that they can be serialized while the Siddhi App continues
+ * to modify the original states. The copy is taken while processing is paused. The events of tables and windows are
+ * returned as {@link CapturedStreamEvents}, which are not copied, as their events copy their data on write.
+ * <p>
+ * Immutable values are shared with the original state, while the layouts Siddhi keeps in its states, such as the
+ * maps, lists, event chains and operation logs are copied. Other objects are copied using Java serialization.
+ * Events shared within the state are copied once, and stay shared in the copy.
+ */
+public class SnapshotStateCopier {
+
+    private final Map<Object, Object> copiedEvents = new IdentityHashMap<>();
+
+    private SnapshotStateCopier() {
+    }
+
+    public static Object copy(Object state) {
+        return new SnapshotStateCopier().copyValue(state);
+    }
+
+    private Object copyValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (isImmutable(value)) {
+            return value;
+        } else if (type == Object[].class) {
+            return copyArray((Object[]) value);
+        } else if (type == StreamEvent.class) {
+            return copyStreamEvent((StreamEvent) value);
+        } else if (type == StateEvent.class && ((StateEvent) value).getStreamEvents() != null
+                && ((StateEvent) value).getOutputData() != null) {
+            return copyStateEvent((StateEvent) value);
+        } else if (type == HashMap.class) {
+            return copyMap((Map<?, ?>) value, new HashMap<>((int) (((Map) value).size() / 0.75f) + 1));
+        } else if (type == LinkedHashMap.class) {
+            return copyMap((Map<?, ?>) value, new LinkedHashMap<>((int) (((Map) value).size() / 0.75f) + 1));
+        } else if (type == TreeMap.class) {
+            return copyMap((Map<?, ?>) value, new TreeMap<>(((TreeMap) value).comparator()));
+        } else if (type == ArrayList.class) {
+            return copyCollection((Collection<?>) value, new ArrayList<>(((Collection) value).size()));
+        } else if (type == LinkedList.class) {
+            return copyCollection((Collection<?>) value, new LinkedList<>());
+        } else if (type == Snapshot.class) {
+            Snapshot snapshot = (Snapshot) value;
+            return new Snapshot(copyValue(snapshot.getState()), snapshot.isIncrementalSnapshot());
+        } else if (type == SnapshotStateList.class && ((SnapshotStateList) value).getSnapshotStates() != null) {
+            TreeMap<Long, Snapshot> snapshotStates = ((SnapshotStateList) value).getSnapshotStates();
+            return new SnapshotStateList((TreeMap<Long, Snapshot>) copyMap(snapshotStates,
+                    new TreeMap<>(snapshotStates.comparator())));
+        } else if (type == Operation.class) {
+            Operation operation = (Operation) value;
+            return new Operation(operation.operation, copyValue(operation.parameters));
+        } else if (type == CapturedStreamEvents.class) {
+            ((CapturedStreamEvents) value).copyData(this::copyMutableData);
+            return value;
+        } else {
+            return copySerializable(value);
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        Class<?> type = value.getClass();
+        return type == String.class || type == Long.class || type == Integer.class || type == Double.class
+                || type == Float.class || type == Boolean.class || type == Short.class || type == Byte.class
+                || type == Character.class || value instanceof Enum;
+    }
+
+    /**
+     * Captured data is shared with the events it was captured from, which copy their data arrays before modifying
+     * them, but not the values in the arrays. Hence, arrays holding values that can be modified in place are copied.
+     */
+    private Object[] copyMutableData(Object[] data) {
+        if (data != null) {
+            for (Object value : data) {
+                if (value != null && !isImmutable(value)) {
+                    return copyArray(data);
+                }
+            }
+        }
+        return data;
+    }
+
+    private Object[] copyArray(Object[] array) {
+        Object[] copy = new Object[array.length];
+        for (int i = 0; i < array.length; i++) {
+            copy[i] = copyValue(array[i]);
+        }
+        return copy;
+    }
+
+    private StreamEvent copyStreamEvent(StreamEvent streamEvent) {
+        StreamEvent copy = (StreamEvent) copiedEvents.get(streamEvent);
+        if (copy != null) {
+            return copy;
+        }
+        StreamEvent first = null;
+        StreamEvent previousCopy = null;
+        StreamEvent current = streamEvent;
+        while (current != null) {
+            copy = new StreamEvent(0, 0, 0);
+            copiedEvents.put(current, copy);
+            copy.setTimestamp(current.getTimestamp());
+            copy.setType(current.getType());
+            if (current.getBeforeWindowData() != null) {
+                copy.setBeforeWindowData(copyArray(current.getBeforeWindowData()));
+            }
+            if (current.getOnAfterWindowData() != null) {
+                copy.setOnAfterWindowData(copyArray(current.getOnAfterWindowData()));
+            }
+            if (current.getOutputData() != null) {
+                copy.setOutputData(copyArray(current.getOutputData()));
+            }
+            if (previousCopy == null) {
+                first = copy;
+            } else {
+                previousCopy.setNext(copy);
+            }
+            previousCopy = copy;
+            StreamEvent next = current.getNext();
+            if (next != null && (copiedEvents.containsKey(next) || next.getClass() != StreamEvent.class)) {
+                copy.setNext((StreamEvent) copyValue(next));
+                break;
+            }
+            current = next;
+        }
+        return first;
+    }
+
+    private StateEvent copyStateEvent(StateEvent stateEvent) {
+        StateEvent copy = (StateEvent) copiedEvents.get(stateEvent);
+        if (copy != null) {
+            return copy;
+        }
+        StateEvent first = null;
+        StateEvent previousCopy = null;
+        StateEvent current = stateEvent;
+        while (current != null) {
+            StreamEvent[] streamEvents = current.getStreamEvents();
+            Object[] outputData = current.getOutputData();
+            copy = new StateEvent(streamEvents.length, outputData.length);
+            copiedEvents.put(current, copy);
+            copy.setTimestamp(current.getTimestamp());
+            copy.setType(current.getType());
+            copy.setId(current.getId());
+            for (int i = 0; i < streamEvents.length; i++) {
+                copy.setEvent(i, (StreamEvent) copyValue(streamEvents[i]));
+            }
+            for (int i = 0; i < outputData.length; i++) {
+                copy.setOutputData(copyValue(outputData[i]), i);
+            }
+            if (previousCopy == null) {
+                first = copy;
+            } else {
+                previousCopy.setNext(copy);
+            }
+            previousCopy = copy;
+            StateEvent next = current.getNext();
+            if (next != null && (copiedEvents.containsKey(next) || next.getClass() != StateEvent.class
+                    || next.getStreamEvents() == null || next.getOutputData() == null)) {
+                copy.setNext((StateEvent) copyValue(next));
+                break;
+            }
+            current = next;
+        }
+        return first;
+    }
+
+    private <K, V> Map<K, V> copyMap(Map<K, V> map, Map<K, V> copy) {
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            copy.put((K) copyValue(entry.getKey()), (V) copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private <E> Collection<E> copyCollection(Collection<E> collection, Collection<E> copy) {
+        for (E element : collection) {
+            copy.add((E) copyValue(element));
+        }
+        return copy;
+    }
+
+    private Object copySerializable(Object value) {
+        try {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
+            objectOutputStream.writeObject(value);
+            objectOutputStream.flush();
+            return new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))
+                    .readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SiddhiAppRuntimeException("Error when copying state of type '" + value.getClass().getName() +
+                    "' for snapshot, " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.serializer;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Default {@link StateSerializer} of the Siddhi Engine. It writes the layouts of the objects Siddhi keeps in its
+ * snapshots, such as the snapshot maps, {@link StreamEvent} and {@link StateEvent} chains, {@link Snapshot},
+ * {@link SnapshotStateList}, {@link Operation} and the boxed primitives of the aggregator states, as compact tagged
+ * binary without reflection. Any other object is written with Java serialization into the same stream.
+ * <p>
+ * The output starts with a magic number and a format version, and the reader restores each format version it knows.
+ * Events are written once per snapshot and are referred by their handle afterwards, hence events shared between
+ * multiple state holders are restored as shared events.
+ */
+public class BinaryStateSerializer implements StateSerializer {
+
+    static final int MAGIC = 0x53445354;
+    static final byte FORMAT_VERSION_1 = 1;
+    static final byte CURRENT_FORMAT_VERSION = FORMAT_VERSION_1;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte STRING = 7;
+    private static final byte SHORT = 8;
+    private static final byte BYTE = 9;
+    private static final byte OBJECT_ARRAY = 10;
+    private static final byte HASH_MAP = 11;
+    private static final byte LINKED_HASH_MAP = 12;
+    private static final byte TREE_MAP = 13;
+    private static final byte ARRAY_LIST = 14;
+    private static final byte LINKED_LIST = 15;
+    private static final byte STREAM_EVENT = 16;
+    private static final byte STATE_EVENT = 17;
+    private static final byte EVENT_REFERENCE = 18;
+    private static final byte SNAPSHOT = 19;
+    private static final byte SNAPSHOT_STATE_LIST = 20;
+    private static final byte OPERATION = 21;
+    private static final byte JAVA_OBJECT = 22;
+
+    private static final byte END_OF_CHAIN = 0;
+    private static final byte NEXT_IN_CHAIN = 1;
+    private static final byte REFERENCE_IN_CHAIN = 2;
+
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+    private static final Operation.Operator[] OPERATORS = Operation.Operator.values();
+
+    @Override
+    public void serialize(Object state, OutputStream outputStream) throws IOException {
+        DataOutputStream headerOutputStream = new DataOutputStream(outputStream);
+        headerOutputStream.writeInt(MAGIC);
+        headerOutputStream.writeByte(CURRENT_FORMAT_VERSION);
+        headerOutputStream.flush();
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        new Writer(objectOutputStream).writeValue(state);
+        objectOutputStream.flush();
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException, ClassNotFoundException {
+        DataInputStream headerInputStream = new DataInputStream(inputStream);
+        if (headerInputStream.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Invalid snapshot header, snapshot is not written by '" +
+                    BinaryStateSerializer.class.getName() + "'");
+        }
+        byte formatVersion = headerInputStream.readByte();
+        switch (formatVersion) {
+            case FORMAT_VERSION_1:
+                return new Reader(new ObjectInputStream(inputStream)).readValue();
+            default:
+                throw new StreamCorruptedException("Unsupported snapshot format version '" + formatVersion +
+                        "', supported versions are up to '" + CURRENT_FORMAT_VERSION + "'");
+        }
+    }
+
+    /**
+     * Writes the values of a single snapshot.
+     */
+    private static class Writer {
+        private final ObjectOutputStream out;
+        private final Map<Object, Integer> eventHandles = new IdentityHashMap<>();
+
+        Writer(ObjectOutputStream out) {
+            this.out = out;
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (type == Integer.class) {
+                out.writeByte(INT);
+                out.writeInt((Integer) value);
+            } else if (type == Double.class) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Float.class) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Boolean.class) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Short.class) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) value);
+            } else if (type == Byte.class) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            } else if (type == Object[].class) {
+                Object[] array = (Object[]) value;
+                out.writeByte(OBJECT_ARRAY);
+                writeLength(array.length);
+                for (Object element : array) {
+                    writeValue(element);
+                }
+            } else if (type == StreamEvent.class) {
+                writeStreamEvent((StreamEvent) value);
+            } else if (type == StateEvent.class && ((StateEvent) value).getStreamEvents() != null
+                    && ((StateEvent) value).getOutputData() != null) {
+                writeStateEvent((StateEvent) value);
+            } else if (type == HashMap.class) {
+                out.writeByte(HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == LinkedHashMap.class) {
+                out.writeByte(LINKED_HASH_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == TreeMap.class && ((TreeMap) value).comparator() == null) {
+                out.writeByte(TREE_MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (type == ArrayList.class) {
+                out.writeByte(ARRAY_LIST);
+                writeCollection((Collection<?>) value);
+            } else if (type == LinkedList.class) {
+                out.writeByte(LINKED_LIST);
+                writeCollection((Collection<?>) value);
+            } else if (type == Snapshot.class) {
+                Snapshot snapshot = (Snapshot) value;
+                out.writeByte(SNAPSHOT);
+                out.writeBoolean(snapshot.isIncrementalSnapshot());
+                writeValue(snapshot.getState());
+            } else if (type == SnapshotStateList.class && ((SnapshotStateList) value).getSnapshotStates() != null
+                    && ((SnapshotStateList) value).getSnapshotStates().comparator() == null) {
+                TreeMap<Long, Snapshot> snapshotStates = ((SnapshotStateList) value).getSnapshotStates();
+                out.writeByte(SNAPSHOT_STATE_LIST);
+                writeMap(snapshotStates);
+            } else if (type == Operation.class && ((Operation) value).operation != null) {
+                Operation operation = (Operation) value;
+                out.writeByte(OPERATION);
+                out.writeByte(operation.operation.ordinal());
+                writeValue(operation.parameters);
+            } else if (type == CapturedStreamEvents.class) {
+                writeValue(((CapturedStreamEvents) value).toState());
+            } else {
+                out.writeByte(JAVA_OBJECT);
+                out.writeObject(value);
+            }
+        }
+
+        private void writeStreamEvent(StreamEvent streamEvent) throws IOException {
+            Integer handle = eventHandles.get(streamEvent);
+            if (handle != null) {
+                out.writeByte(EVENT_REFERENCE);
+                writeLength(handle);
+                return;
+            }
+            out.writeByte(STREAM_EVENT);
+            StreamEvent current = streamEvent;
+            while (true) {
+                eventHandles.put(current, eventHandles.size());
+                out.writeLong(current.getTimestamp());
+                out.writeByte(current.getType().ordinal());
+                writeValue(current.getBeforeWindowData());
+                writeValue(current.getOnAfterWindowData());
+                writeValue(current.getOutputData());
+                StreamEvent next = current.getNext();
+                if (next == null) {
+                    out.writeByte(END_OF_CHAIN);
+                    return;
+                }
+                if (eventHandles.containsKey(next) || next.getClass() != StreamEvent.class) {
+                    out.writeByte(REFERENCE_IN_CHAIN);
+                    writeValue(next);
+                    return;
+                }
+                out.writeByte(NEXT_IN_CHAIN);
+                current = next;
+            }
+        }
+
+        private void writeStateEvent(StateEvent stateEvent) throws IOException {
+            Integer handle = eventHandles.get(stateEvent);
+            if (handle != null) {
+                out.writeByte(EVENT_REFERENCE);
+                writeLength(handle);
+                return;
+            }
+            out.writeByte(STATE_EVENT);
+            StateEvent current = stateEvent;
+            while (true) {
+                eventHandles.put(current, eventHandles.size());
+                out.writeLong(current.getTimestamp());
+                out.writeByte(current.getType().ordinal());
+                out.writeLong(current.getId());
+                StreamEvent[] streamEvents = current.getStreamEvents();
+                Object[] outputData = current.getOutputData();
+                writeLength(streamEvents.length);
+                writeLength(outputData.length);
+                for (StreamEvent streamEvent : streamEvents) {
+                    writeValue(streamEvent);
+                }
+                for (Object data : outputData) {
+                    writeValue(data);
+                }
+                StateEvent next = current.getNext();
+                if (next == null) {
+                    out.writeByte(END_OF_CHAIN);
+                    return;
+                }
+                if (eventHandles.containsKey(next) || next.getClass() != StateEvent.class
+                        || next.getStreamEvents() == null || next.getOutputData() == null) {
+                    out.writeByte(REFERENCE_IN_CHAIN);
+                    writeValue(next);
+                    return;
+                }
+                out.writeByte(NEXT_IN_CHAIN);
+                current = next;
+            }
+        }
+
+        private void writeMap(Map<?, ?> map) throws IOException {
+            writeLength(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+        }
+
+        private void writeCollection(Collection<?> collection) throws IOException {
+            writeLength(collection.size());
+            for (Object element : collection) {
+                writeValue(element);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLength(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeLength(int length) throws IOException {
+            while ((length & ~0x7F) != 0) {
+                out.writeByte((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.writeByte(length);
+        }
+    }
+
+    /**
+     * Reads the values of a single snapshot, written by {@link Writer}.
+     */
+    private static class Reader {
+        private final ObjectInputStream in;
+        private final List<ComplexEvent> events = new ArrayList<>();
+
+        Reader(ObjectInputStream in) {
+            this.in = in;
+        }
+
+        Object readValue() throws IOException, ClassNotFoundException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case INT:
+                    return in.readInt();
+                case LONG:
+                    return in.readLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case STRING:
+                    return readString();
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case OBJECT_ARRAY:
+                    Object[] array = new Object[readLength()];
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readValue();
+                    }
+                    return array;
+                case HASH_MAP:
+                    int hashMapSize = readLength();
+                    return readMap(new HashMap<>((int) (hashMapSize / 0.75f) + 1), hashMapSize);
+                case LINKED_HASH_MAP:
+                    int linkedHashMapSize = readLength();
+                    return readMap(new LinkedHashMap<>((int) (linkedHashMapSize / 0.75f) + 1), linkedHashMapSize);
+                case TREE_MAP:
+                    return readMap(new TreeMap<>(), readLength());
+                case ARRAY_LIST:
+                    int arrayListSize = readLength();
+                    return readCollection(new ArrayList<>(arrayListSize), arrayListSize);
+                case LINKED_LIST:
+                    return readCollection(new LinkedList<>(), readLength());
+                case STREAM_EVENT:
+                    return readStreamEvent();
+                case STATE_EVENT:
+                    return readStateEvent();
+                case EVENT_REFERENCE:
+                    return readEventReference();
+                case SNAPSHOT:
+                    boolean isIncrementalSnapshot = in.readBoolean();
+                    return new Snapshot(readValue(), isIncrementalSnapshot);
+                case SNAPSHOT_STATE_LIST:
+                    TreeMap<Long, Snapshot> snapshotStates = new TreeMap<>();
+                    readMap(snapshotStates, readLength());
+                    return new SnapshotStateList(snapshotStates);
+                case OPERATION:
+                    Operation.Operator operator = OPERATORS[in.readUnsignedByte()];
+                    return new Operation(operator, readValue());
+                case JAVA_OBJECT:
+                    return in.readObject();
+                default:
+                    throw new StreamCorruptedException("Invalid snapshot value tag '" + tag + "'");
+            }
+        }
+
+        private StreamEvent readStreamEvent() throws IOException, ClassNotFoundException {
+            StreamEvent first = null;
+            StreamEvent previous = null;
+            while (true) {
+                StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+                events.add(streamEvent);
+                streamEvent.setTimestamp(in.readLong());
+                streamEvent.setType(EVENT_TYPES[in.readUnsignedByte()]);
+                streamEvent.setBeforeWindowData((Object[]) readValue());
+                streamEvent.setOnAfterWindowData((Object[]) readValue());
+                streamEvent.setOutputData((Object[]) readValue());
+                if (previous == null) {
+                    first = streamEvent;
+                } else {
+                    previous.setNext(streamEvent);
+                }
+                byte marker = in.readByte();
+                if (marker == END_OF_CHAIN) {
+                    return first;
+                } else if (marker == REFERENCE_IN_CHAIN) {
+                    streamEvent.setNext((StreamEvent) readValue());
+                    return first;
+                }
+                previous = streamEvent;
+            }
+        }
+
+        private StateEvent readStateEvent() throws IOException, ClassNotFoundException {
+            StateEvent first = null;
+            StateEvent previous = null;
+            while (true) {
+                long timestamp = in.readLong();
+                ComplexEvent.Type type = EVENT_TYPES[in.readUnsignedByte()];
+                long id = in.readLong();
+                int streamEventsSize = readLength();
+                int outputSize = readLength();
+                StateEvent stateEvent = new StateEvent(streamEventsSize, outputSize);
+                events.add(stateEvent);
+                for (int i = 0; i < streamEventsSize; i++) {
+                    stateEvent.setEvent(i, (StreamEvent) readValue());
+                }
+                for (int i = 0; i < outputSize; i++) {
+                    stateEvent.setOutputData(readValue(), i);
+                }
+                stateEvent.setTimestamp(timestamp);
+                stateEvent.setType(type);
+                stateEvent.setId(id);
+                if (previous == null) {
+                    first = stateEvent;
+                } else {
+                    previous.setNext(stateEvent);
+                }
+                byte marker = in.readByte();
+                if (marker == END_OF_CHAIN) {
+                    return first;
+                } else if (marker == REFERENCE_IN_CHAIN) {
+                    stateEvent.setNext((StateEvent) readValue());
+                    return first;
+                }
+                previous = stateEvent;
+            }
+        }
+
+        private ComplexEvent readEventReference() throws IOException {
+            int handle = readLength();
+            if (handle >= events.size()) {
+                throw new StreamCorruptedException("Invalid event reference '" + handle + "'");
+            }
+            return events.get(handle);
+        }
+
+        private <K, V> Map<K, V> readMap(Map<K, V> map, int size) throws IOException, ClassNotFoundException {
+            for (int i = 0; i < size; i++) {
+                K key = (K) readValue();
+                map.put(key, (V) readValue());
+            }
+            return map;
+        }
+
+        private <E> Collection<E> readCollection(Collection<E> collection, int size)
+                throws IOException, ClassNotFoundException {
+            for (int i = 0; i < size; i++) {
+                collection.add((E) readValue());
+            }
+            return collection;
+        }
+
+        private String readString() throws IOException {
+            byte[] bytes = new byte[readLength()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int readLength() throws IOException {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 28) {
+                    throw new StreamCorruptedException("Invalid length encoding in snapshot");
+                }
+                b = in.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link StateSerializer} based on Java serialization. This is the format used by the Siddhi Engine before
+ * {@link BinaryStateSerializer} and is used to restore the snapshots persisted in it.
+ */
+public class JavaStateSerializer implements StateSerializer {
+
+    @Override
+    public void serialize(Object state, OutputStream outputStream) throws IOException {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(state);
+        objectOutputStream.flush();
+    }
+
+    @Override
+    public Object deserialize(InputStream inputStream) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(inputStream).readObject();
+    }
+
+    /**
+     * Checks whether the given bytes are written using Java serialization.
+     *
+     * @param bytes serialized bytes
+     * @return true if the bytes start with the Java serialization stream magic
+     */
+    public static boolean isJavaSerialized(byte[] bytes) {
+        return bytes.length >= 2 && (bytes[0] & 0xFF) == 0xAC && (bytes[1] & 0xFF) == 0xED;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.serializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Interface class for State Serializers. State Serializers are used by the
+ * {@link io.siddhi.core.util.snapshot.SnapshotService} to convert the snapshot states of the Siddhi Engine into bytes
+ * that can be given to the persistence stores, and to convert them back when restoring.
+ */
+public interface StateSerializer {
+
+    void serialize(Object state, OutputStream outputStream) throws IOException;
+
+    Object deserialize(InputStream inputStream) throws IOException, ClassNotFoundException;
+
+}
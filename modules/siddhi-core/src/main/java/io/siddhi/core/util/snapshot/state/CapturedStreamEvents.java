@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.snapshot.state;
+
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+/**
+ * Point in time capture of the events of a state holder, taken for copied snapshots without copying the event data.
+ * The captured events are marked with {@link StreamEvent#shareData()}, such that their data arrays are copied before
+ * they are modified in place, and the capture keeps referring to the data as it was when captured. The timestamps
+ * and types of the events can be modified in place, hence they are copied.
+ * <p>
+ * The capture is serialized as the events it captured, such that it is restored like the state of the holder.
+ */
+public class CapturedStreamEvents implements Serializable {
+
+    private static final long serialVersionUID = -2547813302874316503L;
+    private final boolean chained;
+    private final long[] timestamps;
+    private final ComplexEvent.Type[] types;
+    private final Object[][] beforeWindowData;
+    private final Object[][] onAfterWindowData;
+    private final Object[][] outputData;
+
+    private CapturedStreamEvents(int size, boolean chained) {
+        this.chained = chained;
+        this.timestamps = new long[size];
+        this.types = new ComplexEvent.Type[size];
+        this.beforeWindowData = new Object[size][];
+        this.onAfterWindowData = new Object[size][];
+        this.outputData = new Object[size][];
+    }
+
+    /**
+     * @param streamEvents events of the holder, which are not modified while being captured
+     * @return capture restored as an {@link ArrayList} of the events
+     */
+    public static CapturedStreamEvents capture(Collection<StreamEvent> streamEvents) {
+        CapturedStreamEvents capturedStreamEvents = new CapturedStreamEvents(streamEvents.size(), false);
+        int index = 0;
+        for (StreamEvent streamEvent : streamEvents) {
+            capturedStreamEvents.capture(index++, streamEvent);
+        }
+        return capturedStreamEvents;
+    }
+
+    /**
+     * @param first first event of the chain of events of the holder, which is not modified while being captured
+     * @return capture restored as a chain of the events
+     */
+    public static CapturedStreamEvents captureChain(StreamEvent first) {
+        int size = 0;
+        for (StreamEvent streamEvent = first; streamEvent != null; streamEvent = streamEvent.getNext()) {
+            size++;
+        }
+        CapturedStreamEvents capturedStreamEvents = new CapturedStreamEvents(size, true);
+        int index = 0;
+        for (StreamEvent streamEvent = first; streamEvent != null; streamEvent = streamEvent.getNext()) {
+            capturedStreamEvents.capture(index++, streamEvent);
+        }
+        return capturedStreamEvents;
+    }
+
+    private void capture(int index, StreamEvent streamEvent) {
+        streamEvent.shareData();
+        timestamps[index] = streamEvent.getTimestamp();
+        types[index] = streamEvent.getType();
+        beforeWindowData[index] = streamEvent.getBeforeWindowData();
+        onAfterWindowData[index] = streamEvent.getOnAfterWindowData();
+        outputData[index] = streamEvent.getOutputData();
+    }
+
+    /**
+     * Replaces the captured data arrays with the arrays returned by the given function, which is used to copy the
+     * arrays holding values that can be modified in place.
+     *
+     * @param dataCopier function returning the given array, or a copy of it
+     */
+    public void copyData(UnaryOperator<Object[]> dataCopier) {
+        for (int i = 0; i < timestamps.length; i++) {
+            beforeWindowData[i] = dataCopier.apply(beforeWindowData[i]);
+            onAfterWindowData[i] = dataCopier.apply(onAfterWindowData[i]);
+            outputData[i] = dataCopier.apply(outputData[i]);
+        }
+    }
+
+    /**
+     * @return the captured events, as an {@link ArrayList} or as an event chain based on how they were captured
+     */
+    public Object toState() {
+        ArrayList<StreamEvent> streamEvents = chained ? null : new ArrayList<>(timestamps.length);
+        StreamEvent first = null;
+        StreamEvent last = null;
+        for (int i = 0; i < timestamps.length; i++) {
+            StreamEvent streamEvent = new StreamEvent(0, 0, 0);
+            streamEvent.setTimestamp(timestamps[i]);
+            streamEvent.setType(types[i]);
+            streamEvent.setBeforeWindowData(beforeWindowData[i]);
+            streamEvent.setOnAfterWindowData(onAfterWindowData[i]);
+            streamEvent.setOutputData(outputData[i]);
+            if (!chained) {
+                streamEvents.add(streamEvent);
+            } else if (first == null) {
+                first = streamEvent;
+            } else {
+                last.setNext(streamEvent);
+            }
+            last = streamEvent;
+        }
+        return chained ? first : streamEvents;
+    }
+
+    private Object writeReplace() {
+        return toState();
+    }
+}
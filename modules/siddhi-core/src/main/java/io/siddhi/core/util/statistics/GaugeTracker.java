@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.statistics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * This interface will have the necessary methods to report values sampled on demand, such as counts and durations.
+ */
+public interface GaugeTracker {
+
+    /**
+     * Register a gauge that reports the current value of the given supplier
+     *
+     * @param name          An unique value to identify the gauge.
+     * @param valueSupplier Supplier of the gauge value
+     */
+    void registerGauge(String name, LongSupplier valueSupplier);
+
+    void enableGaugeMetrics();
+
+    void disableGaugeMetrics();
+}
@@ -35,6 +35,8 @@ public interface StatisticsTrackerFactory {
 
     MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager);
 
+    GaugeTracker createGaugeTracker(StatisticsManager statisticsManager);
+
     StatisticsManager createStatisticsManager(String prefix, String siddhiAppName, List<Element> elements);
 
 }
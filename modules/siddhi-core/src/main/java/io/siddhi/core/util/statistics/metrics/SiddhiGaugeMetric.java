@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.siddhi.core.util.statistics.GaugeTracker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Class to report gauge values in Siddhi.
+ */
+public class SiddhiGaugeMetric implements GaugeTracker {
+    private Map<String, Gauge<Long>> registeredGauges = new ConcurrentHashMap<>();
+    private MetricRegistry metricRegistry;
+
+    public SiddhiGaugeMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public void registerGauge(String name, LongSupplier valueSupplier) {
+        if (registeredGauges.get(name) == null) {
+            Gauge<Long> gauge = () -> {
+                try {
+                    return valueSupplier.getAsLong();
+                } catch (Throwable e) {
+                    return 0L;
+                }
+            };
+            metricRegistry.register(name, gauge);
+            registeredGauges.put(name, gauge);
+        }
+    }
+
+    @Override
+    public void enableGaugeMetrics() {
+        for (Map.Entry<String, Gauge<Long>> entry : registeredGauges.entrySet()) {
+            if (!metricRegistry.getNames().contains(entry.getKey())) {
+                metricRegistry.register(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void disableGaugeMetrics() {
+        for (String name : registeredGauges.keySet()) {
+            metricRegistry.remove(name);
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package io.siddhi.core.util.statistics.metrics;
 
 import io.siddhi.core.util.statistics.BufferedEventsTracker;
+import io.siddhi.core.util.statistics.GaugeTracker;
 import io.siddhi.core.util.statistics.LatencyTracker;
 import io.siddhi.core.util.statistics.MemoryUsageTracker;
 import io.siddhi.core.util.statistics.StatisticsManager;
@@ -49,6 +50,10 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiMemoryUsageMetric(((SiddhiStatisticsManager) statisticsManager).getRegistry());
     }
 
+    public GaugeTracker createGaugeTracker(StatisticsManager statisticsManager) {
+        return new SiddhiGaugeMetric(((SiddhiStatisticsManager) statisticsManager).getRegistry());
+    }
+
     @Override
     public StatisticsManager createStatisticsManager(String prefix, String siddhiAppName, List<Element> elements) {
         return new SiddhiStatisticsManager(elements);
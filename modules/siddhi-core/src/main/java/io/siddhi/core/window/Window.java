@@ -175,6 +175,7 @@ public class Window implements FindableProcessor, MemoryCalculable {
             Scheduler scheduler = SchedulerParser.parse(entryValveProcessor, siddhiQueryContext);
             scheduler.init(this.lockWrapper, windowName);
             scheduler.setStreamEventFactory(streamEventFactory);
+            scheduler.setTimerCoalescingTick(siddhiAppContext.getTimerCoalescingTick());
             ((SchedulingProcessor) internalWindowProcessor).setScheduler(scheduler);
         }
         if (entryValveProcessor != null) {
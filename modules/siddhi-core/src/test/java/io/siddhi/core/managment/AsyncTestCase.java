@@ -18,10 +18,12 @@
 
 package io.siddhi.core.managment;
 
+import com.lmax.disruptor.dsl.ProducerType;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.StreamJunction;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
@@ -32,7 +34,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AsyncTestCase {
@@ -401,4 +405,301 @@ public class AsyncTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
 
     }
+
+    @Test(dependsOnMethods = {"asyncTest8"})
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+        List<Integer> volumes = new ArrayList<>();
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='4')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    volumes.add((Integer) event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[10];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 115.6f, i});
+        }
+        inputHandler.send(events);
+        SiddhiTestHelper.waitForEvents(100, 10, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(10, count.get());
+        for (int i = 0; i < events.length; i++) {
+            AssertJUnit.assertEquals(Integer.valueOf(i), volumes.get(i));
+        }
+    }
+
+    @Test(dependsOnMethods = {"asyncTest9"})
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='busy_spin', producer.type='single')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@async(buffer.size='16', wait.strategy='phased.backoff')" +
+                "define stream innerStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream[volume > 90] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"WSO2", 115.6f, 100 + i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 20, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(20, count.get());
+    }
+
+    @Test(dependsOnMethods = {"asyncTest10"})
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setAsyncWaitStrategy(StreamJunction.WaitStrategyType.YIELDING);
+        siddhiManager.setAsyncProducerType(ProducerType.SINGLE);
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"WSO2", 115.6f, 100 + i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 20, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(20, count.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest11"})
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest12"})
+    public void asyncTest13() throws InterruptedException {
+        log.info("async test 13");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', producer.type='many')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(dependsOnMethods = {"asyncTest13"})
+    public void asyncTest14() throws InterruptedException {
+        log.info("async test 14");
+        HashMap<String, Integer> threads = new HashMap<>();
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='256', workers='4', worker.pool='true')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select symbol, price * 2 as price, volume " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream[volume >= 100] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    count.incrementAndGet();
+                }
+                synchronized (threads) {
+                    Integer count = threads.get(Thread.currentThread().getName());
+                    if (count == null) {
+                        threads.put(Thread.currentThread().getName(), 1);
+                    } else {
+                        count++;
+                        threads.put(Thread.currentThread().getName(), count);
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 115.6f, 100 + i});
+        }
+        SiddhiTestHelper.waitForEvents(100, 1000, count, 10000);
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(1000, count.get());
+        log.info("Threads count:" + threads.size() + " threads:" + threads);
+        Assert.assertTrue(threads.size() <= 4);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest14"})
+    public void asyncTest15() throws InterruptedException {
+        log.info("async test 15");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='2', worker.pool='true')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(5) " +
+                "select symbol, sum(price) as price " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class, dependsOnMethods = {"asyncTest15"})
+    public void asyncTest16() throws InterruptedException {
+        log.info("async test 16");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='2', worker.pool='true')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 < price] " +
+                "select * " +
+                "insert into innerStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from innerStream#window.length(5) " +
+                "select symbol, sum(price) as price " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class,
+            expectedExceptionsMessageRegExp = "(?s).*cannot be consumed by aggregations.*",
+            dependsOnMethods = {"asyncTest16"})
+    public void asyncTest17() throws InterruptedException {
+        log.info("async test 17");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', workers='2', worker.pool='true')" +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "define aggregation cseEventAggregation " +
+                "from cseEventStream " +
+                "select symbol, sum(price) as totalPrice " +
+                "group by symbol " +
+                "aggregate every sec ... min ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
 }
@@ -28,6 +28,8 @@ import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
 import io.siddhi.core.util.persistence.IncrementalFileSystemPersistenceStore;
+import io.siddhi.core.util.persistence.util.IncrementalSnapshotInfo;
+import io.siddhi.core.util.persistence.util.SnapshotFileFormat;
 import org.apache.log4j.Logger;
 import org.testng.Assert;
 import org.testng.AssertJUnit;
@@ -1280,4 +1282,244 @@ public class IncrementalPersistenceTestCase {
 
         AssertJUnit.assertEquals(true, eventArrived);
     }
+
+    @Test
+    public void incrementalPersistenceTest13() throws InterruptedException {
+        log.info("Incremental persistence test 13 - compacted increments of length window query in segments");
+
+        IncrementalFileSystemPersistenceStore persistenceStore = new IncrementalFileSystemPersistenceStore(
+                "./target/temp-segment", SnapshotFileFormat.RAW, true);
+        persistenceStore.clearAllRevisions("incrementalPersistenceTest13");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest13') " +
+                "@app:SnapshotCompaction(increments='2') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        }
+        AssertJUnit.assertEquals(new Long(1000), lastValue);
+
+        //persisting the base, two increments to be compacted, and an increment after the compacted base
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"IBM", 75.6f, 200});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"IBM", 75.6f, 400});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        AssertJUnit.assertEquals(new Long(1600), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.error(e.getMessage(), e);
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 500});
+        AssertJUnit.assertEquals(new Long(2000), lastValue);
+
+        siddhiAppRuntime.shutdown();
+        persistenceStore.clearAllRevisions("incrementalPersistenceTest13");
+        AssertJUnit.assertEquals(15, count);
+    }
+
+    @Test
+    public void incrementalPersistenceTest14() throws InterruptedException {
+        log.info("Incremental persistence test 14 - in-memory table update of indexed attribute persistence test.");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalFileSystemPersistenceStore(storageFilePath));
+
+        String streams = "" +
+                "@app:name('incrementalPersistenceTest14') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, volume long); " +
+                "define stream CheckStockStream (volume long); " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update StockTable " +
+                "   set StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume == StockTable.volume " +
+                "select StockTable.symbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            }
+        };
+
+        try {
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+
+            siddhiAppRuntime.start();
+            //persisting the base, and an increment with the added and updated events
+            siddhiAppRuntime.persist();
+            Thread.sleep(500);
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            updateStockStream.send(new Object[]{"WSO2", 300L});
+            siddhiAppRuntime.persist();
+            Thread.sleep(500);
+
+            siddhiAppRuntime.shutdown();
+
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+            siddhiAppRuntime.addCallback("query3", queryCallback);
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            //loading
+            try {
+                siddhiAppRuntime.restoreLastRevision();
+            } catch (CannotRestoreSiddhiAppStateException e) {
+                Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed.", e);
+            }
+            siddhiAppRuntime.start();
+
+            checkStockStream.send(new Object[]{100L});
+            checkStockStream.send(new Object[]{300L});
+            checkStockStream.send(new Object[]{200L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 300L},
+                    new Object[]{"IBM", 200L}
+            );
+
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals(2, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void incrementalPersistenceTest15() throws InterruptedException {
+        log.info("Incremental persistence test 15 - full snapshot of table instead of compacting large change logs");
+
+        IncrementalFileSystemPersistenceStore persistenceStore = new IncrementalFileSystemPersistenceStore(
+                "./target/temp-compaction", SnapshotFileFormat.RAW);
+        persistenceStore.clearAllRevisions("incrementalPersistenceTest15");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setIncrementalPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('incrementalPersistenceTest15') " +
+                "@app:SnapshotCompaction(increments='2') " +
+                "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        int symbol = 0;
+        for (; symbol < 8000; symbol++) {
+            inputHandler.send(new Object[]{"S" + symbol, 75.6f, 100L});
+        }
+        //persisting the base, and two increments which together exceed the compacted change log limit
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 6000; j++, symbol++) {
+                inputHandler.send(new Object[]{"S" + symbol, 75.6f, 100L});
+            }
+            siddhiAppRuntime.persist();
+            Thread.sleep(500);
+        }
+        //persisting the requested full snapshot
+        inputHandler.send(new Object[]{"S" + symbol++, 75.6f, 100L});
+        siddhiAppRuntime.persist();
+        Thread.sleep(500);
+
+        for (IncrementalSnapshotInfo snapshotInfo :
+                persistenceStore.getListOfRevisionsToLoad(Long.MAX_VALUE, "incrementalPersistenceTest15")) {
+            AssertJUnit.assertEquals(IncrementalSnapshotInfo.SnapshotType.BASE, snapshotInfo.getType());
+        }
+
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.error(e.getMessage(), e);
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        siddhiAppRuntime.start();
+
+        Event[] events = siddhiAppRuntime.query("from StockTable select count() as totalCount");
+        AssertJUnit.assertEquals((long) symbol, events[0].getData(0));
+
+        siddhiAppRuntime.shutdown();
+        persistenceStore.clearAllRevisions("incrementalPersistenceTest15");
+    }
 }
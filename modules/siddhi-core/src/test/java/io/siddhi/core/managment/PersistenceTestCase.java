@@ -28,8 +28,10 @@ import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.persistence.util.SnapshotFileFormat;
 import io.siddhi.core.util.snapshot.PersistenceReference;
 import org.apache.log4j.Logger;
 import org.testng.Assert;
@@ -37,6 +39,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -1119,4 +1124,330 @@ public class PersistenceTestCase {
 
         siddhiAppRuntime.shutdown();
     }
+
+    @Test(dependsOnMethods = "persistenceTest13")
+    public void persistenceTest14() throws InterruptedException, ExecutionException {
+        log.info("Persistence test 14 - copied snapshot of window query and table.");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test14') " +
+                "@app:CopiedSnapshot " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define table StockTable ( symbol string, volume int );" +
+                "" +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        persistenceReference.getFullStateFuture().get();
+        AssertJUnit.assertEquals(new Long(500), lastValue);
+        AssertJUnit.assertTrue(siddhiAppRuntime.getLastSnapshotPauseTime() >= 0);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        Event[] tableEvents = siddhiAppRuntime.query("from StockTable select symbol, volume");
+        AssertJUnit.assertEquals(3, tableEvents.length);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(4, count);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest14")
+    public void persistenceTest15() throws InterruptedException, ExecutionException {
+        log.info("Persistence test 15 - streaming window query and table snapshots to the file system.");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore("./target/temp-full", 2);
+        persistenceStore.clearAllRevisions("Test15");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test15') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define table StockTable ( symbol string, volume int );" +
+                "" +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.persist().getFullStateFuture().get();
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 100});
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(new Long(200), lastValue);
+
+        //persisting
+        Thread.sleep(10);
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFullStateFuture().get();
+        AssertJUnit.assertEquals(persistenceReference.getRevision(), persistenceStore.getLastRevision("Test15"));
+        inputHandler.send(new Object[]{"IBM", 75.6f, 300});
+        AssertJUnit.assertEquals(new Long(500), lastValue);
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        AssertJUnit.assertEquals(new Long(300), lastValue);
+
+        Event[] tableEvents = siddhiAppRuntime.query("from StockTable select symbol, volume");
+        AssertJUnit.assertEquals(3, tableEvents.length);
+
+        siddhiAppRuntime.shutdown();
+        persistenceStore.clearAllRevisions("Test15");
+        AssertJUnit.assertEquals(4, count);
+    }
+
+    @Test(dependsOnMethods = "persistenceTest15")
+    public void persistenceTest16() throws InterruptedException, ExecutionException, IOException {
+        log.info("Persistence test 16 - compressed snapshots are validated before they are restored.");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore("./target/temp-full", 2,
+                SnapshotFileFormat.COMPRESSED);
+        persistenceStore.clearAllRevisions("Test16");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test16') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream[price>10]#window.length(1000) " +
+                "select symbol, price, sum(volume) as totalVol " +
+                "insert into OutStream ";
+
+        QueryCallback queryCallback = new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                eventArrived = true;
+                for (Event inEvent : inEvents) {
+                    count++;
+                    lastValue = (Long) inEvent.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 500; i++) {
+            inputHandler.send(new Object[]{"IBM", 75.6f, 10});
+        }
+        AssertJUnit.assertEquals(new Long(5000), lastValue);
+
+        //persisting
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFullStateFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        //restarting and loading
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", queryCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+        inputHandler.send(new Object[]{"IBM", 75.6f, 10});
+        AssertJUnit.assertEquals(new Long(5010), lastValue);
+        siddhiAppRuntime.shutdown();
+
+        //corrupting the persisted revision
+        File snapshotFile = new File("./target/temp-full" + File.separator + "Test16" + File.separator +
+                persistenceReference.getRevision());
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(snapshotFile, "rw")) {
+            randomAccessFile.seek(randomAccessFile.length() - 20);
+            int value = randomAccessFile.read();
+            randomAccessFile.seek(randomAccessFile.length() - 20);
+            randomAccessFile.write(value ^ 0xFF);
+        }
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+            Assert.fail("Restoring a corrupted revision of Siddhi app " + siddhiAppRuntime.getName() +
+                    " did not fail");
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            log.info("Restoring of the corrupted revision failed as expected, " + e.getMessage());
+        } finally {
+            siddhiAppRuntime.shutdown();
+            persistenceStore.clearAllRevisions("Test16");
+        }
+    }
+
+    @Test(dependsOnMethods = "persistenceTest16")
+    public void persistenceTest17() throws InterruptedException {
+        log.info("Persistence test 17 - parallel snapshot of partitioned window query and table.");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test17') " +
+                "@app:ParallelSnapshot(workers='4') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define table StockTable ( symbol string, volume int );" +
+                "" +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "partition with (symbol of StockStream) " +
+                "begin " +
+                "   @info(name = 'query1')" +
+                "   from StockStream[price>10]#window.length(10) " +
+                "   select symbol, price, sum(volume) as totalVol " +
+                "   insert into OutStream ;" +
+                "end ";
+
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                    lastValue = (Long) event.getData(2);
+                }
+            }
+        };
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{"SYM" + i, 75.6f, 100});
+            inputHandler.send(new Object[]{"SYM" + i, 75.6f, i});
+        }
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(new Long(119), lastValue);
+
+        //persisting
+        siddhiAppRuntime.persist();
+
+        //restarting siddhi app
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+
+        //loading
+        try {
+            siddhiAppRuntime.restoreLastRevision();
+        } catch (CannotRestoreSiddhiAppStateException e) {
+            Assert.fail("Restoring of Siddhi app " + siddhiAppRuntime.getName() + " failed");
+        }
+
+        inputHandler.send(new Object[]{"SYM7", 75.6f, 10});
+        AssertJUnit.assertEquals(new Long(117), lastValue);
+        inputHandler.send(new Object[]{"SYM13", 75.6f, 10});
+        AssertJUnit.assertEquals(new Long(123), lastValue);
+
+        Event[] tableEvents = siddhiAppRuntime.query("from StockTable select symbol, volume");
+        AssertJUnit.assertEquals(42, tableEvents.length);
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertEquals(42, count);
+    }
 }
@@ -25,6 +25,8 @@ import io.siddhi.core.event.stream.StreamEventCloner;
 import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.event.stream.holder.SnapshotableStreamEventQueue;
 import io.siddhi.core.event.stream.holder.StreamEventClonerHolder;
+import io.siddhi.core.util.snapshot.SnapshotRequest;
+import io.siddhi.core.util.snapshot.state.CapturedStreamEvents;
 import io.siddhi.core.util.snapshot.state.Snapshot;
 import io.siddhi.core.util.snapshot.state.SnapshotStateList;
 import io.siddhi.query.api.definition.Attribute;
@@ -400,4 +402,61 @@ public class SnapshotableEventQueueTestCase {
         Assert.assertEquals(snapshotableStreamEventQueue, snapshotableStreamEventQueue2);
     }
 
+    @Test
+    public void capturedPersistenceTest1() throws IOException, ClassNotFoundException {
+
+        MetaStreamEvent metaStreamEvent = new MetaStreamEvent();
+        metaStreamEvent.addOutputData(new Attribute("symbol", Attribute.Type.STRING));
+        metaStreamEvent.addOutputData(new Attribute("price", Attribute.Type.FLOAT));
+        metaStreamEvent.addOutputData(new Attribute("volume", Attribute.Type.LONG));
+
+        StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent,
+                new StreamEventFactory(metaStreamEvent));
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        StreamEvent streamEvent = new StreamEvent(metaStreamEvent.getBeforeWindowData().size(),
+                metaStreamEvent.getOnAfterWindowData().size(), metaStreamEvent.getOutputData().size());
+        streamEvent.setOutputData(new Object[]{"IBM", 500.6f, 1});
+
+        for (int i = 0; i < 10; i++) {
+            streamEvent.getOutputData()[2] = (long) i;
+            streamEvent.setTimestamp(i);
+            snapshotableStreamEventQueue.add(streamEventCloner.copyStreamEvent(streamEvent));
+        }
+
+        Snapshot snapshot;
+        SnapshotRequest.requestForCapture(true);
+        try {
+            snapshot = snapshotableStreamEventQueue.getSnapshot();
+        } finally {
+            SnapshotRequest.requestForCapture(false);
+        }
+        Assert.assertTrue(snapshot.getState() instanceof CapturedStreamEvents);
+
+        // the events modified after the capture copy their data, leaving the captured data unchanged
+        snapshotableStreamEventQueue.reset();
+        while (snapshotableStreamEventQueue.hasNext()) {
+            StreamEvent queuedEvent = snapshotableStreamEventQueue.next();
+            queuedEvent.setOutputData((Long) queuedEvent.getOutputData()[2] + 100, 2);
+            queuedEvent.setTimestamp(queuedEvent.getTimestamp() + 100);
+        }
+
+        SnapshotableStreamEventQueue snapshotableStreamEventQueue2 =
+                new SnapshotableStreamEventQueue(new StreamEventClonerHolder(streamEventCloner));
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        snapshotStateList.putSnapshotState(3L, (Snapshot) fromString(toString(snapshot)));
+        snapshotableStreamEventQueue2.restore(snapshotStateList);
+
+        snapshotableStreamEventQueue.reset();
+        snapshotableStreamEventQueue2.reset();
+        for (int i = 0; i < 10; i++) {
+            StreamEvent queuedEvent = snapshotableStreamEventQueue.next();
+            StreamEvent restoredEvent = snapshotableStreamEventQueue2.next();
+            Assert.assertEquals(queuedEvent.getOutputData()[2], (long) i + 100);
+            Assert.assertEquals(restoredEvent.getOutputData()[2], (long) i);
+            Assert.assertEquals(restoredEvent.getTimestamp(), i);
+        }
+        Assert.assertFalse(snapshotableStreamEventQueue2.hasNext());
+    }
+
 }
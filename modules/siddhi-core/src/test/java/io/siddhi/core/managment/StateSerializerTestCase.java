@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.managment;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.config.SiddhiAppContext;
+import io.siddhi.core.config.SiddhiContext;
+import io.siddhi.core.event.ComplexEvent;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.event.state.StateEvent;
+import io.siddhi.core.event.stream.Operation;
+import io.siddhi.core.event.stream.StreamEvent;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import io.siddhi.core.util.persistence.PersistenceStore;
+import io.siddhi.core.util.snapshot.ByteSerializer;
+import io.siddhi.core.util.snapshot.serializer.BinaryStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+import io.siddhi.core.util.snapshot.serializer.StateSerializer;
+import io.siddhi.core.util.snapshot.state.Snapshot;
+import io.siddhi.core.util.snapshot.state.SnapshotStateList;
+import io.siddhi.query.api.expression.condition.Compare;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+public class StateSerializerTestCase {
+    private static final Logger log = Logger.getLogger(StateSerializerTestCase.class);
+    private Long lastValue;
+
+    @BeforeMethod
+    public void init() {
+        lastValue = null;
+    }
+
+    @Test
+    public void stateSerializerTest1() throws IOException, ClassNotFoundException {
+        log.info("state serializer test 1 - binary serialization of snapshot states");
+
+        StreamEvent streamEvent1 = new StreamEvent(0, 0, 3);
+        streamEvent1.setOutputData(new Object[]{"IBM", 75.6f, 100L});
+        streamEvent1.setTimestamp(1000L);
+        StreamEvent streamEvent2 = new StreamEvent(1, 0, 3);
+        streamEvent2.setBeforeWindowData(new Object[]{true});
+        streamEvent2.setOutputData(new Object[]{"WSO2", null, 200L});
+        streamEvent2.setType(ComplexEvent.Type.EXPIRED);
+        streamEvent1.setNext(streamEvent2);
+
+        StateEvent stateEvent = new StateEvent(2, 1);
+        stateEvent.setEvent(0, streamEvent1);
+        stateEvent.setEvent(1, streamEvent2);
+        stateEvent.setOutputData("IBM", 0);
+        stateEvent.setId(7L);
+        LinkedList<StateEvent> stateEventList = new LinkedList<>();
+        stateEventList.add(stateEvent);
+
+        ArrayList<Operation> operations = new ArrayList<>();
+        operations.add(new Operation(Operation.Operator.ADD, streamEvent2));
+        operations.add(new Operation(Operation.Operator.DELETE_BY_INDEX, 3));
+        operations.add(new Operation(Operation.Operator.DELETE_BY_OPERATOR,
+                new Object[]{"symbol", Compare.Operator.EQUAL, "IBM"}));
+        SnapshotStateList snapshotStateList = new SnapshotStateList();
+        snapshotStateList.putSnapshotState(1L, new Snapshot(streamEvent1));
+        snapshotStateList.putSnapshotState(2L, new Snapshot(operations, true));
+
+        Map<String, Object> state = new HashMap<>();
+        state.put("Sum", 300.5);
+        state.put("Count", 2L);
+        state.put("Started", true);
+        state.put("CountMap", new TreeMap<>(Collections.singletonMap(75.6, 2)));
+        state.put("PendingStateEventList", stateEventList);
+        state.put("Table", snapshotStateList);
+        state.put("Id", new UUID(1L, 2L));
+
+        StateSerializer stateSerializer = new BinaryStateSerializer();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        stateSerializer.serialize(state, outputStream);
+        Map<String, Object> restoredState = (Map<String, Object>) stateSerializer.deserialize(
+                new ByteArrayInputStream(outputStream.toByteArray()));
+
+        Assert.assertEquals(restoredState.get("Sum"), 300.5);
+        Assert.assertEquals(restoredState.get("Count"), 2L);
+        Assert.assertEquals(restoredState.get("Started"), true);
+        Assert.assertEquals(restoredState.get("CountMap"), state.get("CountMap"));
+        Assert.assertEquals(restoredState.get("Id"), new UUID(1L, 2L));
+
+        StateEvent restoredStateEvent = ((LinkedList<StateEvent>) restoredState.get("PendingStateEventList")).get(0);
+        Assert.assertEquals(restoredStateEvent.getId(), 7L);
+        Assert.assertEquals(restoredStateEvent.getOutputData(), new Object[]{"IBM"});
+        StreamEvent restoredStreamEvent1 = restoredStateEvent.getStreamEvent(0);
+        StreamEvent restoredStreamEvent2 = restoredStateEvent.getStreamEvent(1);
+        Assert.assertEquals(restoredStreamEvent1.getTimestamp(), 1000L);
+        Assert.assertEquals(restoredStreamEvent1.getOutputData(), new Object[]{"IBM", 75.6f, 100L});
+        Assert.assertSame(restoredStreamEvent1.getNext(), restoredStreamEvent2);
+        Assert.assertEquals(restoredStreamEvent2.getType(), ComplexEvent.Type.EXPIRED);
+        Assert.assertEquals(restoredStreamEvent2.getBeforeWindowData(), new Object[]{true});
+        Assert.assertEquals(restoredStreamEvent2.getOutputData(), new Object[]{"WSO2", null, 200L});
+
+        TreeMap<Long, Snapshot> restoredSnapshots =
+                ((SnapshotStateList) restoredState.get("Table")).getSnapshotStates();
+        Assert.assertFalse(restoredSnapshots.get(1L).isIncrementalSnapshot());
+        Assert.assertSame(restoredSnapshots.get(1L).getState(), restoredStreamEvent1);
+        Assert.assertTrue(restoredSnapshots.get(2L).isIncrementalSnapshot());
+        ArrayList<Operation> restoredOperations = (ArrayList<Operation>) restoredSnapshots.get(2L).getState();
+        Assert.assertEquals(restoredOperations.get(0).operation, Operation.Operator.ADD);
+        Assert.assertSame(restoredOperations.get(0).parameters, restoredStreamEvent2);
+        Assert.assertEquals(restoredOperations.get(1).parameters, 3);
+        Assert.assertEquals(restoredOperations.get(2).operation, Operation.Operator.DELETE_BY_OPERATOR);
+        Assert.assertEquals(restoredOperations.get(2).parameters, new Object[]{"symbol", Compare.Operator.EQUAL,
+                "IBM"});
+    }
+
+    @Test
+    public void stateSerializerTest2() {
+        log.info("state serializer test 2 - restoring snapshots of different serialization formats");
+
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setName("Test");
+        siddhiAppContext.setSiddhiContext(new SiddhiContext());
+
+        Map<String, Object> state = new HashMap<>();
+        state.put("Values", new ArrayList<>(Arrays.asList(1, 2L, "three")));
+
+        byte[] binarySnapshot = ByteSerializer.objectToByte(state, siddhiAppContext);
+        Assert.assertFalse(JavaStateSerializer.isJavaSerialized(binarySnapshot));
+        Assert.assertEquals(ByteSerializer.byteToObject(binarySnapshot, siddhiAppContext), state);
+
+        siddhiAppContext.getSiddhiContext().setStateSerializer(new JavaStateSerializer());
+        byte[] javaSnapshot = ByteSerializer.objectToByte(state, siddhiAppContext);
+        Assert.assertTrue(JavaStateSerializer.isJavaSerialized(javaSnapshot));
+
+        siddhiAppContext.getSiddhiContext().setStateSerializer(new BinaryStateSerializer());
+        Assert.assertEquals(ByteSerializer.byteToObject(javaSnapshot, siddhiAppContext), state);
+        Assert.assertEquals(ByteSerializer.byteToObject(binarySnapshot, siddhiAppContext), state);
+
+        byte[] unsupportedSnapshot = Arrays.copyOf(binarySnapshot, binarySnapshot.length);
+        unsupportedSnapshot[4] = (byte) 100;
+        Assert.assertNull(ByteSerializer.byteToObject(unsupportedSnapshot, siddhiAppContext));
+    }
+
+    @Test
+    public void stateSerializerTest3() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("state serializer test 3 - restoring table and window states persisted with Java serialization");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream#window.length(10) " +
+                "select symbol, price, sum(volume) as totalVolume " +
+                "insert into OutStream; " +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockStream " +
+                "select symbol, price, volume " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol; ";
+
+        SiddhiManager javaSiddhiManager = new SiddhiManager();
+        javaSiddhiManager.setPersistenceStore(persistenceStore);
+        javaSiddhiManager.setStateSerializer(new JavaStateSerializer());
+        SiddhiAppRuntime siddhiAppRuntime = javaSiddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100L});
+        inputHandler.send(new Object[]{"WSO2", 57.6f, 200L});
+        inputHandler.send(new Object[]{"IBM", 76.6f, 300L});
+        siddhiAppRuntime.persist();
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+        javaSiddhiManager.shutdown();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                lastValue = (Long) inEvents[inEvents.length - 1].getData(2);
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        inputHandler.send(new Object[]{"ORACLE", 45.6f, 400L});
+
+        Assert.assertEquals(lastValue, Long.valueOf(1000L));
+        Event[] events = siddhiAppRuntime.query("from StockTable select symbol, volume order by symbol");
+        Assert.assertEquals(events.length, 3);
+        Assert.assertEquals(events[0].getData(), new Object[]{"IBM", 300L});
+        Assert.assertEquals(events[1].getData(), new Object[]{"ORACLE", 400L});
+        Assert.assertEquals(events[2].getData(), new Object[]{"WSO2", 200L});
+
+        // persisting again with the default binary serializer
+        siddhiAppRuntime.persist();
+        Thread.sleep(100);
+        siddhiAppRuntime.shutdown();
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        events = siddhiAppRuntime.query("from StockTable select symbol, volume order by symbol");
+        Assert.assertEquals(events.length, 3);
+        Assert.assertEquals(events[0].getData(), new Object[]{"IBM", 300L});
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.executor.compiled.CompiledExpressionExecutor;
+import io.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import javax.tools.ToolProvider;
+
+public class CompiledExpressionTestCase {
+    private static final Logger log = Logger.getLogger(CompiledExpressionTestCase.class);
+
+    private static final String STREAM_DEFINITION = "" +
+            "define stream cseEventStream (symbol string, price double, volume int, quantity long, " +
+            "weight float, available bool);";
+
+    private static final String QUERY = "" +
+            "@info(name = 'query1') " +
+            "from cseEventStream[(price * volume / 2 > 100 and symbol != 'WSO2') or not available " +
+            "or (quantity % volume == 1 and weight < quantity) or volume is null] " +
+            "select symbol, price * 2 + volume as total, quantity / volume as ratio, weight - volume as diff, " +
+            "coalesce(volume, 0) * 10 > quantity as heavy, not (symbol == 'IBM') and available as flag " +
+            "insert into outputStream;";
+
+    @Test
+    public void compiledExpressionTest1() throws InterruptedException {
+        log.info("Compiled expression test1 - compiled and interpreted expressions produce the same output");
+
+        List<Object[]> events = generateEvents(2000);
+        List<List<Object>> interpreted = runQuery("", events);
+        List<List<Object>> compiled = runQuery("@app:compileExpressions ", events);
+
+        AssertJUnit.assertTrue(interpreted.size() > 0);
+        AssertJUnit.assertTrue(interpreted.size() < events.size());
+        AssertJUnit.assertEquals(interpreted, compiled);
+    }
+
+    @Test
+    public void compiledExpressionTest2() throws InterruptedException {
+        log.info("Compiled expression test2 - select expressions are compiled");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime("@app:compileExpressions " +
+                STREAM_DEFINITION + QUERY);
+
+        QueryRuntimeImpl queryRuntime = (QueryRuntimeImpl) siddhiAppRuntime.getQueries().iterator().next();
+        List<AttributeProcessor> attributeProcessors = queryRuntime.getSelector().getAttributeProcessorList();
+        AssertJUnit.assertEquals(5, attributeProcessors.size());
+        boolean compilerAvailable = ToolProvider.getSystemJavaCompiler() != null;
+        for (AttributeProcessor attributeProcessor : attributeProcessors) {
+            AssertJUnit.assertTrue(attributeProcessor.getExpressionExecutor() instanceof CompiledExpressionExecutor);
+            AssertJUnit.assertEquals(compilerAvailable,
+                    ((CompiledExpressionExecutor) attributeProcessor.getExpressionExecutor()).isCompiled());
+        }
+        siddhiAppRuntime.shutdown();
+    }
+
+    private List<List<Object>> runQuery(String appAnnotations, List<Object[]> events)
+            throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(appAnnotations +
+                STREAM_DEFINITION + QUERY);
+        List<List<Object>> output = new ArrayList<>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    output.add(Arrays.asList(event.getData()));
+                }
+            }
+        });
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (Object[] event : events) {
+            inputHandler.send(event.clone());
+        }
+        siddhiAppRuntime.shutdown();
+        return output;
+    }
+
+    private static List<Object[]> generateEvents(int count) {
+        Random random = new Random(42);
+        String[] symbols = new String[]{"IBM", "WSO2", "ORACLE"};
+        List<Object[]> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new Object[]{
+                    random.nextInt(5) == 0 ? null : symbols[random.nextInt(symbols.length)],
+                    random.nextInt(5) == 0 ? null : random.nextInt(100) - 20.5,
+                    random.nextInt(5) == 0 ? null : random.nextInt(10) - 3,
+                    random.nextInt(5) == 0 ? null : (long) random.nextInt(20),
+                    random.nextInt(5) == 0 ? null : random.nextFloat() * 20,
+                    random.nextInt(5) == 0 ? null : random.nextBoolean()});
+        }
+        return events;
+    }
+}
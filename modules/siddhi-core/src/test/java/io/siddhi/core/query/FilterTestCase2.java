@@ -1776,4 +1776,49 @@ public class FilterTestCase2 {
 
 
     }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream sensorStream (symbol string, temp double, divisor int);";
+        String query = "@info(name = 'query1') " +
+                "from sensorStream[(temp * 1.8 + 32 >= 100 and temp / divisor < 50) or temp * 2 == 500.0] " +
+                "select symbol " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        StringBuilder symbols = new StringBuilder();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    symbols.append(event.getData(0));
+                }
+                count.addAndGet(inEvents.length);
+                eventArrived.set(true);
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("sensorStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"A", 40.0, 1});
+        inputHandler.send(new Object[]{"B", null, 1});
+        inputHandler.send(new Object[]{"C", 40.0, 0});
+        inputHandler.send(new Object[]{"D", 10.0, 1});
+        inputHandler.send(new Object[]{"E", 60.0, 2});
+        inputHandler.send(new Object[]{"F", 250.0, 1});
+        inputHandler.send(new Object[]{"G", 250.0, null});
+        SiddhiTestHelper.waitForEvents(10, 4, count, 100);
+        AssertJUnit.assertEquals(4, count.get());
+        AssertJUnit.assertEquals("AEFG", symbols.toString());
+        AssertJUnit.assertTrue(eventArrived.get());
+        siddhiAppRuntime.shutdown();
+
+    }
 }
@@ -31,6 +31,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 public class MaxAggregatorExtensionTestCase {
 
     private static final Logger log = Logger.getLogger(MaxAggregatorExtensionTestCase.class);
@@ -102,6 +106,64 @@ public class MaxAggregatorExtensionTestCase {
 
     }
 
+    @Test
+    public void testMinAggregatorExtension1() throws InterruptedException {
+
+        log.info("MinAggregator TestCase 1");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (price1 double,price2 double, price3 double);";
+        String query = ("@info(name = 'query1') " +
+                "from inputStream#window.time(1 sec) " +
+                "select min(price1) as minValue " +
+                "insert all events into outputStream;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+
+                EventPrinter.print(events);
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                    switch (count) {
+                        case 1:
+                            AssertJUnit.assertEquals(36.0, event.getData(0));
+                            break;
+                        case 2:
+                            AssertJUnit.assertEquals(36.0, event.getData(0));
+                            break;
+                        case 3:
+                            AssertJUnit.assertEquals(37.88, event.getData(0));
+                            break;
+                        case 4:
+                            AssertJUnit.assertEquals(null, event.getData(0));
+                            break;
+                        default:
+                            org.testng.AssertJUnit.fail();
+                    }
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{36d, 36.75, 35.75});
+        Thread.sleep(100);
+        inputHandler.send(new Object[]{37.88d, 38.12, 37.62});
+        Thread.sleep(2000);
+
+        Thread.sleep(300);
+        AssertJUnit.assertEquals(4, count);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
     @Test(expectedExceptions = SiddhiAppCreationException.class)
     public void maxAttributeAggregatorTest2() throws InterruptedException {
 
@@ -180,4 +242,136 @@ public class MaxAggregatorExtensionTestCase {
         execPlanRunTime.shutdown();
     }
 
+    @Test
+    public void minMaxAttributeAggregatorTest3() throws InterruptedException {
+
+        log.info("minMaxAttributeAggregator Test #3");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String execPlan = "" +
+                "define stream cseEventStream (volume int, price float);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(20) " +
+                "select min(volume) as minVolume, max(volume) as maxVolume, min(price) as minPrice, " +
+                "max(price) as maxPrice " +
+                "insert into outputStream;";
+
+        SiddhiAppRuntime execPlanRunTime = siddhiManager.createSiddhiAppRuntime(execPlan);
+        final List<Object[]> results = new ArrayList<>();
+        execPlanRunTime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+
+                for (Event event : inEvents) {
+                    results.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = execPlanRunTime.getInputHandler("cseEventStream");
+
+        execPlanRunTime.start();
+        int[] volumes = new int[101];
+        for (int i = 0; i < volumes.length; i++) {
+            volumes[i] = (i * 37) % 101;
+            inputHandler.send(new Object[]{volumes[i], volumes[i] / 4f});
+        }
+        AssertJUnit.assertEquals(volumes.length, results.size());
+        for (int i = 0; i < volumes.length; i++) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int j = Math.max(0, i - 19); j <= i; j++) {
+                min = Math.min(min, volumes[j]);
+                max = Math.max(max, volumes[j]);
+            }
+            AssertJUnit.assertEquals(min, results.get(i)[0]);
+            AssertJUnit.assertEquals(max, results.get(i)[1]);
+            AssertJUnit.assertEquals(min / 4f, results.get(i)[2]);
+            AssertJUnit.assertEquals(max / 4f, results.get(i)[3]);
+        }
+        execPlanRunTime.shutdown();
+    }
+
+    @Test
+    public void minMaxAttributeAggregatorTest4() throws InterruptedException {
+
+        log.info("minMaxAttributeAggregator Test #4 - windows expiring events out of arrival order");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String execPlan = "" +
+                "define stream cseEventStream (volume int, price float);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.sort(20, volume, 'desc') " +
+                "select min(volume) as minVolume, max(volume) as maxVolume, min(price) as minPrice, " +
+                "max(price) as maxPrice " +
+                "insert into outputStream;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from cseEventStream#window.sort(20, volume, 'asc') " +
+                "select min(volume) as minVolume, max(volume) as maxVolume, min(price) as minPrice, " +
+                "max(price) as maxPrice " +
+                "insert into outputStream;";
+
+        SiddhiAppRuntime execPlanRunTime = siddhiManager.createSiddhiAppRuntime(execPlan);
+        final List<Object[]> largestResults = new ArrayList<>();
+        final List<Object[]> smallestResults = new ArrayList<>();
+        execPlanRunTime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+
+                for (Event event : inEvents) {
+                    largestResults.add(event.getData());
+                }
+            }
+        });
+        execPlanRunTime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+
+                for (Event event : inEvents) {
+                    smallestResults.add(event.getData());
+                }
+            }
+        });
+
+        InputHandler inputHandler = execPlanRunTime.getInputHandler("cseEventStream");
+
+        execPlanRunTime.start();
+        int[] volumes = new int[101];
+        for (int i = 0; i < volumes.length; i++) {
+            volumes[i] = (i * 37) % 101;
+            inputHandler.send(new Object[]{volumes[i], volumes[i] / 4f});
+        }
+        AssertJUnit.assertEquals(volumes.length, largestResults.size());
+        AssertJUnit.assertEquals(volumes.length, smallestResults.size());
+        // the windows keep the largest and the smallest 20 volumes, expiring the smallest and the largest of them
+        List<Integer> largestVolumes = new ArrayList<>();
+        List<Integer> smallestVolumes = new ArrayList<>();
+        for (int i = 0; i < volumes.length; i++) {
+            largestVolumes.add(volumes[i]);
+            smallestVolumes.add(volumes[i]);
+            assertMinMax(largestVolumes, largestResults.get(i));
+            assertMinMax(smallestVolumes, smallestResults.get(i));
+            if (largestVolumes.size() > 20) {
+                largestVolumes.remove(Collections.min(largestVolumes));
+                smallestVolumes.remove(Collections.max(smallestVolumes));
+            }
+        }
+        execPlanRunTime.shutdown();
+    }
+
+    private void assertMinMax(List<Integer> volumes, Object[] result) {
+
+        int min = Collections.min(volumes);
+        int max = Collections.max(volumes);
+        AssertJUnit.assertEquals(min, result[0]);
+        AssertJUnit.assertEquals(max, result[1]);
+        AssertJUnit.assertEquals(min / 4f, result[2]);
+        AssertJUnit.assertEquals(max / 4f, result[3]);
+    }
+
 }
@@ -22,6 +22,7 @@ import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.query.extension.util.CustomFunctionExtension;
 import io.siddhi.core.query.extension.util.StringConcatAggregatorExecutorString;
+import io.siddhi.core.query.extension.util.StringConcatAssociativeAggregatorExecutor;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.util.EventPrinter;
@@ -31,7 +32,10 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ExtensionTestCase {
@@ -256,4 +260,47 @@ public class ExtensionTestCase {
         AssertJUnit.assertTrue(eventArrived);
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void extensionTest6() throws InterruptedException {
+        log.info("extension test6");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("custom:concat", StringConcatAssociativeAggregatorExecutor.class);
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = ("" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(3) " +
+                "select custom:concat(symbol) as symbols " +
+                "insert all events into mailOutput;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        final List<Object> symbols = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    count = count + inEvents.length;
+                    symbols.add(inEvents[inEvents.length - 1].getData(0));
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"A", 700f, 100L});
+        inputHandler.send(new Object[]{"B", 60.5f, 200L});
+        inputHandler.send(new Object[]{"C", 60.5f, 200L});
+        inputHandler.send(new Object[]{"A", 60.5f, 200L});
+        inputHandler.send(new Object[]{"D", 60.5f, 200L});
+        inputHandler.send(new Object[]{"E", 60.5f, 200L});
+        AssertJUnit.assertEquals(6, count);
+        AssertJUnit.assertEquals(Arrays.asList("A", "AB", "ABC", "BCA", "CAD", "ADE"), symbols);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.core.query.extension.util;
+
+import io.siddhi.annotation.Example;
+import io.siddhi.annotation.Extension;
+import io.siddhi.annotation.Parameter;
+import io.siddhi.annotation.ReturnAttribute;
+import io.siddhi.annotation.util.DataType;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.selector.attribute.aggregator.AssociativeAttributeAggregatorExecutor;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.query.api.definition.Attribute.Type;
+
+@Extension(
+        name = "concat",
+        namespace = "custom",
+        description = "Return the concatenation of the values in their arrival order.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value that need to be concat.",
+                        type = {DataType.STRING})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the concatenated value as a string.",
+                type = {DataType.STRING}),
+        examples = @Example(
+                syntax = "from inputStream#window.length(3)\n" +
+                        "select custom:concat(symbol) as symbols\n" +
+                        "insert into outputStream;",
+                description = "This will concatenate the symbols of the last 3 events."
+        )
+)
+public class StringConcatAssociativeAggregatorExecutor extends AssociativeAttributeAggregatorExecutor {
+
+    @Override
+    protected void init(ExpressionExecutor attributeExpressionExecutor, ConfigReader configReader,
+                        SiddhiQueryContext siddhiQueryContext) {
+    }
+
+    @Override
+    protected Object combine(Object left, Object right) {
+        return (String) left + right;
+    }
+
+    @Override
+    public Type getReturnType() {
+        return Type.STRING;
+    }
+}
@@ -20,6 +20,7 @@ package io.siddhi.core.query.partition;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.partition.PartitionRuntimeImpl;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
@@ -30,6 +31,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionDataPurgingTestCase {
@@ -126,4 +130,108 @@ public class PartitionDataPurgingTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void testPartitionPurgQuery2() throws InterruptedException {
+        log.info("Partition purging with max partitions test");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        List<Object> averages = new ArrayList<>();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest') " +
+                "@app:playback " +
+                "" +
+                "define stream streamA (symbol string, price int);" +
+                "" +
+                "@purge(enable='true', interval='1 sec', max.partitions='2') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from streamA#window.length(3) " +
+                "   select symbol, avg(price) as total " +
+                "   insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    averages.add(event.getData(1));
+                    count.incrementAndGet();
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        inputHandler.send(1000, new Object[]{"IBM", 100});
+        inputHandler.send(3000, new Object[]{"WSO2", 40});
+        inputHandler.send(5000, new Object[]{"IBM", 200});
+        // evicts WSO2 being the least recently used partition
+        inputHandler.send(7000, new Object[]{"ORCL", 30});
+        // evicts IBM
+        inputHandler.send(9000, new Object[]{"WSO2", 10});
+        inputHandler.send(9500, new Object[]{"ORCL", 60});
+
+        PartitionRuntimeImpl partitionRuntime =
+                (PartitionRuntimeImpl) siddhiAppRuntime.getPartitions().iterator().next();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(6, count.get());
+        AssertJUnit.assertEquals(Arrays.asList(100.0, 40.0, 150.0, 30.0, 10.0, 45.0), averages);
+        AssertJUnit.assertEquals(2, partitionRuntime.getEvictedPartitionCount());
+        AssertJUnit.assertEquals(2, partitionRuntime.getLivePartitionCount());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionPurgQuery3() throws InterruptedException {
+        log.info("Partition purging of idle partitions on arrival test");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        List<Object> averages = new ArrayList<>();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest') " +
+                "@app:playback " +
+                "" +
+                "define stream streamA (symbol string, price int);" +
+                "" +
+                "@purge(enable='true', interval='1 min', idle.period='1 sec') " +
+                "partition with (symbol of streamA) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from streamA#window.length(3) " +
+                "   select symbol, avg(price) as total " +
+                "   insert into StockQuote ;  " +
+                "end ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("StockQuote", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    averages.add(event.getData(1));
+                    count.incrementAndGet();
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("streamA");
+        siddhiAppRuntime.start();
+        inputHandler.send(1000, new Object[]{"IBM", 100});
+        inputHandler.send(1500, new Object[]{"IBM", 200});
+        inputHandler.send(1800, new Object[]{"WSO2", 40});
+        inputHandler.send(4000, new Object[]{"IBM", 30});
+
+        PartitionRuntimeImpl partitionRuntime =
+                (PartitionRuntimeImpl) siddhiAppRuntime.getPartitions().iterator().next();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(Arrays.asList(100.0, 150.0, 40.0, 30.0), averages);
+        AssertJUnit.assertEquals(1, partitionRuntime.getPurgedPartitionCount());
+        AssertJUnit.assertEquals(2, partitionRuntime.getLivePartitionCount());
+        siddhiAppRuntime.shutdown();
+    }
 }
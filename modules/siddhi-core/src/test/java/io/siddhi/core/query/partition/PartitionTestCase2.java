@@ -21,6 +21,7 @@ import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.stream.FaultFunctionExtension;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
@@ -31,6 +32,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PartitionTestCase2 {
@@ -1202,4 +1206,319 @@ public class PartitionTestCase2 {
 
     }
 
+    @Test
+    public void testPartitionQuery51() throws InterruptedException {
+        log.info("Partition test51");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Map<String, Long> lastCounts = new ConcurrentHashMap<>();
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest51') " +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "" +
+                "@async(workers='4', buffer.size='64') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount, volume " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    long eventCount = (Long) event.getData(1);
+                    if (eventCount != (Long) event.getData(2)) {
+                        inOrder.set(false);
+                    }
+                    Long lastCount = lastCounts.put(symbol, eventCount);
+                    if (lastCount != null && lastCount + 1 != eventCount) {
+                        inOrder.set(false);
+                    }
+                    count.incrementAndGet();
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 1; i <= 100; i++) {
+            for (int symbol = 0; symbol < 20; symbol++) {
+                inputHandler.send(new Object[]{"SYMBOL" + symbol, 10f, i});
+            }
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 2000, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(2000, count.get());
+        AssertJUnit.assertEquals(20, lastCounts.size());
+        AssertJUnit.assertTrue(inOrder.get());
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testPartitionQuery52() throws InterruptedException {
+        log.info("Partition test52");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest52') " +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "" +
+                "@async(workers='0') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, count() as eventCount " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void testPartitionQuery53() throws InterruptedException {
+        log.info("Partition test53");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Map<String, Long> lastTotals = new ConcurrentHashMap<>();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest53') " +
+                "define stream cseEventStream (id int, account long, volume long); " +
+                "" +
+                "partition with (id of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select id, account, sum(volume) as total " +
+                "   group by account " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    lastTotals.put(event.getData(0) + "-" + event.getData(1), (Long) event.getData(2));
+                    count.incrementAndGet();
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int round = 0; round < 2; round++) {
+            for (int id = 0; id < 5000; id++) {
+                inputHandler.send(new Object[]{id, (long) id, 1L});
+                inputHandler.send(new Object[]{id, -1L, 10L});
+            }
+        }
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(20000, count.get());
+        AssertJUnit.assertEquals(10000, lastTotals.size());
+        for (int id = 0; id < 5000; id++) {
+            AssertJUnit.assertEquals(Long.valueOf(2L), lastTotals.get(id + "-" + id));
+            AssertJUnit.assertEquals(Long.valueOf(20L), lastTotals.get(id + "--1"));
+        }
+    }
+
+    @Test
+    public void testPartitionQuery54() throws InterruptedException {
+        log.info("Partition test54");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("custom:fault", FaultFunctionExtension.class);
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest54') " +
+                "@OnError(action='stream')" +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "" +
+                "@async(workers='2', buffer.size='64') " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream[custom:fault() > volume] " +
+                "   select symbol, price " +
+                "   insert into OutStockStream ; " +
+                "end ; " +
+                "" +
+                "from !cseEventStream " +
+                "select * " +
+                "insert into faultStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("faultStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    AssertJUnit.assertNotNull(event.getData(3));
+                    count.incrementAndGet();
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int symbol = 0; symbol < 10; symbol++) {
+            inputHandler.send(new Object[]{"SYMBOL" + symbol, 10f, 100L});
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 10, count, 10000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(10, count.get());
+    }
+
+    @Test
+    public void testPartitionQuery55() throws InterruptedException {
+        log.info("Partition test55");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Map<String, Long> lastTotals = new ConcurrentHashMap<>();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest55') " +
+                "@app:KeyCache(size='4') " +
+                "define stream cseEventStream (id int, account long, volume long); " +
+                "" +
+                "partition with (id of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select id, account, sum(volume) as total " +
+                "   group by account " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    lastTotals.put(event.getData(0) + "-" + event.getData(1), (Long) event.getData(2));
+                    count.incrementAndGet();
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int round = 0; round < 2; round++) {
+            for (int id = 0; id < 5000; id++) {
+                inputHandler.send(new Object[]{id, (long) id, 1L});
+                inputHandler.send(new Object[]{id, -1L, 10L});
+            }
+        }
+
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(20000, count.get());
+        AssertJUnit.assertEquals(10000, lastTotals.size());
+        for (int id = 0; id < 5000; id++) {
+            AssertJUnit.assertEquals(Long.valueOf(2L), lastTotals.get(id + "-" + id));
+            AssertJUnit.assertEquals(Long.valueOf(20L), lastTotals.get(id + "--1"));
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void testPartitionQuery56() throws InterruptedException {
+        log.info("Partition test56");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest56') " +
+                "@app:KeyCache(size='-1') " +
+                "define stream cseEventStream (id int, account long, volume long); " +
+                "" +
+                "partition with (id of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select id, account, sum(volume) as total " +
+                "   group by account " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void testPartitionQuery57() throws InterruptedException {
+        log.info("Partition test57 - async range partition");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Map<Integer, Long> lastCounts = new ConcurrentHashMap<>();
+        AtomicBoolean inOrder = new AtomicBoolean(true);
+
+        String siddhiApp = "" +
+                "@app:name('PartitionTest57') " +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "" +
+                "@async(workers='4', buffer.size='64') " +
+                "partition with (price < 50 as 'small' or price >= 50 and price < 100 as 'medium' or " +
+                "price >= 100 as 'large' of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select price, count() as eventCount, volume " +
+                "   insert into OutStockStream ; " +
+                "end ; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    int range = (int) ((Float) event.getData(0) / 50);
+                    long eventCount = (Long) event.getData(1);
+                    if (eventCount != (Long) event.getData(2)) {
+                        inOrder.set(false);
+                    }
+                    Long lastCount = lastCounts.put(range, eventCount);
+                    if (lastCount != null && lastCount + 1 != eventCount) {
+                        inOrder.set(false);
+                    }
+                    count.incrementAndGet();
+                    eventArrived = true;
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        long[] rangeVolumes = new long[3];
+        int price = 0;
+        for (int batch = 0; batch < 100; batch++) {
+            Event[] events = new Event[30];
+            for (int i = 0; i < events.length; i++) {
+                price = (price + 7) % 150;
+                events[i] = new Event(System.currentTimeMillis(),
+                        new Object[]{"WSO2", (float) price, ++rangeVolumes[price / 50]});
+            }
+            inputHandler.send(events);
+        }
+
+        SiddhiTestHelper.waitForEvents(100, 3000, count, 60000);
+        siddhiAppRuntime.shutdown();
+        AssertJUnit.assertTrue(eventArrived);
+        AssertJUnit.assertEquals(3000, count.get());
+        AssertJUnit.assertEquals(3, lastCounts.size());
+        AssertJUnit.assertTrue(inOrder.get());
+    }
 }
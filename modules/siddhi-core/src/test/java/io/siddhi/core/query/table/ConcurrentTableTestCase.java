@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query.table;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+import org.apache.log4j.Logger;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentTableTestCase {
+    private static final Logger log = Logger.getLogger(ConcurrentTableTestCase.class);
+    private AtomicInteger inEventCount = new AtomicInteger(0);
+    private List<Object[]> inEventsList;
+
+    @BeforeMethod
+    public void init() {
+        inEventCount.set(0);
+        inEventsList = new ArrayList<Object[]>();
+    }
+
+    @Test
+    public void concurrentTableTest1() throws InterruptedException {
+        log.info("concurrentTableTest1 - insert, update, delete and join on a concurrent table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream DeleteCheapStockStream (price float); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@Concurrent(stripes='4') " +
+                "@PrimaryKey('symbol') " +
+                "@Index('price') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteCheapStockStream " +
+                "delete StockTable " +
+                "   on StockTable.price < price ;" +
+                "" +
+                "@info(name = 'query5') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query5", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler deleteCheapStockStream = siddhiAppRuntime.getInputHandler("DeleteCheapStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 76.6f, 200L});
+            stockStream.send(new Object[]{"ORACLE", 10.6f, 300L});
+            stockStream.send(new Object[]{"GOOG", 20.6f, 400L});
+            updateStockStream.send(new Object[]{"WSO2", 57.6f, 150L});
+            updateStockStream.send(new Object[]{"MSFT", 80.6f, 500L});
+            deleteStockStream.send(new Object[]{"IBM"});
+            deleteCheapStockStream.send(new Object[]{15f});
+            checkStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"ORACLE"});
+            checkStockStream.send(new Object[]{"GOOG"});
+            checkStockStream.send(new Object[]{"MSFT"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 57.6f, 150L},
+                    new Object[]{"GOOG", 20.6f, 400L},
+                    new Object[]{"MSFT", 80.6f, 500L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void concurrentTableTest2() throws Exception {
+        log.info("concurrentTableTest2 - concurrent update or insert and lookups on a concurrent table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream UpdateStockStream (symbol string, volume long); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@Concurrent " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from UpdateStockStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        int threads = 4;
+        int keysPerThread = 500;
+        int updatesPerKey = 5;
+        Map<Object, Object> volumes = new ConcurrentHashMap<>();
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            volumes.put(event.getData(0), event.getData(1));
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            siddhiAppRuntime.start();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executorService.submit(() -> {
+                    for (int update = 1; update <= updatesPerKey; update++) {
+                        for (int key = 0; key < keysPerThread; key++) {
+                            String symbol = "SYMBOL" + thread + "-" + key;
+                            updateStockStream.send(new Object[]{symbol, (long) update});
+                            checkStockStream.send(new Object[]{symbol});
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            inEventCount.set(0);
+            for (int i = 0; i < threads; i++) {
+                for (int key = 0; key < keysPerThread; key++) {
+                    checkStockStream.send(new Object[]{"SYMBOL" + i + "-" + key});
+                }
+            }
+
+            SiddhiTestHelper.waitForEvents(100, threads * keysPerThread, inEventCount, 60000);
+            AssertJUnit.assertEquals("Number of success events", threads * keysPerThread, inEventCount.get());
+            AssertJUnit.assertEquals(threads * keysPerThread, volumes.size());
+            for (Object volume : volumes.values()) {
+                AssertJUnit.assertEquals((long) updatesPerKey, volume);
+            }
+        } finally {
+            executorService.shutdownNow();
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = {SiddhiAppValidationException.class, SiddhiAppCreationException.class})
+    public void concurrentTableTest3() {
+        log.info("concurrentTableTest3 - concurrent table without a primary key");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Concurrent " +
+                "@Index('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void concurrentTableTest4() throws InterruptedException {
+        log.info("concurrentTableTest4 - concurrent table with a hash index");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "define stream DeleteStockStream (symbol string, price float, volume long);" +
+                "@Concurrent " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume == StockTable.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume > StockTable.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.volume == volume ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 200L});
+            stockStream.send(new Object[]{"GOOG", 50.6f, 50L});
+            stockStream.send(new Object[]{"ABC", 5.6f, 50L});
+            checkStockStream.send(new Object[]{"IBM", 50L});
+            deleteStockStream.send(new Object[]{"WSO2", 55.6f, 50L});
+            checkStockStream.send(new Object[]{"FOO", 300L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"IBM", "GOOG", 50L},
+                    new Object[]{"IBM", "ABC", 50L},
+                    new Object[]{"FOO", "WSO2", 200L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+}
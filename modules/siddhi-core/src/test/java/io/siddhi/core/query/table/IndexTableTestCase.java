@@ -23,6 +23,7 @@ import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
 import io.siddhi.core.util.EventPrinter;
 import io.siddhi.core.util.SiddhiTestHelper;
 import io.siddhi.query.api.exception.AttributeNotExistException;
@@ -2162,7 +2163,7 @@ public class IndexTableTestCase {
         SiddhiManager siddhiManager = new SiddhiManager();
         String streams = "" +
                 "define stream StockStream (symbol string, price float, volume long); " +
-                "@Index('symbol', 'volume') " +
+                "@Index('symbol', 'symbol') " +
                 "define table StockTable (symbol string, price float, volume long); ";
         String query = "" +
                 "@info(name = 'query1') " +
@@ -2234,4 +2235,351 @@ public class IndexTableTestCase {
         }
     }
 
+    @Test
+    public void indexTableTest34() throws InterruptedException {
+        log.info("indexTableTest34 - hash index");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "define stream DeleteStockStream (symbol string, price float, volume long);" +
+                "@Index('volume', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume == StockTable.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume > StockTable.volume " +
+                "select CheckStockStream.symbol, StockTable.symbol as tableSymbol, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.volume == volume ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 200L});
+            stockStream.send(new Object[]{"GOOG", 50.6f, 50L});
+            stockStream.send(new Object[]{"ABC", 5.6f, 50L});
+            checkStockStream.send(new Object[]{"IBM", 50L});
+            deleteStockStream.send(new Object[]{"WSO2", 55.6f, 50L});
+            checkStockStream.send(new Object[]{"FOO", 300L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"IBM", "GOOG", 50L},
+                    new Object[]{"IBM", "ABC", 50L},
+                    new Object[]{"FOO", "WSO2", 200L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppValidationException.class)
+    public void indexTableTest35() throws InterruptedException {
+        log.info("indexTableTest35");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Index('volume', type='bitmap') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void indexTableTest36() throws InterruptedException {
+        log.info("indexTableTest36 - composite index");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "define stream DeleteStockStream (symbol string, price float, volume long);" +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol and CheckStockStream.volume == StockTable.volume " +
+                "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.volume == volume and StockTable.symbol == symbol ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 100L});
+            stockStream.send(new Object[]{"WSO2", 56.6f, 200L});
+            stockStream.send(new Object[]{"IBM", 50.6f, 100L});
+            checkStockStream.send(new Object[]{"WSO2", 100L});
+            deleteStockStream.send(new Object[]{"WSO2", 0f, 100L});
+            checkStockStream.send(new Object[]{"WSO2", 100L});
+            checkStockStream.send(new Object[]{"IBM", 100L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 55.6f, 100L},
+                    new Object[]{"WSO2", 57.6f, 100L},
+                    new Object[]{"IBM", 50.6f, 100L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest37() throws InterruptedException {
+        log.info("indexTableTest37 - composite index prefix range");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long);" +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol and StockTable.volume > CheckStockStream.volume " +
+                "   and StockTable.price < CheckStockStream.price " +
+                "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from UpdateStockStream " +
+                "update StockTable " +
+                "   set StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol and StockTable.volume <= 100 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 150L});
+            stockStream.send(new Object[]{"WSO2", 56.6f, 200L});
+            stockStream.send(new Object[]{"WSO2", 58.6f, 300L});
+            stockStream.send(new Object[]{"IBM", 50.6f, 300L});
+            checkStockStream.send(new Object[]{"WSO2", 58f, 120L});
+            updateStockStream.send(new Object[]{"WSO2", 0f, 500L});
+            checkStockStream.send(new Object[]{"WSO2", 56f, 400L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 57.6f, 150L},
+                    new Object[]{"WSO2", 56.6f, 200L},
+                    new Object[]{"WSO2", 55.6f, 500L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = SiddhiAppValidationException.class)
+    public void indexTableTest38() throws InterruptedException {
+        log.info("indexTableTest38");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Concurrent " +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void indexTableTest39() throws InterruptedException {
+        log.info("indexTableTest39 - composite keys compared with values of other numeric types");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, volume int); " +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "@PrimaryKey('symbol', 'volume') " +
+                "define table StockKeyTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockStream " +
+                "insert into StockKeyTable ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol and CheckStockStream.volume == StockTable.volume " +
+                "select 'index' as lookup, StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol and StockTable.volume > CheckStockStream.volume " +
+                "select 'range' as lookup, StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query5') " +
+                "from CheckStockStream join StockKeyTable " +
+                " on CheckStockStream.symbol == StockKeyTable.symbol and " +
+                "CheckStockStream.volume == StockKeyTable.volume " +
+                "select 'primaryKey' as lookup, StockKeyTable.symbol, StockKeyTable.price, StockKeyTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("OutStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        inEventsList.add(event.getData());
+                        inEventCount.incrementAndGet();
+                    }
+                    eventArrived = true;
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 200L});
+            stockStream.send(new Object[]{"IBM", 50.6f, 100L});
+            checkStockStream.send(new Object[]{"WSO2", 100});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"index", "WSO2", 55.6f, 100L},
+                    new Object[]{"range", "WSO2", 57.6f, 200L},
+                    new Object[]{"primaryKey", "WSO2", 55.6f, 100L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+            AssertJUnit.assertEquals("Event arrived", true, eventArrived);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.core.query.table;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.output.callback.QueryCallback;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.table.holder.OffHeapHashIndex;
+import io.siddhi.core.util.EventPrinter;
+import io.siddhi.core.util.SiddhiTestHelper;
+import io.siddhi.query.api.exception.SiddhiAppValidationException;
+import org.apache.log4j.Logger;
+import org.testng.Assert;
+import org.testng.AssertJUnit;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OffHeapTableTestCase {
+    private static final Logger log = Logger.getLogger(OffHeapTableTestCase.class);
+    private static final String TABLE_FILE = "./target/temp-offheap/StockTable";
+    private AtomicInteger inEventCount = new AtomicInteger(0);
+    private List<Object[]> inEventsList;
+
+    @BeforeMethod
+    public void init() {
+        inEventCount.set(0);
+        inEventsList = new ArrayList<Object[]>();
+    }
+
+    @Test
+    public void offHeapTableTest1() throws InterruptedException {
+        log.info("offHeapTableTest1 - insert, update, delete and join on an off-heap table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream DeleteCheapStockStream (price float); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@OffHeap " +
+                "@PrimaryKey('symbol') " +
+                "@Index('price') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update or insert into StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from DeleteCheapStockStream " +
+                "delete StockTable " +
+                "   on StockTable.price < price ;" +
+                "" +
+                "@info(name = 'query5') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query5", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler deleteCheapStockStream = siddhiAppRuntime.getInputHandler("DeleteCheapStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 76.6f, 200L});
+            stockStream.send(new Object[]{"ORACLE", 10.6f, 300L});
+            stockStream.send(new Object[]{"GOOG", 20.6f, 400L});
+            updateStockStream.send(new Object[]{"WSO2", 57.6f, 150L});
+            updateStockStream.send(new Object[]{"MSFT", 80.6f, 500L});
+            deleteStockStream.send(new Object[]{"IBM"});
+            deleteCheapStockStream.send(new Object[]{15f});
+            checkStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"ORACLE"});
+            checkStockStream.send(new Object[]{"GOOG"});
+            checkStockStream.send(new Object[]{"MSFT"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 57.6f, 150L},
+                    new Object[]{"GOOG", 20.6f, 400L},
+                    new Object[]{"MSFT", 80.6f, 500L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 3, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 3, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest2() throws InterruptedException {
+        log.info("offHeapTableTest2 - events of an off-heap table are available after the app is recreated");
+
+        new File(TABLE_FILE).delete();
+        new File(TABLE_FILE + ".var").delete();
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream UpdateStockStream (symbol string, volume long); " +
+                "define stream CheckStockStream (volume long); " +
+                "@OffHeap(file='" + TABLE_FILE + "') " +
+                "@PrimaryKey('symbol') " +
+                "@Index('volume') " +
+                "define table StockTable (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from UpdateStockStream " +
+                "update StockTable " +
+                "   set StockTable.volume = volume " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.volume == StockTable.volume " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler updateStockStream = siddhiAppRuntime.getInputHandler("UpdateStockStream");
+            siddhiAppRuntime.start();
+            for (int i = 0; i < 1000; i++) {
+                stockStream.send(new Object[]{"SYMBOL" + i, (float) i, (long) (i % 100)});
+            }
+            updateStockStream.send(new Object[]{"SYMBOL5", 1000L});
+            updateStockStream.send(new Object[]{"SYMBOL7", 1000L});
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        try {
+            siddhiAppRuntime.addCallback("query3", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            siddhiAppRuntime.start();
+            checkStockStream.send(new Object[]{1000L});
+            checkStockStream.send(new Object[]{42L});
+
+            SiddhiTestHelper.waitForEvents(100, 12, inEventCount, 60000);
+            AssertJUnit.assertEquals("Number of success events", 12, inEventCount.get());
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isUnsortedEventsMatch(
+                    inEventsList.subList(0, 2), Arrays.asList(
+                            new Object[]{"SYMBOL5", 5f, 1000L},
+                            new Object[]{"SYMBOL7", 7f, 1000L})));
+            for (Object[] event : inEventsList.subList(2, 12)) {
+                AssertJUnit.assertEquals(42L, event[2]);
+                AssertJUnit.assertEquals("SYMBOL" + ((Float) event[1]).intValue(), event[0]);
+            }
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = {SiddhiAppValidationException.class, SiddhiAppCreationException.class})
+    public void offHeapTableTest3() {
+        log.info("offHeapTableTest3 - off-heap table with the concurrent annotation");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@OffHeap " +
+                "@Concurrent " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void offHeapTableTest4() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("offHeapTableTest4 - restoring a snapshot of an off-heap table");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream CheckStockStream (symbol string); " +
+                "@OffHeap(snapshot='true') " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on CheckStockStream.symbol == StockTable.symbol " +
+                "select CheckStockStream.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query3", new QueryCallback() {
+                @Override
+                public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timestamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            byte[] snapshot = siddhiAppRuntime.snapshot();
+
+            deleteStockStream.send(new Object[]{"WSO2"});
+            stockStream.send(new Object[]{"GOOG", 20.6f, 400L});
+            siddhiAppRuntime.restore(snapshot);
+
+            checkStockStream.send(new Object[]{"WSO2"});
+            checkStockStream.send(new Object[]{"IBM"});
+            checkStockStream.send(new Object[]{"GOOG"});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 55.6f, 100L},
+                    new Object[]{"IBM", 75.6f, 200L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 60000);
+            AssertJUnit.assertEquals("In events matched", true, SiddhiTestHelper.isEventsMatch(inEventsList, expected));
+            AssertJUnit.assertEquals("Number of success events", 2, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void offHeapTableTest5() {
+        log.info("offHeapTableTest5 - filling an off-heap hash index up to its maximum capacity");
+
+        OffHeapHashIndex hashIndex = new OffHeapHashIndex(1 << 12);
+        for (int rowId = 0; rowId < 1 << 11; rowId++) {
+            hashIndex.add(rowId, rowId);
+        }
+        AssertJUnit.assertEquals(1 << 11, hashIndex.size());
+        List<Long> rowIds = new ArrayList<>();
+        hashIndex.forEach((1 << 11) - 1, rowIds::add);
+        AssertJUnit.assertEquals(Collections.singletonList((long) (1 << 11) - 1), rowIds);
+        try {
+            hashIndex.add(1 << 11, 1 << 11);
+            Assert.fail("Off-heap hash index accepted more than half of its maximum capacity");
+        } catch (IllegalStateException e) {
+            AssertJUnit.assertEquals(1 << 11, hashIndex.size());
+        }
+        // removed rows make room again
+        AssertJUnit.assertTrue(hashIndex.remove(0, 0));
+        hashIndex.add(1 << 11, 1 << 11);
+        AssertJUnit.assertEquals(1 << 11, hashIndex.size());
+    }
+
+    @Test
+    public void offHeapTableTest6() throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        log.info("offHeapTableTest6 - off-heap table events are not snapshotted unless enabled");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@OffHeap " +
+                "@PrimaryKey('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            byte[] snapshot = siddhiAppRuntime.snapshot();
+
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            siddhiAppRuntime.restore(snapshot);
+
+            Event[] events = siddhiAppRuntime.query("from StockTable select symbol");
+            AssertJUnit.assertEquals(2, events.length);
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = {SiddhiAppValidationException.class, SiddhiAppCreationException.class})
+    public void offHeapTableTest7() {
+        log.info("offHeapTableTest7 - invalid snapshot element of the off-heap annotation");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@OffHeap(snapshot='always') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams);
+        siddhiAppRuntime.shutdown();
+    }
+}
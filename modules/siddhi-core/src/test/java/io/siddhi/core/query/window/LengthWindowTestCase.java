@@ -20,7 +20,11 @@ package io.siddhi.core.query.window;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.event.Event;
+import io.siddhi.core.event.stream.PooledStreamEventFactory;
+import io.siddhi.core.event.stream.StreamEventFactory;
 import io.siddhi.core.exception.SiddhiAppCreationException;
+import io.siddhi.core.query.QueryRuntimeImpl;
+import io.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import io.siddhi.core.query.output.callback.QueryCallback;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
@@ -387,4 +391,53 @@ public class LengthWindowTestCase {
         execPlanRunTime.shutdown();
 
     }
+
+    @Test
+    public void lengthWindowTest11() throws InterruptedException {
+        log.info("Testing length window with pooled events");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "@app:eventPool(size='16') " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "@info(name = 'query1') from cseEventStream[volume >= 0]#window.length(2) " +
+                "select symbol,price,volume insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        AssertJUnit.assertEquals("Remove event order", removeEventCount, event.getData(2));
+                        AssertJUnit.assertEquals("Remove event symbol", "IBM" + removeEventCount,
+                                event.getData(0));
+                        removeEventCount++;
+                    } else {
+                        AssertJUnit.assertEquals("In event order", inEventCount, event.getData(2));
+                        AssertJUnit.assertEquals("In event symbol", "IBM" + inEventCount, event.getData(0));
+                        inEventCount++;
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"IBM" + i, 700f, i});
+        }
+        AssertJUnit.assertEquals(100, inEventCount);
+        AssertJUnit.assertEquals(98, removeEventCount);
+
+        QueryRuntimeImpl queryRuntime = (QueryRuntimeImpl) siddhiAppRuntime.getQueries().iterator().next();
+        StreamEventFactory streamEventFactory = ((SingleStreamRuntime) queryRuntime.getStreamRuntime())
+                .getProcessStreamReceiver().getStreamEventFactory();
+        AssertJUnit.assertTrue(streamEventFactory instanceof PooledStreamEventFactory);
+        AssertJUnit.assertTrue(((PooledStreamEventFactory) streamEventFactory).getReusedEventCount() > 0);
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -32,6 +32,9 @@ import org.testng.AssertJUnit;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class SortWindowTestCase {
@@ -228,4 +231,52 @@ public class SortWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void sortWindowTest7() throws InterruptedException {
+        log.info("sortWindowTest7");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "define stream cseEventStream (symbol string, price float, volume long);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.sort(2, volume, 'asc') " +
+                "select symbol, volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        final List<Object> expiredSymbols = new ArrayList<>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                }
+                if (removeEvents != null) {
+                    for (Event event : removeEvents) {
+                        expiredSymbols.add(event.getData(0));
+                    }
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"A", 55.6f, 100L});
+        inputHandler.send(new Object[]{"B", 75.6f, 100L});
+        inputHandler.send(new Object[]{"C", 57.6f, 100L});
+        inputHandler.send(new Object[]{"D", 55.6f, 20L});
+        inputHandler.send(new Object[]{"E", 57.6f, 300L});
+        inputHandler.send(new Object[]{"F", 57.6f, 10L});
+        Thread.sleep(500);
+        AssertJUnit.assertEquals(6, inEventCount);
+        AssertJUnit.assertEquals(Arrays.asList("C", "B", "E", "A"), expiredSymbols);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
 }
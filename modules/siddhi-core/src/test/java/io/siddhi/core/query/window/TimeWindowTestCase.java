@@ -222,4 +222,118 @@ public class TimeWindowTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
     }
 
+    @Test
+    public void timeWindowTest7() throws InterruptedException {
+        log.info("timeWindowTest7 - partitioned time windows with timing wheel");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:TimingWheel(tick='1', size='64') " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.time(1 sec) " +
+                "   select symbol,price,volume " +
+                "   insert all events into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        removeEventCount++;
+                    } else {
+                        inEventCount++;
+                    }
+                }
+                eventArrived = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            inputHandler.send(new Object[]{"WSO2-" + i, 60.5f, i});
+        }
+        Thread.sleep(500);
+        AssertJUnit.assertEquals(100, inEventCount);
+        AssertJUnit.assertEquals(0, removeEventCount);
+        Thread.sleep(2500);
+        AssertJUnit.assertEquals(100, removeEventCount);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expectedExceptions = SiddhiAppCreationException.class)
+    public void timeWindowTest8() throws InterruptedException, SiddhiAppCreationException {
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:TimingWheel(tick='0') " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol,price,volume " +
+                "insert all events into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+    }
+
+    @Test
+    public void timeWindowTest9() throws InterruptedException {
+        log.info("timeWindowTest9 - time window with timer coalescing");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "" +
+                "@app:TimerCoalescing(tick='500') " +
+                "define stream cseEventStream (symbol string, price float, volume int);";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select symbol,price,volume " +
+                "insert all events into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+
+        final int[] removeEventBatches = new int[1];
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timestamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timestamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount = inEventCount + inEvents.length;
+                }
+                if (removeEvents != null) {
+                    removeEventCount = removeEventCount + removeEvents.length;
+                    removeEventBatches[0]++;
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{"IBM", 700f, i});
+            Thread.sleep(5);
+        }
+        Thread.sleep(1000);
+        AssertJUnit.assertEquals(10, inEventCount);
+        Thread.sleep(1500);
+        AssertJUnit.assertEquals(10, removeEventCount);
+        AssertJUnit.assertTrue("Expired events not coalesced", removeEventBatches[0] <= 2);
+        AssertJUnit.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+    }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares publishing events one by one against publishing them as arrays into an async stream junction.
+ * Run with argument 'single' to use the per event path, and with 'batch' (default) to use the array path.
+ */
+public class AsyncBatchPublishPerformance {
+
+    private static final int BATCH_SIZE = 100;
+    private static final long EVENT_COUNT = 50000000L;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean batch = args.length == 0 || !"single".equalsIgnoreCase(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='1024') " +
+                "define stream cseEventStream (symbol string, price float, volume int, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicLong receivedCount = new AtomicLong();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                receivedCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        Event[] events = new Event[BATCH_SIZE];
+        long startTime = System.currentTimeMillis();
+        for (long sent = 0; sent < EVENT_COUNT; sent += BATCH_SIZE) {
+            long timestamp = System.currentTimeMillis();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                events[i] = new Event(timestamp, new Object[]{"WSO2", 55.6f, i, timestamp});
+            }
+            if (batch) {
+                inputHandler.send(events);
+            } else {
+                for (Event event : events) {
+                    inputHandler.send(event);
+                }
+            }
+        }
+        while (receivedCount.get() < EVENT_COUNT) {
+            Thread.sleep(10);
+        }
+        long timeSpent = System.currentTimeMillis() - startTime;
+        System.out.println("Mode       : " + (batch ? "batch" : "single"));
+        System.out.println("Throughput : " + (EVENT_COUNT * 1000) / timeSpent);
+        siddhiAppRuntime.shutdown();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.StreamJunction;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reports the p50, p99 and p99.9 latencies of an async stream for each supported wait strategy.
+ */
+public class AsyncWaitStrategyLatencyPerformance {
+
+    private static final int WARMUP_EVENT_COUNT = 200000;
+    private static final int EVENT_COUNT = 1000000;
+    private static final long SEND_INTERVAL_NANOS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        StreamJunction.WaitStrategyType[] waitStrategyTypes = StreamJunction.WaitStrategyType.values();
+        if (args.length > 0) {
+            waitStrategyTypes = new StreamJunction.WaitStrategyType[]{
+                    StreamJunction.WaitStrategyType.valueOf(args[0].toUpperCase())};
+        }
+        for (StreamJunction.WaitStrategyType waitStrategyType : waitStrategyTypes) {
+            measure(waitStrategyType);
+        }
+    }
+
+    private static void measure(StreamJunction.WaitStrategyType waitStrategyType) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='1024', wait.strategy='" + waitStrategyType.name().toLowerCase() + "', " +
+                "producer.type='single') " +
+                "define stream cseEventStream (symbol string, price float, volume int, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        long[] latencies = new long[EVENT_COUNT];
+        AtomicInteger receivedCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            private int index = -WARMUP_EVENT_COUNT;
+
+            @Override
+            public void receive(Event[] events) {
+                long now = System.nanoTime();
+                for (Event event : events) {
+                    if (index >= 0) {
+                        latencies[index] = now - (Long) event.getData(3);
+                    }
+                    index++;
+                }
+                receivedCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        int totalEventCount = WARMUP_EVENT_COUNT + EVENT_COUNT;
+        for (int i = 0; i < totalEventCount; i++) {
+            long sendTime = System.nanoTime();
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i, sendTime});
+            while (System.nanoTime() - sendTime < SEND_INTERVAL_NANOS) {
+                // Pace the events so that latency, and not the queueing delay, is measured.
+            }
+        }
+        while (receivedCount.get() < totalEventCount) {
+            Thread.sleep(10);
+        }
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.println("Wait strategy : " + waitStrategyType.name().toLowerCase() +
+                ", p50 : " + latencies[(int) (EVENT_COUNT * 0.50)] / 1000.0 + " us" +
+                ", p99 : " + latencies[(int) (EVENT_COUNT * 0.99)] / 1000.0 + " us" +
+                ", p99.9 : " + latencies[(int) (EVENT_COUNT * 0.999)] / 1000.0 + " us");
+    }
+}
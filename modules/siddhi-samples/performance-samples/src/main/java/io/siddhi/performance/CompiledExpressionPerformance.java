@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+public class CompiledExpressionPerformance {
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean compiled = args.length > 0 && "compiled".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                (compiled ? "@app:compileExpressions " : "") +
+                "define stream cseEventStream (symbol string, price float, volume long, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[(price * 2 + volume / 4 > 150 and symbol != 'ORACLE') or " +
+                "(volume % 3 == 0 and not (price < 60))] " +
+                "select symbol, price * volume as total, (price - 50) / 2 as delta, timestamp " +
+                "insert into outputStream ;";
+
+        System.out.println("Running with " + (compiled ? "compiled" : "interpreted") + " expressions");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            public int eventCount = 0;
+            public int timeSpent = 0;
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCount++;
+                    timeSpent += (System.currentTimeMillis() - (Long) event.getData(3));
+                    if (eventCount % 10000000 == 0) {
+                        System.out.println("Throughput : " + (eventCount * 1000) / ((System.currentTimeMillis()) -
+                                startTime));
+                        System.out.println("Time spent :  " + (timeSpent * 1.0 / eventCount));
+                        startTime = System.currentTimeMillis();
+                        eventCount = 0;
+                        timeSpent = 0;
+                    }
+                }
+            }
+        });
+
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        while (true) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, 100L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"IBM", 75.6f, 99L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"WSO2", 100f, 80L, System.currentTimeMillis()});
+            inputHandler.send(new Object[]{"ORACLE", 75.6f, 300L, System.currentTimeMillis()});
+        }
+
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentTablePerformance {
+
+    public static int numberOfEventsStored = 1000000;
+    public static int lookupThreads = 4;
+    public static int iterations = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean concurrent = args.length > 0 && "concurrent".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockCheckStream (symbol string, timestamp long);" +
+                "define stream StockInputStream (symbol string, company string, price float, volume int); " +
+                "define stream StockUpdateStream (symbol string, price float); " +
+                "" +
+                (concurrent ? "@Concurrent " : "") +
+                "@PrimaryKey('symbol')" +
+                "define table StockTable (symbol string, company string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockUpdateStream " +
+                "update StockTable " +
+                "set StockTable.price = price " +
+                "on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from StockCheckStream join StockTable " +
+                "on StockCheckStream.symbol == StockTable.symbol " +
+                "select StockCheckStream.timestamp, StockTable.symbol, StockTable.price " +
+                "insert into OutputStream ;";
+
+        System.out.println("Running " + lookupThreads + " lookup threads and one update thread on " +
+                (concurrent ? "a concurrent" : "an in-memory") + " table");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        LongAdder lookups = new LongAdder();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                lookups.add(events.length);
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        InputHandler stockUpdateHandler = siddhiAppRuntime.getInputHandler("StockUpdateStream");
+        InputHandler stockCheckHandler = siddhiAppRuntime.getInputHandler("StockCheckStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < numberOfEventsStored; i++) {
+            stockInputHandler.send(new Object[]{"" + i, "" + i, i * 1.0f, i});
+        }
+
+        LongAdder updates = new LongAdder();
+        startPublisher(() -> {
+            Random random = new Random();
+            stockUpdateHandler.send(new Object[]{"" + random.nextInt(numberOfEventsStored), random.nextFloat()});
+            updates.increment();
+        });
+        for (int i = 0; i < lookupThreads; i++) {
+            startPublisher(() -> {
+                Random random = new Random();
+                stockCheckHandler.send(new Object[]{"" + random.nextInt(numberOfEventsStored),
+                        System.currentTimeMillis()});
+            });
+        }
+
+        System.out.println("Lookups/s\tUpdates/s");
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            lookups.reset();
+            updates.reset();
+            Thread.sleep(5000);
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println((lookups.sum() * 1000 / timeSpent) + "\t" + (updates.sum() * 1000 / timeSpent));
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+
+    private static void startPublisher(Publisher publisher) {
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    publisher.publish();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    interface Publisher {
+        void publish() throws InterruptedException;
+    }
+}
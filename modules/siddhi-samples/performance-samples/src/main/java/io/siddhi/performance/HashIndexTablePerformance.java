@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HashIndexTablePerformance {
+
+    public static int numberOfEventsStored = 5000000;
+    public static int lookupThreads = 4;
+    public static int iterations = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean hash = args.length > 0 && "hash".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockCheckStream (volume long, timestamp long);" +
+                "define stream StockInputStream (symbol string, company string, price float, volume long); " +
+                "" +
+                (hash ? "@Index('volume', type='hash') " : "@Index('volume') ") +
+                "define table StockTable (symbol string, company string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockCheckStream join StockTable " +
+                "on StockCheckStream.volume == StockTable.volume " +
+                "select StockCheckStream.timestamp, StockTable.symbol, StockTable.price " +
+                "insert into OutputStream ;";
+
+        System.out.println("Running " + lookupThreads + " lookup threads on a table of " + numberOfEventsStored +
+                " rows with a " + (hash ? "hash" : "tree") + " index");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        LongAdder lookups = new LongAdder();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                lookups.add(events.length);
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        InputHandler stockCheckHandler = siddhiAppRuntime.getInputHandler("StockCheckStream");
+        siddhiAppRuntime.start();
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numberOfEventsStored; i++) {
+            stockInputHandler.send(new Object[]{"" + i, "" + i, i * 1.0f, (long) i});
+        }
+        System.out.println("Loaded the table in " + (System.currentTimeMillis() - start) + " ms");
+
+        for (int i = 0; i < lookupThreads; i++) {
+            Thread thread = new Thread(() -> {
+                Random random = new Random();
+                try {
+                    while (true) {
+                        stockCheckHandler.send(new Object[]{(long) random.nextInt(numberOfEventsStored),
+                                System.currentTimeMillis()});
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        System.out.println("Lookups/s");
+        for (int i = 0; i < iterations; i++) {
+            start = System.currentTimeMillis();
+            lookups.reset();
+            Thread.sleep(5000);
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println(lookups.sum() * 1000 / timeSpent);
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
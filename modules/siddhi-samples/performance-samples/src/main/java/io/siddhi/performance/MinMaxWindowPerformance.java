@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+
+public class MinMaxWindowPerformance {
+
+    public static int windowLength = 100000;
+    public static int iterations = 10;
+    public static int eventsPerIteration = 2000000;
+    private static volatile Object lastMin;
+
+    public static void main(String[] args) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockInputStream (symbol string, price double, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream#window.length(" + windowLength + ") " +
+                "select min(price) as minPrice, max(price) as maxPrice, min(volume) as minVolume, " +
+                "max(volume) as maxVolume " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                lastMin = events[events.length - 1].getData(0);
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        Random random = new Random(1);
+        System.out.println("Events/s of min/max over #window.length(" + windowLength + ")");
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            for (int j = 0; j < eventsPerIteration; j++) {
+                // prices rise and fall while volumes are random, exercising both long and short deques
+                stockInputHandler.send(new Object[]{"WSO2", 100 + Math.sin(j / 1000.0) * 50 + random.nextDouble(),
+                        (long) random.nextInt(1000000)});
+            }
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println((eventsPerIteration * 1000L / timeSpent) + " (min price " + lastMin + ")");
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
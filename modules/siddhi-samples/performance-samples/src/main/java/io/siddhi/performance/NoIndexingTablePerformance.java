@@ -21,7 +21,10 @@ package io.siddhi.performance;
 import io.siddhi.core.SiddhiAppRuntime;
 import io.siddhi.core.SiddhiManager;
 import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.persistence.IncrementalFileSystemPersistenceStore;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Random;
 
 public class NoIndexingTablePerformance {
@@ -30,9 +33,12 @@ public class NoIndexingTablePerformance {
     public static int numberOfEventsStored = 1000000;
     public static int numberOfEventsChunked = 10000;
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
 
         SiddhiManager siddhiManager = new SiddhiManager();
+        // incremental persistence makes the table log each inserted event for the next incremental snapshot
+        siddhiManager.setIncrementalPersistenceStore(new IncrementalFileSystemPersistenceStore(
+                Files.createTempDirectory("siddhi-table-performance").toString()));
 
         String siddhiApp = "" +
 //                "@app:async" +
@@ -119,11 +125,21 @@ public class NoIndexingTablePerformance {
         InputHandler stockCheckInputHandler = siddhiAppRuntime.getInputHandler("StockCheckStream");
         InputHandler stockInputInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
         siddhiAppRuntime.start();
+        // base snapshot, such that the following inserts are recorded in the table operation log
+        siddhiAppRuntime.persist();
 
         Random random = new Random();
+        long insertStartTime = System.currentTimeMillis();
         for (int i = 0; i < numberOfEventsStored; i++) {
             stockInputInputHandler.send(new Object[]{"" + i, "" + i, i * 1.0f, i});
         }
+        long insertTime = System.currentTimeMillis() - insertStartTime;
+        System.out.println("Insert throughput with incremental persistence: " +
+                (numberOfEventsStored * 1000.0 / Math.max(insertTime, 1)) + " events/sec");
+        long persistStartTime = System.currentTimeMillis();
+        siddhiAppRuntime.persist();
+        System.out.println("Incremental snapshot of " + numberOfEventsStored + " inserts: " +
+                (System.currentTimeMillis() - persistStartTime) + " ms");
 
         for (int i = 0; i < 1; i++) {
             EventPublisher eventPublisher = new EventPublisher(stockCheckInputHandler, random);
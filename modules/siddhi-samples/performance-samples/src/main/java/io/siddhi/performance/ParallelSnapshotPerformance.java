@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.stream.input.InputHandler;
+
+public class ParallelSnapshotPerformance {
+
+    public static int numberOfQueries = 200;
+    public static int numberOfKeys = 10000;
+    public static int iterations = 5;
+
+    public static void main(String[] args) throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        StringBuilder siddhiApp = new StringBuilder("" +
+                "@app:ParallelSnapshot(workers='" + workers + "') " +
+                "define stream StockInputStream (symbol string, price float, volume long); " +
+                "" +
+                "partition with (symbol of StockInputStream) " +
+                "begin ");
+        for (int i = 0; i < numberOfQueries; i++) {
+            siddhiApp.append("" +
+                    "@info(name = 'query").append(i).append("') " +
+                    "from StockInputStream#window.length(10) " +
+                    "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                    "insert into OutputStream").append(i).append(" ;");
+        }
+        siddhiApp.append("end ;");
+
+        System.out.println("Snapshotting " + numberOfQueries + " partitioned queries over " + numberOfKeys +
+                " keys using " + workers + " workers on " + Runtime.getRuntime().availableProcessors() + " cores");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.toString());
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < numberOfKeys * 10; i++) {
+            stockInputHandler.send(new Object[]{"" + (i % numberOfKeys), i * 1.0f, (long) i});
+        }
+
+        System.out.println("Snapshot (ms)\tRestore (ms)\tSize (bytes)");
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            byte[] snapshot = siddhiAppRuntime.snapshot();
+            long snapshotEnd = System.currentTimeMillis();
+            siddhiAppRuntime.restore(snapshot);
+            long restoreEnd = System.currentTimeMillis();
+            System.out.println((snapshotEnd - start) + "\t" + (restoreEnd - snapshotEnd) + "\t" + snapshot.length);
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
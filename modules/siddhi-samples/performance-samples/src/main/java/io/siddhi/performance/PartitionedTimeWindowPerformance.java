@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class PartitionedTimeWindowPerformance {
+
+    public static int numberOfPartitions = 10000;
+    public static int iterations = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        boolean wheel = args.length > 0 && "wheel".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                (wheel ? "@app:TimingWheel " : "") +
+                "define stream StockInputStream (symbol string, price float, volume long); " +
+                "" +
+                "partition with (symbol of StockInputStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from StockInputStream#window.time(100 milliseconds) " +
+                "   select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "   insert all events into OutputStream ;" +
+                "end;";
+
+        System.out.println("Running time windows of " + numberOfPartitions + " partitions with " +
+                (wheel ? "the timing wheel" : "the scheduled executor service"));
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        LongAdder expiredEvents = new LongAdder();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        expiredEvents.increment();
+                    }
+                }
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        System.out.println("Events/s\tExpired events/s");
+        long count = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            long sent = 0;
+            expiredEvents.reset();
+            while (System.currentTimeMillis() - start < 5000) {
+                stockInputHandler.send(new Object[]{"" + (count++ % numberOfPartitions), 55.6f, 100L});
+                sent++;
+            }
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println((sent * 1000 / timeSpent) + "\t" + (expiredEvents.sum() * 1000 / timeSpent));
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
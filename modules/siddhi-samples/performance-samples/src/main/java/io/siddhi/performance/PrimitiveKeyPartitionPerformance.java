@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the throughput and GC activity of a partitioned group by query over 1M distinct keys, each sent once per
+ * round.
+ * Run with argument 'long' (default) to partition and group by long attributes, first with the key cache disabled
+ * as the baseline and then with the key cache enabled, and with 'string' to use string attributes holding the same
+ * values.
+ */
+public class PrimitiveKeyPartitionPerformance {
+
+    private static final int KEY_COUNT = 1000000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        boolean primitive = args.length == 0 || !"string".equalsIgnoreCase(args[0]);
+        if (primitive) {
+            run("long", "@app:KeyCache(size='0') ", "long, key cache disabled");
+            run("long", "@app:KeyCache(size='65536') ", "long, key cache of 65536");
+        } else {
+            run("string", "", "string");
+        }
+    }
+
+    private static void run(String keyType, String keyCacheAnnotation, String description) {
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                keyCacheAnnotation +
+                "define stream cseEventStream (partitionKey " + keyType + ", groupKey " + keyType + ", " +
+                "volume long);" +
+                "" +
+                "partition with (partitionKey of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select partitionKey, groupKey, sum(volume) as totalVolume " +
+                "   group by groupKey " +
+                "   insert into outputStream ; " +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicLong receivedCount = new AtomicLong();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                receivedCount.addAndGet(events.length);
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+
+        boolean primitive = "long".equals(keyType);
+        Object[][] keys = new Object[KEY_COUNT][];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            long key = i * 31L;
+            keys[i] = primitive ? new Object[]{key, key} : new Object[]{Long.toString(key), Long.toString(key)};
+        }
+
+        long gcCountBefore = getGcCount();
+        long gcTimeBefore = getGcTime();
+        long startTime = System.currentTimeMillis();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < KEY_COUNT; i++) {
+                inputHandler.send(new Object[]{keys[i][0], keys[i][1], 1L});
+            }
+        }
+        long timeSpent = System.currentTimeMillis() - startTime;
+        long eventCount = (long) KEY_COUNT * ROUNDS;
+        System.out.println("Key type   : " + description);
+        System.out.println("Events     : " + receivedCount.get() + "/" + eventCount);
+        System.out.println("Throughput : " + (eventCount * 1000) / timeSpent);
+        System.out.println("GC count   : " + (getGcCount() - gcCountBefore));
+        System.out.println("GC time ms : " + (getGcTime() - gcTimeBefore));
+        siddhiAppRuntime.shutdown();
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gcBean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long getGcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gcBean.getCollectionTime());
+        }
+        return time;
+    }
+}
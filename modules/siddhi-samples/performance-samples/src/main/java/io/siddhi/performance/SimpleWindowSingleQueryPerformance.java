@@ -23,12 +23,21 @@ import io.siddhi.core.event.Event;
 import io.siddhi.core.stream.input.InputHandler;
 import io.siddhi.core.stream.output.StreamCallback;
 
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs a length window query, where passing "pooled" as the argument enables event pooling to compare the bytes
+ * allocated per event with and without recycling the stream events.
+ */
 public class SimpleWindowSingleQueryPerformance {
 
     public static void main(String[] args) throws InterruptedException {
         SiddhiManager siddhiManager = new SiddhiManager();
+        boolean pooled = args.length > 0 && "pooled".equalsIgnoreCase(args[0]);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
 
-        String siddhiApp = "" +
+        String siddhiApp = (pooled ? "@app:eventPool(size='1024') " : "") +
                 "define stream cseEventStream (symbol string, price float, volume int, timestamp long);" +
                 "" +
                 "@info(name = 'query1') " +
@@ -41,6 +50,7 @@ public class SimpleWindowSingleQueryPerformance {
             public int eventCount = 0;
             public int timeSpent = 0;
             long startTime = System.currentTimeMillis();
+            long allocatedBytes = threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
 
             @Override
             public void receive(Event[] events) {
@@ -51,6 +61,11 @@ public class SimpleWindowSingleQueryPerformance {
                         System.out.println("Throughput : " + (eventCount * 1000) / ((System.currentTimeMillis()) -
                                 startTime));
                         System.out.println("Time spent :  " + (timeSpent * 1.0 / eventCount));
+                        long currentAllocatedBytes = threadMXBean.getThreadAllocatedBytes(
+                                Thread.currentThread().getId());
+                        System.out.println("Allocated bytes per event : " +
+                                ((currentAllocatedBytes - allocatedBytes) * 1.0 / eventCount));
+                        allocatedBytes = currentAllocatedBytes;
                         startTime = System.currentTimeMillis();
                         eventCount = 0;
                         timeSpent = 0;
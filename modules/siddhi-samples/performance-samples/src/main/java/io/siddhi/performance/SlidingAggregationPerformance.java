@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.config.SiddhiQueryContext;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.executor.ExpressionExecutor;
+import io.siddhi.core.query.processor.ProcessingMode;
+import io.siddhi.core.query.selector.attribute.aggregator.AssociativeAttributeAggregatorExecutor;
+import io.siddhi.core.query.selector.attribute.aggregator.AttributeAggregatorExecutor;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+import io.siddhi.core.util.config.ConfigReader;
+import io.siddhi.core.util.snapshot.state.State;
+import io.siddhi.core.util.snapshot.state.StateFactory;
+import io.siddhi.query.api.definition.Attribute;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class SlidingAggregationPerformance {
+
+    public static int windowLength = 10000;
+    public static int iterations = 10;
+    public static int eventsPerIteration = 1000000;
+    private static volatile Object lastMax;
+
+    public static void main(String[] args) throws InterruptedException {
+        String approach = args.length > 0 ? args[0] : "twoStacks";
+        String aggregator;
+        switch (approach) {
+            case "scan":
+                aggregator = "perf:scanMax";
+                break;
+            case "deque":
+                aggregator = "max";
+                break;
+            default:
+                aggregator = "perf:twoStacksMax";
+        }
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setExtension("perf:scanMax", ScanMaxAggregatorExecutor.class);
+        siddhiManager.setExtension("perf:twoStacksMax", TwoStacksMaxAggregatorExecutor.class);
+
+        String siddhiApp = "" +
+                "define stream StockInputStream (symbol string, price double, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream#window.length(" + windowLength + ") " +
+                "select " + aggregator + "(price) as maxPrice " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                lastMax = events[events.length - 1].getData(0);
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        Random random = new Random(1);
+        System.out.println("Events/s of " + aggregator + "(price) over #window.length(" + windowLength + ")");
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            for (int j = 0; j < eventsPerIteration; j++) {
+                // falling prices make the oldest value the maximum, which is the worst case of rescanning
+                stockInputHandler.send(new Object[]{"WSO2", 1000 - (j % (windowLength * 4)) / 40.0 +
+                        random.nextDouble(), 100L});
+            }
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println((eventsPerIteration * 1000L / timeSpent) + " (max price " + lastMax + ")");
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+
+    /**
+     * Max aggregator that reacts to each add and remove independently, rescanning the window when the max expires.
+     */
+    public static class ScanMaxAggregatorExecutor
+            extends AttributeAggregatorExecutor<ScanMaxAggregatorExecutor.MaxState> {
+
+        @Override
+        protected StateFactory<MaxState> init(ExpressionExecutor[] attributeExpressionExecutors,
+                                              ProcessingMode processingMode, boolean outputExpectsExpiredEvents,
+                                              ConfigReader configReader, SiddhiQueryContext siddhiQueryContext) {
+            return () -> new MaxState();
+        }
+
+        @Override
+        public Object processAdd(Object data, MaxState state) {
+            Double value = (Double) data;
+            state.values.addLast(value);
+            if (state.max == null || state.max < value) {
+                state.max = value;
+            }
+            return state.max;
+        }
+
+        @Override
+        public Object processAdd(Object[] data, MaxState state) {
+            throw new IllegalStateException("Max cannot process data array");
+        }
+
+        @Override
+        public Object processRemove(Object data, MaxState state) {
+            state.values.removeFirstOccurrence(data);
+            if (data.equals(state.max)) {
+                state.max = null;
+                for (Double value : state.values) {
+                    if (state.max == null || state.max < value) {
+                        state.max = value;
+                    }
+                }
+            }
+            return state.max;
+        }
+
+        @Override
+        public Object processRemove(Object[] data, MaxState state) {
+            throw new IllegalStateException("Max cannot process data array");
+        }
+
+        @Override
+        public Object reset(MaxState state) {
+            state.values.clear();
+            state.max = null;
+            return null;
+        }
+
+        @Override
+        public Attribute.Type getReturnType() {
+            return Attribute.Type.DOUBLE;
+        }
+
+        class MaxState extends State {
+            private ArrayDeque<Double> values = new ArrayDeque<>();
+            private Double max;
+
+            @Override
+            public boolean canDestroy() {
+                return values.isEmpty();
+            }
+
+            @Override
+            public Map<String, Object> snapshot() {
+                return new HashMap<>();
+            }
+
+            @Override
+            public void restore(Map<String, Object> state) {
+            }
+        }
+    }
+
+    /**
+     * Max aggregator that only provides the associative combine function to the sliding window aggregation.
+     */
+    public static class TwoStacksMaxAggregatorExecutor extends AssociativeAttributeAggregatorExecutor {
+
+        @Override
+        protected void init(ExpressionExecutor attributeExpressionExecutor, ConfigReader configReader,
+                            SiddhiQueryContext siddhiQueryContext) {
+        }
+
+        @Override
+        protected Object combine(Object left, Object right) {
+            return (Double) left >= (Double) right ? left : right;
+        }
+
+        @Override
+        public Attribute.Type getReturnType() {
+            return Attribute.Type.DOUBLE;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.persistence.InMemoryPersistenceStore;
+import io.siddhi.core.util.snapshot.PersistenceReference;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SnapshotPausePerformance {
+
+    public static int numberOfEventsStored = 2000000;
+    public static int windowLength = 1000000;
+    public static int iterations = 5;
+    private static volatile boolean publishing = true;
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        boolean copied = args.length > 0 && "copied".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "" +
+                (copied ? "@app:CopiedSnapshot " : "") +
+                "define stream StockInputStream (symbol string, company string, price float, volume long); " +
+                "" +
+                "@PrimaryKey('symbol')" +
+                "define table StockTable (symbol string, company string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockInputStream#window.length(" + windowLength + ") " +
+                "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "insert into OutputStream ;";
+
+        System.out.println("Persisting a table with " + numberOfEventsStored + " rows and a window of " +
+                windowLength + " events using " + (copied ? "copied" : "serialized") + " snapshots");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < numberOfEventsStored; i++) {
+            stockInputHandler.send(new Object[]{"" + i, "company" + (i % 1000), i * 1.0f, (long) i});
+        }
+
+        AtomicLong maxSendLatency = new AtomicLong();
+        Thread publisher = new Thread(() -> {
+            long i = 0;
+            while (publishing) {
+                long start = System.nanoTime();
+                try {
+                    stockInputHandler.send(new Object[]{"" + (i % numberOfEventsStored), "company" + (i % 1000),
+                            i * 1.0f, i});
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long latency = System.nanoTime() - start;
+                if (latency > maxSendLatency.get()) {
+                    maxSendLatency.set(latency);
+                }
+                i++;
+            }
+        });
+        publisher.start();
+        Thread.sleep(1000);
+
+        System.out.println("Pause (ms)\tMax send latency (ms)\tPersisted (ms)");
+        for (int i = 0; i < iterations; i++) {
+            maxSendLatency.set(0);
+            long start = System.currentTimeMillis();
+            PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+            persistenceReference.getFullStateFuture().get();
+            long persistEnd = System.currentTimeMillis();
+            System.out.println(siddhiAppRuntime.getLastSnapshotPauseTime() + "\t" +
+                    (maxSendLatency.get() / 1000000) + "\t" + (persistEnd - start));
+        }
+        publishing = false;
+        publisher.join();
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.exception.CannotRestoreSiddhiAppStateException;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.util.snapshot.serializer.JavaStateSerializer;
+
+public class SnapshotPerformance {
+
+    public static int numberOfEventsStored = 2000000;
+    public static int windowLength = 1000000;
+    public static int iterations = 5;
+
+    public static void main(String[] args) throws InterruptedException, CannotRestoreSiddhiAppStateException {
+        boolean java = args.length > 0 && "java".equals(args[0]);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        if (java) {
+            siddhiManager.setStateSerializer(new JavaStateSerializer());
+        }
+
+        String siddhiApp = "" +
+                "define stream StockInputStream (symbol string, company string, price float, volume long); " +
+                "" +
+                "@PrimaryKey('symbol')" +
+                "define table StockTable (symbol string, company string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockInputStream#window.length(" + windowLength + ") " +
+                "select symbol, avg(price) as avgPrice, sum(volume) as totalVolume " +
+                "insert into OutputStream ;";
+
+        System.out.println("Taking snapshots of a table with " + numberOfEventsStored + " rows and a window of " +
+                windowLength + " events using " + (java ? "Java" : "binary") + " serialization");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < numberOfEventsStored; i++) {
+            stockInputHandler.send(new Object[]{"" + i, "company" + (i % 1000), i * 1.0f, (long) i});
+        }
+
+        System.out.println("Snapshot (ms)\tRestore (ms)\tSize (MB)");
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            byte[] snapshot = siddhiAppRuntime.snapshot();
+            long snapshotEnd = System.currentTimeMillis();
+            siddhiAppRuntime.restore(snapshot);
+            long restoreEnd = System.currentTimeMillis();
+            System.out.println((snapshotEnd - start) + "\t" + (restoreEnd - snapshotEnd) + "\t" +
+                    (snapshot.length / (1024 * 1024)));
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}
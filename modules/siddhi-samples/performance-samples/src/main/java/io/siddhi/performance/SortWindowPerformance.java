@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SortWindowPerformance {
+
+    public static int[] windowSizes = {100, 1000, 10000, 100000};
+    public static int eventsPerSize = 2000000;
+
+    public static void main(String[] args) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        Random random = new Random(1);
+
+        System.out.println("Window size\tEvents/s");
+        for (int windowSize : windowSizes) {
+            String siddhiApp = "" +
+                    "define stream StockInputStream (symbol string, price float, volume long); " +
+                    "" +
+                    "@info(name = 'query1') " +
+                    "from StockInputStream#window.sort(" + windowSize + ", price, 'asc', volume, 'desc') " +
+                    "select symbol, price, volume " +
+                    "insert all events into OutputStream ;";
+
+            SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+            LongAdder expiredEvents = new LongAdder();
+            siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    for (Event event : events) {
+                        if (event.isExpired()) {
+                            expiredEvents.increment();
+                        }
+                    }
+                }
+            });
+
+            InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+            siddhiAppRuntime.start();
+
+            long start = System.currentTimeMillis();
+            for (int i = 0; i < eventsPerSize; i++) {
+                stockInputHandler.send(new Object[]{"WSO2", random.nextInt(1000) / 10f,
+                        (long) random.nextInt(100)});
+            }
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println(windowSize + "\t" + (eventsPerSize * 1000L / timeSpent) + " (" +
+                    expiredEvents.sum() + " expired)");
+            siddhiAppRuntime.shutdown();
+        }
+        siddhiManager.shutdown();
+        System.exit(0);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2019, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.siddhi.performance;
+
+import io.siddhi.core.SiddhiAppRuntime;
+import io.siddhi.core.SiddhiManager;
+import io.siddhi.core.event.Event;
+import io.siddhi.core.stream.input.InputHandler;
+import io.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class TimerCoalescingPerformance {
+
+    public static int numberOfSymbols = 1000;
+    public static int iterations = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        String windowType = args.length > 0 ? args[0] : "time";
+        boolean coalescing = args.length > 1 && "coalescing".equals(args[1]);
+        String window;
+        switch (windowType) {
+            case "timeBatch":
+                window = "timeBatch(1 sec)";
+                break;
+            case "session":
+                window = "session(1 sec, symbol)";
+                break;
+            default:
+                window = "time(1 sec)";
+        }
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                (coalescing ? "@app:TimerCoalescing(tick='10') " : "") +
+                "define stream StockInputStream (symbol string, price float, volume long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream#window." + window + " " +
+                "select symbol, price, volume " +
+                "insert all events into OutputStream ;";
+
+        System.out.println("Running #window." + window + " " + (coalescing ? "with" : "without") +
+                " timer coalescing");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        LongAdder expiredEvents = new LongAdder();
+        LongAdder expiredChunks = new LongAdder();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                boolean expired = false;
+                for (Event event : events) {
+                    if (event.isExpired()) {
+                        expiredEvents.increment();
+                        expired = true;
+                    }
+                }
+                if (expired) {
+                    expiredChunks.increment();
+                }
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        siddhiAppRuntime.start();
+
+        System.out.println("Events/s\tExpired events/s\tExpired event chunks/s");
+        long count = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.currentTimeMillis();
+            long sent = 0;
+            expiredEvents.reset();
+            expiredChunks.reset();
+            while (System.currentTimeMillis() - start < 5000) {
+                stockInputHandler.send(new Object[]{"" + (count++ % numberOfSymbols), 55.6f, 100L});
+                sent++;
+            }
+            long timeSpent = System.currentTimeMillis() - start;
+            System.out.println((sent * 1000 / timeSpent) + "\t" + (expiredEvents.sum() * 1000 / timeSpent) + "\t" +
+                    (expiredChunks.sum() * 1000 / timeSpent));
+        }
+        siddhiAppRuntime.shutdown();
+        System.exit(0);
+    }
+}